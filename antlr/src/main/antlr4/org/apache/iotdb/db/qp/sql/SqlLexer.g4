@@ -629,7 +629,7 @@ TEXT
 // Encoding Type Keywords
 
 ENCODING_VALUE
-    : DICTIONARY | DIFF | GORILLA | PLAIN | REGULAR | RLE | TS_2DIFF | ZIGZAG | FREQ
+    : DICTIONARY | DIFF | GORILLA | PLAIN | REGULAR | RLE | TS_2DIFF | ZIGZAG | FREQ | CHIMP | ELF
     ;
 
 DICTIONARY
@@ -668,11 +668,19 @@ FREQ
     : F R E Q
     ;
 
+CHIMP
+    : C H I M P
+    ;
+
+ELF
+    : E L F
+    ;
+
 
 // Compressor Type Keywords
 
 COMPRESSOR_VALUE
-    : GZIP | LZ4 | SNAPPY | UNCOMPRESSED
+    : GZIP | LZ4 | SNAPPY | UNCOMPRESSED | ZSTD
     ;
 
 GZIP
@@ -691,6 +699,10 @@ UNCOMPRESSED
     : U N C O M P R E S S E D
     ;
 
+ZSTD
+    : Z S T D
+    ;
+
 
 // Privileges Keywords
 
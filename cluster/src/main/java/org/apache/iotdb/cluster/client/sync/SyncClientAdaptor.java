@@ -29,7 +29,9 @@ import org.apache.iotdb.cluster.rpc.thrift.CheckStatusResponse;
 import org.apache.iotdb.cluster.rpc.thrift.ExecutNonQueryReq;
 import org.apache.iotdb.cluster.rpc.thrift.GetAggrResultRequest;
 import org.apache.iotdb.cluster.rpc.thrift.GetAllPathsResult;
+import org.apache.iotdb.cluster.rpc.thrift.GetGroupedAggrResultRequest;
 import org.apache.iotdb.cluster.rpc.thrift.GroupByRequest;
+import org.apache.iotdb.cluster.rpc.thrift.GroupedGroupByRequest;
 import org.apache.iotdb.cluster.rpc.thrift.LastQueryRequest;
 import org.apache.iotdb.cluster.rpc.thrift.MeasurementSchemaRequest;
 import org.apache.iotdb.cluster.rpc.thrift.Node;
@@ -334,6 +336,25 @@ public class SyncClientAdaptor {
     return resultReference.get();
   }
 
+  public static List<ByteBuffer> getGroupedAggrResult(
+      AsyncDataClient client, GetGroupedAggrResultRequest request)
+      throws TException, InterruptedException {
+    AtomicReference<List<ByteBuffer>> resultReference = new AtomicReference<>();
+    GenericHandler<List<ByteBuffer>> handler =
+        new GenericHandler<>(client.getNode(), resultReference);
+
+    client.getGroupedAggrResult(request, handler);
+    synchronized (resultReference) {
+      if (resultReference.get() == null) {
+        resultReference.wait(ClusterConstant.getReadOperationTimeoutMS());
+      }
+    }
+    if (handler.getException() != null) {
+      throw new TException(handler.getException());
+    }
+    return resultReference.get();
+  }
+
   public static List<String> getUnregisteredMeasurements(
       AsyncDataClient client, RaftNode header, List<String> seriesPaths)
       throws TException, InterruptedException {
@@ -413,6 +434,16 @@ public class SyncClientAdaptor {
     return handler.getResult(ClusterConstant.getReadOperationTimeoutMS());
   }
 
+  public static Long getGroupedGroupByExecutor(
+      AsyncDataClient client, GroupedGroupByRequest request)
+      throws TException, InterruptedException {
+    AtomicReference<Long> result = new AtomicReference<>();
+    GenericHandler<Long> handler = new GenericHandler<>(client.getNode(), result);
+
+    client.getGroupedGroupByExecutor(request, handler);
+    return handler.getResult(ClusterConstant.getReadOperationTimeoutMS());
+  }
+
   public static ByteBuffer previousFill(AsyncDataClient client, PreviousFillRequest request)
       throws TException, InterruptedException {
     AtomicReference<ByteBuffer> resultRef = new AtomicReference<>();
@@ -136,6 +136,34 @@ public class ClusterConfig {
 
   private int pullSnapshotRetryIntervalMs = (int) TimeUnit.SECONDS.toMillis(5);
 
+  /** The number of files that are pulled concurrently when installing a FileSnapshot. */
+  private int pullSnapshotFileThreadNum = 4;
+
+  /** The size of each chunk that is fetched from the remote when pulling a file. */
+  private int pullSnapshotChunkSizeInByte = 64 * 1024;
+
+  /**
+   * The total throughput of pulling snapshot files of this node, 0 means no limit. Limit it so that
+   * a catch-up does not starve the foreground queries and writes.
+   */
+  private int pullSnapshotThroughputMbPerSec = 0;
+
+  /**
+   * The size budget of a response to fetching multiple series of a data group from a remote node.
+   * It is shared by the requested series and each series returns at least one batch, 0 means only
+   * one batch per series.
+   */
+  private int maxFetchMultSeriesSizeInByte = 4 * 1024 * 1024;
+
+  /**
+   * How long the coordinator waits to coalesce row insertions of concurrent requests that go to the
+   * same remote data group into one forwarded plan, 0 forwards each request on its own.
+   */
+  private int insertCoalesceWindowUs = 0;
+
+  /** The maximum number of rows coalesced into one forwarded plan. */
+  private int insertCoalesceMaxRows = 1024;
+
   /**
    * The maximum value of the raft log index stored in the memory per raft group, These indexes are
    * used to index the location of the log on the disk
@@ -190,6 +218,12 @@ public class ClusterConfig {
    */
   private long maxReadLogLag = 1000L;
 
+  /**
+   * When consistency level is set to bounded, a follower serves a query locally only if it has
+   * received a heartbeat or log from the leader within max_read_staleness_ms.
+   */
+  private long maxReadStalenessMs = 1000L;
+
   /**
    * When a follower tries to sync log with the leader, sync will fail if the log Lag exceeds
    * maxSyncLogLag.
@@ -430,7 +464,7 @@ public class ClusterConfig {
     return flushRaftLogThreshold;
   }
 
-  void setFlushRaftLogThreshold(int flushRaftLogThreshold) {
+  public void setFlushRaftLogThreshold(int flushRaftLogThreshold) {
     this.flushRaftLogThreshold = flushRaftLogThreshold;
   }
 
@@ -450,6 +484,54 @@ public class ClusterConfig {
     this.pullSnapshotRetryIntervalMs = pullSnapshotRetryIntervalMs;
   }
 
+  public int getPullSnapshotFileThreadNum() {
+    return pullSnapshotFileThreadNum;
+  }
+
+  public void setPullSnapshotFileThreadNum(int pullSnapshotFileThreadNum) {
+    this.pullSnapshotFileThreadNum = pullSnapshotFileThreadNum;
+  }
+
+  public int getPullSnapshotChunkSizeInByte() {
+    return pullSnapshotChunkSizeInByte;
+  }
+
+  public void setPullSnapshotChunkSizeInByte(int pullSnapshotChunkSizeInByte) {
+    this.pullSnapshotChunkSizeInByte = pullSnapshotChunkSizeInByte;
+  }
+
+  public int getPullSnapshotThroughputMbPerSec() {
+    return pullSnapshotThroughputMbPerSec;
+  }
+
+  public void setPullSnapshotThroughputMbPerSec(int pullSnapshotThroughputMbPerSec) {
+    this.pullSnapshotThroughputMbPerSec = pullSnapshotThroughputMbPerSec;
+  }
+
+  public int getMaxFetchMultSeriesSizeInByte() {
+    return maxFetchMultSeriesSizeInByte;
+  }
+
+  public void setMaxFetchMultSeriesSizeInByte(int maxFetchMultSeriesSizeInByte) {
+    this.maxFetchMultSeriesSizeInByte = maxFetchMultSeriesSizeInByte;
+  }
+
+  public int getInsertCoalesceWindowUs() {
+    return insertCoalesceWindowUs;
+  }
+
+  public void setInsertCoalesceWindowUs(int insertCoalesceWindowUs) {
+    this.insertCoalesceWindowUs = insertCoalesceWindowUs;
+  }
+
+  public int getInsertCoalesceMaxRows() {
+    return insertCoalesceMaxRows;
+  }
+
+  public void setInsertCoalesceMaxRows(int insertCoalesceMaxRows) {
+    this.insertCoalesceMaxRows = insertCoalesceMaxRows;
+  }
+
   public int getMaxRaftLogIndexSizeInMemory() {
     return maxRaftLogIndexSizeInMemory;
   }
@@ -526,6 +608,14 @@ public class ClusterConfig {
     this.maxReadLogLag = maxReadLogLag;
   }
 
+  public long getMaxReadStalenessMs() {
+    return maxReadStalenessMs;
+  }
+
+  public void setMaxReadStalenessMs(long maxReadStalenessMs) {
+    this.maxReadStalenessMs = maxReadStalenessMs;
+  }
+
   public long getMaxSyncLogLag() {
     return maxSyncLogLag;
   }
@@ -258,6 +258,40 @@ public class ClusterDescriptor {
             properties.getProperty(
                 "flush_raft_log_threshold", String.valueOf(config.getFlushRaftLogThreshold()))));
 
+    config.setPullSnapshotFileThreadNum(
+        Integer.parseInt(
+            properties.getProperty(
+                "pull_snapshot_file_thread_num",
+                String.valueOf(config.getPullSnapshotFileThreadNum()))));
+
+    config.setPullSnapshotChunkSizeInByte(
+        Integer.parseInt(
+            properties.getProperty(
+                "pull_snapshot_chunk_size_in_byte",
+                String.valueOf(config.getPullSnapshotChunkSizeInByte()))));
+
+    config.setPullSnapshotThroughputMbPerSec(
+        Integer.parseInt(
+            properties.getProperty(
+                "pull_snapshot_throughput_mb_per_sec",
+                String.valueOf(config.getPullSnapshotThroughputMbPerSec()))));
+
+    config.setMaxFetchMultSeriesSizeInByte(
+        Integer.parseInt(
+            properties.getProperty(
+                "max_fetch_mult_series_size_in_byte",
+                String.valueOf(config.getMaxFetchMultSeriesSizeInByte()))));
+
+    config.setInsertCoalesceWindowUs(
+        Integer.parseInt(
+            properties.getProperty(
+                "insert_coalesce_window_us", String.valueOf(config.getInsertCoalesceWindowUs()))));
+
+    config.setInsertCoalesceMaxRows(
+        Integer.parseInt(
+            properties.getProperty(
+                "insert_coalesce_max_rows", String.valueOf(config.getInsertCoalesceMaxRows()))));
+
     config.setRaftLogBufferSize(
         Integer.parseInt(
             properties.getProperty(
@@ -315,6 +349,11 @@ public class ClusterDescriptor {
         Long.parseLong(
             properties.getProperty("max_read_log_lag", String.valueOf(config.getMaxReadLogLag()))));
 
+    config.setMaxReadStalenessMs(
+        Long.parseLong(
+            properties.getProperty(
+                "max_read_staleness_ms", String.valueOf(config.getMaxReadStalenessMs()))));
+
     config.setMaxSyncLogLag(
         Long.parseLong(
             properties.getProperty("max_sync_log_lag", String.valueOf(config.getMaxSyncLogLag()))));
@@ -36,6 +36,13 @@ public enum ConsistencyLevel {
 
   /** weak consistency do not synchronize with the leader and simply use the local data */
   WEAK_CONSISTENCY("weak"),
+
+  /**
+   * bounded staleness means the server will use the local data without contacting the leader if it
+   * has heard from the leader within max_read_staleness_ms and its applied log lags behind its
+   * commit index by no more than max_read_log_lag, otherwise it falls back to mid consistency;
+   */
+  BOUNDED_STALENESS("bounded"),
   ;
 
   private String consistencyLevelName;
@@ -56,6 +63,8 @@ public enum ConsistencyLevel {
         return ConsistencyLevel.MID_CONSISTENCY;
       case "weak":
         return ConsistencyLevel.WEAK_CONSISTENCY;
+      case "bounded":
+        return ConsistencyLevel.BOUNDED_STALENESS;
       default:
         logger.warn(
             "Unsupported consistency level={}, use default consistency level={}",
@@ -70,8 +70,10 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CountDownLatch;
 
@@ -87,6 +89,12 @@ public class Coordinator {
   /** router calculates the partition groups that a partitioned plan should be sent to */
   private ClusterPlanRouter router;
 
+  private final InsertCoalescer insertCoalescer =
+      new InsertCoalescer(
+          ClusterDescriptor.getInstance().getConfig().getInsertCoalesceWindowUs(),
+          ClusterDescriptor.getInstance().getConfig().getInsertCoalesceMaxRows(),
+          (plan, group) -> forwardPlan(plan, group));
+
   private static final String MSG_MULTIPLE_ERROR =
       "The following errors occurred when executing "
           + "the query, please retry or contact the DBA: ";
@@ -495,7 +503,12 @@ public class Coordinator {
               .getOperationStartTime();
       logger.debug(
           "Forward {} to a remote group of {}", entry.getKey(), entry.getValue().getHeader());
-      result = forwardPlan(entry.getKey(), entry.getValue());
+      if (insertCoalescer.canCoalesce(entry.getKey())) {
+        // small insertions of concurrent requests to the same group share one forwarded plan
+        result = insertCoalescer.forward(entry.getKey(), entry.getValue());
+      } else {
+        result = forwardPlan(entry.getKey(), entry.getValue());
+      }
       Timer.Statistic.META_GROUP_MEMBER_EXECUTE_NON_QUERY_IN_REMOTE_GROUP
           .calOperationCostTimeFromStart(startTime);
     }
@@ -558,9 +571,19 @@ public class Coordinator {
     boolean isBatchFailure = false;
     boolean isBatchRedirect = false;
     int totalRowNum = parentPlan.getPaths().size();
+    // submit the coalescable sub-plans first so that they wait for the same window
+    Map<PhysicalPlan, CompletableFuture<TSStatus>> coalescedStatus = new IdentityHashMap<>();
+    for (Map.Entry<PhysicalPlan, PartitionGroup> entry : planGroupMap.entrySet()) {
+      if (!entry.getValue().contains(thisNode) && insertCoalescer.canCoalesce(entry.getKey())) {
+        coalescedStatus.put(
+            entry.getKey(), insertCoalescer.submit(entry.getKey(), entry.getValue()));
+      }
+    }
     // send sub-plans to each belonging data group and collect results
     for (Map.Entry<PhysicalPlan, PartitionGroup> entry : planGroupMap.entrySet()) {
-      tmpStatus = forwardToSingleGroup(entry);
+      CompletableFuture<TSStatus> future = coalescedStatus.get(entry.getKey());
+      tmpStatus =
+          future != null ? InsertCoalescer.waitForStatus(future) : forwardToSingleGroup(entry);
       logger.debug("{}: from {},{},{}", name, entry.getKey(), entry.getValue(), tmpStatus);
       noFailure = (tmpStatus.getCode() == TSStatusCode.SUCCESS_STATUS.getStatusCode()) && noFailure;
       isBatchFailure =
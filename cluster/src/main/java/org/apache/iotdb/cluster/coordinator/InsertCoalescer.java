@@ -0,0 +1,202 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.cluster.coordinator;
+
+import org.apache.iotdb.cluster.partition.PartitionGroup;
+import org.apache.iotdb.cluster.utils.StatusUtils;
+import org.apache.iotdb.commons.concurrent.IoTDBThreadPoolFactory;
+import org.apache.iotdb.db.qp.physical.PhysicalPlan;
+import org.apache.iotdb.db.qp.physical.crud.InsertRowPlan;
+import org.apache.iotdb.db.qp.physical.crud.InsertRowsPlan;
+import org.apache.iotdb.rpc.RpcUtils;
+import org.apache.iotdb.rpc.TSStatusCode;
+import org.apache.iotdb.service.rpc.thrift.TSStatus;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+
+/**
+ * Coalesces the row insertions of concurrent client requests that are forwarded to the same remote
+ * data group into one InsertRowsPlan, so that many small insertRecord(s) calls cost one inter-node
+ * RPC and one raft log instead of one each.
+ *
+ * <p>The first request for a group opens a batch that is forwarded when the coalescing window
+ * ends. Requests for the same group arriving within the window join the batch. Every request gets
+ * back the part of the status that covers its own rows, shaped as if it had been forwarded alone.
+ */
+public class InsertCoalescer {
+
+  private static final Logger logger = LoggerFactory.getLogger(InsertCoalescer.class);
+
+  private final long windowNanos;
+  private final int maxRows;
+  private final BiFunction<PhysicalPlan, PartitionGroup, TSStatus> forwarder;
+
+  /** forwards the closed batches, null if coalescing is disabled */
+  private final ScheduledExecutorService forwardPool;
+
+  /** the batch of each group that still accepts rows, guarded by itself */
+  private final Map<PartitionGroup, Batch> openBatches = new HashMap<>();
+
+  /**
+   * @param windowUs how long a batch accepts rows, 0 disables coalescing
+   * @param maxRows a batch stops accepting rows once it holds so many rows
+   * @param forwarder sends a plan to a remote data group and waits for its status
+   */
+  public InsertCoalescer(
+      long windowUs, int maxRows, BiFunction<PhysicalPlan, PartitionGroup, TSStatus> forwarder) {
+    this.windowNanos = TimeUnit.MICROSECONDS.toNanos(windowUs);
+    this.maxRows = maxRows;
+    this.forwarder = forwarder;
+    this.forwardPool =
+        windowNanos > 0
+            ? IoTDBThreadPoolFactory.newScheduledThreadPoolWithDaemon(
+                Runtime.getRuntime().availableProcessors(), "InsertCoalescer")
+            : null;
+  }
+
+  public boolean canCoalesce(PhysicalPlan plan) {
+    return forwardPool != null
+        && (plan instanceof InsertRowPlan || plan instanceof InsertRowsPlan);
+  }
+
+  /**
+   * Forward the plan to the group, possibly together with the plans of other requests, and wait
+   * for its status.
+   *
+   * @param plan an InsertRowPlan or InsertRowsPlan
+   * @return the status of the plan as if it was forwarded alone
+   */
+  public TSStatus forward(PhysicalPlan plan, PartitionGroup group) {
+    return waitForStatus(submit(plan, group));
+  }
+
+  /**
+   * Add the plan to the open batch of the group without waiting, so that the sub-plans of one
+   * request to several groups share the same window.
+   *
+   * @param plan an InsertRowPlan or InsertRowsPlan
+   * @return the status of the plan as if it was forwarded alone
+   */
+  public CompletableFuture<TSStatus> submit(PhysicalPlan plan, PartitionGroup group) {
+    List<InsertRowPlan> rows =
+        plan instanceof InsertRowPlan
+            ? Collections.singletonList((InsertRowPlan) plan)
+            : ((InsertRowsPlan) plan).getInsertRowPlanList();
+
+    Batch batch;
+    int offset;
+    boolean isOpener = false;
+    synchronized (openBatches) {
+      batch = openBatches.get(group);
+      if (batch == null || batch.rows.size() + rows.size() > maxRows) {
+        batch = new Batch();
+        openBatches.put(group, batch);
+        isOpener = true;
+      }
+      offset = batch.rows.size();
+      batch.rows.addAll(rows);
+      if (batch.rows.size() >= maxRows) {
+        // full, later requests start a new batch
+        openBatches.remove(group, batch);
+      }
+    }
+
+    if (isOpener) {
+      Batch openedBatch = batch;
+      forwardPool.schedule(
+          () -> forwardBatch(openedBatch, group), windowNanos, TimeUnit.NANOSECONDS);
+    }
+    boolean isSingleRow = plan instanceof InsertRowPlan;
+    return batch.result.thenApply(
+        status -> extractStatus(status, offset, rows.size(), isSingleRow));
+  }
+
+  public static TSStatus waitForStatus(CompletableFuture<TSStatus> future) {
+    try {
+      return future.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return StatusUtils.getStatus(StatusUtils.EXECUTE_STATEMENT_ERROR, e.getMessage());
+    } catch (ExecutionException e) {
+      return StatusUtils.getStatus(StatusUtils.EXECUTE_STATEMENT_ERROR, e.getMessage());
+    }
+  }
+
+  private void forwardBatch(Batch batch, PartitionGroup group) {
+    synchronized (openBatches) {
+      // no more rows can join once the batch is removed
+      openBatches.remove(group, batch);
+    }
+    InsertRowsPlan mergedPlan = new InsertRowsPlan();
+    for (int i = 0; i < batch.rows.size(); i++) {
+      mergedPlan.addOneInsertRowPlan(batch.rows.get(i), i);
+    }
+    logger.debug("Forward {} coalesced rows to {}", batch.rows.size(), group.getHeader());
+    try {
+      batch.result.complete(forwarder.apply(mergedPlan, group));
+    } catch (Exception e) {
+      batch.result.completeExceptionally(e);
+    }
+  }
+
+  /** Cut the status of the rows [offset, offset + rowNum) out of the status of a merged plan. */
+  private TSStatus extractStatus(
+      TSStatus mergedStatus, int offset, int rowNum, boolean isSingleRow) {
+    List<TSStatus> subStatus = mergedStatus.getSubStatus();
+    if (mergedStatus.getCode() != TSStatusCode.MULTIPLE_ERROR.getStatusCode()
+        || subStatus == null
+        || subStatus.size() < offset + rowNum) {
+      return mergedStatus.deepCopy();
+    }
+
+    List<TSStatus> rowStatus = subStatus.subList(offset, offset + rowNum);
+    TSStatus status;
+    if (isSingleRow) {
+      status = rowStatus.get(0).deepCopy();
+    } else if (rowStatus.stream()
+        .allMatch(s -> s.getCode() == TSStatusCode.SUCCESS_STATUS.getStatusCode())) {
+      status = StatusUtils.OK.deepCopy();
+    } else {
+      status = RpcUtils.getStatus(new ArrayList<>(rowStatus));
+    }
+    if (mergedStatus.isSetRedirectNode() && !status.isSetRedirectNode()) {
+      status.setRedirectNode(mergedStatus.getRedirectNode());
+    }
+    return status;
+  }
+
+  private static class Batch {
+
+    // only modified under openBatches before the batch is forwarded
+    private final List<InsertRowPlan> rows = new ArrayList<>();
+    private final CompletableFuture<TSStatus> result = new CompletableFuture<>();
+  }
+}
@@ -36,6 +36,15 @@ public interface StableEntryManager {
 
   void forceFlushLogBuffer();
 
+  /**
+   * Block until the appended logs up to logIndex are forced to the disk, unless at most
+   * flush_raft_log_threshold logs would be lost on a crash. Concurrent callers share one force of
+   * all the logs appended so far.
+   *
+   * @param logIndex the index of the last log that the caller needs to be durable
+   */
+  void waitForPersistence(long logIndex) throws IOException;
+
   void removeCompactedEntries(long index);
 
   void setHardStateAndFlush(HardState state);
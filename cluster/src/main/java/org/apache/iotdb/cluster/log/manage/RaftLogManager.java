@@ -661,6 +661,25 @@ public abstract class RaftLogManager {
     }
   }
 
+  /**
+   * Wait until the committed logs up to logIndex are persisted as flush_raft_log_threshold
+   * requires. It should be called out of the lock of the log manager, so that the commits waiting
+   * at the same time share one force of the raft log files.
+   *
+   * @param logIndex the index of the last log that the caller has committed
+   */
+  public void waitForPersistence(long logIndex) throws LogExecutionException {
+    if (!ClusterDescriptor.getInstance().getConfig().isEnableRaftLogPersistence()) {
+      return;
+    }
+    try {
+      getStableEntryManager().waitForPersistence(logIndex);
+    } catch (IOException e) {
+      logger.error("{}: persistent raft log error:", name, e);
+      throw new LogExecutionException(e);
+    }
+  }
+
   /**
    * Returns whether the index and term passed in match.
    *
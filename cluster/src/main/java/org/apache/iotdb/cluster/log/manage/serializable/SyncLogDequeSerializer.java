@@ -45,9 +45,12 @@ import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.nio.BufferOverflowException;
 import java.nio.ByteBuffer;
 import java.nio.channels.ClosedByInterruptException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
@@ -151,6 +154,24 @@ public class SyncLogDequeSerializer implements StableEntryManager {
 
   private volatile boolean isClosed = false;
 
+  private final int flushRaftLogThreshold =
+      ClusterDescriptor.getInstance().getConfig().getFlushRaftLogThreshold();
+
+  /** the index of the last log put into the buffers */
+  private volatile long lastAppendedLogIndex = -1;
+
+  /**
+   * guards lastPersistedLogIndex and forcing, the callers of waitForPersistence wait on it while
+   * another caller is forcing the files, so that concurrent commits share one force
+   */
+  private final Object persistCondition = new Object();
+
+  /** whether a caller of waitForPersistence is forcing the files */
+  private boolean forcing = false;
+
+  /** the index of the last log that has been forced to the disk */
+  private long lastPersistedLogIndex = -1;
+
   private void initCommonProperties() {
     this.logDataFileList = new ArrayList<>();
     this.logIndexFileList = new ArrayList<>();
@@ -272,6 +293,7 @@ public class SyncLogDequeSerializer implements StableEntryManager {
       meta.setLastLogIndex(entry.getCurrLogIndex());
       meta.setLastLogTerm(entry.getCurrLogTerm());
       meta.setMaxHaveAppliedCommitIndex(maxHaveAppliedCommitIndex);
+      lastAppendedLogIndex = entry.getCurrLogIndex();
       logger.debug(
           "maxHaveAppliedCommitIndex={}, commitLogIndex={},lastLogIndex={}",
           maxHaveAppliedCommitIndex,
@@ -334,6 +356,8 @@ public class SyncLogDequeSerializer implements StableEntryManager {
 
   private void closeCurrentFile(long commitIndex) throws IOException {
     if (currentLogDataOutputStream != null) {
+      // a concurrent waitForPersistence can no longer force the file once it is closed
+      currentLogDataOutputStream.getChannel().force(false);
       currentLogDataOutputStream.close();
       logger.info("{}: Closed a log data file {}", this, getCurrentLogDataFile());
       currentLogDataOutputStream = null;
@@ -361,6 +385,7 @@ public class SyncLogDequeSerializer implements StableEntryManager {
     }
 
     if (currentLogIndexOutputStream != null) {
+      currentLogIndexOutputStream.getChannel().force(false);
       currentLogIndexOutputStream.close();
       logger.info("{}: Closed a log index file {}", this, getCurrentLogIndexFile());
       currentLogIndexOutputStream = null;
@@ -396,13 +421,8 @@ public class SyncLogDequeSerializer implements StableEntryManager {
     try {
       // write into disk
       try {
-        checkStream();
-        // 1. write to the log data file
-        ReadWriteIOUtils.writeWithoutSize(
-            logDataBuffer, 0, logDataBuffer.position(), currentLogDataOutputStream);
-        ReadWriteIOUtils.writeWithoutSize(
-            logIndexBuffer, 0, logIndexBuffer.position(), currentLogIndexOutputStream);
-        if (ClusterDescriptor.getInstance().getConfig().getFlushRaftLogThreshold() == 0) {
+        writeLogBuffer();
+        if (flushRaftLogThreshold == 0) {
           currentLogDataOutputStream.getChannel().force(true);
           currentLogIndexOutputStream.getChannel().force(true);
         }
@@ -410,14 +430,101 @@ public class SyncLogDequeSerializer implements StableEntryManager {
         logger.error("Error in logs serialization: ", e);
         return;
       }
-      logDataBuffer.clear();
-      logIndexBuffer.clear();
       logger.debug("End flushing log buffer.");
     } finally {
       lock.unlock();
     }
   }
 
+  /** write the buffered logs into the current files and clear the buffers, with the lock held */
+  private void writeLogBuffer() throws IOException {
+    if (logDataBuffer.position() == 0) {
+      return;
+    }
+    checkStream();
+    // 1. write to the log data file
+    ReadWriteIOUtils.writeWithoutSize(
+        logDataBuffer, 0, logDataBuffer.position(), currentLogDataOutputStream);
+    ReadWriteIOUtils.writeWithoutSize(
+        logIndexBuffer, 0, logIndexBuffer.position(), currentLogIndexOutputStream);
+    logDataBuffer.clear();
+    logIndexBuffer.clear();
+  }
+
+  @Override
+  public void waitForPersistence(long logIndex) throws IOException {
+    long targetLogIndex = Math.min(logIndex, lastAppendedLogIndex);
+    while (true) {
+      synchronized (persistCondition) {
+        if (targetLogIndex - lastPersistedLogIndex <= flushRaftLogThreshold) {
+          return;
+        }
+        if (forcing) {
+          // the running force may cover the log, otherwise the next one will
+          try {
+            persistCondition.wait();
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted when waiting for raft log persistence");
+          }
+          continue;
+        }
+        forcing = true;
+      }
+
+      long persistedLogIndex = -1;
+      try {
+        persistedLogIndex = forceAppendedLogs();
+      } finally {
+        synchronized (persistCondition) {
+          forcing = false;
+          lastPersistedLogIndex = Math.max(lastPersistedLogIndex, persistedLogIndex);
+          persistCondition.notifyAll();
+        }
+      }
+    }
+  }
+
+  /**
+   * Write all the appended logs into the current files and force them once. Only the write happens
+   * under the lock, so appends can proceed while the disk is being forced, and the logs appended
+   * meanwhile are left to the next force.
+   *
+   * @return the index of the last log that has been forced
+   */
+  private long forceAppendedLogs() throws IOException {
+    long targetLogIndex;
+    FileChannel dataChannel;
+    FileChannel indexChannel;
+    lock.lock();
+    try {
+      targetLogIndex = lastAppendedLogIndex;
+      if (isClosed) {
+        // the logs have been forced when closing
+        return targetLogIndex;
+      }
+      writeLogBuffer();
+      if (currentLogDataOutputStream == null) {
+        return targetLogIndex;
+      }
+      dataChannel = currentLogDataOutputStream.getChannel();
+      indexChannel = currentLogIndexOutputStream.getChannel();
+    } finally {
+      lock.unlock();
+    }
+
+    try {
+      // the files are append-only, so forcing the content also makes the new file sizes durable
+      dataChannel.force(false);
+      indexChannel.force(false);
+    } catch (ClosedByInterruptException e) {
+      throw new InterruptedIOException("Interrupted when forcing raft logs");
+    } catch (ClosedChannelException e) {
+      // the files have been forced before they were closed by a roll or a clear
+    }
+    return targetLogIndex;
+  }
+
   private void forceFlushLogBufferWithoutCloseFile() {
     if (isClosed) {
       return;
@@ -1395,6 +1502,13 @@ public class SyncLogDequeSerializer implements StableEntryManager {
     this.maxNumberOfPersistRaftLogFiles = maxNumberOfPersistRaftLogFiles;
   }
 
+  @TestOnly
+  public long getLastPersistedLogIndex() {
+    synchronized (persistCondition) {
+      return lastPersistedLogIndex;
+    }
+  }
+
   @TestOnly
   public List<File> getLogDataFileList() {
     return logDataFileList;
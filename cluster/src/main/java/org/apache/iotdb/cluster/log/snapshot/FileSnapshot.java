@@ -33,6 +33,7 @@ import org.apache.iotdb.cluster.rpc.thrift.Node;
 import org.apache.iotdb.cluster.server.handlers.caller.GenericHandler;
 import org.apache.iotdb.cluster.server.member.DataGroupMember;
 import org.apache.iotdb.cluster.server.member.RaftMember;
+import org.apache.iotdb.commons.concurrent.IoTDBThreadPoolFactory;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.engine.StorageEngine;
 import org.apache.iotdb.db.engine.modification.ModificationFile;
@@ -46,6 +47,7 @@ import org.apache.iotdb.tsfile.utils.FilePathUtils;
 import org.apache.iotdb.tsfile.utils.Pair;
 import org.apache.iotdb.tsfile.write.schema.TimeseriesSchema;
 
+import com.google.common.util.concurrent.RateLimiter;
 import org.apache.thrift.TException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -65,6 +67,9 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 /**
  * FileSnapshot records the data files in a slot and their md5 (or other verification). When the
@@ -181,6 +186,15 @@ public class FileSnapshot extends Snapshot implements TimeseriesSchemaSnapshot {
     private static final String REMOTE_FILE_TEMP_DIR =
         IoTDBDescriptor.getInstance().getConfig().getSystemDir() + File.separator + "remote";
 
+    /** shared by all installers, null if the throughput is not limited */
+    private static final RateLimiter PULL_FILE_RATE_LIMITER =
+        ClusterDescriptor.getInstance().getConfig().getPullSnapshotThroughputMbPerSec() > 0
+            ? RateLimiter.create(
+                ClusterDescriptor.getInstance().getConfig().getPullSnapshotThroughputMbPerSec()
+                    * 1024.0
+                    * 1024.0)
+            : null;
+
     private static final Logger logger = LoggerFactory.getLogger(Installer.class);
     private DataGroupMember dataGroupMember;
     private SlotManager slotManager;
@@ -270,31 +284,54 @@ public class FileSnapshot extends Snapshot implements TimeseriesSchemaSnapshot {
     private void installFileSnapshotFiles(FileSnapshot snapshot, int slot, boolean isDataMigration)
         throws PullFileException {
       List<RemoteTsFileResource> remoteTsFileResources = snapshot.getDataFiles();
-      // pull file
-      for (int i = 0, remoteTsFileResourcesSize = remoteTsFileResources.size();
-          i < remoteTsFileResourcesSize;
-          i++) {
-        RemoteTsFileResource resource = remoteTsFileResources.get(i);
-        logger.info(
-            "Pulling {}/{} files, current: {}", i + 1, remoteTsFileResources.size(), resource);
-        try {
+      // files are downloaded concurrently ahead of time, but loaded in their original order
+      List<Future<File>> pullFutures = new ArrayList<>(remoteTsFileResources.size());
+      ExecutorService pullFilePool = null;
+      int pullFileThreadNum =
+          Math.min(
+              ClusterDescriptor.getInstance().getConfig().getPullSnapshotFileThreadNum(),
+              remoteTsFileResources.size());
+      if (pullFileThreadNum > 1) {
+        pullFilePool =
+            IoTDBThreadPoolFactory.newFixedThreadPool(pullFileThreadNum, name + "-PullFile");
+      }
+      try {
+        for (RemoteTsFileResource resource : remoteTsFileResources) {
+          pullFutures.add(
+              pullFilePool != null && needPull(resource, isDataMigration)
+                  ? pullFilePool.submit(() -> pullRemoteFile(resource, resource.getSource()))
+                  : null);
+        }
+
+        for (int i = 0, remoteTsFileResourcesSize = remoteTsFileResources.size();
+            i < remoteTsFileResourcesSize;
+            i++) {
+          RemoteTsFileResource resource = remoteTsFileResources.get(i);
+          logger.info(
+              "Pulling {}/{} files, current: {}", i + 1, remoteTsFileResources.size(), resource);
           if (isDataMigration) {
             // This means that the minimum plan index and maximum plan index of some files are the
             // same,
             // so the logic of judging index coincidence needs to remove the case of equal
             resource.setMinPlanIndex(dataGroupMember.getLogManager().getLastLogIndex());
             resource.setMaxPlanIndex(dataGroupMember.getLogManager().getLastLogIndex());
-            loadRemoteFile(resource);
+          }
+          // a file loaded before may already cover this one, so check it again before loading
+          if (needPull(resource, isDataMigration)) {
+            loadRemoteFile(resource, pullFutures.get(i));
           } else {
-            if (!isFileAlreadyPulled(resource)) {
-              loadRemoteFile(resource);
+            if (pullFutures.get(i) != null) {
+              // the hardlink has been removed by the remote when the file is exhausted
+              discardPulledFile(resource, pullFutures.get(i));
             } else {
               // notify the snapshot provider to remove the hardlink
               removeRemoteHardLink(resource);
             }
           }
-        } catch (IllegalPathException e) {
-          throw new PullFileException(resource.getTsFilePath(), resource.getSource(), e);
+        }
+      } finally {
+        if (pullFilePool != null) {
+          pullFilePool.shutdownNow();
         }
       }
 
@@ -303,6 +340,37 @@ public class FileSnapshot extends Snapshot implements TimeseriesSchemaSnapshot {
       logger.info("{}: slot {} is ready", name, slot);
     }
 
+    private boolean needPull(RemoteTsFileResource resource, boolean isDataMigration)
+        throws PullFileException {
+      try {
+        return isDataMigration || !isFileAlreadyPulled(resource);
+      } catch (IllegalPathException e) {
+        throw new PullFileException(resource.getTsFilePath(), resource.getSource(), e);
+      }
+    }
+
+    private void discardPulledFile(RemoteTsFileResource resource, Future<File> pullFuture) {
+      File tempFile;
+      try {
+        tempFile = pullFuture.get();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      } catch (ExecutionException e) {
+        logger.warn("{}: Cannot pull an unneeded file {}", name, resource, e);
+        return;
+      }
+      if (tempFile != null) {
+        try {
+          Files.deleteIfExists(tempFile.toPath());
+          Files.deleteIfExists(
+              new File(tempFile.getPath() + ModificationFile.FILE_SUFFIX).toPath());
+        } catch (IOException e) {
+          logger.warn("{}: Cannot delete an unneeded pulled file {}", name, tempFile, e);
+        }
+      }
+    }
+
     /**
      * Check if the file "resource" is a duplication of some local files. As all data file close is
      * controlled by the data group leader, the files with the same version should contain identical
@@ -367,14 +435,19 @@ public class FileSnapshot extends Snapshot implements TimeseriesSchemaSnapshot {
      * from the header currently.
      *
      * @param resource
+     * @param pullFuture the file being pulled in advance, or null to pull the file now
      */
-    private void loadRemoteFile(RemoteTsFileResource resource) throws PullFileException {
+    private void loadRemoteFile(RemoteTsFileResource resource, Future<File> pullFuture)
+        throws PullFileException {
       Node sourceNode = resource.getSource();
       // pull the file to a temporary directory
       File tempFile;
       try {
-        tempFile = pullRemoteFile(resource, sourceNode);
-      } catch (IOException e) {
+        tempFile = pullFuture != null ? pullFuture.get() : pullRemoteFile(resource, sourceNode);
+      } catch (IOException | ExecutionException e) {
+        throw new PullFileException(resource.toString(), sourceNode, e);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
         throw new PullFileException(resource.toString(), sourceNode, e);
       }
       if (tempFile != null) {
@@ -468,8 +541,9 @@ public class FileSnapshot extends Snapshot implements TimeseriesSchemaSnapshot {
     }
 
     /**
-     * Download the file "remotePath" from "node" and store it to "dest" using up to 64KB chunks. If
-     * the network is bad, this method will retry upto 5 times before returning a failure.
+     * Download the file "remotePath" from "node" and store it to "dest" in chunks of
+     * pull_snapshot_chunk_size_in_byte. If the network is bad, this method will retry upto 5 times
+     * before returning a failure, and each retry resumes from the bytes that are already stored.
      *
      * @param remotePath the file to be downloaded
      * @param node where to download the file
@@ -480,12 +554,14 @@ public class FileSnapshot extends Snapshot implements TimeseriesSchemaSnapshot {
     private boolean pullRemoteFile(String remotePath, Node node, File dest) throws IOException {
       int pullFileRetry = 5;
       for (int i = 0; i < pullFileRetry; i++) {
+        // the remote removes the file only after it is exhausted, so a retry can resume
+        long offset = i == 0 ? 0 : dest.length();
         try (BufferedOutputStream bufferedOutputStream =
-            new BufferedOutputStream(new FileOutputStream(dest))) {
+            new BufferedOutputStream(new FileOutputStream(dest, offset > 0))) {
           if (ClusterDescriptor.getInstance().getConfig().isUseAsyncServer()) {
-            downloadFileAsync(node, remotePath, bufferedOutputStream);
+            downloadFileAsync(node, remotePath, offset, bufferedOutputStream);
           } else {
-            downloadFileSync(node, remotePath, bufferedOutputStream);
+            downloadFileSync(node, remotePath, offset, bufferedOutputStream);
           }
 
           if (logger.isInfoEnabled()) {
@@ -507,10 +583,7 @@ public class FileSnapshot extends Snapshot implements TimeseriesSchemaSnapshot {
         }
 
         try {
-          Files.delete(dest.toPath());
           Thread.sleep(PULL_FILE_RETRY_INTERVAL_MS);
-        } catch (IOException e) {
-          logger.warn("Cannot delete file when pulling {} from {} failed", remotePath, node);
         } catch (InterruptedException ex) {
           Thread.currentThread().interrupt();
           logger.warn("{}: Pulling file {} from {} interrupted", name, remotePath, node, ex);
@@ -521,11 +594,9 @@ public class FileSnapshot extends Snapshot implements TimeseriesSchemaSnapshot {
       return false;
     }
 
-    private void downloadFileAsync(Node node, String remotePath, OutputStream dest)
+    private void downloadFileAsync(Node node, String remotePath, long offset, OutputStream dest)
         throws IOException, TException, InterruptedException {
-      long offset = 0;
-      // TODO-Cluster: use elaborate downloading techniques
-      int fetchSize = 64 * 1024;
+      int fetchSize = ClusterDescriptor.getInstance().getConfig().getPullSnapshotChunkSizeInByte();
 
       while (true) {
         AsyncDataClient client = (AsyncDataClient) dataGroupMember.getAsyncClient(node);
@@ -538,11 +609,19 @@ public class FileSnapshot extends Snapshot implements TimeseriesSchemaSnapshot {
         if (len == 0) {
           break;
         }
+        acquirePullPermits(len);
         offset += len;
       }
       dest.flush();
     }
 
+    /** Throttle the pulling of all snapshot files of this node by the configured throughput. */
+    private static void acquirePullPermits(int bytes) {
+      if (PULL_FILE_RATE_LIMITER != null) {
+        PULL_FILE_RATE_LIMITER.acquire(bytes);
+      }
+    }
+
     private int writeBuffer(ByteBuffer buffer, OutputStream dest) throws IOException {
       if (buffer == null || buffer.limit() - buffer.position() == 0) {
         return 0;
@@ -558,16 +637,14 @@ public class FileSnapshot extends Snapshot implements TimeseriesSchemaSnapshot {
       return buffer.limit() - buffer.position();
     }
 
-    private void downloadFileSync(Node node, String remotePath, OutputStream dest)
-        throws IOException {
+    private void downloadFileSync(Node node, String remotePath, long offset, OutputStream dest)
+        throws IOException, TException {
       SyncDataClient client = (SyncDataClient) dataGroupMember.getSyncClient(node);
       if (client == null) {
         throw new IOException("No available client for " + node.toString());
       }
 
-      long offset = 0;
-      // TODO-Cluster: use elaborate downloading techniques
-      int fetchSize = 64 * 1024;
+      int fetchSize = ClusterDescriptor.getInstance().getConfig().getPullSnapshotChunkSizeInByte();
 
       try {
         while (true) {
@@ -576,10 +653,13 @@ public class FileSnapshot extends Snapshot implements TimeseriesSchemaSnapshot {
           if (len == 0) {
             break;
           }
+          acquirePullPermits(len);
           offset += len;
         }
       } catch (TException e) {
         client.close();
+        // let the caller retry instead of taking a partial file as a complete one
+        throw e;
       } finally {
         client.returnSelf();
       }
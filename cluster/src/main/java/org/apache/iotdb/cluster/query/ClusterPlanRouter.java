@@ -54,6 +54,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
@@ -278,18 +279,18 @@ public class ClusterPlanRouter {
       throws MetadataException {
     Map<PhysicalPlan, PartitionGroup> result = new HashMap<>();
     Map<PartitionGroup, InsertRowsPlan> groupPlanMap = new HashMap<>();
-    for (int i = 0; i < insertRowsPlan.getInsertRowPlanList().size(); i++) {
-      InsertRowPlan rowPlan = insertRowsPlan.getInsertRowPlanList().get(i);
-      PartialPath storageGroup = SchemaProcessor().getBelongedStorageGroup(rowPlan.getDevicePath());
-      PartitionGroup group = partitionTable.route(storageGroup.getFullPath(), rowPlan.getTime());
-      if (groupPlanMap.containsKey(group)) {
-        InsertRowsPlan tmpPlan = groupPlanMap.get(group);
-        tmpPlan.addOneInsertRowPlan(rowPlan, i);
-      } else {
-        InsertRowsPlan tmpPlan = new InsertRowsPlan();
-        tmpPlan.addOneInsertRowPlan(rowPlan, i);
-        groupPlanMap.put(group, tmpPlan);
-      }
+    List<InsertRowPlan> rowPlans = insertRowsPlan.getInsertRowPlanList();
+    PartialPath[] devices = new PartialPath[rowPlans.size()];
+    long[] times = new long[rowPlans.size()];
+    for (int i = 0; i < rowPlans.size(); i++) {
+      devices[i] = rowPlans.get(i).getDevicePath();
+      times[i] = rowPlans.get(i).getTime();
+    }
+    PartitionGroup[] groups = routeRows(devices, times);
+    for (int i = 0; i < rowPlans.size(); i++) {
+      groupPlanMap
+          .computeIfAbsent(groups[i], k -> new InsertRowsPlan())
+          .addOneInsertRowPlan(rowPlans.get(i), i);
     }
 
     for (Entry<PartitionGroup, InsertRowsPlan> entry : groupPlanMap.entrySet()) {
@@ -298,6 +299,38 @@ public class ClusterPlanRouter {
     return result;
   }
 
+  /**
+   * Route the rows of a batch in one pass. The storage group is resolved once per device, and the
+   * partition table, which is synchronized, is consulted once per storage group and time partition
+   * instead of once per row.
+   *
+   * @param devices the device of each row
+   * @param times the timestamp of each row
+   * @return the data group of each row
+   */
+  private PartitionGroup[] routeRows(PartialPath[] devices, long[] times)
+      throws MetadataException {
+    Map<PartialPath, String> deviceStorageGroups = new HashMap<>();
+    Map<String, Map<Long, PartitionGroup>> partitionGroups = new HashMap<>();
+    PartitionGroup[] groups = new PartitionGroup[times.length];
+    for (int i = 0; i < times.length; i++) {
+      String storageGroup = deviceStorageGroups.get(devices[i]);
+      if (storageGroup == null) {
+        storageGroup = SchemaProcessor().getBelongedStorageGroup(devices[i]).getFullPath();
+        deviceStorageGroups.put(devices[i], storageGroup);
+      }
+      String rowStorageGroup = storageGroup;
+      long time = times[i];
+      groups[i] =
+          partitionGroups
+              .computeIfAbsent(storageGroup, k -> new HashMap<>())
+              .computeIfAbsent(
+                  StorageEngine.getTimePartition(time),
+                  k -> partitionTable.route(rowStorageGroup, time));
+    }
+    return groups;
+  }
+
   @SuppressWarnings("SuspiciousSystemArraycopy")
   private Map<PhysicalPlan, PartitionGroup> splitAndRoutePlan(InsertTabletPlan plan)
       throws MetadataException {
@@ -482,15 +515,21 @@ public class ClusterPlanRouter {
     Map<PhysicalPlan, PartitionGroup> result = new HashMap<>();
     Map<PartitionGroup, List<InsertRowPlan>> groupPlanMap = new HashMap<>();
     Map<PartitionGroup, List<Integer>> groupPlanIndexMap = new HashMap<>();
-    PartialPath storageGroup = SchemaProcessor().getBelongedStorageGroup(plan.getDevicePath());
-    for (int i = 0; i < plan.getRowPlans().length; i++) {
-      InsertRowPlan p = plan.getRowPlans()[i];
-      PartitionGroup group = partitionTable.route(storageGroup.getFullPath(), p.getTime());
+    InsertRowPlan[] rowPlans = plan.getRowPlans();
+    PartialPath[] devices = new PartialPath[rowPlans.length];
+    Arrays.fill(devices, plan.getDevicePath());
+    long[] times = new long[rowPlans.length];
+    for (int i = 0; i < rowPlans.length; i++) {
+      times[i] = rowPlans[i].getTime();
+    }
+    PartitionGroup[] groups = routeRows(devices, times);
+    for (int i = 0; i < rowPlans.length; i++) {
+      PartitionGroup group = groups[i];
       List<InsertRowPlan> groupedPlans =
           groupPlanMap.computeIfAbsent(group, k -> new ArrayList<>());
       List<Integer> groupedPlanIndex =
           groupPlanIndexMap.computeIfAbsent(group, k -> new ArrayList<>());
-      groupedPlans.add(p);
+      groupedPlans.add(rowPlans[i]);
       groupedPlanIndex.add(plan.getRowPlanIndexList()[i]);
     }
 
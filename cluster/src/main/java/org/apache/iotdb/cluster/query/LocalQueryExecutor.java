@@ -19,6 +19,7 @@
 
 package org.apache.iotdb.cluster.query;
 
+import org.apache.iotdb.cluster.config.ClusterDescriptor;
 import org.apache.iotdb.cluster.exception.CheckConsistencyException;
 import org.apache.iotdb.cluster.exception.ReaderNotFoundException;
 import org.apache.iotdb.cluster.metadata.CSchemaProcessor;
@@ -26,11 +27,14 @@ import org.apache.iotdb.cluster.metadata.MetaPuller;
 import org.apache.iotdb.cluster.partition.PartitionGroup;
 import org.apache.iotdb.cluster.partition.slot.SlotPartitionTable;
 import org.apache.iotdb.cluster.query.filter.SlotTsFileFilter;
+import org.apache.iotdb.cluster.query.groupby.GroupedGroupByExecutor;
 import org.apache.iotdb.cluster.query.manage.ClusterQueryManager;
 import org.apache.iotdb.cluster.query.reader.ClusterReaderFactory;
 import org.apache.iotdb.cluster.query.reader.mult.IMultBatchReader;
 import org.apache.iotdb.cluster.rpc.thrift.GetAggrResultRequest;
+import org.apache.iotdb.cluster.rpc.thrift.GetGroupedAggrResultRequest;
 import org.apache.iotdb.cluster.rpc.thrift.GroupByRequest;
+import org.apache.iotdb.cluster.rpc.thrift.GroupedGroupByRequest;
 import org.apache.iotdb.cluster.rpc.thrift.LastQueryRequest;
 import org.apache.iotdb.cluster.rpc.thrift.MeasurementSchemaRequest;
 import org.apache.iotdb.cluster.rpc.thrift.MultSeriesQueryRequest;
@@ -89,9 +93,11 @@ import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
 
 import static org.apache.iotdb.cluster.utils.ClusterQueryUtils.getAssembledPathFromRequest;
 
@@ -178,26 +184,35 @@ public class LocalQueryExecutor {
     }
 
     Map<String, ByteBuffer> pathByteBuffers = Maps.newHashMap();
+    // several batches of a path are packed into one response until its share of the budget is
+    // used up, so fewer series get larger responses and more round trips are saved
+    int sizeBudgetPerPath =
+        ClusterDescriptor.getInstance().getConfig().getMaxFetchMultSeriesSizeInByte()
+            / Math.max(paths.size(), 1);
 
     for (String path : paths) {
-      ByteBuffer byteBuffer;
-      if (reader.hasNextBatch(path)) {
+      ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+      DataOutputStream dataOutputStream = new DataOutputStream(byteArrayOutputStream);
+      int batchNum = 0;
+      int pointNum = 0;
+      while (reader.hasNextBatch(path)
+          && (batchNum == 0 || byteArrayOutputStream.size() < sizeBudgetPerPath)) {
         BatchData batchData = reader.nextBatch(path);
-
-        ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
-        DataOutputStream dataOutputStream = new DataOutputStream(byteArrayOutputStream);
-
+        if (batchData.isEmpty()) {
+          // an empty batch means the end of the path to the requester
+          continue;
+        }
         SerializeUtils.serializeBatchData(batchData, dataOutputStream);
-        logger.debug(
-            "{}: Send results of reader {}, size:{}",
-            dataGroupMember.getName(),
-            readerId,
-            batchData.length());
-        byteBuffer = ByteBuffer.wrap(byteArrayOutputStream.toByteArray());
-      } else {
-        byteBuffer = ByteBuffer.allocate(0);
+        batchNum++;
+        pointNum += batchData.length();
       }
-      pathByteBuffers.put(path, byteBuffer);
+      logger.debug(
+          "{}: Send {} batches of reader {}, size:{}",
+          dataGroupMember.getName(),
+          batchNum,
+          readerId,
+          pointNum);
+      pathByteBuffers.put(path, ByteBuffer.wrap(byteArrayOutputStream.toByteArray()));
     }
     return pathByteBuffers;
   }
@@ -727,6 +742,161 @@ public class LocalQueryExecutor {
       throw new QueryProcessException(e.getMessage());
     }
 
+    List<Integer> nodeSlots =
+        ((SlotPartitionTable) dataGroupMember.getMetaGroupMember().getPartitionTable())
+            .getNodeSlots(dataGroupMember.getHeader());
+    return aggregateLocally(
+        aggregations, allSensors, dataType, path, timeFilter, context, ascending, nodeSlots);
+  }
+
+  /**
+   * Execute the aggregations over the given path and merge the partial results of the
+   * aggregations in the same level group, so that only one result per group is returned to the
+   * requester.
+   *
+   * @return one serialized AggregateResult for each group, or an empty buffer if the group has no
+   *     aggregation in this data group
+   */
+  public List<ByteBuffer> getGroupedAggrResult(GetGroupedAggrResultRequest request)
+      throws StorageEngineException, QueryProcessException, IOException {
+    logger.debug(
+        "{}: {} is querying {} series by grouped aggregation, queryId: {}",
+        name,
+        request.getRequestor(),
+        request.getPathsSize(),
+        request.getQueryId());
+
+    List<PartialPath> paths = new ArrayList<>(request.getPathsSize());
+    List<TSDataType> dataTypes = new ArrayList<>(request.getPathsSize());
+    for (int i = 0; i < request.getPathsSize(); i++) {
+      TSDataType dataType = TSDataType.values()[request.getDataTypeOrdinals().get(i)];
+      try {
+        paths.add(new MeasurementPath(request.getPaths().get(i), dataType));
+      } catch (IllegalPathException e) {
+        logger.error(
+            "{}: aggregation has error path: {}, queryId: {}",
+            name,
+            request.getPaths().get(i),
+            request.getQueryId());
+        throw new QueryProcessException(e);
+      }
+      dataTypes.add(dataType);
+    }
+    Filter timeFilter = null;
+    if (request.isSetTimeFilterBytes()) {
+      timeFilter = FilterFactory.deserialize(request.timeFilterBytes);
+    }
+    RemoteQueryContext queryContext =
+        queryManager.getQueryContext(request.getRequestor(), request.queryId);
+
+    AggregateResult[] results =
+        getGroupedAggrResult(
+            paths,
+            request.getAggregations(),
+            dataTypes,
+            request.getGroupIndexes(),
+            request.getGroupNum(),
+            request.getDeviceMeasurements(),
+            timeFilter,
+            queryContext,
+            request.isAscending());
+
+    List<ByteBuffer> resultBuffers = new ArrayList<>(results.length);
+    ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+    for (AggregateResult result : results) {
+      if (result == null) {
+        resultBuffers.add(ByteBuffer.allocate(0));
+        continue;
+      }
+      try {
+        result.serializeTo(byteArrayOutputStream);
+      } catch (IOException e) {
+        // ignore since we are using a ByteArrayOutputStream
+      }
+      resultBuffers.add(ByteBuffer.wrap(byteArrayOutputStream.toByteArray()));
+      byteArrayOutputStream.reset();
+    }
+    return resultBuffers;
+  }
+
+  /**
+   * Execute the aggregation of each entry over its path and merge the results of the entries with
+   * the same group index. This method currently requires strong consistency. Only data managed by
+   * this group will be used for aggregation.
+   *
+   * @param paths paths of the entries, a path may appear in several entries
+   * @param aggregations aggregation names in SQLConstant of the entries
+   * @param dataTypes data types of the paths of the entries
+   * @param groupIndexes the group in [0, groupNum) that each entry is merged into
+   * @param deviceMeasurements all queried measurements of each device
+   * @param timeFilter nullable
+   * @return the merged result of each group, null if no entry belongs to the group
+   */
+  public AggregateResult[] getGroupedAggrResult(
+      List<PartialPath> paths,
+      List<String> aggregations,
+      List<TSDataType> dataTypes,
+      List<Integer> groupIndexes,
+      int groupNum,
+      Map<String, Set<String>> deviceMeasurements,
+      Filter timeFilter,
+      QueryContext context,
+      boolean ascending)
+      throws IOException, StorageEngineException, QueryProcessException {
+    try {
+      dataGroupMember.syncLeaderWithConsistencyCheck(false);
+    } catch (CheckConsistencyException e) {
+      throw new QueryProcessException(e.getMessage());
+    }
+    List<Integer> nodeSlots =
+        ((SlotPartitionTable) dataGroupMember.getMetaGroupMember().getPartitionTable())
+            .getNodeSlots(dataGroupMember.getHeader());
+
+    // aggregations over the same path are performed in one scan
+    Map<String, List<Integer>> pathToEntryIndexes = new LinkedHashMap<>();
+    for (int i = 0; i < paths.size(); i++) {
+      pathToEntryIndexes.computeIfAbsent(paths.get(i).getFullPath(), p -> new ArrayList<>()).add(i);
+    }
+
+    AggregateResult[] groupResults = new AggregateResult[groupNum];
+    for (List<Integer> entryIndexes : pathToEntryIndexes.values()) {
+      PartialPath path = paths.get(entryIndexes.get(0));
+      List<String> pathAggregations = new ArrayList<>(entryIndexes.size());
+      for (int entryIndex : entryIndexes) {
+        pathAggregations.add(aggregations.get(entryIndex));
+      }
+      List<AggregateResult> pathResults =
+          aggregateLocally(
+              pathAggregations,
+              deviceMeasurements.get(path.getDevice()),
+              dataTypes.get(entryIndexes.get(0)),
+              path,
+              timeFilter,
+              context,
+              ascending,
+              nodeSlots);
+      for (int i = 0; i < entryIndexes.size(); i++) {
+        int groupIndex = groupIndexes.get(entryIndexes.get(i));
+        if (groupResults[groupIndex] == null) {
+          groupResults[groupIndex] = pathResults.get(i);
+        } else {
+          groupResults[groupIndex].merge(pathResults.get(i));
+        }
+      }
+    }
+    return groupResults;
+  }
+
+  private List<AggregateResult> aggregateLocally(
+      List<String> aggregations,
+      Set<String> allSensors,
+      TSDataType dataType,
+      PartialPath path,
+      Filter timeFilter,
+      QueryContext context,
+      boolean ascending,
+      List<Integer> nodeSlots)
+      throws IOException, StorageEngineException, QueryProcessException {
     List<AggregateResult> results = new ArrayList<>();
     List<AggregateResult> ascResults = new ArrayList<>();
     List<AggregateResult> descResults = new ArrayList<>();
@@ -740,9 +910,6 @@ public class LocalQueryExecutor {
       }
       results.add(ar);
     }
-    List<Integer> nodeSlots =
-        ((SlotPartitionTable) dataGroupMember.getMetaGroupMember().getPartitionTable())
-            .getNodeSlots(dataGroupMember.getHeader());
     AggregationExecutor.aggregateOneSeries(
         path,
         allSensors,
@@ -897,6 +1064,154 @@ public class LocalQueryExecutor {
     }
   }
 
+  /**
+   * Create a local GroupedGroupByExecutor that will run the aggregation of each entry over its path
+   * with "timeFilter" and merge the results of the entries in the same group. The results of the
+   * executor are ordered by the group index, one for each distinct group in "groupIndexes". Series
+   * without data in this group are skipped. The method currently requires strong consistency.
+   *
+   * @param paths paths of the entries, a path may appear in several entries
+   * @param dataTypes data types of the paths of the entries
+   * @param aggregationTypes ordinals of AggregationType of the entries
+   * @param groupIndexes the group that each entry is merged into
+   * @param deviceMeasurements all queried measurements of each device
+   * @param timeFilter nullable
+   */
+  public GroupedGroupByExecutor getGroupedGroupByExecutor(
+      List<PartialPath> paths,
+      List<TSDataType> dataTypes,
+      List<Integer> aggregationTypes,
+      List<Integer> groupIndexes,
+      Map<String, Set<String>> deviceMeasurements,
+      Filter timeFilter,
+      QueryContext context,
+      boolean ascending)
+      throws StorageEngineException, QueryProcessException {
+    // pull the newest data
+    try {
+      dataGroupMember.syncLeaderWithConsistencyCheck(false);
+    } catch (CheckConsistencyException e) {
+      throw new StorageEngineException(e);
+    }
+    List<Integer> nodeSlots =
+        ((SlotPartitionTable) dataGroupMember.getMetaGroupMember().getPartitionTable())
+            .getNodeSlots(dataGroupMember.getHeader());
+
+    // the result of each group is created from the first entry of the group
+    Map<Integer, Integer> groupFirstEntries = new TreeMap<>();
+    for (int i = 0; i < groupIndexes.size(); i++) {
+      groupFirstEntries.putIfAbsent(groupIndexes.get(i), i);
+    }
+    GroupedGroupByExecutor executor = new GroupedGroupByExecutor();
+    Map<Integer, Integer> groupPositions = new HashMap<>();
+    for (Map.Entry<Integer, Integer> entry : groupFirstEntries.entrySet()) {
+      groupPositions.put(entry.getKey(), groupPositions.size());
+      int firstEntry = entry.getValue();
+      executor.addAggregateResult(
+          AggregateResultFactory.getAggrResultByType(
+              AggregationType.values()[aggregationTypes.get(firstEntry)],
+              dataTypes.get(firstEntry),
+              ascending));
+    }
+
+    // aggregations over the same path are performed in one scan
+    Map<String, List<Integer>> pathToEntryIndexes = new LinkedHashMap<>();
+    for (int i = 0; i < paths.size(); i++) {
+      pathToEntryIndexes.computeIfAbsent(paths.get(i).getFullPath(), p -> new ArrayList<>()).add(i);
+    }
+    for (List<Integer> entryIndexes : pathToEntryIndexes.values()) {
+      PartialPath path = paths.get(entryIndexes.get(0));
+      TSDataType dataType = dataTypes.get(entryIndexes.get(0));
+      LocalGroupByExecutor pathExecutor =
+          new LocalGroupByExecutor(
+              path,
+              deviceMeasurements.get(path.getDevice()),
+              context,
+              timeFilter == null ? null : timeFilter.copy(),
+              new SlotTsFileFilter(nodeSlots),
+              ascending);
+      try {
+        if (pathExecutor.isEmpty()) {
+          continue;
+        }
+      } catch (IOException e) {
+        throw new QueryProcessException(e, TSStatusCode.INTERNAL_SERVER_ERROR.ordinal());
+      }
+      int[] pathGroupPositions = new int[entryIndexes.size()];
+      for (int i = 0; i < entryIndexes.size(); i++) {
+        int entryIndex = entryIndexes.get(i);
+        pathExecutor.addAggregateResult(
+            AggregateResultFactory.getAggrResultByType(
+                AggregationType.values()[aggregationTypes.get(entryIndex)], dataType, ascending));
+        pathGroupPositions[i] = groupPositions.get(groupIndexes.get(entryIndex));
+      }
+      executor.addExecutor(pathExecutor, pathGroupPositions);
+    }
+    return executor;
+  }
+
+  /**
+   * Create a local GroupedGroupByExecutor for the entries of "request", register it in the query
+   * manager to generate the executor id, and send it back to the requester.
+   *
+   * @return the executor id, or -1 if none of the series has data in this group
+   */
+  public long getGroupedGroupByExecutor(GroupedGroupByRequest request)
+      throws QueryProcessException, StorageEngineException {
+    List<PartialPath> paths = new ArrayList<>(request.getPathsSize());
+    List<TSDataType> dataTypes = new ArrayList<>(request.getPathsSize());
+    for (int i = 0; i < request.getPathsSize(); i++) {
+      TSDataType dataType = TSDataType.values()[request.getDataTypeOrdinals().get(i)];
+      try {
+        paths.add(new MeasurementPath(request.getPaths().get(i), dataType));
+      } catch (IllegalPathException e) {
+        throw new QueryProcessException(e);
+      }
+      dataTypes.add(dataType);
+    }
+    Filter timeFilter = null;
+    if (request.isSetTimeFilterBytes()) {
+      timeFilter = FilterFactory.deserialize(request.timeFilterBytes);
+    }
+    long queryId = request.getQueryId();
+    logger.debug(
+        "{}: {} is querying {} series using grouped group by, queryId: {}",
+        name,
+        request.getRequestor(),
+        paths.size(),
+        queryId);
+
+    RemoteQueryContext queryContext = queryManager.getQueryContext(request.getRequestor(), queryId);
+    GroupedGroupByExecutor executor =
+        getGroupedGroupByExecutor(
+            paths,
+            dataTypes,
+            request.getAggregationTypeOrdinals(),
+            request.getGroupIndexes(),
+            request.getDeviceMeasurements(),
+            timeFilter,
+            queryContext,
+            request.isAscending());
+    if (executor.isEmpty()) {
+      logger.debug(
+          "{}: There is no data of {} series for {}#{}",
+          name,
+          paths.size(),
+          request.getRequestor(),
+          queryId);
+      return -1;
+    }
+    long executorId = queryManager.registerGroupByExecutor(executor);
+    logger.debug(
+        "{}: Build a GroupedGroupByExecutor of {} series for {}, executorId: {}",
+        name,
+        paths.size(),
+        request.getRequestor(),
+        executorId);
+    queryContext.registerLocalGroupByExecutor(executorId);
+    return executorId;
+  }
+
   /**
    * Fetch the aggregation results between [startTime, endTime] of the executor whose id is
    * "executorId". This method currently requires strong consistency.
@@ -24,19 +24,31 @@ import org.apache.iotdb.cluster.query.reader.ClusterTimeGenerator;
 import org.apache.iotdb.cluster.server.member.MetaGroupMember;
 import org.apache.iotdb.db.exception.StorageEngineException;
 import org.apache.iotdb.db.exception.query.QueryProcessException;
+import org.apache.iotdb.db.metadata.path.AlignedPath;
+import org.apache.iotdb.db.metadata.path.MeasurementPath;
 import org.apache.iotdb.db.metadata.path.PartialPath;
 import org.apache.iotdb.db.qp.physical.crud.AggregationPlan;
 import org.apache.iotdb.db.qp.physical.crud.RawDataQueryPlan;
 import org.apache.iotdb.db.query.aggregation.AggregateResult;
 import org.apache.iotdb.db.query.context.QueryContext;
+import org.apache.iotdb.db.query.dataset.SingleDataSet;
 import org.apache.iotdb.db.query.executor.AggregationExecutor;
+import org.apache.iotdb.db.query.factory.AggregateResultFactory;
 import org.apache.iotdb.db.query.reader.series.IReaderByTimestamp;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.common.RowRecord;
+import org.apache.iotdb.tsfile.read.expression.impl.GlobalTimeExpression;
 import org.apache.iotdb.tsfile.read.filter.basic.Filter;
+import org.apache.iotdb.tsfile.read.query.dataset.QueryDataSet;
 import org.apache.iotdb.tsfile.read.query.timegenerator.TimeGenerator;
 
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Set;
 
 public class ClusterAggregateExecutor extends AggregationExecutor {
@@ -58,6 +70,85 @@ public class ClusterAggregateExecutor extends AggregationExecutor {
     this.aggregator = new ClusterAggregator(metaMember);
   }
 
+  /**
+   * For GROUP BY LEVEL queries, the results of series in the same level group are merged in each
+   * data group, so that only one partial result per level group is returned from each data group
+   * and the coordinator only merges the partial results of data groups.
+   */
+  @Override
+  public QueryDataSet executeWithoutValueFilter(AggregationPlan aggregationPlan)
+      throws StorageEngineException, IOException, QueryProcessException {
+    if (!aggregationPlan.isGroupByLevel()) {
+      return super.executeWithoutValueFilter(aggregationPlan);
+    }
+    List<PartialPath> paths = new ArrayList<>(aggregationPlan.getDeduplicatedPaths().size());
+    for (PartialPath path : aggregationPlan.getDeduplicatedPaths()) {
+      PartialPath exactPath = ((MeasurementPath) path).transformToExactPath();
+      if (exactPath instanceof AlignedPath) {
+        // aligned series are aggregated as a whole and cannot be pushed down
+        return super.executeWithoutValueFilter(aggregationPlan);
+      }
+      paths.add(exactPath);
+    }
+
+    Filter timeFilter = null;
+    if (expression != null) {
+      timeFilter = ((GlobalTimeExpression) expression).getFilter();
+    }
+
+    // assign each aggregation to its level group, the groups are in the order of result columns
+    Map<String, Integer> groupedPathIndexes = new LinkedHashMap<>();
+    List<Integer> groupIndexes = new ArrayList<>(paths.size());
+    // the first aggregation of each group, used to create the result of a group without data
+    List<Integer> firstEntryIndexes = new ArrayList<>();
+    Map<String, Set<String>> deviceMeasurements = new HashMap<>();
+    for (int i = 0; i < paths.size(); i++) {
+      String groupedPath = aggregationPlan.getGroupedPath(i);
+      Integer groupIndex = groupedPathIndexes.get(groupedPath);
+      if (groupIndex == null) {
+        groupIndex = groupedPathIndexes.size();
+        groupedPathIndexes.put(groupedPath, groupIndex);
+        firstEntryIndexes.add(i);
+      }
+      groupIndexes.add(groupIndex);
+      String device = paths.get(i).getDevice();
+      deviceMeasurements.computeIfAbsent(device, aggregationPlan::getAllMeasurementsInDevice);
+    }
+
+    AggregateResult[] groupResults =
+        aggregator.getGroupedAggregateResult(
+            paths,
+            aggregations,
+            dataTypes,
+            groupIndexes,
+            groupedPathIndexes.size(),
+            deviceMeasurements,
+            timeFilter,
+            context,
+            ascending);
+
+    Map<String, AggregateResult> groupPathsResultMap = aggregationPlan.getGroupPathsResultMap();
+    groupPathsResultMap.clear();
+    List<TSDataType> resultDataTypes = new ArrayList<>(groupResults.length);
+    RowRecord record = new RowRecord(0);
+    for (Entry<String, Integer> entry : groupedPathIndexes.entrySet()) {
+      int groupIndex = entry.getValue();
+      AggregateResult result = groupResults[groupIndex];
+      if (result == null) {
+        int firstEntryIndex = firstEntryIndexes.get(groupIndex);
+        result =
+            AggregateResultFactory.getAggrResultByName(
+                aggregations.get(firstEntryIndex), dataTypes.get(firstEntryIndex), ascending);
+      }
+      groupPathsResultMap.put(entry.getKey(), result);
+      resultDataTypes.add(result.getResultDataType());
+      record.addField(result.getResult(), result.getResultDataType());
+    }
+    SingleDataSet dataSet = new SingleDataSet(new ArrayList<>(), resultDataTypes);
+    dataSet.setRecord(record);
+    return dataSet;
+  }
+
   @Override
   protected void aggregateOneSeries(
       PartialPath seriesPath,
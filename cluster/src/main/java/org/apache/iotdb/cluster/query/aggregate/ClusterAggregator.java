@@ -33,6 +33,7 @@ import org.apache.iotdb.cluster.query.LocalQueryExecutor;
 import org.apache.iotdb.cluster.query.RemoteQueryContext;
 import org.apache.iotdb.cluster.query.manage.QueryCoordinator;
 import org.apache.iotdb.cluster.rpc.thrift.GetAggrResultRequest;
+import org.apache.iotdb.cluster.rpc.thrift.GetGroupedAggrResultRequest;
 import org.apache.iotdb.cluster.rpc.thrift.Node;
 import org.apache.iotdb.cluster.server.member.DataGroupMember;
 import org.apache.iotdb.cluster.server.member.MetaGroupMember;
@@ -55,7 +56,11 @@ import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Set;
 
 @SuppressWarnings("java:S107")
@@ -128,6 +133,240 @@ public class ClusterAggregator {
     return results;
   }
 
+  /**
+   * Perform the aggregation of each entry over its path in the data groups determined by
+   * "timeFilter", and merge the results of the entries with the same group index. Each data group
+   * merges the partial results of its entries before returning them, so only one partial result
+   * per group is transferred from each data group.
+   *
+   * @param groupIndexes the group in [0, groupNum) that each entry is merged into
+   * @param deviceMeasurements all queried measurements of each device
+   * @param timeFilter nullable, when null, all groups will be queried
+   * @return the merged result of each group, null if no data group holds data of the group
+   */
+  public AggregateResult[] getGroupedAggregateResult(
+      List<PartialPath> paths,
+      List<String> aggregations,
+      List<TSDataType> dataTypes,
+      List<Integer> groupIndexes,
+      int groupNum,
+      Map<String, Set<String>> deviceMeasurements,
+      Filter timeFilter,
+      QueryContext context,
+      boolean ascending)
+      throws StorageEngineException {
+    // make sure the partition table is new
+    try {
+      metaGroupMember.syncLeaderWithConsistencyCheck(false);
+    } catch (CheckConsistencyException e) {
+      throw new StorageEngineException(e);
+    }
+    // find the entries to be queried in each group using timeFilter and the paths
+    Map<PartitionGroup, List<Integer>> partitionGroupEntries = new LinkedHashMap<>();
+    for (int i = 0; i < paths.size(); i++) {
+      List<PartitionGroup> partitionGroups;
+      try {
+        partitionGroups = metaGroupMember.routeFilter(timeFilter, paths.get(i));
+      } catch (EmptyIntervalException e) {
+        logger.info(e.getMessage());
+        partitionGroups = Collections.emptyList();
+      }
+      for (PartitionGroup partitionGroup : partitionGroups) {
+        partitionGroupEntries.computeIfAbsent(partitionGroup, g -> new ArrayList<>()).add(i);
+      }
+    }
+    logger.debug(
+        "{}: Sending grouped aggregation query of {} series to {} groups",
+        metaGroupMember.getName(),
+        paths.size(),
+        partitionGroupEntries.size());
+
+    AggregateResult[] results = new AggregateResult[groupNum];
+    // get the grouped results of each data group and merge them
+    for (Entry<PartitionGroup, List<Integer>> entry : partitionGroupEntries.entrySet()) {
+      List<Integer> entryIndexes = entry.getValue();
+      List<PartialPath> groupPaths = new ArrayList<>(entryIndexes.size());
+      List<String> groupAggregations = new ArrayList<>(entryIndexes.size());
+      List<TSDataType> groupDataTypes = new ArrayList<>(entryIndexes.size());
+      List<Integer> groupGroupIndexes = new ArrayList<>(entryIndexes.size());
+      Map<String, Set<String>> groupDeviceMeasurements = new HashMap<>();
+      for (int entryIndex : entryIndexes) {
+        PartialPath path = paths.get(entryIndex);
+        groupPaths.add(path);
+        groupAggregations.add(aggregations.get(entryIndex));
+        groupDataTypes.add(dataTypes.get(entryIndex));
+        groupGroupIndexes.add(groupIndexes.get(entryIndex));
+        groupDeviceMeasurements.put(path.getDevice(), deviceMeasurements.get(path.getDevice()));
+      }
+      AggregateResult[] groupResults =
+          getGroupedAggregateResult(
+              groupPaths,
+              groupAggregations,
+              groupDataTypes,
+              groupGroupIndexes,
+              groupNum,
+              groupDeviceMeasurements,
+              timeFilter,
+              entry.getKey(),
+              context,
+              ascending);
+      for (int i = 0; i < groupNum; i++) {
+        if (groupResults[i] == null) {
+          continue;
+        }
+        if (results[i] == null) {
+          results[i] = groupResults[i];
+        } else {
+          results[i].merge(groupResults[i]);
+        }
+      }
+    }
+    return results;
+  }
+
+  /**
+   * Perform the grouped aggregations in "partitionGroup". If the local node is the member of the
+   * group, do it locally, otherwise pull the results from a remote node.
+   *
+   * @param timeFilter nullable
+   */
+  private AggregateResult[] getGroupedAggregateResult(
+      List<PartialPath> paths,
+      List<String> aggregations,
+      List<TSDataType> dataTypes,
+      List<Integer> groupIndexes,
+      int groupNum,
+      Map<String, Set<String>> deviceMeasurements,
+      Filter timeFilter,
+      PartitionGroup partitionGroup,
+      QueryContext context,
+      boolean ascending)
+      throws StorageEngineException {
+    if (!partitionGroup.contains(metaGroupMember.getThisNode())) {
+      GetGroupedAggrResultRequest request = new GetGroupedAggrResultRequest();
+      List<String> pathStrings = new ArrayList<>(paths.size());
+      List<Integer> dataTypeOrdinals = new ArrayList<>(dataTypes.size());
+      for (int i = 0; i < paths.size(); i++) {
+        pathStrings.add(paths.get(i).getFullPath());
+        dataTypeOrdinals.add(dataTypes.get(i).ordinal());
+      }
+      request.setPaths(pathStrings);
+      request.setAggregations(aggregations);
+      request.setDataTypeOrdinals(dataTypeOrdinals);
+      request.setGroupIndexes(groupIndexes);
+      request.setGroupNum(groupNum);
+      request.setQueryId(context.getQueryId());
+      request.setRequestor(metaGroupMember.getThisNode());
+      request.setHeader(partitionGroup.getHeader());
+      request.setDeviceMeasurements(deviceMeasurements);
+      request.setAscending(ascending);
+      if (timeFilter != null) {
+        request.setTimeFilterBytes(SerializeUtils.serializeFilter(timeFilter));
+      }
+      return getRemoteGroupedAggregateResult(request, partitionGroup, context);
+    }
+    // perform the aggregations locally
+    DataGroupMember dataMember =
+        metaGroupMember.getLocalDataMember(partitionGroup.getHeader(), partitionGroup.getRaftId());
+    LocalQueryExecutor localQueryExecutor = new LocalQueryExecutor(dataMember);
+    try {
+      logger.debug(
+          "{}: querying grouped aggregation of {} series in {} locally",
+          metaGroupMember.getName(),
+          paths.size(),
+          partitionGroup.getHeader());
+      return localQueryExecutor.getGroupedAggrResult(
+          paths,
+          aggregations,
+          dataTypes,
+          groupIndexes,
+          groupNum,
+          deviceMeasurements,
+          timeFilter,
+          context,
+          ascending);
+    } catch (IOException | QueryProcessException e) {
+      throw new StorageEngineException(e);
+    }
+  }
+
+  /**
+   * Perform the grouped aggregations of "request" in a remote data group "partitionGroup". Query
+   * one node in the group to get the results.
+   */
+  private AggregateResult[] getRemoteGroupedAggregateResult(
+      GetGroupedAggrResultRequest request, PartitionGroup partitionGroup, QueryContext context)
+      throws StorageEngineException {
+    // put nodes with lowest delay at first
+    List<Node> reorderedNodes = QueryCoordinator.getINSTANCE().reorderNodes(partitionGroup);
+    for (Node node : reorderedNodes) {
+      logger.debug(
+          "{}: querying grouped aggregation of {} series from {} of {}",
+          metaGroupMember.getName(),
+          request.getPathsSize(),
+          node,
+          partitionGroup.getHeader());
+
+      try {
+        List<ByteBuffer> resultBuffers = getRemoteGroupedAggregateResult(node, request);
+        if (resultBuffers != null) {
+          AggregateResult[] results = new AggregateResult[resultBuffers.size()];
+          for (int i = 0; i < results.length; i++) {
+            // an empty buffer means the group has no entry in the data group
+            if (resultBuffers.get(i).hasRemaining()) {
+              results[i] = AggregateResult.deserializeFrom(resultBuffers.get(i));
+            }
+          }
+          // register the queried node to release resources when the query ends
+          ((RemoteQueryContext) context).registerRemoteNode(node, partitionGroup.getHeader());
+          return results;
+        }
+      } catch (TApplicationException e) {
+        logger.error(
+            metaGroupMember.getName() + " grouped aggregation error in " + partitionGroup, e);
+        throw new StorageEngineException(e.getMessage());
+      } catch (TException | IOException e) {
+        logger.error(
+            metaGroupMember.getName() + " cannot query grouped aggregation from " + node, e);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        logger.error(metaGroupMember.getName() + " query interrupted from " + node, e);
+      }
+    }
+    throw new StorageEngineException(
+        new RequestTimeOutException("Query grouped aggregate in " + partitionGroup));
+  }
+
+  private List<ByteBuffer> getRemoteGroupedAggregateResult(
+      Node node, GetGroupedAggrResultRequest request)
+      throws IOException, TException, InterruptedException {
+    List<ByteBuffer> resultBuffers = null;
+    if (ClusterDescriptor.getInstance().getConfig().isUseAsyncServer()) {
+      AsyncDataClient client =
+          ClusterIoTDB.getInstance()
+              .getAsyncDataClient(node, ClusterConstant.getReadOperationTimeoutMS());
+      // each buffer is the merged AggregationResult of a group
+      resultBuffers = SyncClientAdaptor.getGroupedAggrResult(client, request);
+    } else {
+      SyncDataClient syncDataClient = null;
+      try {
+        syncDataClient =
+            ClusterIoTDB.getInstance()
+                .getSyncDataClient(node, ClusterConstant.getReadOperationTimeoutMS());
+        resultBuffers = syncDataClient.getGroupedAggrResult(request);
+      } catch (TException e) {
+        // the connection may be broken, close it to avoid it being reused
+        syncDataClient.close();
+        throw e;
+      } finally {
+        if (syncDataClient != null) {
+          syncDataClient.returnSelf();
+        }
+      }
+    }
+    return resultBuffers;
+  }
+
   /**
    * Perform "aggregations" over "path" in "partitionGroup". If the local node is the member of the
    * group, do it locally, otherwise pull the results from a remote node.
@@ -19,23 +19,55 @@
 
 package org.apache.iotdb.cluster.query.groupby;
 
+import org.apache.iotdb.cluster.query.reader.ClusterReaderFactory;
 import org.apache.iotdb.cluster.server.member.MetaGroupMember;
+import org.apache.iotdb.db.exception.StorageEngineException;
+import org.apache.iotdb.db.exception.query.QueryProcessException;
+import org.apache.iotdb.db.metadata.path.AlignedPath;
+import org.apache.iotdb.db.metadata.path.MeasurementPath;
 import org.apache.iotdb.db.metadata.path.PartialPath;
+import org.apache.iotdb.db.qp.physical.crud.GroupByTimeFillPlan;
 import org.apache.iotdb.db.qp.physical.crud.GroupByTimePlan;
+import org.apache.iotdb.db.query.aggregation.AggregateResult;
 import org.apache.iotdb.db.query.context.QueryContext;
 import org.apache.iotdb.db.query.dataset.groupby.GroupByWithoutValueFilterDataSet;
 import org.apache.iotdb.db.query.executor.groupby.GroupByExecutor;
+import org.apache.iotdb.db.query.executor.groupby.SlidingWindowGroupByExecutor;
+import org.apache.iotdb.db.query.executor.groupby.SlidingWindowGroupByExecutorFactory;
+import org.apache.iotdb.db.query.factory.AggregateResultFactory;
 import org.apache.iotdb.db.query.filter.TsFileFilter;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.read.expression.IExpression;
+import org.apache.iotdb.tsfile.read.expression.impl.GlobalTimeExpression;
 import org.apache.iotdb.tsfile.read.filter.basic.Filter;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 @SuppressWarnings("common-java:DuplicatedBlocks")
 public class ClusterGroupByNoVFilterDataSet extends GroupByWithoutValueFilterDataSet {
 
+  private static final Logger logger =
+      LoggerFactory.getLogger(ClusterGroupByNoVFilterDataSet.class);
+
   private MetaGroupMember metaGroupMember;
 
+  /**
+   * For GROUP BY LEVEL queries, the results of the aggregations in the same level group are merged
+   * in each data group by this executor, whose i-th result is the result of the i-th group.
+   */
+  private GroupedGroupByExecutor groupedExecutor;
+  // the index of the first aggregation of each level group, which carries the group result
+  private List<Integer> groupFirstIndexes;
+
   public ClusterGroupByNoVFilterDataSet(
       QueryContext context, GroupByTimePlan groupByPlan, MetaGroupMember metaGroupMember) {
     initQueryDataSetFields(
@@ -47,6 +79,116 @@ public class ClusterGroupByNoVFilterDataSet extends GroupByWithoutValueFilterDat
     this.metaGroupMember = metaGroupMember;
   }
 
+  /**
+   * For GROUP BY LEVEL queries over non-aligned series, each data group merges the pre-aggregation
+   * results of the series in the same level group, so only one result per level group and window
+   * is returned from each data group and the coordinator only merges the results of data groups.
+   */
+  @Override
+  public void initGroupBy(QueryContext context, GroupByTimePlan groupByTimePlan)
+      throws StorageEngineException, QueryProcessException {
+    if (!groupByTimePlan.isGroupByLevel() || groupByTimePlan instanceof GroupByTimeFillPlan) {
+      super.initGroupBy(context, groupByTimePlan);
+      return;
+    }
+    List<PartialPath> exactPaths = new ArrayList<>(paths.size());
+    for (Path path : paths) {
+      PartialPath exactPath = ((MeasurementPath) path).transformToExactPath();
+      if (exactPath instanceof AlignedPath) {
+        // aligned series are aggregated as a whole and cannot be pushed down
+        super.initGroupBy(context, groupByTimePlan);
+        return;
+      }
+      exactPaths.add(exactPath);
+    }
+
+    IExpression expression = groupByTimePlan.getExpression();
+    Filter timeFilter = null;
+    if (expression != null) {
+      timeFilter = ((GlobalTimeExpression) expression).getFilter();
+    }
+    if (timeFilter == null) {
+      throw new QueryProcessException("TimeFilter cannot be null in GroupBy query.");
+    }
+
+    // assign each aggregation to its level group, the groups are in the order of result columns
+    Map<String, Integer> groupedPathIndexes = new HashMap<>();
+    List<Integer> groupIndexes = new ArrayList<>(exactPaths.size());
+    List<TSDataType> dataTypes = new ArrayList<>(exactPaths.size());
+    List<Integer> aggregationTypes = new ArrayList<>(exactPaths.size());
+    Map<String, Set<String>> deviceMeasurements = new HashMap<>();
+    groupFirstIndexes = new ArrayList<>();
+    for (int i = 0; i < exactPaths.size(); i++) {
+      String groupedPath = groupByTimePlan.getGroupedPath(i);
+      Integer groupIndex = groupedPathIndexes.get(groupedPath);
+      if (groupIndex == null) {
+        groupIndex = groupedPathIndexes.size();
+        groupedPathIndexes.put(groupedPath, groupIndex);
+        groupFirstIndexes.add(i);
+      }
+      groupIndexes.add(groupIndex);
+
+      String aggregation = groupByTimePlan.getDeduplicatedAggregations().get(i);
+      TSDataType dataType = exactPaths.get(i).getSeriesType();
+      AggregateResult aggrResult =
+          AggregateResultFactory.getAggrResultByName(aggregation, dataType, ascending);
+      aggregationTypes.add(aggrResult.getAggregationType().ordinal());
+      dataTypes.add(dataType);
+      slidingWindowGroupByExecutors[i] =
+          SlidingWindowGroupByExecutorFactory.getSlidingWindowGroupByExecutor(
+              aggregation, dataType, ascending);
+      String device = exactPaths.get(i).getDevice();
+      deviceMeasurements.computeIfAbsent(device, groupByTimePlan::getAllMeasurementsInDevice);
+    }
+
+    groupedExecutor =
+        new ClusterReaderFactory(metaGroupMember)
+            .getGroupedGroupByExecutor(
+                exactPaths,
+                dataTypes,
+                aggregationTypes,
+                groupIndexes,
+                groupFirstIndexes.size(),
+                deviceMeasurements,
+                context,
+                timeFilter.copy(),
+                ascending);
+  }
+
+  /**
+   * The result of a level group is put at its first aggregation and the results of the other
+   * aggregations in the group are left empty, so merging them by level yields the group result.
+   */
+  @Override
+  protected AggregateResult[] getNextAggregateResult() throws IOException {
+    if (groupedExecutor == null) {
+      return super.getNextAggregateResult();
+    }
+    curAggregateResults = new AggregateResult[paths.size()];
+    for (SlidingWindowGroupByExecutor slidingWindowGroupByExecutor :
+        slidingWindowGroupByExecutors) {
+      slidingWindowGroupByExecutor.setTimeRange(curStartTime, curEndTime);
+    }
+    try {
+      while (!isEndCal()) {
+        List<AggregateResult> groupResults =
+            groupedExecutor.calcResult(curPreAggrStartTime, curPreAggrEndTime);
+        for (int i = 0; i < groupResults.size(); i++) {
+          slidingWindowGroupByExecutors[groupFirstIndexes.get(i)].update(
+              groupResults.get(i).clone());
+        }
+        updatePreAggrInterval();
+      }
+      for (int i = 0; i < curAggregateResults.length; i++) {
+        curAggregateResults[i] = slidingWindowGroupByExecutors[i].getAggregateResult();
+      }
+    } catch (QueryProcessException e) {
+      logger.error("ClusterGroupByNoVFilterDataSet execute has error", e);
+      throw new IOException(e.getMessage(), e);
+    }
+    return curAggregateResults;
+  }
+
   @Override
   protected GroupByExecutor getGroupByExecutor(
       PartialPath path,
@@ -0,0 +1,109 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.cluster.query.groupby;
+
+import org.apache.iotdb.db.exception.query.QueryProcessException;
+import org.apache.iotdb.db.query.aggregation.AggregateResult;
+import org.apache.iotdb.db.query.executor.groupby.GroupByExecutor;
+import org.apache.iotdb.tsfile.utils.Pair;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A GroupByExecutor over many series which merges the results of the aggregations in the same
+ * group, e.g., the aggregations grouped into the same result column by GROUP BY LEVEL, so only one
+ * result per group is returned for each time window. The i-th added AggregateResult is the result
+ * of the i-th group.
+ */
+public class GroupedGroupByExecutor implements GroupByExecutor {
+
+  private static final Logger logger = LoggerFactory.getLogger(GroupedGroupByExecutor.class);
+
+  private final List<AggregateResult> results = new ArrayList<>();
+
+  private final List<GroupByExecutor> executors = new ArrayList<>();
+  // the group of each result of the executor with the same index
+  private final List<int[]> executorGroupIndexes = new ArrayList<>();
+
+  @Override
+  public void addAggregateResult(AggregateResult aggrResult) {
+    results.add(aggrResult);
+  }
+
+  /**
+   * @param groupIndexes the i-th result of "executor" will be merged into the result of group
+   *     groupIndexes[i]
+   */
+  public void addExecutor(GroupByExecutor executor, int[] groupIndexes) {
+    executors.add(executor);
+    executorGroupIndexes.add(groupIndexes);
+  }
+
+  public boolean isEmpty() {
+    return executors.isEmpty();
+  }
+
+  private void resetAggregateResults() {
+    for (AggregateResult result : results) {
+      result.reset();
+    }
+  }
+
+  @Override
+  public List<AggregateResult> calcResult(long curStartTime, long curEndTime)
+      throws QueryProcessException, IOException {
+    resetAggregateResults();
+    for (int i = 0; i < executors.size(); i++) {
+      List<AggregateResult> subResults = executors.get(i).calcResult(curStartTime, curEndTime);
+      int[] groupIndexes = executorGroupIndexes.get(i);
+      for (int j = 0; j < subResults.size(); j++) {
+        results.get(groupIndexes[j]).merge(subResults.get(j));
+      }
+    }
+    logger.debug(
+        "Grouped aggregation result of {} executors@[{}, {}] is {}",
+        executors.size(),
+        curStartTime,
+        curEndTime,
+        results);
+    return results;
+  }
+
+  @Override
+  public Pair<Long, Object> peekNextNotNullValue(long nextStartTime, long nextEndTime)
+      throws IOException {
+    Pair<Long, Object> result = null;
+    for (GroupByExecutor executor : executors) {
+      Pair<Long, Object> pair = executor.peekNextNotNullValue(nextStartTime, nextEndTime);
+      if (pair == null) {
+        continue;
+      }
+      if (result == null || result.left > pair.left) {
+        result = pair;
+      }
+    }
+    return result;
+  }
+}
@@ -33,6 +33,7 @@ import org.apache.iotdb.cluster.partition.slot.SlotPartitionTable;
 import org.apache.iotdb.cluster.query.LocalQueryExecutor;
 import org.apache.iotdb.cluster.query.RemoteQueryContext;
 import org.apache.iotdb.cluster.query.filter.SlotTsFileFilter;
+import org.apache.iotdb.cluster.query.groupby.GroupedGroupByExecutor;
 import org.apache.iotdb.cluster.query.groupby.RemoteGroupByExecutor;
 import org.apache.iotdb.cluster.query.manage.QueryCoordinator;
 import org.apache.iotdb.cluster.query.reader.mult.AbstractMultPointReader;
@@ -42,6 +43,7 @@ import org.apache.iotdb.cluster.query.reader.mult.MultEmptyReader;
 import org.apache.iotdb.cluster.query.reader.mult.MultSeriesRawDataPointReader;
 import org.apache.iotdb.cluster.query.reader.mult.RemoteMultSeriesReader;
 import org.apache.iotdb.cluster.rpc.thrift.GroupByRequest;
+import org.apache.iotdb.cluster.rpc.thrift.GroupedGroupByRequest;
 import org.apache.iotdb.cluster.rpc.thrift.MultSeriesQueryRequest;
 import org.apache.iotdb.cluster.rpc.thrift.Node;
 import org.apache.iotdb.cluster.rpc.thrift.RaftNode;
@@ -87,11 +89,14 @@ import org.slf4j.LoggerFactory;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.TreeMap;
 
 import static org.apache.iotdb.cluster.utils.ClusterQueryUtils.getPathStrListForRequest;
 
@@ -913,6 +918,257 @@ public class ClusterReaderFactory {
         new RequestTimeOutException("Query " + path + " in " + partitionGroup));
   }
 
+  /**
+   * Get a GroupedGroupByExecutor that will run the aggregation of each entry over its path and
+   * merge the results of the entries with the same group index. The entries are sent to the groups
+   * determined by the timeFilter and each group merges the results of its entries before returning
+   * them, so only one result per group and time window is transferred from each data group. The
+   * i-th result of the returned executor is the result of group i.
+   *
+   * @param aggregationTypes ordinals of AggregationType of the entries
+   * @param groupIndexes the group in [0, groupNum) that each entry is merged into
+   * @param deviceMeasurements all queried measurements of each device
+   * @param timeFilter nullable
+   */
+  public GroupedGroupByExecutor getGroupedGroupByExecutor(
+      List<PartialPath> paths,
+      List<TSDataType> dataTypes,
+      List<Integer> aggregationTypes,
+      List<Integer> groupIndexes,
+      int groupNum,
+      Map<String, Set<String>> deviceMeasurements,
+      QueryContext context,
+      Filter timeFilter,
+      boolean ascending)
+      throws StorageEngineException, QueryProcessException {
+    // make sure the partition table is new
+    try {
+      metaGroupMember.syncLeaderWithConsistencyCheck(false);
+    } catch (CheckConsistencyException e) {
+      throw new QueryProcessException(e.getMessage());
+    }
+    // find the entries to be queried in each group using timeFilter and the paths
+    Map<PartitionGroup, List<Integer>> partitionGroupEntries = new LinkedHashMap<>();
+    for (int i = 0; i < paths.size(); i++) {
+      List<PartitionGroup> partitionGroups;
+      try {
+        partitionGroups = metaGroupMember.routeFilter(timeFilter, paths.get(i));
+      } catch (EmptyIntervalException e) {
+        logger.info(e.getMessage());
+        partitionGroups = Collections.emptyList();
+      }
+      for (PartitionGroup partitionGroup : partitionGroups) {
+        partitionGroupEntries.computeIfAbsent(partitionGroup, g -> new ArrayList<>()).add(i);
+      }
+    }
+    logger.debug(
+        "{}: Sending grouped group by query of {} series to {} groups",
+        metaGroupMember.getName(),
+        paths.size(),
+        partitionGroupEntries.size());
+
+    GroupedGroupByExecutor executor = new GroupedGroupByExecutor();
+    for (int entryIndex : getGroupFirstEntries(groupIndexes).values()) {
+      executor.addAggregateResult(
+          AggregateResultFactory.getAggrResultByType(
+              AggregationType.values()[aggregationTypes.get(entryIndex)],
+              dataTypes.get(entryIndex),
+              ascending));
+    }
+    for (Entry<PartitionGroup, List<Integer>> entry : partitionGroupEntries.entrySet()) {
+      List<Integer> entryIndexes = entry.getValue();
+      List<PartialPath> groupPaths = new ArrayList<>(entryIndexes.size());
+      List<TSDataType> groupDataTypes = new ArrayList<>(entryIndexes.size());
+      List<Integer> groupAggregationTypes = new ArrayList<>(entryIndexes.size());
+      List<Integer> groupGroupIndexes = new ArrayList<>(entryIndexes.size());
+      Map<String, Set<String>> groupDeviceMeasurements = new HashMap<>();
+      for (int entryIndex : entryIndexes) {
+        PartialPath path = paths.get(entryIndex);
+        groupPaths.add(path);
+        groupDataTypes.add(dataTypes.get(entryIndex));
+        groupAggregationTypes.add(aggregationTypes.get(entryIndex));
+        groupGroupIndexes.add(groupIndexes.get(entryIndex));
+        groupDeviceMeasurements.put(path.getDevice(), deviceMeasurements.get(path.getDevice()));
+      }
+      GroupByExecutor groupExecutor =
+          getGroupedGroupByExecutor(
+              groupPaths,
+              groupDataTypes,
+              groupAggregationTypes,
+              groupGroupIndexes,
+              groupDeviceMeasurements,
+              entry.getKey(),
+              timeFilter,
+              context,
+              ascending);
+      if (groupExecutor != null) {
+        // the results of a data group are ordered by the group index
+        int[] resultGroupIndexes =
+            getGroupFirstEntries(groupGroupIndexes).keySet().stream().mapToInt(i -> i).toArray();
+        executor.addExecutor(groupExecutor, resultGroupIndexes);
+      }
+    }
+    return executor;
+  }
+
+  /** @return the index of the first entry of each group, ordered by the group index */
+  private static Map<Integer, Integer> getGroupFirstEntries(List<Integer> groupIndexes) {
+    Map<Integer, Integer> groupFirstEntries = new TreeMap<>();
+    for (int i = 0; i < groupIndexes.size(); i++) {
+      groupFirstEntries.putIfAbsent(groupIndexes.get(i), i);
+    }
+    return groupFirstEntries;
+  }
+
+  /**
+   * Get a GroupByExecutor that will run the grouped aggregations within "partitionGroup". If the
+   * local node is a member of the group, a local executor will be created. Otherwise a remote
+   * executor will be created.
+   *
+   * @param timeFilter nullable
+   * @return null if none of the series has data in the group
+   */
+  private GroupByExecutor getGroupedGroupByExecutor(
+      List<PartialPath> paths,
+      List<TSDataType> dataTypes,
+      List<Integer> aggregationTypes,
+      List<Integer> groupIndexes,
+      Map<String, Set<String>> deviceMeasurements,
+      PartitionGroup partitionGroup,
+      Filter timeFilter,
+      QueryContext context,
+      boolean ascending)
+      throws StorageEngineException, QueryProcessException {
+    if (partitionGroup.contains(metaGroupMember.getThisNode())) {
+      // the target storage group contains this node, perform a local query
+      DataGroupMember dataGroupMember =
+          metaGroupMember.getLocalDataMember(
+              partitionGroup.getHeader(), partitionGroup.getRaftId());
+      LocalQueryExecutor localQueryExecutor = new LocalQueryExecutor(dataGroupMember);
+      logger.debug(
+          "{}: creating a local grouped group by executor for {} series#{}",
+          metaGroupMember.getName(),
+          paths.size(),
+          context.getQueryId());
+      GroupedGroupByExecutor executor =
+          localQueryExecutor.getGroupedGroupByExecutor(
+              paths,
+              dataTypes,
+              aggregationTypes,
+              groupIndexes,
+              deviceMeasurements,
+              timeFilter,
+              context,
+              ascending);
+      return executor.isEmpty() ? null : executor;
+    }
+
+    GroupedGroupByRequest request = new GroupedGroupByRequest();
+    List<String> pathStrings = new ArrayList<>(paths.size());
+    List<Integer> dataTypeOrdinals = new ArrayList<>(dataTypes.size());
+    for (int i = 0; i < paths.size(); i++) {
+      pathStrings.add(paths.get(i).getFullPath());
+      dataTypeOrdinals.add(dataTypes.get(i).ordinal());
+    }
+    if (timeFilter != null) {
+      request.setTimeFilterBytes(SerializeUtils.serializeFilter(timeFilter));
+    }
+    request.setPaths(pathStrings);
+    request.setDataTypeOrdinals(dataTypeOrdinals);
+    request.setAggregationTypeOrdinals(aggregationTypes);
+    request.setGroupIndexes(groupIndexes);
+    request.setHeader(partitionGroup.getHeader());
+    request.setQueryId(context.getQueryId());
+    request.setRequestor(metaGroupMember.getThisNode());
+    request.setDeviceMeasurements(deviceMeasurements);
+    request.setAscending(ascending);
+
+    // select a node with lowest latency or highest throughput with high priority
+    List<Node> orderedNodes = QueryCoordinator.getINSTANCE().reorderNodes(partitionGroup);
+    for (Node node : orderedNodes) {
+      // query a remote node
+      logger.debug(
+          "{}: querying grouped group by of {} series from {}",
+          metaGroupMember.getName(),
+          paths.size(),
+          node);
+
+      try {
+        Long executorId = getRemoteGroupedGroupByExecutorId(node, request);
+
+        if (executorId == null) {
+          continue;
+        }
+
+        if (executorId != -1) {
+          logger.debug(
+              "{}: get an executorId {} for {} series from {}",
+              metaGroupMember.getName(),
+              executorId,
+              paths.size(),
+              node);
+          // create a remote executor with the return id, which returns one result per group
+          RemoteGroupByExecutor remoteGroupByExecutor =
+              new RemoteGroupByExecutor(executorId, node, partitionGroup.getHeader());
+          for (int entryIndex : getGroupFirstEntries(groupIndexes).values()) {
+            remoteGroupByExecutor.addAggregateResult(
+                AggregateResultFactory.getAggrResultByType(
+                    AggregationType.values()[aggregationTypes.get(entryIndex)],
+                    dataTypes.get(entryIndex),
+                    ascending));
+          }
+          return remoteGroupByExecutor;
+        } else {
+          // an id of -1 means there is no satisfying data on the remote node
+          logger.debug(
+              "{}: no data for {} series from {}", metaGroupMember.getName(), paths.size(), node);
+          return null;
+        }
+      } catch (TApplicationException e) {
+        logger.error(metaGroupMember.getName() + ": Cannot query grouped group by from " + node, e);
+        throw new StorageEngineException(e.getMessage());
+      } catch (TException | IOException e) {
+        logger.error(metaGroupMember.getName() + ": Cannot query grouped group by from " + node, e);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        logger.error(metaGroupMember.getName() + ": Cannot query grouped group by from " + node, e);
+      } finally {
+        // record the queried node to release resources later
+        ((RemoteQueryContext) context).registerRemoteNode(node, partitionGroup.getHeader());
+      }
+    }
+    throw new StorageEngineException(
+        new RequestTimeOutException("Query grouped group by in " + partitionGroup));
+  }
+
+  private Long getRemoteGroupedGroupByExecutorId(Node node, GroupedGroupByRequest request)
+      throws IOException, TException, InterruptedException {
+    Long executorId;
+    if (ClusterDescriptor.getInstance().getConfig().isUseAsyncServer()) {
+      AsyncDataClient client =
+          ClusterIoTDB.getInstance()
+              .getAsyncDataClient(node, ClusterConstant.getReadOperationTimeoutMS());
+      executorId = SyncClientAdaptor.getGroupedGroupByExecutor(client, request);
+    } else {
+      SyncDataClient syncDataClient = null;
+      try {
+        syncDataClient =
+            ClusterIoTDB.getInstance()
+                .getSyncDataClient(node, ClusterConstant.getReadOperationTimeoutMS());
+        executorId = syncDataClient.getGroupedGroupByExecutor(request);
+      } catch (TException e) {
+        // the connection may be broken, close it to avoid it being reused
+        syncDataClient.close();
+        throw e;
+      } finally {
+        if (syncDataClient != null) {
+          syncDataClient.returnSelf();
+        }
+      }
+    }
+    return executorId;
+  }
+
   private Long getRemoteGroupByExecutorId(Node node, GroupByRequest request)
       throws IOException, TException, InterruptedException {
     Long executorId;
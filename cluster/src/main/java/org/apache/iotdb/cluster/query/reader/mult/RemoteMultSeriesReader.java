@@ -58,6 +58,13 @@ public class RemoteMultSeriesReader extends AbstractMultPointReader {
   private AtomicReference<Map<String, ByteBuffer>> fetchResult = new AtomicReference<>();
   private GenericHandler<Map<String, ByteBuffer>> handler;
 
+  /**
+   * whether an async fetch has been sent and its result is not taken yet. With the async server,
+   * the next batches are requested as soon as a new batch starts being consumed, so the round trip
+   * overlaps with the consumption.
+   */
+  private boolean fetching = false;
+
   private BatchStrategy batchStrategy;
 
   private Map<String, BatchData> currentBatchDatas;
@@ -85,6 +92,10 @@ public class RemoteMultSeriesReader extends AbstractMultPointReader {
     if (batchData != null && batchData.hasCurrent()) {
       return true;
     }
+    if (checkPathBatchData(fullPath)) {
+      // the next batch has been fetched in advance
+      return true;
+    }
     fetchBatch();
     return checkPathBatchData(fullPath);
   }
@@ -100,6 +111,7 @@ public class RemoteMultSeriesReader extends AbstractMultPointReader {
     if ((batchData == null || !batchData.hasCurrent()) && checkPathBatchData(fullPath)) {
       batchData = cachedBatchs.get(fullPath).poll();
       currentBatchDatas.put(fullPath, batchData);
+      prefetchBatch();
     }
 
     if (!hasNextTimeValuePair(fullPath)) {
@@ -128,54 +140,102 @@ public class RemoteMultSeriesReader extends AbstractMultPointReader {
       cachedBatchs = null;
       return;
     }
-    List<String> paths = batchStrategy.selectBatchPaths(this.cachedBatchs);
-    if (paths.isEmpty()) {
-      return;
-    }
 
     Map<String, ByteBuffer> result;
     if (ClusterDescriptor.getInstance().getConfig().isUseAsyncServer()) {
-      result = fetchResultAsync(paths);
+      // a read-ahead request may already be on the way
+      if (!fetching && !sendFetchRequestAsync()) {
+        return;
+      }
+      result = waitFetchResultAsync();
     } else {
+      List<String> paths = batchStrategy.selectBatchPaths(this.cachedBatchs);
+      if (paths.isEmpty()) {
+        return;
+      }
       result = fetchResultSync(paths);
     }
+    cacheFetchResult(result);
+  }
+
+  /** Request the next batches in the background, the result is taken by the next fetchBatch(). */
+  private void prefetchBatch() {
+    if (fetching
+        || cachedBatchs == null
+        || !ClusterDescriptor.getInstance().getConfig().isUseAsyncServer()) {
+      return;
+    }
+    try {
+      sendFetchRequestAsync();
+    } catch (IOException e) {
+      // the following blocking fetch will retry and report the failure
+      logger.debug("Cannot fetch the next batches in advance from {}", sourceInfo, e);
+    }
+  }
 
+  private void cacheFetchResult(Map<String, ByteBuffer> result) {
     if (result == null) {
       return;
     }
 
-    for (String path : result.keySet()) {
+    for (Map.Entry<String, ByteBuffer> entry : result.entrySet()) {
+      Queue<BatchData> batchDataQueue =
+          cachedBatchs.computeIfAbsent(entry.getKey(), n -> new ConcurrentLinkedQueue<>());
+      ByteBuffer buffer = entry.getValue();
+      // the remote may pack several batches of a path into one buffer
+      do {
+        BatchData batchData = SerializeUtils.deserializeBatchData(buffer);
+        if (logger.isDebugEnabled()) {
+          logger.debug(
+              "Fetched a batch from {}, size:{}",
+              sourceInfo.getCurrentNode(),
+              batchData == null ? 0 : batchData.length());
+        }
+        // if data query end, batchData is null,
+        // will create empty BatchData, and add queue.
+        if (batchData == null) {
+          batchData = new BatchData();
+        }
+        batchDataQueue.add(batchData);
+      } while (buffer != null && buffer.hasRemaining());
+    }
+  }
 
-      BatchData batchData = SerializeUtils.deserializeBatchData(result.get(path));
-      if (logger.isDebugEnabled()) {
-        logger.debug(
-            "Fetched a batch from {}, size:{}",
-            sourceInfo.getCurrentNode(),
-            batchData == null ? 0 : batchData.length());
-      }
-      // if data query end, batchData is null,
-      // will create empty BatchData, and add queue.
-      if (batchData == null) {
-        batchData = new BatchData();
-      }
-      cachedBatchs
-          .computeIfAbsent(path, n -> new ConcurrentLinkedQueue<BatchData>())
-          .add(batchData);
+  /** @return true if a request is sent, false if there is no path to fetch */
+  private boolean sendFetchRequestAsync() throws IOException {
+    List<String> paths = batchStrategy.selectBatchPaths(this.cachedBatchs);
+    if (paths.isEmpty()) {
+      return false;
     }
+    // a new result holder for each request, so that a late response of a timed-out request or an
+    // old failure is not mistaken as the result of this one
+    fetchResult = new AtomicReference<>();
+    handler = new GenericHandler<>(sourceInfo.getCurrentNode(), fetchResult);
+    try {
+      sourceInfo
+          .getCurAsyncClient(ClusterConstant.getReadOperationTimeoutMS())
+          .fetchMultSeries(sourceInfo.getHeader(), sourceInfo.getReaderId(), paths, handler);
+    } catch (TException e) {
+      logger.error("Failed to fetch result async, connect to {}", sourceInfo, e);
+      return false;
+    }
+    fetching = true;
+    return true;
   }
 
   @SuppressWarnings("java:S2274") // enable timeout
-  private Map<String, ByteBuffer> fetchResultAsync(List<String> paths) throws IOException {
+  private Map<String, ByteBuffer> waitFetchResultAsync() {
     synchronized (fetchResult) {
-      fetchResult.set(null);
       try {
-        sourceInfo
-            .getCurAsyncClient(ClusterConstant.getReadOperationTimeoutMS())
-            .fetchMultSeries(sourceInfo.getHeader(), sourceInfo.getReaderId(), paths, handler);
-        fetchResult.wait(ClusterConstant.getReadOperationTimeoutMS());
-      } catch (TException | InterruptedException e) {
+        if (fetchResult.get() == null && handler.getException() == null) {
+          fetchResult.wait(ClusterConstant.getReadOperationTimeoutMS());
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
         logger.error("Failed to fetch result async, connect to {}", sourceInfo, e);
         return null;
+      } finally {
+        fetching = false;
       }
     }
     return fetchResult.get();
@@ -755,6 +755,13 @@ public abstract class RaftMember implements RaftMemberMBean {
         case WEAK_CONSISTENCY:
           // do nothing
           return;
+        case BOUNDED_STALENESS:
+          // serve the read with local data if this replica is known to be fresh enough, otherwise
+          // catch up with the leader as mid consistency does
+          if (!isWithinReadStaleness()) {
+            syncLeader(new MidCheckConsistency());
+          }
+          return;
         default:
           // this should not happen in theory
           throw new CheckConsistencyException(
@@ -763,6 +770,24 @@ public abstract class RaftMember implements RaftMemberMBean {
     }
   }
 
+  /**
+   * Whether this node may serve a bounded-staleness read without contacting the leader: either it
+   * is the leader, or it has heard from the leader within max_read_staleness_ms and its applied
+   * log lags behind its commit index by no more than max_read_log_lag.
+   */
+  boolean isWithinReadStaleness() {
+    if (character == NodeCharacter.LEADER) {
+      return true;
+    }
+    if (character != NodeCharacter.FOLLOWER
+        || System.currentTimeMillis() - lastHeartbeatReceivedTime
+            > config.getMaxReadStalenessMs()) {
+      return false;
+    }
+    return logManager.getCommitLogIndex() - logManager.getMaxHaveAppliedCommitIndex()
+        <= config.getMaxReadLogLag();
+  }
+
   public String getMBeanName() {
     return String.format(
         "%s:%s=%s", "org.apache.iotdb.cluster.service", IoTDBConstant.JMX_TYPE, "Engine");
@@ -1606,6 +1631,8 @@ public abstract class RaftMember implements RaftMemberMBean {
       logManager.commitTo(log.getCurrLogIndex());
     }
     Statistic.RAFT_SENDER_COMMIT_LOG_IN_MANAGER.calOperationCostTimeFromStart(startTime);
+    // out of the lock, so that the logs committed meanwhile are forced together
+    logManager.waitForPersistence(log.getCurrLogIndex());
     // when using async applier, the log here may not be applied. To return the execution
     // result, we must wait until the log is applied.
     startTime = Statistic.RAFT_SENDER_COMMIT_WAIT_LOG_APPLY.getOperationStartTime();
@@ -1999,12 +2026,14 @@ public abstract class RaftMember implements RaftMemberMBean {
     long startTime = Timer.Statistic.RAFT_RECEIVER_APPEND_ENTRY.getOperationStartTime();
     long startWaitingTime = System.currentTimeMillis();
     long success;
+    long commitIndex;
     while (true) {
       synchronized (logManager) {
         // TODO: Consider memory footprint to execute a precise rejection
         if ((logManager.getCommitLogIndex() - logManager.getMaxHaveAppliedCommitIndex())
             <= config.getUnAppliedRaftLogNumForRejectThreshold()) {
           success = logManager.maybeAppend(prevLogIndex, prevLogTerm, leaderCommit, log);
+          commitIndex = logManager.getCommitLogIndex();
           break;
         }
         try {
@@ -2022,6 +2051,7 @@ public abstract class RaftMember implements RaftMemberMBean {
     Timer.Statistic.RAFT_RECEIVER_APPEND_ENTRY.calOperationCostTimeFromStart(startTime);
     if (success != -1) {
       logger.debug("{} append a new log {}", name, log);
+      waitForCommittedLogPersistence(commitIndex);
       resp = Response.RESPONSE_AGREE;
     } else {
       // the incoming log points to an illegal position, reject it
@@ -2099,6 +2129,7 @@ public abstract class RaftMember implements RaftMemberMBean {
     }
 
     long startWaitingTime = System.currentTimeMillis();
+    long commitIndex = -1;
     while (true) {
       synchronized (logManager) {
         // TODO: Consider memory footprint to execute a precise rejection
@@ -2111,6 +2142,7 @@ public abstract class RaftMember implements RaftMemberMBean {
             if (logger.isDebugEnabled()) {
               logger.debug("{} append a new log list {}, commit to {}", name, logs, leaderCommit);
             }
+            commitIndex = logManager.getCommitLogIndex();
             resp = Response.RESPONSE_AGREE;
           } else {
             // the incoming log points to an illegal position, reject it
@@ -2130,9 +2162,25 @@ public abstract class RaftMember implements RaftMemberMBean {
         Thread.currentThread().interrupt();
       }
     }
+    if (resp == Response.RESPONSE_AGREE) {
+      // the whole batch committed by the request is forced together
+      waitForCommittedLogPersistence(commitIndex);
+    }
     return resp;
   }
 
+  /**
+   * Wait until the logs committed by an AppendEntries request are persisted, out of the lock of the
+   * log manager. Like the commit itself, a failure is ignored on the follower side.
+   */
+  private void waitForCommittedLogPersistence(long commitIndex) {
+    try {
+      logManager.waitForPersistence(commitIndex);
+    } catch (LogExecutionException e) {
+      logger.warn("{}: Cannot persist the logs committed to {}", name, commitIndex, e);
+    }
+  }
+
   /**
    * Check the term of the AppendEntryRequest. The term checked is the term of the leader, not the
    * term of the log. A new leader can still send logs of old leaders.
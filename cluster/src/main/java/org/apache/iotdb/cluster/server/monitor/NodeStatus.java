@@ -53,12 +53,28 @@ public class NodeStatus implements Comparable<NodeStatus> {
   // its lastDeactivatedTime is too old.
   private long lastDeactivatedTime;
 
-  // TODO-Cluster: decide what should be contained in NodeStatus and how two compare two NodeStatus
+  // unreachable nodes come last, then nodes with fewer running queries, then nodes that respond
+  // faster
   @Override
   public int compareTo(NodeStatus o) {
+    int result =
+        Boolean.compare(
+            this.lastResponseLatency == Long.MAX_VALUE, o.lastResponseLatency == Long.MAX_VALUE);
+    if (result != 0) {
+      return result;
+    }
+    result = Integer.compare(this.getRunningQueryNum(), o.getRunningQueryNum());
+    if (result != 0) {
+      return result;
+    }
     return Long.compare(this.lastResponseLatency, o.lastResponseLatency);
   }
 
+  /** @return the last reported number of running queries, or 0 if the node has not reported it */
+  public int getRunningQueryNum() {
+    return status != null && status.isSetRunningQueryNum() ? status.getRunningQueryNum() : 0;
+  }
+
   @Override
   public boolean equals(Object o) {
     if (this == o) {
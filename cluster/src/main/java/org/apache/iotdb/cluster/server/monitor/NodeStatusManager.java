@@ -28,6 +28,7 @@ import org.apache.iotdb.cluster.rpc.thrift.TNodeStatus;
 import org.apache.iotdb.cluster.server.member.MetaGroupMember;
 import org.apache.iotdb.cluster.utils.ClientUtils;
 import org.apache.iotdb.commons.utils.TestOnly;
+import org.apache.iotdb.db.query.control.QueryTimeManager;
 
 import org.apache.thrift.TException;
 import org.slf4j.Logger;
@@ -154,6 +155,13 @@ public class NodeStatusManager {
         nodeStatus.getLastResponseLatency());
   }
 
+  /** @return the load of the local node, which is reported to the nodes that query its status */
+  public TNodeStatus getLocalStatus() {
+    TNodeStatus status = new TNodeStatus();
+    status.setRunningQueryNum(QueryTimeManager.getInstance().getQueryContextMap().size());
+    return status;
+  }
+
   public long getLastResponseLatency(Node node) {
     NodeStatus nodeStatus = getNodeStatus(node, true);
     return nodeStatus.getLastResponseLatency();
@@ -27,7 +27,9 @@ import org.apache.iotdb.cluster.exception.ReaderNotFoundException;
 import org.apache.iotdb.cluster.metadata.CSchemaProcessor;
 import org.apache.iotdb.cluster.rpc.thrift.GetAggrResultRequest;
 import org.apache.iotdb.cluster.rpc.thrift.GetAllPathsResult;
+import org.apache.iotdb.cluster.rpc.thrift.GetGroupedAggrResultRequest;
 import org.apache.iotdb.cluster.rpc.thrift.GroupByRequest;
+import org.apache.iotdb.cluster.rpc.thrift.GroupedGroupByRequest;
 import org.apache.iotdb.cluster.rpc.thrift.LastQueryRequest;
 import org.apache.iotdb.cluster.rpc.thrift.MeasurementSchemaRequest;
 import org.apache.iotdb.cluster.rpc.thrift.MultSeriesQueryRequest;
@@ -389,6 +391,17 @@ public class DataAsyncService extends BaseAsyncService implements TSDataService.
     }
   }
 
+  @Override
+  public void getGroupedAggrResult(
+      GetGroupedAggrResultRequest request, AsyncMethodCallback<List<ByteBuffer>> resultHandler) {
+    try {
+      resultHandler.onComplete(
+          dataGroupMember.getLocalQueryExecutor().getGroupedAggrResult(request));
+    } catch (StorageEngineException | QueryProcessException | IOException e) {
+      resultHandler.onError(e);
+    }
+  }
+
   @Override
   public void getUnregisteredTimeseries(
       RaftNode header,
@@ -411,6 +424,17 @@ public class DataAsyncService extends BaseAsyncService implements TSDataService.
     }
   }
 
+  @Override
+  public void getGroupedGroupByExecutor(
+      GroupedGroupByRequest request, AsyncMethodCallback<Long> resultHandler) {
+    try {
+      resultHandler.onComplete(
+          dataGroupMember.getLocalQueryExecutor().getGroupedGroupByExecutor(request));
+    } catch (QueryProcessException | StorageEngineException e) {
+      resultHandler.onError(e);
+    }
+  }
+
   @Override
   public void getGroupByResult(
       RaftNode header,
@@ -25,7 +25,9 @@ import org.apache.iotdb.cluster.rpc.thrift.ElectionRequest;
 import org.apache.iotdb.cluster.rpc.thrift.ExecutNonQueryReq;
 import org.apache.iotdb.cluster.rpc.thrift.GetAggrResultRequest;
 import org.apache.iotdb.cluster.rpc.thrift.GetAllPathsResult;
+import org.apache.iotdb.cluster.rpc.thrift.GetGroupedAggrResultRequest;
 import org.apache.iotdb.cluster.rpc.thrift.GroupByRequest;
+import org.apache.iotdb.cluster.rpc.thrift.GroupedGroupByRequest;
 import org.apache.iotdb.cluster.rpc.thrift.HeartBeatRequest;
 import org.apache.iotdb.cluster.rpc.thrift.HeartBeatResponse;
 import org.apache.iotdb.cluster.rpc.thrift.LastQueryRequest;
@@ -362,6 +364,17 @@ public class DataGroupServiceImpls implements TSDataService.AsyncIface, TSDataSe
     }
   }
 
+  @Override
+  public void getGroupedAggrResult(
+      GetGroupedAggrResultRequest request, AsyncMethodCallback<List<ByteBuffer>> resultHandler) {
+    DataAsyncService service =
+        DataGroupEngine.getInstance()
+            .getDataAsyncService(request.getHeader(), resultHandler, request);
+    if (service != null) {
+      service.getGroupedAggrResult(request, resultHandler);
+    }
+  }
+
   @Override
   public void getUnregisteredTimeseries(
       RaftNode header,
@@ -385,6 +398,17 @@ public class DataGroupServiceImpls implements TSDataService.AsyncIface, TSDataSe
     }
   }
 
+  @Override
+  public void getGroupedGroupByExecutor(
+      GroupedGroupByRequest request, AsyncMethodCallback<Long> resultHandler) {
+    DataAsyncService service =
+        DataGroupEngine.getInstance()
+            .getDataAsyncService(request.getHeader(), resultHandler, request);
+    if (service != null) {
+      service.getGroupedGroupByExecutor(request, resultHandler);
+    }
+  }
+
   @Override
   public void getGroupByResult(
       RaftNode header,
@@ -570,6 +594,14 @@ public class DataGroupServiceImpls implements TSDataService.AsyncIface, TSDataSe
         .getAggrResult(request);
   }
 
+  @Override
+  public List<ByteBuffer> getGroupedAggrResult(GetGroupedAggrResultRequest request)
+      throws TException {
+    return DataGroupEngine.getInstance()
+        .getDataSyncService(request.getHeader())
+        .getGroupedAggrResult(request);
+  }
+
   @Override
   public List<String> getUnregisteredTimeseries(RaftNode header, List<String> timeseriesList)
       throws TException {
@@ -592,6 +624,13 @@ public class DataGroupServiceImpls implements TSDataService.AsyncIface, TSDataSe
         .getGroupByExecutor(request);
   }
 
+  @Override
+  public long getGroupedGroupByExecutor(GroupedGroupByRequest request) throws TException {
+    return DataGroupEngine.getInstance()
+        .getDataSyncService(request.getHeader())
+        .getGroupedGroupByExecutor(request);
+  }
+
   @Override
   public List<ByteBuffer> getGroupByResult(
       RaftNode header, long executorId, long startTime, long endTime) throws TException {
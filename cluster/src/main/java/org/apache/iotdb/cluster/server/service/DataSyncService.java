@@ -27,7 +27,9 @@ import org.apache.iotdb.cluster.exception.ReaderNotFoundException;
 import org.apache.iotdb.cluster.metadata.CSchemaProcessor;
 import org.apache.iotdb.cluster.rpc.thrift.GetAggrResultRequest;
 import org.apache.iotdb.cluster.rpc.thrift.GetAllPathsResult;
+import org.apache.iotdb.cluster.rpc.thrift.GetGroupedAggrResultRequest;
 import org.apache.iotdb.cluster.rpc.thrift.GroupByRequest;
+import org.apache.iotdb.cluster.rpc.thrift.GroupedGroupByRequest;
 import org.apache.iotdb.cluster.rpc.thrift.LastQueryRequest;
 import org.apache.iotdb.cluster.rpc.thrift.MeasurementSchemaRequest;
 import org.apache.iotdb.cluster.rpc.thrift.MultSeriesQueryRequest;
@@ -365,6 +367,20 @@ public class DataSyncService extends BaseSyncService implements TSDataService.If
     }
   }
 
+  @Override
+  public List<ByteBuffer> getGroupedAggrResult(GetGroupedAggrResultRequest request)
+      throws TException {
+    try {
+      return dataGroupMember.getLocalQueryExecutor().getGroupedAggrResult(request);
+    } catch (StorageEngineException
+        | QueryProcessException
+        | IOException
+        | StatisticsClassException
+        | UnSupportedDataTypeException e) {
+      throw new TApplicationException(e.getMessage());
+    }
+  }
+
   @Override
   public List<String> getUnregisteredTimeseries(RaftNode header, List<String> timeseriesList)
       throws TException {
@@ -384,6 +400,15 @@ public class DataSyncService extends BaseSyncService implements TSDataService.If
     }
   }
 
+  @Override
+  public long getGroupedGroupByExecutor(GroupedGroupByRequest request) throws TException {
+    try {
+      return dataGroupMember.getLocalQueryExecutor().getGroupedGroupByExecutor(request);
+    } catch (QueryProcessException | StorageEngineException e) {
+      throw new TException(e);
+    }
+  }
+
   @Override
   public List<ByteBuffer> getGroupByResult(
       RaftNode header, long executorId, long startTime, long endTime) throws TException {
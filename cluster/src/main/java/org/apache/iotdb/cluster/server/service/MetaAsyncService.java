@@ -37,6 +37,7 @@ import org.apache.iotdb.cluster.rpc.thrift.TSMetaService;
 import org.apache.iotdb.cluster.server.NodeCharacter;
 import org.apache.iotdb.cluster.server.Response;
 import org.apache.iotdb.cluster.server.member.MetaGroupMember;
+import org.apache.iotdb.cluster.server.monitor.NodeStatusManager;
 import org.apache.iotdb.cluster.utils.ClusterUtils;
 
 import org.apache.thrift.TException;
@@ -155,7 +156,7 @@ public class MetaAsyncService extends BaseAsyncService implements TSMetaService.
    */
   @Override
   public void queryNodeStatus(AsyncMethodCallback<TNodeStatus> resultHandler) {
-    resultHandler.onComplete(new TNodeStatus());
+    resultHandler.onComplete(NodeStatusManager.getINSTANCE().getLocalStatus());
   }
 
   @Override
@@ -22,13 +22,12 @@ package org.apache.iotdb.cluster.utils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.BufferedInputStream;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
-import java.io.InputStream;
 import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
 
 @SuppressWarnings("java:S1135")
 public class IOUtils {
@@ -52,14 +51,17 @@ public class IOUtils {
 
     ByteBuffer result;
     boolean fileExhausted;
-    try (BufferedInputStream bufferedInputStream =
-        new BufferedInputStream(new FileInputStream(file))) {
-      skipExactly(bufferedInputStream, offset);
-      byte[] bytes = new byte[length];
-      result = ByteBuffer.wrap(bytes);
-      int len = bufferedInputStream.read(bytes);
-      result.limit(Math.max(len, 0));
-      fileExhausted = bufferedInputStream.available() <= 0;
+    // a positional read neither skips the stream byte by byte nor copies through a stream buffer
+    try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+      long remaining = Math.max(channel.size() - offset, 0);
+      result = ByteBuffer.allocate((int) Math.min(length, remaining));
+      while (result.hasRemaining()) {
+        if (channel.read(result, offset + result.position()) < 0) {
+          break;
+        }
+      }
+      result.flip();
+      fileExhausted = offset + result.limit() >= channel.size();
     }
 
     if (fileExhausted) {
@@ -72,12 +74,6 @@ public class IOUtils {
     return result;
   }
 
-  private static void skipExactly(InputStream stream, long byteToSkip) throws IOException {
-    while (byteToSkip > 0) {
-      byteToSkip -= stream.skip(byteToSkip);
-    }
-  }
-
   public static Throwable getRootCause(Throwable e) {
     Throwable curr = e;
     while (curr.getCause() != null) {
@@ -26,7 +26,9 @@ import org.apache.iotdb.cluster.rpc.thrift.ElectionRequest;
 import org.apache.iotdb.cluster.rpc.thrift.ExecutNonQueryReq;
 import org.apache.iotdb.cluster.rpc.thrift.GetAggrResultRequest;
 import org.apache.iotdb.cluster.rpc.thrift.GetAllPathsResult;
+import org.apache.iotdb.cluster.rpc.thrift.GetGroupedAggrResultRequest;
 import org.apache.iotdb.cluster.rpc.thrift.GroupByRequest;
+import org.apache.iotdb.cluster.rpc.thrift.GroupedGroupByRequest;
 import org.apache.iotdb.cluster.rpc.thrift.LastQueryRequest;
 import org.apache.iotdb.cluster.rpc.thrift.MeasurementSchemaRequest;
 import org.apache.iotdb.cluster.rpc.thrift.MultSeriesQueryRequest;
@@ -113,6 +115,16 @@ public class TestAsyncDataClient extends AsyncDataClient {
         .start();
   }
 
+  @Override
+  public void getGroupedAggrResult(
+      GetGroupedAggrResultRequest request, AsyncMethodCallback<List<ByteBuffer>> resultHandler) {
+    new Thread(
+            () ->
+                new DataAsyncService(dataGroupMemberMap.get(request.getHeader()))
+                    .getGroupedAggrResult(request, resultHandler))
+        .start();
+  }
+
   @Override
   public void querySingleSeries(
       SingleSeriesQueryRequest request, AsyncMethodCallback<Long> resultHandler) {
@@ -257,6 +269,16 @@ public class TestAsyncDataClient extends AsyncDataClient {
         .start();
   }
 
+  @Override
+  public void getGroupedGroupByExecutor(
+      GroupedGroupByRequest request, AsyncMethodCallback<Long> resultHandler) {
+    new Thread(
+            () ->
+                new DataAsyncService(dataGroupMemberMap.get(request.getHeader()))
+                    .getGroupedGroupByExecutor(request, resultHandler))
+        .start();
+  }
+
   @Override
   public void getGroupByResult(
       RaftNode header,
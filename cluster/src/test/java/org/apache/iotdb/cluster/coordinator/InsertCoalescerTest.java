@@ -0,0 +1,130 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.cluster.coordinator;
+
+import org.apache.iotdb.cluster.common.TestUtils;
+import org.apache.iotdb.cluster.partition.PartitionGroup;
+import org.apache.iotdb.db.exception.metadata.IllegalPathException;
+import org.apache.iotdb.db.metadata.path.PartialPath;
+import org.apache.iotdb.db.qp.physical.PhysicalPlan;
+import org.apache.iotdb.db.qp.physical.crud.InsertRowPlan;
+import org.apache.iotdb.db.qp.physical.crud.InsertRowsPlan;
+import org.apache.iotdb.rpc.RpcUtils;
+import org.apache.iotdb.rpc.TSStatusCode;
+import org.apache.iotdb.service.rpc.thrift.TSStatus;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class InsertCoalescerTest {
+
+  private final PartitionGroup group = new PartitionGroup(0, TestUtils.getNode(0));
+
+  @Test
+  public void testCoalesceConcurrentRequests() throws IllegalPathException {
+    List<InsertRowsPlan> forwarded = Collections.synchronizedList(new ArrayList<>());
+    // 100ms is long enough for both requests to join the same batch
+    InsertCoalescer coalescer =
+        new InsertCoalescer(
+            100_000,
+            100,
+            (plan, partitionGroup) -> {
+              forwarded.add((InsertRowsPlan) plan);
+              // the second row of the merged plan fails
+              List<TSStatus> subStatus = new ArrayList<>();
+              for (int i = 0; i < ((InsertRowsPlan) plan).getRowCount(); i++) {
+                subStatus.add(
+                    RpcUtils.getStatus(
+                        i == 1 ? TSStatusCode.WRITE_PROCESS_ERROR : TSStatusCode.SUCCESS_STATUS));
+              }
+              return RpcUtils.getStatus(subStatus);
+            });
+    InsertRowPlan rowPlan = createRow("root.sg.d0", 0);
+    InsertRowsPlan rowsPlan = new InsertRowsPlan();
+    rowsPlan.addOneInsertRowPlan(createRow("root.sg.d1", 1), 0);
+    rowsPlan.addOneInsertRowPlan(createRow("root.sg.d2", 2), 1);
+    assertTrue(coalescer.canCoalesce(rowPlan));
+    assertTrue(coalescer.canCoalesce(rowsPlan));
+
+    CompletableFuture<TSStatus> rowStatus = coalescer.submit(rowPlan, group);
+    CompletableFuture<TSStatus> rowsStatus = coalescer.submit(rowsPlan, group);
+
+    assertEquals(
+        TSStatusCode.SUCCESS_STATUS.getStatusCode(),
+        InsertCoalescer.waitForStatus(rowStatus).getCode());
+    TSStatus status = InsertCoalescer.waitForStatus(rowsStatus);
+    assertEquals(TSStatusCode.MULTIPLE_ERROR.getStatusCode(), status.getCode());
+    assertEquals(2, status.getSubStatus().size());
+    assertEquals(
+        TSStatusCode.WRITE_PROCESS_ERROR.getStatusCode(), status.getSubStatus().get(0).getCode());
+    assertEquals(
+        TSStatusCode.SUCCESS_STATUS.getStatusCode(), status.getSubStatus().get(1).getCode());
+    assertEquals(1, forwarded.size());
+    assertEquals(3, forwarded.get(0).getRowCount());
+  }
+
+  @Test
+  public void testFullBatch() throws IllegalPathException {
+    List<InsertRowsPlan> forwarded = Collections.synchronizedList(new ArrayList<>());
+    InsertCoalescer coalescer =
+        new InsertCoalescer(
+            1000,
+            2,
+            (plan, partitionGroup) -> {
+              forwarded.add((InsertRowsPlan) plan);
+              return RpcUtils.getStatus(TSStatusCode.SUCCESS_STATUS);
+            });
+    List<CompletableFuture<TSStatus>> statuses = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      statuses.add(coalescer.submit(createRow("root.sg.d" + i, i), group));
+    }
+    for (CompletableFuture<TSStatus> status : statuses) {
+      assertEquals(
+          TSStatusCode.SUCCESS_STATUS.getStatusCode(),
+          InsertCoalescer.waitForStatus(status).getCode());
+    }
+    assertEquals(2, forwarded.size());
+  }
+
+  @Test
+  public void testDisabled() throws IllegalPathException {
+    InsertCoalescer coalescer =
+        new InsertCoalescer(0, 100, (plan, partitionGroup) -> RpcUtils.SUCCESS_STATUS);
+    PhysicalPlan plan = createRow("root.sg.d0", 0);
+    assertFalse(coalescer.canCoalesce(plan));
+  }
+
+  private InsertRowPlan createRow(String device, long time) throws IllegalPathException {
+    return new InsertRowPlan(
+        new PartialPath(device),
+        time,
+        new String[] {"s1"},
+        new TSDataType[] {TSDataType.INT64},
+        new String[] {"1"});
+  }
+}
@@ -20,6 +20,7 @@ package org.apache.iotdb.cluster.log.manage.serializable;
 
 import org.apache.iotdb.cluster.common.IoTDBTest;
 import org.apache.iotdb.cluster.common.TestUtils;
+import org.apache.iotdb.cluster.config.ClusterConfig;
 import org.apache.iotdb.cluster.config.ClusterDescriptor;
 import org.apache.iotdb.cluster.log.HardState;
 import org.apache.iotdb.cluster.log.Log;
@@ -33,8 +34,12 @@ import java.io.File;
 import java.io.IOException;
 import java.nio.BufferOverflowException;
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.apache.iotdb.commons.conf.IoTDBConstant.FILE_NAME_SEPARATOR;
 
@@ -551,6 +556,94 @@ public class SyncLogDequeSerializerTest extends IoTDBTest {
     }
   }
 
+  @Test
+  public void testGroupCommit() throws Exception {
+    ClusterConfig config = ClusterDescriptor.getInstance().getConfig();
+    int flushRaftLogThreshold = config.getFlushRaftLogThreshold();
+    config.setFlushRaftLogThreshold(0);
+    int logNum = 10;
+    int maxHaveAppliedCommitIndex = 7;
+    List<Log> testLogs1 = TestUtils.prepareNodeLogs(logNum);
+    long lastLogIndex = testLogs1.get(logNum - 1).getCurrLogIndex();
+    SyncLogDequeSerializer syncLogDequeSerializer = null;
+    try {
+      syncLogDequeSerializer = new SyncLogDequeSerializer(testIdentifier);
+      syncLogDequeSerializer.append(testLogs1, maxHaveAppliedCommitIndex);
+      Assert.assertEquals(-1, syncLogDequeSerializer.getLastPersistedLogIndex());
+
+      // each committer waits for its own log, and they share the forces of the appended logs
+      SyncLogDequeSerializer serializer = syncLogDequeSerializer;
+      ExecutorService committers = Executors.newFixedThreadPool(logNum);
+      List<Future<Void>> futures = new ArrayList<>();
+      for (Log log : testLogs1) {
+        futures.add(
+            committers.submit(
+                () -> {
+                  serializer.waitForPersistence(log.getCurrLogIndex());
+                  Assert.assertTrue(
+                      serializer.getLastPersistedLogIndex() >= log.getCurrLogIndex());
+                  return null;
+                }));
+      }
+      for (Future<Void> future : futures) {
+        future.get();
+      }
+      committers.shutdown();
+      Assert.assertEquals(lastLogIndex, syncLogDequeSerializer.getLastPersistedLogIndex());
+
+      // the logs are written into the file before the waiters return
+      long expectedSize = 0;
+      for (Log log : testLogs1) {
+        expectedSize += Integer.BYTES + log.serialize().capacity();
+      }
+      List<File> logDataFileList = syncLogDequeSerializer.getLogDataFileList();
+      Assert.assertEquals(expectedSize, logDataFileList.get(logDataFileList.size() - 1).length());
+    } finally {
+      if (syncLogDequeSerializer != null) {
+        syncLogDequeSerializer.close();
+      }
+      config.setFlushRaftLogThreshold(flushRaftLogThreshold);
+    }
+
+    // recovery
+    syncLogDequeSerializer = new SyncLogDequeSerializer(testIdentifier);
+    try {
+      List<Log> logDeque = syncLogDequeSerializer.getAllEntriesAfterAppliedIndex();
+      Assert.assertEquals(lastLogIndex - maxHaveAppliedCommitIndex + 1, logDeque.size());
+      for (int i = maxHaveAppliedCommitIndex; i < logNum; i++) {
+        Assert.assertEquals(testLogs1.get(i), logDeque.get(i - maxHaveAppliedCommitIndex));
+      }
+    } finally {
+      syncLogDequeSerializer.close();
+    }
+  }
+
+  @Test
+  public void testWaitForPersistenceWithinThreshold() throws Exception {
+    ClusterConfig config = ClusterDescriptor.getInstance().getConfig();
+    int flushRaftLogThreshold = config.getFlushRaftLogThreshold();
+    config.setFlushRaftLogThreshold(10);
+    List<Log> testLogs1 = TestUtils.prepareNodeLogs(20);
+    SyncLogDequeSerializer syncLogDequeSerializer = null;
+    try {
+      syncLogDequeSerializer = new SyncLogDequeSerializer(testIdentifier);
+      // losing the first 10 logs is allowed, so no force is needed
+      syncLogDequeSerializer.append(testLogs1.subList(0, 10), 0);
+      syncLogDequeSerializer.waitForPersistence(testLogs1.get(9).getCurrLogIndex());
+      Assert.assertEquals(-1, syncLogDequeSerializer.getLastPersistedLogIndex());
+
+      syncLogDequeSerializer.append(testLogs1.subList(10, 20), 0);
+      syncLogDequeSerializer.waitForPersistence(testLogs1.get(19).getCurrLogIndex());
+      Assert.assertEquals(
+          testLogs1.get(19).getCurrLogIndex(), syncLogDequeSerializer.getLastPersistedLogIndex());
+    } finally {
+      if (syncLogDequeSerializer != null) {
+        syncLogDequeSerializer.close();
+      }
+      config.setFlushRaftLogThreshold(flushRaftLogThreshold);
+    }
+  }
+
   @Test
   public void testDeleteLogs() {
     SyncLogDequeSerializer syncLogDequeSerializer = new SyncLogDequeSerializer(testIdentifier);
@@ -21,6 +21,7 @@ package org.apache.iotdb.cluster.log.snapshot;
 
 import org.apache.iotdb.cluster.RemoteTsFileResource;
 import org.apache.iotdb.cluster.common.TestUtils;
+import org.apache.iotdb.cluster.config.ClusterConfig;
 import org.apache.iotdb.cluster.config.ClusterDescriptor;
 import org.apache.iotdb.cluster.exception.SnapshotInstallationException;
 import org.apache.iotdb.cluster.partition.slot.SlotManager.SlotStatus;
@@ -92,6 +93,24 @@ public class FileSnapshotTest extends DataSnapshotTest {
     testInstallSingle(true);
   }
 
+  @Test
+  public void testInstallSingleWithSmallChunks()
+      throws IOException, SnapshotInstallationException, IllegalPathException,
+          StorageEngineException, WriteProcessException {
+    ClusterConfig config = ClusterDescriptor.getInstance().getConfig();
+    int chunkSize = config.getPullSnapshotChunkSizeInByte();
+    int pullFileThreadNum = config.getPullSnapshotFileThreadNum();
+    // each file is pulled in many chunks while several files are pulled concurrently
+    config.setPullSnapshotChunkSizeInByte(256);
+    config.setPullSnapshotFileThreadNum(4);
+    try {
+      testInstallSingle(false);
+    } finally {
+      config.setPullSnapshotChunkSizeInByte(chunkSize);
+      config.setPullSnapshotFileThreadNum(pullFileThreadNum);
+    }
+  }
+
   public void testInstallSingle(boolean addNetFailure)
       throws IOException, SnapshotInstallationException, IllegalPathException,
           StorageEngineException, WriteProcessException {
@@ -21,6 +21,7 @@ package org.apache.iotdb.cluster.query;
 
 import org.apache.iotdb.cluster.common.TestUtils;
 import org.apache.iotdb.cluster.query.aggregate.ClusterAggregateExecutor;
+import org.apache.iotdb.cluster.query.aggregate.ClusterAggregator;
 import org.apache.iotdb.db.exception.StorageEngineException;
 import org.apache.iotdb.db.exception.metadata.IllegalPathException;
 import org.apache.iotdb.db.exception.query.QueryProcessException;
@@ -28,6 +29,7 @@ import org.apache.iotdb.db.metadata.path.MeasurementPath;
 import org.apache.iotdb.db.metadata.path.PartialPath;
 import org.apache.iotdb.db.qp.constant.SQLConstant;
 import org.apache.iotdb.db.qp.physical.crud.AggregationPlan;
+import org.apache.iotdb.db.query.aggregation.AggregateResult;
 import org.apache.iotdb.db.query.context.QueryContext;
 import org.apache.iotdb.db.query.control.QueryResourceManager;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
@@ -44,10 +46,15 @@ import org.junit.Test;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 public class ClusterAggregateExecutorTest extends BaseQueryTest {
@@ -142,4 +149,51 @@ public class ClusterAggregateExecutorTest extends BaseQueryTest {
       QueryResourceManager.getInstance().endQuery(context.getQueryId());
     }
   }
+
+  @Test
+  public void testGroupedAggregation() throws StorageEngineException, IllegalPathException {
+    List<PartialPath> paths = new ArrayList<>();
+    List<String> aggregations = new ArrayList<>();
+    List<TSDataType> dataTypes = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      paths.add(new MeasurementPath(TestUtils.getTestSeries(0, i), TSDataType.DOUBLE));
+      aggregations.add(i % 2 == 0 ? SQLConstant.COUNT : SQLConstant.SUM);
+      dataTypes.add(TSDataType.DOUBLE);
+    }
+    // count(s0, s2, s4) -> 0, sum(s1, s3) -> 1, nothing -> 2
+    List<Integer> groupIndexes = Arrays.asList(0, 1, 0, 1, 0);
+    Map<String, Set<String>> deviceMeasurements =
+        Collections.singletonMap(
+            TestUtils.getTestSg(0),
+            new HashSet<>(
+                Arrays.asList(
+                    TestUtils.getTestMeasurement(0),
+                    TestUtils.getTestMeasurement(1),
+                    TestUtils.getTestMeasurement(2),
+                    TestUtils.getTestMeasurement(3),
+                    TestUtils.getTestMeasurement(4))));
+
+    QueryContext context =
+        new RemoteQueryContext(QueryResourceManager.getInstance().assignQueryId(true));
+    try {
+      AggregateResult[] results =
+          new ClusterAggregator(testMetaMember)
+              .getGroupedAggregateResult(
+                  paths,
+                  aggregations,
+                  dataTypes,
+                  groupIndexes,
+                  3,
+                  deviceMeasurements,
+                  null,
+                  context,
+                  true);
+      assertEquals(3, results.length);
+      assertEquals(60L, results[0].getResult());
+      assertEquals(380.0, (double) results[1].getResult(), 0.00001);
+      assertNull(results[2]);
+    } finally {
+      QueryResourceManager.getInstance().endQuery(context.getQueryId());
+    }
+  }
 }
@@ -0,0 +1,109 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.cluster.query.groupby;
+
+import org.apache.iotdb.cluster.common.TestUtils;
+import org.apache.iotdb.cluster.query.BaseQueryTest;
+import org.apache.iotdb.cluster.query.RemoteQueryContext;
+import org.apache.iotdb.cluster.query.reader.ClusterReaderFactory;
+import org.apache.iotdb.db.exception.StorageEngineException;
+import org.apache.iotdb.db.exception.metadata.IllegalPathException;
+import org.apache.iotdb.db.exception.query.QueryProcessException;
+import org.apache.iotdb.db.metadata.path.MeasurementPath;
+import org.apache.iotdb.db.metadata.path.PartialPath;
+import org.apache.iotdb.db.query.aggregation.AggregationType;
+import org.apache.iotdb.db.query.context.QueryContext;
+import org.apache.iotdb.db.query.control.QueryResourceManager;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.filter.TimeFilter;
+import org.apache.iotdb.tsfile.read.filter.basic.Filter;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class GroupedGroupByExecutorTest extends BaseQueryTest {
+
+  @Test
+  public void testNoTimeFilter()
+      throws QueryProcessException, IOException, StorageEngineException, IllegalPathException {
+    QueryContext context =
+        new RemoteQueryContext(QueryResourceManager.getInstance().assignQueryId(true));
+    try {
+      GroupedGroupByExecutor executor = createExecutor(context, null);
+      // group 0 counts series 0, 2, 4 and group 1 sums series 1, 3
+      checkAggregations(executor.calcResult(0, 5), new Object[] {15.0, 20.0});
+      checkAggregations(executor.calcResult(5, 10), new Object[] {15.0, 70.0});
+    } finally {
+      QueryResourceManager.getInstance().endQuery(context.getQueryId());
+    }
+  }
+
+  @Test
+  public void testTimeFilter()
+      throws QueryProcessException, IOException, StorageEngineException, IllegalPathException {
+    QueryContext context =
+        new RemoteQueryContext(QueryResourceManager.getInstance().assignQueryId(true));
+    try {
+      GroupedGroupByExecutor executor = createExecutor(context, TimeFilter.gtEq(3));
+      checkAggregations(executor.calcResult(0, 5), new Object[] {6.0, 14.0});
+      checkAggregations(executor.calcResult(5, 10), new Object[] {15.0, 70.0});
+    } finally {
+      QueryResourceManager.getInstance().endQuery(context.getQueryId());
+    }
+  }
+
+  private GroupedGroupByExecutor createExecutor(QueryContext context, Filter timeFilter)
+      throws QueryProcessException, StorageEngineException, IllegalPathException {
+    List<PartialPath> paths = new ArrayList<>();
+    List<TSDataType> dataTypes = new ArrayList<>();
+    List<Integer> aggregationTypes = new ArrayList<>();
+    List<Integer> groupIndexes = new ArrayList<>();
+    Map<String, Set<String>> deviceMeasurements = new HashMap<>();
+    for (int i = 0; i < 5; i++) {
+      PartialPath path = new MeasurementPath(TestUtils.getTestSeries(0, i), TSDataType.DOUBLE);
+      paths.add(path);
+      dataTypes.add(TSDataType.DOUBLE);
+      aggregationTypes.add(
+          i % 2 == 0 ? AggregationType.COUNT.ordinal() : AggregationType.SUM.ordinal());
+      groupIndexes.add(i % 2);
+      deviceMeasurements
+          .computeIfAbsent(path.getDevice(), d -> new HashSet<>())
+          .add(path.getMeasurement());
+    }
+
+    ClusterReaderFactory readerFactory = new ClusterReaderFactory(testMetaMember);
+    return readerFactory.getGroupedGroupByExecutor(
+        paths,
+        dataTypes,
+        aggregationTypes,
+        groupIndexes,
+        2,
+        deviceMeasurements,
+        context,
+        timeFilter,
+        true);
+  }
+}
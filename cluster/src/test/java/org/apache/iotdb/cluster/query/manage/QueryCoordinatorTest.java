@@ -118,4 +118,20 @@ public class QueryCoordinatorTest {
     List<Node> reorderedNodes = coordinator.reorderNodes(unorderedNodes);
     assertEquals(orderedNodes, reorderedNodes);
   }
+
+  @Test
+  public void testReorderByLoad() {
+    List<Node> orderedNodes = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      Node node = TestUtils.getNode(i);
+      // nodes with larger num run fewer queries, which outweighs their higher latency
+      nodeStatusMap.get(node).getStatus().setRunningQueryNum(10 - i);
+      orderedNodes.add(0, node);
+    }
+    List<Node> unorderedNodes = new ArrayList<>(orderedNodes);
+    Collections.shuffle(unorderedNodes);
+
+    List<Node> reorderedNodes = coordinator.reorderNodes(unorderedNodes);
+    assertEquals(orderedNodes, reorderedNodes);
+  }
 }
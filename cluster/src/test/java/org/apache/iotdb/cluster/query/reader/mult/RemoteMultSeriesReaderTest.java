@@ -78,6 +78,8 @@ public class RemoteMultSeriesReaderTest {
 
   private RemoteMultSeriesReader reader;
   private List<BatchData> batchData;
+  // batches packed after batchData into the same response, as a remote fetching in bulk does
+  private List<BatchData> packedBatchData;
   private boolean batchUsed;
   private MetaGroupMember metaGroupMember;
   private Set<Node> failedNodes = new ConcurrentSkipListSet<>();
@@ -100,6 +102,7 @@ public class RemoteMultSeriesReaderTest {
     batchData = Lists.newArrayList();
     batchData.add(TestUtils.genBatchData(TSDataType.DOUBLE, 0, 100));
     batchData.add(TestUtils.genBatchData(TSDataType.INT32, 0, 100));
+    packedBatchData = null;
     batchUsed = false;
     metaGroupMember = new TestMetaGroupMember();
     protocolFactory =
@@ -184,6 +187,43 @@ public class RemoteMultSeriesReaderTest {
     }
   }
 
+  @Test
+  public void testPackedBatches() throws IOException, StorageEngineException {
+    ClusterDescriptor.getInstance().getConfig().setUseAsyncServer(true);
+    batchData.clear();
+    batchData.add(TestUtils.genBatchData(TSDataType.DOUBLE, 0, 50));
+    batchData.add(TestUtils.genBatchData(TSDataType.INT32, 0, 50));
+    packedBatchData = Lists.newArrayList();
+    packedBatchData.add(TestUtils.genBatchData(TSDataType.DOUBLE, 50, 50));
+    packedBatchData.add(TestUtils.genBatchData(TSDataType.INT32, 50, 50));
+    setAsyncDataClient();
+    PartitionGroup group = new PartitionGroup();
+    group.add(TestUtils.getNode(0));
+
+    MultSeriesQueryRequest request = new MultSeriesQueryRequest();
+    RemoteQueryContext context = new RemoteQueryContext(1);
+
+    try {
+      MultDataSourceInfo sourceInfo =
+          new MultDataSourceInfo(group, paths, dataTypes, request, context, group);
+      sourceInfo.hasNextDataClient(Long.MIN_VALUE);
+
+      reader = new RemoteMultSeriesReader(sourceInfo);
+
+      // both batches of each path come from one response
+      for (PartialPath path : paths) {
+        for (int i = 0; i < 100; i++) {
+          assertTrue(reader.hasNextTimeValuePair(path.getFullPath()));
+          TimeValuePair pair = reader.nextTimeValuePair(path.getFullPath());
+          assertEquals(i, pair.getTimestamp());
+        }
+        assertFalse(reader.hasNextTimeValuePair(path.getFullPath()));
+      }
+    } finally {
+      QueryResourceManager.getInstance().endQuery(context.getQueryId());
+    }
+  }
+
   @Test
   public void testDefaultBatchStrategySelect() {
     RemoteMultSeriesReader.DefaultBatchStrategy defaultBatchStrategy =
@@ -229,8 +269,7 @@ public class RemoteMultSeriesReaderTest {
                                 batchUsed = true;
 
                                 for (int i = 0; i < batchData.size(); i++) {
-                                  stringByteBufferMap.put(
-                                      paths.get(i), generateByteBuffer(batchData.get(i)));
+                                  stringByteBufferMap.put(paths.get(i), generateByteBuffer(i));
                                 }
                               }
                               resultHandler.onComplete(stringByteBufferMap);
@@ -305,8 +344,7 @@ public class RemoteMultSeriesReaderTest {
                       } else {
                         batchUsed = true;
                         for (int i = 0; i < batchData.size(); i++) {
-                          stringByteBufferMap.put(
-                              paths.get(i), generateByteBuffer(batchData.get(i)));
+                          stringByteBufferMap.put(paths.get(i), generateByteBuffer(i));
                         }
                       }
                       return stringByteBufferMap;
@@ -336,10 +374,13 @@ public class RemoteMultSeriesReaderTest {
             });
   }
 
-  private ByteBuffer generateByteBuffer(BatchData batchData) {
+  private ByteBuffer generateByteBuffer(int index) {
     ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
     DataOutputStream dataOutputStream = new DataOutputStream(byteArrayOutputStream);
-    SerializeUtils.serializeBatchData(batchData, dataOutputStream);
+    SerializeUtils.serializeBatchData(batchData.get(index), dataOutputStream);
+    if (packedBatchData != null) {
+      SerializeUtils.serializeBatchData(packedBatchData.get(index), dataOutputStream);
+    }
     ByteBuffer byteBuffer = ByteBuffer.wrap(byteArrayOutputStream.toByteArray());
     return byteBuffer;
   }
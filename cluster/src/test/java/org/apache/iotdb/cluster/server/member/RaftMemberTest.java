@@ -170,6 +170,45 @@ public class RaftMemberTest extends BaseMember {
     }
   }
 
+  @Test
+  public void testBoundedStalenessReadWithinBound() {
+    DataGroupMember member = newDataGroupMemberWithSyncLeaderFalse(TestUtils.getNode(0), false);
+    long prevMaxReadStalenessMs =
+        ClusterDescriptor.getInstance().getConfig().getMaxReadStalenessMs();
+    long prevMaxReadLogLag = ClusterDescriptor.getInstance().getConfig().getMaxReadLogLag();
+    ClusterDescriptor.getInstance().getConfig().setMaxReadStalenessMs(1000);
+    ClusterDescriptor.getInstance().getConfig().setMaxReadLogLag(100);
+    try {
+      PartitionedSnapshotLogManager partitionedSnapshotLogManager =
+          Mockito.mock(PartitionedSnapshotLogManager.class);
+      Mockito.when(partitionedSnapshotLogManager.getCommitLogIndex()).thenReturn(650L);
+      Mockito.when(partitionedSnapshotLogManager.getMaxHaveAppliedCommitIndex()).thenReturn(600L);
+      member.setLogManager(partitionedSnapshotLogManager);
+      // the leader always serves locally
+      Assert.assertTrue(member.isWithinReadStaleness());
+
+      member.setCharacter(NodeCharacter.FOLLOWER);
+      member.setLastHeartbeatReceivedTime(System.currentTimeMillis());
+      Assert.assertTrue(member.isWithinReadStaleness());
+
+      // the leader has not been heard from for too long
+      member.setLastHeartbeatReceivedTime(System.currentTimeMillis() - 2000);
+      Assert.assertFalse(member.isWithinReadStaleness());
+
+      // the local apply lags too far behind the commit index
+      member.setLastHeartbeatReceivedTime(System.currentTimeMillis());
+      Mockito.when(partitionedSnapshotLogManager.getCommitLogIndex()).thenReturn(800L);
+      Assert.assertFalse(member.isWithinReadStaleness());
+
+      member.setCharacter(NodeCharacter.ELECTOR);
+      Mockito.when(partitionedSnapshotLogManager.getCommitLogIndex()).thenReturn(600L);
+      Assert.assertFalse(member.isWithinReadStaleness());
+    } finally {
+      ClusterDescriptor.getInstance().getConfig().setMaxReadStalenessMs(prevMaxReadStalenessMs);
+      ClusterDescriptor.getInstance().getConfig().setMaxReadLogLag(prevMaxReadLogLag);
+    }
+  }
+
   private DataGroupMember newDataGroupMemberWithSyncLeaderFalse(Node node, boolean syncLeader) {
     DataGroupMember newMember =
         new TestDataGroupMember(node, partitionTable.getPartitionGroup(new RaftNode(node, 0))) {
@@ -33,6 +33,8 @@ import org.apache.iotdb.consensus.common.DataSet;
 import org.apache.iotdb.rpc.TSStatusCode;
 import org.apache.iotdb.service.rpc.thrift.TSStatus;
 
+import com.codahale.metrics.MetricRegistry;
+
 import java.io.IOException;
 
 /** Entry of all management, AssignPartitionManager,AssignRegionManager. */
@@ -41,6 +43,9 @@ public class ConfigManager implements Manager {
   private static final TSStatus ERROR_TSSTATUS =
       new TSStatus(TSStatusCode.INTERNAL_SERVER_ERROR.getStatusCode());
 
+  /** metrics of all the managers, created before them so that they can register to it */
+  private final MetricRegistry metricRegistry = new MetricRegistry();
+
   /** manage consensus, write or read consensus */
   private final ConsensusManager consensusManager;
 
@@ -150,4 +155,9 @@ public class ConfigManager implements Manager {
   public ConsensusManager getConsensusManager() {
     return consensusManager;
   }
+
+  @Override
+  public MetricRegistry getMetricRegistry() {
+    return metricRegistry;
+  }
 }
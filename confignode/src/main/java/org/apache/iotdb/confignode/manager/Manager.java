@@ -23,6 +23,8 @@ import org.apache.iotdb.confignode.rpc.thrift.DeviceGroupHashInfo;
 import org.apache.iotdb.consensus.common.DataSet;
 import org.apache.iotdb.service.rpc.thrift.TSStatus;
 
+import com.codahale.metrics.MetricRegistry;
+
 /**
  * a subset of services provided by {@ConfigManager}. For use internally only, pased to Managers,
  * services.
@@ -116,4 +118,11 @@ public interface Manager {
   DeviceGroupHashInfo getDeviceGroupHashInfo();
 
   ConsensusManager getConsensusManager();
+
+  /**
+   * get the registry of the metrics of this ConfigNode
+   *
+   * @return MetricRegistry instance
+   */
+  MetricRegistry getMetricRegistry();
 }
@@ -23,26 +23,56 @@ import org.apache.iotdb.commons.partition.RegionReplicaSet;
 import org.apache.iotdb.confignode.consensus.response.SchemaPartitionDataSet;
 import org.apache.iotdb.confignode.persistence.PartitionInfoPersistence;
 import org.apache.iotdb.confignode.persistence.RegionInfoPersistence;
+import org.apache.iotdb.confignode.physical.PhysicalPlanType;
 import org.apache.iotdb.confignode.physical.sys.DataPartitionPlan;
 import org.apache.iotdb.confignode.physical.sys.SchemaPartitionPlan;
 import org.apache.iotdb.consensus.common.DataSet;
 import org.apache.iotdb.consensus.common.response.ConsensusReadResponse;
+import org.apache.iotdb.consensus.common.response.ConsensusWriteResponse;
+import org.apache.iotdb.rpc.TSStatusCode;
 
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.SlidingTimeWindowReservoir;
+import com.codahale.metrics.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 /** manage data partition and schema partition */
 public class PartitionManager {
   private static final Logger LOGGER = LoggerFactory.getLogger(PartitionManager.class);
 
-  /** schema partition read write lock */
-  private final ReentrantReadWriteLock schemaPartitionReadWriteLock;
+  public static final String SCHEMA_PARTITION_ALLOCATION_LATENCY =
+      MetricRegistry.name(PartitionManager.class, "schemaPartitionAllocationLatency");
+  public static final String SCHEMA_PARTITION_ALLOCATION_BATCH_SIZE =
+      MetricRegistry.name(PartitionManager.class, "schemaPartitionAllocationBatchSize");
+
+  /**
+   * Only one thread allocates schema partitions at a time. It drains every pending request, so
+   * requests that arrive while a consensus write is in flight are committed together by the next
+   * write instead of one write each.
+   */
+  private final ReentrantLock schemaPartitionAllocationLock;
+
+  /** schema partition allocation requests waiting for the next batched consensus write */
+  private final Queue<SchemaPartitionAllocation> pendingSchemaPartitionAllocations;
+
+  /** latency of applySchemaPartition calls that have to allocate, including the wait for a batch */
+  private final Timer schemaPartitionAllocationTimer;
+
+  /** number of allocation requests committed by one consensus write */
+  private final Histogram schemaPartitionAllocationBatchSize;
 
   /** data partition read write lock */
   private final ReentrantReadWriteLock dataPartitionReadWriteLock;
@@ -53,28 +83,30 @@ public class PartitionManager {
   private final Manager configNodeManager;
 
   public PartitionManager(Manager configNodeManager) {
-    this.schemaPartitionReadWriteLock = new ReentrantReadWriteLock();
+    this.schemaPartitionAllocationLock = new ReentrantLock();
+    this.pendingSchemaPartitionAllocations = new ConcurrentLinkedQueue<>();
+    MetricRegistry metricRegistry = configNodeManager.getMetricRegistry();
+    this.schemaPartitionAllocationTimer =
+        metricRegistry.register(SCHEMA_PARTITION_ALLOCATION_LATENCY, new Timer());
+    this.schemaPartitionAllocationBatchSize =
+        metricRegistry.register(
+            SCHEMA_PARTITION_ALLOCATION_BATCH_SIZE,
+            new Histogram(new SlidingTimeWindowReservoir(1, TimeUnit.MINUTES)));
     this.dataPartitionReadWriteLock = new ReentrantReadWriteLock();
     this.configNodeManager = configNodeManager;
     this.dataPartition = new DataPartition();
   }
 
   /**
-   * Get schema partition
+   * Get schema partition. The partition table is a copy-on-write snapshot, so lookups never wait
+   * for allocations.
    *
    * @param physicalPlan storageGroup and deviceGroupIDs
    * @return Empty Data Set if does not exist
    */
   public DataSet getSchemaPartition(SchemaPartitionPlan physicalPlan) {
-    SchemaPartitionDataSet schemaPartitionDataSet;
-    schemaPartitionReadWriteLock.readLock().lock();
-    try {
-      ConsensusReadResponse consensusReadResponse = getConsensusManager().read(physicalPlan);
-      schemaPartitionDataSet = (SchemaPartitionDataSet) consensusReadResponse.getDataset();
-    } finally {
-      schemaPartitionReadWriteLock.readLock().unlock();
-    }
-    return schemaPartitionDataSet;
+    ConsensusReadResponse consensusReadResponse = getConsensusManager().read(physicalPlan);
+    return (SchemaPartitionDataSet) consensusReadResponse.getDataset();
   }
 
   /**
@@ -90,39 +122,100 @@ public class PartitionManager {
         PartitionInfoPersistence.getInstance()
             .filterSchemaRegionNoAssignDeviceGroupId(storageGroup, deviceGroupIDs);
 
-    // allocate partition by storage group and device group id
-    schemaPartitionReadWriteLock.writeLock().lock();
-    try {
-      Map<Integer, RegionReplicaSet> deviceGroupIdReplicaSets =
-          allocateSchemaPartition(storageGroup, noAssignDeviceGroupId);
-      physicalPlan.setDeviceGroupIdReplicaSet(deviceGroupIdReplicaSets);
-      getConsensusManager().write(physicalPlan);
-      LOGGER.info("Allocate schema partition to {}.", deviceGroupIdReplicaSets);
-    } finally {
-      schemaPartitionReadWriteLock.writeLock().unlock();
+    // only go through consensus when something is really missing
+    if (!noAssignDeviceGroupId.isEmpty()) {
+      Timer.Context timerContext = schemaPartitionAllocationTimer.time();
+      try {
+        allocateSchemaPartition(new SchemaPartitionAllocation(storageGroup, noAssignDeviceGroupId));
+      } finally {
+        timerContext.stop();
+      }
     }
 
     return getSchemaPartition(physicalPlan);
   }
 
+  /**
+   * Enqueue the allocation and commit it, together with all other pending allocations, through one
+   * consensus write, unless another thread has already done so while we waited for the lock.
+   */
+  private void allocateSchemaPartition(SchemaPartitionAllocation allocation) {
+    pendingSchemaPartitionAllocations.add(allocation);
+    schemaPartitionAllocationLock.lock();
+    try {
+      if (allocation.allocated) {
+        return;
+      }
+
+      List<SchemaPartitionAllocation> batch = new ArrayList<>();
+      SchemaPartitionAllocation pending;
+      while ((pending = pendingSchemaPartitionAllocations.poll()) != null) {
+        batch.add(pending);
+      }
+      if (!batch.contains(allocation)) {
+        // drained by a batch whose consensus write failed, retry it on our own
+        batch.add(allocation);
+      }
+
+      Map<String, Map<Integer, RegionReplicaSet>> assignedSchemaPartition =
+          allocateSchemaPartition(batch);
+      if (!assignedSchemaPartition.isEmpty()) {
+        SchemaPartitionPlan applyPlan =
+            new SchemaPartitionPlan(PhysicalPlanType.ApplySchemaPartition);
+        applyPlan.setAssignedSchemaPartition(assignedSchemaPartition);
+        ConsensusWriteResponse response = getConsensusManager().write(applyPlan);
+        if (response.getStatus() == null
+            || response.getStatus().getCode() != TSStatusCode.SUCCESS_STATUS.getStatusCode()) {
+          LOGGER.error(
+              "Failed to allocate schema partition {}, status: {}",
+              assignedSchemaPartition,
+              response.getStatus(),
+              response.getException());
+          return;
+        }
+        schemaPartitionAllocationBatchSize.update(batch.size());
+        double meanLatency = schemaPartitionAllocationTimer.getSnapshot().getMean();
+        LOGGER.info(
+            "Allocate schema partition to {} for {} requests, mean allocation latency {} ms.",
+            assignedSchemaPartition,
+            batch.size(),
+            TimeUnit.NANOSECONDS.toMillis((long) meanLatency));
+      }
+      batch.forEach(pendingAllocation -> pendingAllocation.allocated = true);
+    } finally {
+      schemaPartitionAllocationLock.unlock();
+    }
+  }
+
   /**
    * TODO: allocate schema partition by balancer
    *
-   * @param storageGroup storage group
-   * @param deviceGroupIDs device group id list
+   * @param batch allocation requests, device group ids assigned in the meantime are skipped
+   * @return Map<StorageGroup, Map<DeviceGroupID, SchemaRegionReplicaSet>>
    */
-  private Map<Integer, RegionReplicaSet> allocateSchemaPartition(
-      String storageGroup, List<Integer> deviceGroupIDs) {
+  private Map<String, Map<Integer, RegionReplicaSet>> allocateSchemaPartition(
+      List<SchemaPartitionAllocation> batch) {
     List<RegionReplicaSet> schemaRegionEndPoints =
         RegionInfoPersistence.getInstance().getSchemaRegionEndPoint();
     Random random = new Random();
-    Map<Integer, RegionReplicaSet> deviceGroupIdReplicaSets = new HashMap<>();
-    for (int i = 0; i < deviceGroupIDs.size(); i++) {
-      RegionReplicaSet schemaRegionReplicaSet =
-          schemaRegionEndPoints.get(random.nextInt(schemaRegionEndPoints.size()));
-      deviceGroupIdReplicaSets.put(deviceGroupIDs.get(i), schemaRegionReplicaSet);
+    Map<String, Map<Integer, RegionReplicaSet>> assignedSchemaPartition = new HashMap<>();
+    for (SchemaPartitionAllocation allocation : batch) {
+      List<Integer> deviceGroupIDs =
+          PartitionInfoPersistence.getInstance()
+              .filterSchemaRegionNoAssignDeviceGroupId(
+                  allocation.storageGroup, allocation.deviceGroupIDs);
+      Map<Integer, RegionReplicaSet> deviceGroupIdReplicaSets =
+          assignedSchemaPartition.computeIfAbsent(allocation.storageGroup, k -> new HashMap<>());
+      for (Integer deviceGroupID : deviceGroupIDs) {
+        deviceGroupIdReplicaSets.computeIfAbsent(
+            deviceGroupID,
+            k -> schemaRegionEndPoints.get(random.nextInt(schemaRegionEndPoints.size())));
+      }
+      if (deviceGroupIdReplicaSets.isEmpty()) {
+        assignedSchemaPartition.remove(allocation.storageGroup);
+      }
     }
-    return deviceGroupIdReplicaSets;
+    return assignedSchemaPartition;
   }
 
   private ConsensusManager getConsensusManager() {
@@ -142,4 +235,17 @@ public class PartitionManager {
   public DataSet getDataPartition(DataPartitionPlan physicalPlan) {
     return null;
   }
+
+  private static class SchemaPartitionAllocation {
+
+    private final String storageGroup;
+    private final List<Integer> deviceGroupIDs;
+    // written and read under schemaPartitionAllocationLock
+    private boolean allocated;
+
+    private SchemaPartitionAllocation(String storageGroup, List<Integer> deviceGroupIDs) {
+      this.storageGroup = storageGroup;
+      this.deviceGroupIDs = deviceGroupIDs;
+    }
+  }
 }
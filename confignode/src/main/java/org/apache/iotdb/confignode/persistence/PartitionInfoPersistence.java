@@ -22,37 +22,47 @@ package org.apache.iotdb.confignode.persistence;
 import org.apache.iotdb.commons.partition.DataPartition;
 import org.apache.iotdb.commons.partition.RegionReplicaSet;
 import org.apache.iotdb.commons.partition.SchemaPartition;
+import org.apache.iotdb.commons.partition.SeriesPartitionSlot;
 import org.apache.iotdb.commons.utils.TestOnly;
 import org.apache.iotdb.confignode.consensus.response.SchemaPartitionDataSet;
 import org.apache.iotdb.confignode.physical.sys.DataPartitionPlan;
 import org.apache.iotdb.confignode.physical.sys.SchemaPartitionPlan;
 import org.apache.iotdb.consensus.common.DataSet;
+import org.apache.iotdb.rpc.TSStatusCode;
+import org.apache.iotdb.service.rpc.thrift.TSStatus;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 /** manage data partition and schema partition */
 public class PartitionInfoPersistence {
   private static final Logger LOGGER = LoggerFactory.getLogger(PartitionInfoPersistence.class);
 
-  /** schema partition read write lock */
-  private final ReentrantReadWriteLock schemaPartitionReadWriteLock;
+  /** serializes schema partition writers, readers never take it */
+  private final ReentrantLock schemaPartitionWriteLock;
 
   /** data partition read write lock */
   private final ReentrantReadWriteLock dataPartitionReadWriteLock;
 
+  /**
+   * Copy-on-write snapshot of the schema partition table. A published snapshot is never modified,
+   * so lookups read it without locking while allocations build and publish a new one.
+   */
   // TODO: Serialize and Deserialize
-  private final SchemaPartition schemaPartition;
+  private volatile SchemaPartition schemaPartition;
 
   // TODO: Serialize and Deserialize
   private final DataPartition dataPartition;
 
   public PartitionInfoPersistence() {
-    this.schemaPartitionReadWriteLock = new ReentrantReadWriteLock();
+    this.schemaPartitionWriteLock = new ReentrantLock();
     this.dataPartitionReadWriteLock = new ReentrantReadWriteLock();
     this.schemaPartition = new SchemaPartition();
     this.dataPartition = new DataPartition();
@@ -66,50 +76,48 @@ public class PartitionInfoPersistence {
    */
   public DataSet getSchemaPartition(SchemaPartitionPlan physicalPlan) {
     SchemaPartitionDataSet schemaPartitionDataSet = new SchemaPartitionDataSet();
-    schemaPartitionReadWriteLock.readLock().lock();
-    try {
-      String storageGroup = physicalPlan.getStorageGroup();
-      List<Integer> deviceGroupIDs = physicalPlan.getDeviceGroupIDs();
-      SchemaPartition schemaPartitionInfo = new SchemaPartition();
-      schemaPartitionInfo.setSchemaPartition(
-          schemaPartition.getSchemaPartition(storageGroup, deviceGroupIDs));
-      schemaPartitionDataSet.setSchemaPartitionInfo(schemaPartitionInfo);
-    } finally {
-      schemaPartitionReadWriteLock.readLock().unlock();
-    }
+    String storageGroup = physicalPlan.getStorageGroup();
+    List<Integer> deviceGroupIDs = physicalPlan.getDeviceGroupIDs();
+    SchemaPartition schemaPartitionInfo = new SchemaPartition();
+    schemaPartitionInfo.setSchemaPartition(
+        schemaPartition.getSchemaPartition(storageGroup, deviceGroupIDs));
+    schemaPartitionDataSet.setSchemaPartitionInfo(schemaPartitionInfo);
     return schemaPartitionDataSet;
   }
 
   /**
-   * If does not exist, apply a new schema partition
+   * Record the schema partitions allocated by the ConfigNode leader. One plan may carry the
+   * allocations of several storage groups. A device group that is already assigned keeps its
+   * replica set, so replaying a plan is harmless.
    *
-   * @param physicalPlan storage group and device group id
-   * @return Schema Partition data set
+   * @param physicalPlan allocated replica sets grouped by storage group
+   * @return SUCCESS_STATUS
    */
-  public DataSet applySchemaPartition(SchemaPartitionPlan physicalPlan) {
-    String storageGroup = physicalPlan.getStorageGroup();
-    List<Integer> deviceGroupIDs = physicalPlan.getDeviceGroupIDs();
-    List<Integer> noAssignDeviceGroupId =
-        schemaPartition.filterNoAssignDeviceGroupId(storageGroup, deviceGroupIDs);
-
-    // allocate partition by storage group and device group id
-    Map<Integer, RegionReplicaSet> deviceGroupIdReplicaSets =
-        physicalPlan.getDeviceGroupIdReplicaSets();
-    schemaPartitionReadWriteLock.writeLock().lock();
+  public TSStatus applySchemaPartition(SchemaPartitionPlan physicalPlan) {
+    schemaPartitionWriteLock.lock();
     try {
-
-      deviceGroupIdReplicaSets
-          .entrySet()
-          .forEach(
-              entity -> {
-                schemaPartition.setSchemaRegionReplicaSet(
-                    storageGroup, entity.getKey(), entity.getValue());
-              });
+      // only the touched storage groups are copied, the others are shared with the old snapshot
+      Map<String, Map<SeriesPartitionSlot, RegionReplicaSet>> partitionTable =
+          new HashMap<>(schemaPartition.getSchemaPartition());
+      for (Map.Entry<String, Map<Integer, RegionReplicaSet>> storageGroupEntry :
+          physicalPlan.getAssignedSchemaPartition().entrySet()) {
+        Map<SeriesPartitionSlot, RegionReplicaSet> deviceGroupMap =
+            new HashMap<>(
+                partitionTable.getOrDefault(storageGroupEntry.getKey(), Collections.emptyMap()));
+        storageGroupEntry
+            .getValue()
+            .forEach(
+                (deviceGroupId, replicaSet) ->
+                    deviceGroupMap.putIfAbsent(new SeriesPartitionSlot(deviceGroupId), replicaSet));
+        partitionTable.put(storageGroupEntry.getKey(), deviceGroupMap);
+      }
+      SchemaPartition newSchemaPartition = new SchemaPartition();
+      newSchemaPartition.setSchemaPartition(partitionTable);
+      schemaPartition = newSchemaPartition;
     } finally {
-      schemaPartitionReadWriteLock.writeLock().unlock();
+      schemaPartitionWriteLock.unlock();
     }
-
-    return getSchemaPartition(physicalPlan);
+    return new TSStatus(TSStatusCode.SUCCESS_STATUS.getStatusCode());
   }
 
   /**
@@ -133,9 +141,7 @@ public class PartitionInfoPersistence {
 
   @TestOnly
   public void clear() {
-    if (schemaPartition.getSchemaPartition() != null) {
-      schemaPartition.getSchemaPartition().clear();
-    }
+    schemaPartition = new SchemaPartition();
 
     if (dataPartition.getDataPartitionMap() != null) {
       dataPartition.getDataPartitionMap().clear();
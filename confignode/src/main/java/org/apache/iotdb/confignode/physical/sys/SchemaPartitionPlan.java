@@ -25,18 +25,26 @@ import org.apache.iotdb.confignode.util.SerializeDeserializeUtil;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
-/** Get DataNodeInfo by the specific DataNode's id. And return all when dataNodeID is set to -1. */
+/**
+ * Query or apply schema partitions. A query plan carries one storage group and its device group
+ * ids. An apply plan carries the allocated replica sets, which may span several storage groups so
+ * that concurrent allocations are committed through a single consensus write.
+ */
 public class SchemaPartitionPlan extends PhysicalPlan {
   private String storageGroup;
   private List<Integer> deviceGroupIDs;
-  private Map<Integer, RegionReplicaSet> deviceGroupIdReplicaSets;
+  // Map<StorageGroup, Map<DeviceGroupID, SchemaRegionReplicaSet>>
+  private Map<String, Map<Integer, RegionReplicaSet>> assignedSchemaPartition;
 
   public SchemaPartitionPlan(PhysicalPlanType physicalPlanType) {
     super(physicalPlanType);
+    this.deviceGroupIDs = new ArrayList<>();
+    this.assignedSchemaPartition = new HashMap<>();
   }
 
   public SchemaPartitionPlan(
@@ -46,25 +54,31 @@ public class SchemaPartitionPlan extends PhysicalPlan {
     this.deviceGroupIDs = deviceGroupIDs;
   }
 
-  public void setDeviceGroupIdReplicaSet(Map<Integer, RegionReplicaSet> deviceGroupIdReplicaSets) {
-    this.deviceGroupIdReplicaSets = deviceGroupIdReplicaSets;
+  public void setAssignedSchemaPartition(
+      Map<String, Map<Integer, RegionReplicaSet>> assignedSchemaPartition) {
+    this.assignedSchemaPartition = assignedSchemaPartition;
   }
 
-  public Map<Integer, RegionReplicaSet> getDeviceGroupIdReplicaSets() {
-    return deviceGroupIdReplicaSets;
+  public Map<String, Map<Integer, RegionReplicaSet>> getAssignedSchemaPartition() {
+    return assignedSchemaPartition;
   }
 
   @Override
   protected void serializeImpl(ByteBuffer buffer) {
-    buffer.putInt(PhysicalPlanType.QueryDataPartition.ordinal());
+    buffer.putInt(getType().ordinal());
     SerializeDeserializeUtil.write(storageGroup, buffer);
     buffer.putInt(deviceGroupIDs.size());
     deviceGroupIDs.forEach(id -> SerializeDeserializeUtil.write(id, buffer));
 
-    buffer.putInt(deviceGroupIdReplicaSets.size());
-    for (Map.Entry<Integer, RegionReplicaSet> entry : deviceGroupIdReplicaSets.entrySet()) {
-      buffer.putInt(entry.getKey());
-      entry.getValue().serializeImpl(buffer);
+    buffer.putInt(assignedSchemaPartition.size());
+    for (Map.Entry<String, Map<Integer, RegionReplicaSet>> storageGroupEntry :
+        assignedSchemaPartition.entrySet()) {
+      SerializeDeserializeUtil.write(storageGroupEntry.getKey(), buffer);
+      buffer.putInt(storageGroupEntry.getValue().size());
+      for (Map.Entry<Integer, RegionReplicaSet> entry : storageGroupEntry.getValue().entrySet()) {
+        buffer.putInt(entry.getKey());
+        entry.getValue().serializeImpl(buffer);
+      }
     }
   }
 
@@ -76,15 +90,18 @@ public class SchemaPartitionPlan extends PhysicalPlan {
       deviceGroupIDs.add(SerializeDeserializeUtil.readInt(buffer));
     }
 
-    if (deviceGroupIdReplicaSets == null) {
-      deviceGroupIdReplicaSets = new HashMap<>();
-    }
-    int size = buffer.getInt();
-
-    for (int i = 0; i < size; i++) {
-      RegionReplicaSet schemaRegionReplicaSet = new RegionReplicaSet();
-      schemaRegionReplicaSet.deserializeImpl(buffer);
-      deviceGroupIdReplicaSets.put(buffer.getInt(), schemaRegionReplicaSet);
+    int storageGroupNum = buffer.getInt();
+    for (int i = 0; i < storageGroupNum; i++) {
+      String assignedStorageGroup = SerializeDeserializeUtil.readString(buffer);
+      Map<Integer, RegionReplicaSet> deviceGroupIdReplicaSets = new HashMap<>();
+      int size = buffer.getInt();
+      for (int j = 0; j < size; j++) {
+        int deviceGroupId = buffer.getInt();
+        RegionReplicaSet schemaRegionReplicaSet = new RegionReplicaSet();
+        schemaRegionReplicaSet.deserializeImpl(buffer);
+        deviceGroupIdReplicaSets.put(deviceGroupId, schemaRegionReplicaSet);
+      }
+      assignedSchemaPartition.put(assignedStorageGroup, deviceGroupIdReplicaSets);
     }
   }
 
@@ -55,8 +55,6 @@ public class PlanExecutor {
         return partitionInfoPersistence.getDataPartition((DataPartitionPlan) plan);
       case QuerySchemaPartition:
         return partitionInfoPersistence.getSchemaPartition((SchemaPartitionPlan) plan);
-      case ApplySchemaPartition:
-        return partitionInfoPersistence.applySchemaPartition((SchemaPartitionPlan) plan);
       case ApplyDataPartition:
         return partitionInfoPersistence.applyDataPartition((DataPartitionPlan) plan);
       default:
@@ -70,6 +68,8 @@ public class PlanExecutor {
         return dataNodeInfoPersistence.registerDataNode((RegisterDataNodePlan) plan);
       case SetStorageGroup:
         return regionInfoPersistence.setStorageGroup((SetStorageGroupPlan) plan);
+      case ApplySchemaPartition:
+        return partitionInfoPersistence.applySchemaPartition((SchemaPartitionPlan) plan);
       default:
         throw new UnknownPhysicalPlanTypeException(plan.getType());
     }
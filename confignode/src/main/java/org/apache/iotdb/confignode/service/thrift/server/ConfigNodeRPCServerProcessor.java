@@ -20,6 +20,7 @@ package org.apache.iotdb.confignode.service.thrift.server;
 
 import org.apache.iotdb.commons.cluster.Endpoint;
 import org.apache.iotdb.commons.partition.DataNodeLocation;
+import org.apache.iotdb.commons.utils.TestOnly;
 import org.apache.iotdb.confignode.consensus.response.DataNodesInfoDataSet;
 import org.apache.iotdb.confignode.consensus.response.SchemaPartitionDataSet;
 import org.apache.iotdb.confignode.consensus.response.StorageGroupSchemaDataSet;
@@ -75,6 +76,11 @@ public class ConfigNodeRPCServerProcessor implements ConfigIService.Iface {
     configManager.close();
   }
 
+  @TestOnly
+  public ConfigManager getConfigManager() {
+    return configManager;
+  }
+
   @Override
   public DataNodeRegisterResp registerDataNode(DataNodeRegisterReq req) throws TException {
     // TODO: handle exception in consensusLayer
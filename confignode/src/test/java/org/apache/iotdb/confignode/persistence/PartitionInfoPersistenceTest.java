@@ -0,0 +1,119 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.confignode.persistence;
+
+import org.apache.iotdb.commons.cluster.Endpoint;
+import org.apache.iotdb.commons.consensus.SchemaRegionId;
+import org.apache.iotdb.commons.partition.DataNodeLocation;
+import org.apache.iotdb.commons.partition.RegionReplicaSet;
+import org.apache.iotdb.commons.partition.SeriesPartitionSlot;
+import org.apache.iotdb.confignode.consensus.response.SchemaPartitionDataSet;
+import org.apache.iotdb.confignode.physical.PhysicalPlan;
+import org.apache.iotdb.confignode.physical.PhysicalPlanType;
+import org.apache.iotdb.confignode.physical.sys.SchemaPartitionPlan;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+public class PartitionInfoPersistenceTest {
+
+  private final PartitionInfoPersistence persistence = PartitionInfoPersistence.getInstance();
+
+  @After
+  public void tearDown() {
+    persistence.clear();
+  }
+
+  @Test
+  public void applyBatchedSchemaPartitionTest() throws IOException {
+    RegionReplicaSet replicaSet0 = createReplicaSet(0);
+    RegionReplicaSet replicaSet1 = createReplicaSet(1);
+    Map<String, Map<Integer, RegionReplicaSet>> assigned = new HashMap<>();
+    assigned.computeIfAbsent("root.sg0", k -> new HashMap<>()).put(1, replicaSet0);
+    assigned.computeIfAbsent("root.sg0", k -> new HashMap<>()).put(2, replicaSet1);
+    assigned.computeIfAbsent("root.sg1", k -> new HashMap<>()).put(1, replicaSet1);
+    SchemaPartitionPlan applyPlan = new SchemaPartitionPlan(PhysicalPlanType.ApplySchemaPartition);
+    applyPlan.setAssignedSchemaPartition(assigned);
+
+    // one plan for several storage groups survives the consensus log
+    ByteBuffer buffer = ByteBuffer.allocate(4096);
+    applyPlan.serialize(buffer);
+    SchemaPartitionPlan deserialized = (SchemaPartitionPlan) PhysicalPlan.Factory.create(buffer);
+    Assert.assertEquals(PhysicalPlanType.ApplySchemaPartition, deserialized.getType());
+    Assert.assertEquals(assigned, deserialized.getAssignedSchemaPartition());
+
+    persistence.applySchemaPartition(deserialized);
+    Assert.assertEquals(
+        replicaSet1, getSchemaPartition("root.sg0", 2).get(new SeriesPartitionSlot(2)));
+    Assert.assertEquals(
+        replicaSet1, getSchemaPartition("root.sg1", 1).get(new SeriesPartitionSlot(1)));
+    Assert.assertEquals(
+        Collections.singletonList(3),
+        persistence.filterSchemaRegionNoAssignDeviceGroupId("root.sg0", Arrays.asList(1, 3, 3)));
+  }
+
+  @Test
+  public void copyOnWriteSchemaPartitionTest() {
+    RegionReplicaSet replicaSet0 = createReplicaSet(0);
+    RegionReplicaSet replicaSet1 = createReplicaSet(1);
+    apply("root.sg0", 1, replicaSet0);
+    Map<SeriesPartitionSlot, RegionReplicaSet> before = getSchemaPartition("root.sg0", 1, 2);
+
+    // an assigned device group keeps its replica set, new ones do not change earlier results
+    apply("root.sg0", 1, replicaSet1);
+    apply("root.sg0", 2, replicaSet1);
+    Assert.assertEquals(1, before.size());
+    Map<SeriesPartitionSlot, RegionReplicaSet> after = getSchemaPartition("root.sg0", 1, 2);
+    Assert.assertEquals(replicaSet0, after.get(new SeriesPartitionSlot(1)));
+    Assert.assertEquals(replicaSet1, after.get(new SeriesPartitionSlot(2)));
+  }
+
+  private void apply(String storageGroup, int deviceGroupId, RegionReplicaSet replicaSet) {
+    SchemaPartitionPlan applyPlan = new SchemaPartitionPlan(PhysicalPlanType.ApplySchemaPartition);
+    Map<Integer, RegionReplicaSet> deviceGroupIdReplicaSets = new HashMap<>();
+    deviceGroupIdReplicaSets.put(deviceGroupId, replicaSet);
+    applyPlan.setAssignedSchemaPartition(
+        Collections.singletonMap(storageGroup, deviceGroupIdReplicaSets));
+    persistence.applySchemaPartition(applyPlan);
+  }
+
+  private Map<SeriesPartitionSlot, RegionReplicaSet> getSchemaPartition(
+      String storageGroup, Integer... deviceGroupIds) {
+    SchemaPartitionPlan queryPlan =
+        new SchemaPartitionPlan(
+            PhysicalPlanType.QuerySchemaPartition, storageGroup, Arrays.asList(deviceGroupIds));
+    SchemaPartitionDataSet dataSet =
+        (SchemaPartitionDataSet) persistence.getSchemaPartition(queryPlan);
+    return dataSet.getSchemaPartitionInfo().getSchemaPartition().get(storageGroup);
+  }
+
+  private RegionReplicaSet createReplicaSet(int regionId) {
+    return new RegionReplicaSet(
+        new SchemaRegionId(regionId),
+        Collections.singletonList(new DataNodeLocation(regionId, new Endpoint("0.0.0.0", 6667))));
+  }
+}
@@ -19,6 +19,7 @@
 package org.apache.iotdb.confignode.service.thrift.server;
 
 import org.apache.iotdb.confignode.conf.ConfigNodeDescriptor;
+import org.apache.iotdb.confignode.manager.PartitionManager;
 import org.apache.iotdb.confignode.persistence.DataNodeInfoPersistence;
 import org.apache.iotdb.confignode.persistence.PartitionInfoPersistence;
 import org.apache.iotdb.confignode.persistence.RegionInfoPersistence;
@@ -34,6 +35,9 @@ import org.apache.iotdb.rpc.TSStatusCode;
 import org.apache.iotdb.service.rpc.thrift.EndPoint;
 import org.apache.iotdb.service.rpc.thrift.TSStatus;
 
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
 import org.apache.ratis.util.FileUtils;
 import org.apache.thrift.TException;
 import org.junit.After;
@@ -190,6 +194,21 @@ public class ConfigNodeRPCServerProcessorTest {
         .getSchemaRegionDataNodesMap()
         .get(sg)
         .forEach((key, value) -> Assert.assertEquals(deviceGroupId, key));
+
+    // the allocation is timed and committed by a batch of one request
+    MetricRegistry metricRegistry = processor.getConfigManager().getMetricRegistry();
+    Timer allocationTimer =
+        metricRegistry.getTimers().get(PartitionManager.SCHEMA_PARTITION_ALLOCATION_LATENCY);
+    Assert.assertEquals(1, allocationTimer.getCount());
+    Histogram allocationBatchSize =
+        metricRegistry.getHistograms().get(PartitionManager.SCHEMA_PARTITION_ALLOCATION_BATCH_SIZE);
+    Assert.assertEquals(1, allocationBatchSize.getCount());
+    Assert.assertEquals(1, allocationBatchSize.getSnapshot().getMax());
+
+    // an assigned device group does not allocate again
+    processor.applySchemaPartition(getSchemaPartitionReq);
+    Assert.assertEquals(1, allocationTimer.getCount());
+    Assert.assertEquals(1, allocationBatchSize.getCount());
   }
 
   @Test
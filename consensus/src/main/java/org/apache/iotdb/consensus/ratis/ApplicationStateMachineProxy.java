@@ -26,6 +26,7 @@ import org.apache.iotdb.service.rpc.thrift.TSStatus;
 
 import org.apache.ratis.proto.RaftProtos;
 import org.apache.ratis.protocol.Message;
+import org.apache.ratis.server.protocol.TermIndex;
 import org.apache.ratis.statemachine.TransactionContext;
 import org.apache.ratis.statemachine.impl.BaseStateMachine;
 import org.slf4j.Logger;
@@ -33,11 +34,25 @@ import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
 
 public class ApplicationStateMachineProxy extends BaseStateMachine {
   private final IStateMachine applicationStateMachine;
   private final Logger logger = LoggerFactory.getLogger(ApplicationStateMachineProxy.class);
 
+  /**
+   * Completes when every log entry submitted so far is applied. The application state machine may
+   * finish entries out of order, so the last applied index is only advanced along this chain. That
+   * keeps it a valid snapshot and read index even while later entries are still being applied. Only
+   * the Ratis apply thread replaces it.
+   */
+  private CompletableFuture<?> lastApplied = CompletableFuture.completedFuture(null);
+
+  /** reads waiting for the log of the key to be applied */
+  private final ConcurrentNavigableMap<Long, CompletableFuture<Void>> appliedWaiters =
+      new ConcurrentSkipListMap<>();
+
   public ApplicationStateMachineProxy(IStateMachine stateMachine) {
     applicationStateMachine = stateMachine;
     applicationStateMachine.start();
@@ -51,7 +66,18 @@ public class ApplicationStateMachineProxy extends BaseStateMachine {
   @Override
   public CompletableFuture<Message> applyTransaction(TransactionContext trx) {
     RaftProtos.LogEntryProto log = trx.getLogEntry();
-    updateLastAppliedTermIndex(log.getTerm(), log.getIndex());
+
+    if (log.getStateMachineLogEntry().getLogData().isEmpty()) {
+      // an empty entry committed by a ReadIndex read, there is nothing to apply
+      CompletableFuture<Message> applied =
+          lastApplied.thenApply(
+              previous -> {
+                updateLastAppliedTermIndex(log.getTerm(), log.getIndex());
+                return Message.EMPTY;
+              });
+      lastApplied = applied;
+      return applied;
+    }
 
     IConsensusRequest applicationRequest = null;
 
@@ -67,10 +93,61 @@ public class ApplicationStateMachineProxy extends BaseStateMachine {
               log.getStateMachineLogEntry().getLogData().asReadOnlyByteBuffer());
     }
 
-    TSStatus result = applicationStateMachine.write(applicationRequest);
-    Message ret = new ResponseMessage(result);
+    CompletableFuture<TSStatus> result =
+        applicationStateMachine
+            .writeAsync(applicationRequest)
+            .handle(
+                (status, e) -> {
+                  if (e != null) {
+                    logger.error("Failed to apply log {}", log.getIndex(), e);
+                  }
+                  return status;
+                });
+    CompletableFuture<Message> applied =
+        lastApplied.thenCombine(
+            result,
+            (previous, status) -> {
+              updateLastAppliedTermIndex(log.getTerm(), log.getIndex());
+              return new ResponseMessage(status);
+            });
+    lastApplied = applied;
+    return applied;
+  }
+
+  @Override
+  public void notifyTermIndexUpdated(long term, long index) {
+    // entries without a state machine request must not overtake the ones still being applied
+    lastApplied = lastApplied.thenRun(() -> updateLastAppliedTermIndex(term, index));
+  }
+
+  @Override
+  protected boolean updateLastAppliedTermIndex(long term, long index) {
+    boolean updated = super.updateLastAppliedTermIndex(term, index);
+    ConcurrentNavigableMap<Long, CompletableFuture<Void>> applied =
+        appliedWaiters.headMap(index, true);
+    applied.values().forEach(waiter -> waiter.complete(null));
+    applied.clear();
+    return updated;
+  }
+
+  /** @return a future completed once the log of the index and all before it are applied */
+  public CompletableFuture<Void> waitUntilApplied(long index) {
+    if (getLastAppliedIndex() >= index) {
+      return CompletableFuture.completedFuture(null);
+    }
+    CompletableFuture<Void> waiter =
+        appliedWaiters.computeIfAbsent(index, i -> new CompletableFuture<>());
+    // the log may be applied before the waiter is registered
+    if (getLastAppliedIndex() >= index) {
+      appliedWaiters.remove(index, waiter);
+      waiter.complete(null);
+    }
+    return waiter;
+  }
 
-    return CompletableFuture.completedFuture(ret);
+  private long getLastAppliedIndex() {
+    TermIndex lastApplied = getLastAppliedTermIndex();
+    return lastApplied == null ? -1 : lastApplied.getIndex();
   }
 
   @Override
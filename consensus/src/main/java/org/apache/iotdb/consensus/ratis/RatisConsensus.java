@@ -65,6 +65,9 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
@@ -88,6 +91,15 @@ class RatisConsensus implements IConsensus {
   private static final int DEFAULT_PRIORITY = 0;
   private static final int LEADER_PRIORITY = 1;
 
+  // a lease is shorter than the minimum election timeout to tolerate clock drift
+  private static final double LEASE_RATIO = 0.5;
+
+  private final long leaseTimeoutNanos;
+  private final long readWaitTimeoutMs;
+
+  /** the lease of each group led by this server, see {@link #renewLease} */
+  private final Map<RaftGroupId, Lease> leaseMap = new ConcurrentHashMap<>();
+
   private Logger logger = LoggerFactory.getLogger(RatisConsensus.class);
 
   public RatisConsensus(Endpoint endpoint, File ratisStorageDir, IStateMachine.Registry registry)
@@ -110,6 +122,13 @@ class RatisConsensus implements IConsensus {
     final int port = NetUtils.createSocketAddr(address).getPort();
     GrpcConfigKeys.Server.setPort(properties, port);
 
+    leaseTimeoutNanos =
+        (long)
+            (RaftServerConfigKeys.Rpc.timeoutMin(properties).toLong(TimeUnit.NANOSECONDS)
+                * LEASE_RATIO);
+    readWaitTimeoutMs =
+        RaftServerConfigKeys.Rpc.requestTimeout(properties).toLong(TimeUnit.MILLISECONDS);
+
     server =
         RaftServer.newBuilder()
             .setServerId(myself.getId())
@@ -154,8 +173,11 @@ class RatisConsensus implements IConsensus {
     RaftClientReply localServerReply = null;
     RaftPeer suggestedLeader = null;
     try {
+      long term = server.getDivision(Utils.toRatisGroupId(groupId)).getInfo().getCurrentTerm();
+      long sendTime = System.nanoTime();
       localServerReply = server.submitClientRequest(clientRequest);
       if (localServerReply.isSuccess()) {
+        renewLease(Utils.toRatisGroupId(groupId), term, sendTime);
         ResponseMessage responseMessage = (ResponseMessage) localServerReply.getMessage();
         TSStatus writeStatus = (TSStatus) responseMessage.getContentHolder();
         return ConsensusWriteResponse.newBuilder().setStatus(writeStatus).build();
@@ -187,7 +209,12 @@ class RatisConsensus implements IConsensus {
     return ConsensusWriteResponse.newBuilder().setStatus(writeResult).build();
   }
 
-  /** Read directly from LOCAL COPY notice: May read stale data (not linearizable) */
+  /**
+   * Read from the LOCAL COPY once it has applied all logs committed before the read. If this server
+   * is the leader and holds a valid lease, the commit index of itself is used directly; otherwise
+   * an empty entry is committed through the leader and its index is used (ReadIndex). The read
+   * itself never goes through the raft log, as its result is never serialized.
+   */
   @Override
   public ConsensusReadResponse read(ConsensusGroupId groupId, IConsensusRequest IConsensusRequest) {
 
@@ -198,14 +225,23 @@ class RatisConsensus implements IConsensus {
 
     RaftClientReply reply = null;
     try {
+      RaftServer.Division division = server.getDivision(Utils.toRatisGroupId(groupId));
+      long readIndex = getReadIndex(groupId, division);
+      waitUntilApplied(division, readIndex);
+
       RequestMessage message = new RequestMessage(IConsensusRequest);
 
       RaftClientRequest clientRequest =
-          buildRawRequest(groupId, message, RaftClientRequest.staleReadRequestType(0));
+          buildRawRequest(groupId, message, RaftClientRequest.staleReadRequestType(readIndex));
 
       reply = server.submitClientRequest(clientRequest);
     } catch (IOException e) {
       return failedRead(new RatisRequestFailedException(e));
+    } catch (RatisRequestFailedException e) {
+      return failedRead(e);
+    }
+    if (!reply.isSuccess()) {
+      return failedRead(new RatisRequestFailedException(reply.getException()));
     }
 
     Message ret = reply.getMessage();
@@ -274,6 +310,7 @@ class RatisConsensus implements IConsensus {
     if (reply.isSuccess()) {
       // delete Group information and its corresponding client
       raftGroupMap.remove(raftGroupId);
+      leaseMap.remove(raftGroupId);
       closeRaftClient(raftGroupId);
       clientMap.remove(raftGroupId);
     }
@@ -420,6 +457,9 @@ class RatisConsensus implements IConsensus {
       }
     }
 
+    // the new leader starts an election at once instead of waiting for the election timeout
+    leaseMap.remove(raftGroupId);
+
     RaftClientReply reply = null;
     try {
       RaftClientReply configChangeReply = client.admin().setConfiguration(newConfiguration);
@@ -454,6 +494,93 @@ class RatisConsensus implements IConsensus {
     return ConsensusGenericResponse.newBuilder().setSuccess(false).build();
   }
 
+  /**
+   * @return the index that the local state machine must have applied before a linearizable read
+   *     can be served locally
+   */
+  private long getReadIndex(ConsensusGroupId groupId, RaftServer.Division division)
+      throws RatisRequestFailedException {
+    RaftGroupId raftGroupId = Utils.toRatisGroupId(groupId);
+    if (hasValidLease(raftGroupId, division)) {
+      return division.getRaftLog().getLastCommittedIndex();
+    }
+
+    // ReadIndex: committing an empty entry confirms that its leader was still leading after the
+    // read arrived, and its index is not smaller than any log committed before
+    RaftClientReply reply;
+    try {
+      if (division.getInfo().isLeader()) {
+        long term = division.getInfo().getCurrentTerm();
+        long sendTime = System.nanoTime();
+        reply =
+            server.submitClientRequest(
+                buildRawRequest(groupId, Message.EMPTY, RaftClientRequest.writeRequestType()));
+        if (reply.isSuccess()) {
+          renewLease(raftGroupId, term, sendTime);
+          return reply.getLogIndex();
+        }
+      }
+      // not the leader, or no longer, commit it through the leader
+      reply = clientMap.get(raftGroupId).io().send(Message.EMPTY);
+    } catch (IOException e) {
+      throw new RatisRequestFailedException(e);
+    }
+    if (!reply.isSuccess()) {
+      throw new RatisRequestFailedException(reply.getException());
+    }
+    return reply.getLogIndex();
+  }
+
+  /**
+   * Extend the lease of a group after an entry submitted by this leader at sendTime is committed. A
+   * majority of the group has accepted the entry after sendTime, and each of them withholds its
+   * vote until it has not heard from this leader for the minimum election timeout. So no other
+   * leader can be elected, let alone commit any log, before the lease expires.
+   *
+   * @param term the term of this leader before the entry was submitted
+   * @param sendTime {@link System#nanoTime()} before the entry was submitted
+   */
+  private void renewLease(RaftGroupId raftGroupId, long term, long sendTime) {
+    Lease renewed = new Lease(term, sendTime + leaseTimeoutNanos);
+    leaseMap.merge(
+        raftGroupId,
+        renewed,
+        (lease, newLease) ->
+            lease.term == newLease.term && lease.expireTime - newLease.expireTime > 0
+                ? lease
+                : newLease);
+  }
+
+  private boolean hasValidLease(RaftGroupId raftGroupId, RaftServer.Division division) {
+    if (!division.getInfo().isLeader() || !division.getInfo().isLeaderReady()) {
+      return false;
+    }
+    Lease lease = leaseMap.get(raftGroupId);
+    return lease != null
+        && lease.term == division.getInfo().getCurrentTerm()
+        && lease.expireTime - System.nanoTime() > 0;
+  }
+
+  private void waitUntilApplied(RaftServer.Division division, long index)
+      throws RatisRequestFailedException {
+    ApplicationStateMachineProxy stateMachine =
+        (ApplicationStateMachineProxy) division.getStateMachine();
+    try {
+      stateMachine.waitUntilApplied(index).get(readWaitTimeoutMs, TimeUnit.MILLISECONDS);
+    } catch (TimeoutException e) {
+      throw new RatisRequestFailedException(
+          new IOException(
+              String.format(
+                  "Log %d is not applied within %dms in %s",
+                  index, readWaitTimeoutMs, division.getGroup().getGroupId())));
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RatisRequestFailedException(e);
+    } catch (ExecutionException e) {
+      throw new RatisRequestFailedException(new IOException(e.getCause()));
+    }
+  }
+
   private ConsensusGenericResponse failed(ConsensusException e) {
     return ConsensusGenericResponse.newBuilder().setSuccess(false).setException(e).build();
   }
@@ -548,4 +675,16 @@ class RatisConsensus implements IConsensus {
     }
     return reply;
   }
+
+  /** no other leader can commit any log of the group before expireTime in System.nanoTime() */
+  private static class Lease {
+
+    private final long term;
+    private final long expireTime;
+
+    private Lease(long term, long expireTime) {
+      this.term = term;
+      this.expireTime = expireTime;
+    }
+  }
 }
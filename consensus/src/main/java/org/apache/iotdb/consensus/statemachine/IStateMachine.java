@@ -24,6 +24,7 @@ import org.apache.iotdb.consensus.common.DataSet;
 import org.apache.iotdb.consensus.common.request.IConsensusRequest;
 import org.apache.iotdb.service.rpc.thrift.TSStatus;
 
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Function;
 
 public interface IStateMachine {
@@ -36,5 +37,15 @@ public interface IStateMachine {
 
   TSStatus write(IConsensusRequest IConsensusRequest);
 
+  /**
+   * Apply a committed request asynchronously. Requests are submitted in log order by a single
+   * thread, and the implementation may apply non-conflicting requests concurrently as long as the
+   * result is the same as applying them one by one. The returned future completes once the request
+   * is applied. By default the request is applied synchronously by the calling thread.
+   */
+  default CompletableFuture<TSStatus> writeAsync(IConsensusRequest IConsensusRequest) {
+    return CompletableFuture.completedFuture(write(IConsensusRequest));
+  }
+
   DataSet read(IConsensusRequest IConsensusRequest);
 }
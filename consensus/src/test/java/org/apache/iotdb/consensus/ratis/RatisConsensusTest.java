@@ -260,5 +260,11 @@ public class RatisConsensusTest {
     ConsensusReadResponse response = leader.read(gid, getReq);
     TestDataSet result = (TestDataSet) response.getDataset();
     Assert.assertEquals(target, result.getNumber());
+
+    // a follower commits an empty entry through the leader before reading and sees all the writes
+    response = consensus.read(gid, getReq);
+    Assert.assertNull(response.getException());
+    result = (TestDataSet) response.getDataset();
+    Assert.assertEquals(target, result.getNumber());
   }
 }
@@ -33,6 +33,7 @@ public class TSFileConfigUtil {
     globalConfig.setCompressor(config.getCompressor().toString());
     globalConfig.setCoreSitePath(config.getCoreSitePath());
     globalConfig.setDeltaBlockSize(config.getDeltaBlockSize());
+    globalConfig.setDeviceLevelBloomFilter(config.isDeviceLevelBloomFilter());
     globalConfig.setDfsClientFailoverProxyProvider(config.getDfsClientFailoverProxyProvider());
     globalConfig.setDfsHaAutomaticFailoverEnabled(config.isDfsHaAutomaticFailoverEnabled());
     globalConfig.setDfsHaNamenodes(config.getDfsHaNamenodes());
@@ -51,6 +52,7 @@ public class TSFileConfigUtil {
     globalConfig.setMaxDegreeOfIndexNode(config.getMaxDegreeOfIndexNode());
     globalConfig.setMaxStringLength(config.getMaxStringLength());
     globalConfig.setPageCheckSizeThreshold(config.getPageCheckSizeThreshold());
+    globalConfig.setPageMiniBlockSize(config.getPageMiniBlockSize());
     globalConfig.setPageSizeInByte(config.getPageSizeInByte());
     globalConfig.setPlaMaxError(config.getPlaMaxError());
     globalConfig.setRleBitWidth(config.getRleBitWidth());
@@ -60,5 +62,6 @@ public class TSFileConfigUtil {
     globalConfig.setTSFileStorageFs(config.getTSFileStorageFs());
     globalConfig.setUseKerberos(config.isUseKerberos());
     globalConfig.setValueEncoder(config.getValueEncoder());
+    globalConfig.setZstdCompressionLevel(config.getZstdCompressionLevel());
   }
 }
@@ -44,6 +44,7 @@ public class TSFileConfigUtilCompletenessTest {
       "setCompressor",
       "setCoreSitePath",
       "setDeltaBlockSize",
+      "setDeviceLevelBloomFilter",
       "setDfsClientFailoverProxyProvider",
       "setDfsHaAutomaticFailoverEnabled",
       "setDfsHaNamenodes",
@@ -62,6 +63,7 @@ public class TSFileConfigUtilCompletenessTest {
       "setMaxDegreeOfIndexNode",
       "setMaxStringLength",
       "setPageCheckSizeThreshold",
+      "setPageMiniBlockSize",
       "setPageSizeInByte",
       "setPlaMaxError",
       "setRleBitWidth",
@@ -72,7 +74,8 @@ public class TSFileConfigUtilCompletenessTest {
       "setUseKerberos",
       "setValueEncoder",
       "setFreqEncodingSNR",
-      "setFreqEncodingBlockSize"
+      "setFreqEncodingBlockSize",
+      "setZstdCompressionLevel"
     };
     Set<String> newSetters =
         Arrays.stream(TSFileConfig.class.getMethods())
@@ -0,0 +1,57 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.hadoop.tsfile;
+
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.io.NullWritable;
+import org.apache.hadoop.mapreduce.InputSplit;
+import org.apache.hadoop.mapreduce.JobContext;
+import org.apache.hadoop.mapreduce.RecordReader;
+import org.apache.hadoop.mapreduce.TaskAttemptContext;
+import org.apache.hadoop.mapreduce.lib.input.FileInputFormat;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An input format that reads TsFiles in {@link TSFColumnBatch}es of primitive arrays instead of
+ * one {@link org.apache.hadoop.io.MapWritable} per row. It is configured by the same keys as
+ * {@link TSFInputFormat}, plus {@link TSFInputFormat#READ_BATCH_SIZE}.
+ */
+public class TSFBatchInputFormat extends FileInputFormat<NullWritable, TSFColumnBatch> {
+
+  private static final Logger logger = LoggerFactory.getLogger(TSFBatchInputFormat.class);
+
+  @Override
+  public RecordReader<NullWritable, TSFColumnBatch> createRecordReader(
+      InputSplit split, TaskAttemptContext context) {
+    return new TSFBatchRecordReader();
+  }
+
+  @Override
+  public List<InputSplit> getSplits(JobContext job) throws IOException {
+    job.getConfiguration().setBoolean(INPUT_DIR_RECURSIVE, true);
+    List<FileStatus> listFileStatus = super.listStatus(job);
+    return new ArrayList<>(
+        TSFInputFormat.getTSFInputSplit(job.getConfiguration(), listFileStatus, logger));
+  }
+}
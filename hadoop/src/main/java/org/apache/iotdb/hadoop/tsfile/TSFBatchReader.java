@@ -0,0 +1,299 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.hadoop.tsfile;
+
+import org.apache.iotdb.tsfile.file.metadata.ChunkMetadata;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
+import org.apache.iotdb.tsfile.read.common.BatchData;
+import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.read.common.TimeRange;
+import org.apache.iotdb.tsfile.read.controller.MetadataQuerierByFileImpl;
+import org.apache.iotdb.tsfile.read.filter.TimeFilter;
+import org.apache.iotdb.tsfile.read.filter.basic.Filter;
+import org.apache.iotdb.tsfile.read.filter.factory.FilterFactory;
+import org.apache.iotdb.tsfile.read.reader.chunk.ChunkReader;
+import org.apache.iotdb.tsfile.utils.Binary;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * A columnar reader of a TsFile (or a split of it) that bypasses {@link
+ * org.apache.iotdb.tsfile.read.TsFileReader} and the row oriented {@link
+ * org.apache.iotdb.tsfile.read.query.dataset.QueryDataSet}. The selected series are organized in
+ * groups, the series of one group are aligned by time and returned as {@link TSFColumnBatch}es, one
+ * group after another.
+ *
+ * <p>Chunks and pages are read directly with {@link TsFileSequenceReader} and {@link ChunkReader}.
+ * The time filter and the time ranges of the split are checked against the statistics of every
+ * chunk and page before they are loaded, and against every point while a page is decoded.
+ *
+ * <p>A split contains the chunks whose headers start inside [partitionStart, partitionEnd). Like
+ * {@link MetadataQuerierByFileImpl#convertSpace2TimePartition}, the split is converted to time
+ * ranges of the series in the group, so every row of the file is read by exactly one split.
+ */
+public class TSFBatchReader {
+
+  public static final int DEFAULT_BATCH_SIZE = 4096;
+
+  /** marks a group that has no rows in this split */
+  private static final Filter EMPTY = TimeFilter.lt(Long.MIN_VALUE);
+
+  private final TsFileSequenceReader reader;
+  private final List<List<Path>> groups;
+  private final Filter timeFilter;
+  private final long partitionStart;
+  private final long partitionEnd;
+  private final int batchSize;
+
+  private MetadataQuerierByFileImpl metadataQuerier;
+
+  private int groupIndex = -1;
+  private SeriesCursor[] cursors;
+  private TSFColumnBatch batch;
+
+  /**
+   * @param groups the series of each group are aligned by time, e.g. all measurements of one
+   *     device
+   * @param timeFilter filter on time, null if all the time is selected
+   */
+  public TSFBatchReader(
+      TsFileSequenceReader reader,
+      List<List<Path>> groups,
+      Filter timeFilter,
+      long partitionStart,
+      long partitionEnd,
+      int batchSize) {
+    this.reader = reader;
+    this.groups = groups;
+    this.timeFilter = timeFilter;
+    this.partitionStart = partitionStart;
+    this.partitionEnd = partitionEnd;
+    this.batchSize = batchSize;
+  }
+
+  /** read the whole file */
+  public TSFBatchReader(
+      TsFileSequenceReader reader, List<List<Path>> groups, Filter timeFilter, int batchSize) {
+    this(reader, groups, timeFilter, 0, Long.MAX_VALUE, batchSize);
+  }
+
+  /** @return one group for each device, containing the given measurements of the device */
+  public static List<List<Path>> groupByDevice(
+      List<String> deviceIds, List<String> measurementIds) {
+    List<List<Path>> groups = new ArrayList<>(deviceIds.size());
+    for (String deviceId : deviceIds) {
+      List<Path> paths = new ArrayList<>(measurementIds.size());
+      for (String measurementId : measurementIds) {
+        paths.add(new Path(deviceId, measurementId));
+      }
+      groups.add(paths);
+    }
+    return groups;
+  }
+
+  /**
+   * Read the next batch. The returned batch is reused, so its content is only valid until the next
+   * call.
+   *
+   * @return the next non-empty batch, or null if all groups are exhausted
+   */
+  public TSFColumnBatch nextBatch() throws IOException {
+    while (true) {
+      if (cursors != null && fillBatch() > 0) {
+        return batch;
+      }
+      if (++groupIndex >= groups.size()) {
+        cursors = null;
+        return null;
+      }
+      initGroup(groups.get(groupIndex));
+    }
+  }
+
+  private void initGroup(List<Path> paths) throws IOException {
+    TSDataType[] dataTypes = new TSDataType[paths.size()];
+    cursors = new SeriesCursor[paths.size()];
+    Filter filter = getGroupFilter(paths);
+    for (int i = 0; i < paths.size(); i++) {
+      List<ChunkMetadata> chunkMetadataList = reader.getChunkMetadataList(paths.get(i), true);
+      if (chunkMetadataList.isEmpty()) {
+        // the series does not exist in this file, its column is always null
+        continue;
+      }
+      dataTypes[i] = chunkMetadataList.get(0).getDataType();
+      if (filter != EMPTY) {
+        cursors[i] = new SeriesCursor(dataTypes[i], chunkMetadataList.iterator(), filter);
+      }
+    }
+    batch = new TSFColumnBatch(paths, dataTypes, batchSize);
+    String deviceId = paths.isEmpty() ? null : paths.get(0).getDevice();
+    for (Path path : paths) {
+      if (!path.getDevice().equals(deviceId)) {
+        deviceId = null;
+        break;
+      }
+    }
+    batch.setDeviceId(deviceId);
+  }
+
+  /**
+   * @return the time filter combined with the time ranges of the split, null if all the time is
+   *     selected, or {@link #EMPTY} if the split contains no rows of the group
+   */
+  private Filter getGroupFilter(List<Path> paths) throws IOException {
+    if (partitionStart <= 0 && partitionEnd == Long.MAX_VALUE) {
+      return timeFilter;
+    }
+    if (metadataQuerier == null) {
+      metadataQuerier = new MetadataQuerierByFileImpl(reader);
+    }
+    List<TimeRange> timeRanges =
+        metadataQuerier.convertSpace2TimePartition(paths, partitionStart, partitionEnd);
+    if (timeRanges.isEmpty()) {
+      return EMPTY;
+    }
+    Filter partitionFilter = null;
+    for (TimeRange timeRange : timeRanges) {
+      // the remaining ranges may be open, see TimeRange#getExpression
+      Filter rangeFilter =
+          FilterFactory.and(
+              timeRange.getLeftClose()
+                  ? TimeFilter.gtEq(timeRange.getMin())
+                  : TimeFilter.gt(timeRange.getMin()),
+              timeRange.getRightClose()
+                  ? TimeFilter.ltEq(timeRange.getMax())
+                  : TimeFilter.lt(timeRange.getMax()));
+      partitionFilter =
+          partitionFilter == null ? rangeFilter : FilterFactory.or(partitionFilter, rangeFilter);
+    }
+    return timeFilter == null ? partitionFilter : FilterFactory.and(timeFilter, partitionFilter);
+  }
+
+  /** merge the cursors of the current group by time into the batch */
+  private int fillBatch() throws IOException {
+    long[] timestamps = batch.getTimestamps();
+    int row = 0;
+    while (row < batchSize) {
+      long minTime = Long.MAX_VALUE;
+      boolean hasCurrent = false;
+      for (SeriesCursor cursor : cursors) {
+        if (cursor != null && cursor.hasCurrent()) {
+          minTime = Math.min(minTime, cursor.currentTime());
+          hasCurrent = true;
+        }
+      }
+      if (!hasCurrent) {
+        break;
+      }
+      timestamps[row] = minTime;
+      for (int i = 0; i < cursors.length; i++) {
+        SeriesCursor cursor = cursors[i];
+        if (cursor != null && cursor.hasCurrent() && cursor.currentTime() == minTime) {
+          cursor.copyCurrent(batch.getColumn(i), row);
+          batch.getIsNull(i)[row] = false;
+        } else {
+          batch.getIsNull(i)[row] = true;
+        }
+      }
+      row++;
+    }
+    batch.setSize(row);
+    return row;
+  }
+
+  /** iterates the satisfied points of one series page by page */
+  private class SeriesCursor {
+
+    private final TSDataType dataType;
+    private final Iterator<ChunkMetadata> chunkMetadataIterator;
+    private final Filter filter;
+
+    private ChunkReader chunkReader;
+    private BatchData pageData;
+    private int index;
+
+    private SeriesCursor(
+        TSDataType dataType, Iterator<ChunkMetadata> chunkMetadataIterator, Filter filter) {
+      this.dataType = dataType;
+      this.chunkMetadataIterator = chunkMetadataIterator;
+      this.filter = filter;
+    }
+
+    private boolean hasCurrent() throws IOException {
+      while (pageData == null || index >= pageData.length()) {
+        if (chunkReader != null && chunkReader.hasNextSatisfiedPage()) {
+          pageData = chunkReader.nextPageData();
+          index = 0;
+        } else if (!nextChunk()) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    private boolean nextChunk() throws IOException {
+      while (chunkMetadataIterator.hasNext()) {
+        ChunkMetadata chunkMetadata = chunkMetadataIterator.next();
+        // skip the chunk by its statistics before loading it
+        if (filter == null || filter.satisfy(chunkMetadata.getStatistics())) {
+          chunkReader = new ChunkReader(reader.readMemChunk(chunkMetadata), filter);
+          return true;
+        }
+      }
+      chunkReader = null;
+      return false;
+    }
+
+    private long currentTime() {
+      return pageData.getTimeByIndex(index);
+    }
+
+    /** copy the current value into the column and move to the next point */
+    private void copyCurrent(Object column, int row) {
+      switch (dataType) {
+        case BOOLEAN:
+          ((boolean[]) column)[row] = pageData.getBooleanByIndex(index);
+          break;
+        case INT32:
+          ((int[]) column)[row] = pageData.getIntByIndex(index);
+          break;
+        case INT64:
+          ((long[]) column)[row] = pageData.getLongByIndex(index);
+          break;
+        case FLOAT:
+          ((float[]) column)[row] = pageData.getFloatByIndex(index);
+          break;
+        case DOUBLE:
+          ((double[]) column)[row] = pageData.getDoubleByIndex(index);
+          break;
+        case TEXT:
+          ((Binary[]) column)[row] = pageData.getBinaryByIndex(index);
+          break;
+        default:
+          throw new UnsupportedOperationException(
+              String.format("The data type %s is not support", dataType));
+      }
+      index++;
+    }
+  }
+}
@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.hadoop.tsfile;
+
+import org.apache.iotdb.hadoop.fileSystem.HDFSInput;
+import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.io.NullWritable;
+import org.apache.hadoop.mapreduce.InputSplit;
+import org.apache.hadoop.mapreduce.RecordReader;
+import org.apache.hadoop.mapreduce.TaskAttemptContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * The columnar counterpart of {@link TSFRecordReader}. Every value is a {@link TSFColumnBatch}
+ * holding the time-aligned measurements of one device, read by {@link TSFBatchReader}.
+ */
+public class TSFBatchRecordReader extends RecordReader<NullWritable, TSFColumnBatch> {
+
+  private static final Logger logger = LoggerFactory.getLogger(TSFBatchRecordReader.class);
+
+  private TsFileSequenceReader reader;
+  private TSFBatchReader batchReader;
+  private TSFColumnBatch currentBatch;
+
+  @Override
+  public void initialize(InputSplit split, TaskAttemptContext context) throws IOException {
+    if (!(split instanceof TSFInputSplit)) {
+      logger.error(
+          "The InputSplit class is not {}, the class is {}",
+          TSFInputSplit.class.getName(),
+          split.getClass().getName());
+      throw new InternalError(
+          String.format(
+              "The InputSplit class is not %s, the class is %s",
+              TSFInputSplit.class.getName(), split.getClass().getName()));
+    }
+    TSFInputSplit tsfInputSplit = (TSFInputSplit) split;
+    Configuration configuration = context.getConfiguration();
+    reader = new TsFileSequenceReader(new HDFSInput(tsfInputSplit.getPath(), configuration));
+
+    List<String> deviceIds = TSFInputFormat.getReadDeviceIds(configuration);
+    List<String> measurementIds = TSFInputFormat.getReadMeasurementIds(configuration);
+    logger.info("deviceIds:" + deviceIds);
+    logger.info("Sensors:" + measurementIds);
+
+    batchReader =
+        new TSFBatchReader(
+            reader,
+            TSFBatchReader.groupByDevice(deviceIds, measurementIds),
+            TSFInputFormat.getReadTimeFilter(configuration),
+            tsfInputSplit.getStart(),
+            tsfInputSplit.getStart() + tsfInputSplit.getLength(),
+            TSFInputFormat.getReadBatchSize(configuration));
+  }
+
+  @Override
+  public boolean nextKeyValue() throws IOException {
+    currentBatch = batchReader.nextBatch();
+    return currentBatch != null;
+  }
+
+  @Override
+  public NullWritable getCurrentKey() {
+    return NullWritable.get();
+  }
+
+  @Override
+  public TSFColumnBatch getCurrentValue() {
+    return currentBatch;
+  }
+
+  @Override
+  public float getProgress() {
+    return 0;
+  }
+
+  @Override
+  public void close() throws IOException {
+    batchReader = null;
+    currentBatch = null;
+    reader.close();
+  }
+}
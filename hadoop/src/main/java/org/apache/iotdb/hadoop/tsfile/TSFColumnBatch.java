@@ -0,0 +1,156 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.hadoop.tsfile;
+
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.utils.Binary;
+
+import java.util.List;
+
+/**
+ * A batch of time-aligned rows read by {@link TSFBatchReader}. Values are kept in one primitive
+ * array per series (int[], long[], float[], double[], boolean[] or Binary[] according to the data
+ * type), so that consumers can copy whole columns instead of boxing every point into a {@link
+ * org.apache.iotdb.tsfile.read.common.Field}.
+ *
+ * <p>A batch is reused by the reader, the arrays are only valid until the next batch is read.
+ */
+public class TSFColumnBatch {
+
+  private final List<Path> paths;
+  /** data type of each series, null if the series does not exist in the file */
+  private final TSDataType[] dataTypes;
+
+  private final long[] timestamps;
+  private final Object[] values;
+  private final boolean[][] isNull;
+
+  /** the device of all series in this batch, null if the series belong to different devices */
+  private String deviceId;
+
+  private int size;
+
+  public TSFColumnBatch(List<Path> paths, TSDataType[] dataTypes, int capacity) {
+    this.paths = paths;
+    this.dataTypes = dataTypes;
+    this.timestamps = new long[capacity];
+    this.values = new Object[dataTypes.length];
+    this.isNull = new boolean[dataTypes.length][capacity];
+    for (int i = 0; i < dataTypes.length; i++) {
+      values[i] = createColumn(dataTypes[i], capacity);
+    }
+  }
+
+  private static Object createColumn(TSDataType dataType, int capacity) {
+    if (dataType == null) {
+      return null;
+    }
+    switch (dataType) {
+      case BOOLEAN:
+        return new boolean[capacity];
+      case INT32:
+        return new int[capacity];
+      case INT64:
+        return new long[capacity];
+      case FLOAT:
+        return new float[capacity];
+      case DOUBLE:
+        return new double[capacity];
+      case TEXT:
+        return new Binary[capacity];
+      default:
+        throw new UnsupportedOperationException(
+            String.format("The data type %s is not support", dataType));
+    }
+  }
+
+  public List<Path> getPaths() {
+    return paths;
+  }
+
+  public TSDataType[] getDataTypes() {
+    return dataTypes;
+  }
+
+  public String getDeviceId() {
+    return deviceId;
+  }
+
+  void setDeviceId(String deviceId) {
+    this.deviceId = deviceId;
+  }
+
+  /** @return the number of rows in this batch */
+  public int size() {
+    return size;
+  }
+
+  void setSize(int size) {
+    this.size = size;
+  }
+
+  public int capacity() {
+    return timestamps.length;
+  }
+
+  public long[] getTimestamps() {
+    return timestamps;
+  }
+
+  /**
+   * @param column the index of the series in {@link #getPaths()}
+   * @return the value array of the series, null if the series does not exist in the file
+   */
+  public Object getColumn(int column) {
+    return values[column];
+  }
+
+  public boolean[] getIsNull(int column) {
+    return isNull[column];
+  }
+
+  public boolean isNull(int row, int column) {
+    return isNull[column][row];
+  }
+
+  public int getInt(int row, int column) {
+    return ((int[]) values[column])[row];
+  }
+
+  public long getLong(int row, int column) {
+    return ((long[]) values[column])[row];
+  }
+
+  public float getFloat(int row, int column) {
+    return ((float[]) values[column])[row];
+  }
+
+  public double getDouble(int row, int column) {
+    return ((double[]) values[column])[row];
+  }
+
+  public boolean getBoolean(int row, int column) {
+    return ((boolean[]) values[column])[row];
+  }
+
+  public Binary getBinary(int row, int column) {
+    return ((Binary[]) values[column])[row];
+  }
+}
@@ -18,6 +18,10 @@
  */
 package org.apache.iotdb.hadoop.tsfile;
 
+import org.apache.iotdb.tsfile.read.filter.TimeFilter;
+import org.apache.iotdb.tsfile.read.filter.basic.Filter;
+import org.apache.iotdb.tsfile.read.filter.factory.FilterFactory;
+
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.BlockLocation;
 import org.apache.hadoop.fs.FileStatus;
@@ -52,6 +56,12 @@ public class TSFInputFormat extends FileInputFormat<NullWritable, MapWritable> {
   public static final String READ_DELTAOBJECTS = "tsfile.read.deltaobject";
   /** key to configure the reading measurementIds */
   public static final String READ_MEASUREMENTID = "tsfile.read.measurement";
+  /** key to configure the start of the read time range (inclusive) */
+  public static final String READ_TIME_START = "tsfile.read.time.start";
+  /** key to configure the end of the read time range (inclusive) */
+  public static final String READ_TIME_END = "tsfile.read.time.end";
+  /** key to configure the number of rows in a batch of {@link TSFBatchInputFormat} */
+  public static final String READ_BATCH_SIZE = "tsfile.read.batch.size";
 
   private static final Logger logger = LoggerFactory.getLogger(TSFInputFormat.class);
   private static final String SEPARATOR = ",";
@@ -163,6 +173,39 @@ public class TSFInputFormat extends FileInputFormat<NullWritable, MapWritable> {
     return configuration.getBoolean(READ_TIME_ENABLE, true);
   }
 
+  /**
+   * Set the time range to read. Chunks and pages out of the range are skipped by their statistics.
+   *
+   * @param job hadoop job
+   * @param startTime the start of the time range (inclusive)
+   * @param endTime the end of the time range (inclusive)
+   */
+  public static void setReadTimeRange(Job job, long startTime, long endTime) {
+    job.getConfiguration().setLong(READ_TIME_START, startTime);
+    job.getConfiguration().setLong(READ_TIME_END, endTime);
+  }
+
+  /** @return the filter of the read time range, null if no time range is set */
+  public static Filter getReadTimeFilter(Configuration configuration) {
+    Filter filter = null;
+    if (configuration.get(READ_TIME_START) != null) {
+      filter = TimeFilter.gtEq(configuration.getLong(READ_TIME_START, Long.MIN_VALUE));
+    }
+    if (configuration.get(READ_TIME_END) != null) {
+      Filter endFilter = TimeFilter.ltEq(configuration.getLong(READ_TIME_END, Long.MAX_VALUE));
+      filter = filter == null ? endFilter : FilterFactory.and(filter, endFilter);
+    }
+    return filter;
+  }
+
+  public static void setReadBatchSize(Job job, int batchSize) {
+    job.getConfiguration().setInt(READ_BATCH_SIZE, batchSize);
+  }
+
+  public static int getReadBatchSize(Configuration configuration) {
+    return configuration.getInt(READ_BATCH_SIZE, TSFBatchReader.DEFAULT_BATCH_SIZE);
+  }
+
   /**
    * Set filter exist or not
    *
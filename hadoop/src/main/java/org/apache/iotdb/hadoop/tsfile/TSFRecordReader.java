@@ -25,6 +25,8 @@ import org.apache.iotdb.tsfile.read.common.Field;
 import org.apache.iotdb.tsfile.read.common.Path;
 import org.apache.iotdb.tsfile.read.common.RowRecord;
 import org.apache.iotdb.tsfile.read.expression.QueryExpression;
+import org.apache.iotdb.tsfile.read.expression.impl.GlobalTimeExpression;
+import org.apache.iotdb.tsfile.read.filter.basic.Filter;
 import org.apache.iotdb.tsfile.read.query.dataset.QueryDataSet;
 
 import org.apache.hadoop.conf.Configuration;
@@ -107,6 +109,7 @@ public class TSFRecordReader extends RecordReader<NullWritable, MapWritable> imp
 
     readerSet.setReadDeviceId(TSFInputFormat.getReadDeviceId(configuration));
     readerSet.setReadTime(TSFInputFormat.getReadTime(configuration));
+    Filter timeFilter = TSFInputFormat.getReadTimeFilter(configuration);
 
     try (TsFileReader queryEngine = new TsFileReader(reader)) {
       for (String deviceId : deviceIds) {
@@ -114,7 +117,9 @@ public class TSFRecordReader extends RecordReader<NullWritable, MapWritable> imp
             measurementIds.stream()
                 .map(measurementId -> new Path(deviceId, measurementId))
                 .collect(toList());
-        QueryExpression queryExpression = QueryExpression.create(paths, null);
+        QueryExpression queryExpression =
+            QueryExpression.create(
+                paths, timeFilter == null ? null : new GlobalTimeExpression(timeFilter));
         QueryDataSet dataSet =
             queryEngine.query(
                 queryExpression, split.getStart(), split.getStart() + split.getLength());
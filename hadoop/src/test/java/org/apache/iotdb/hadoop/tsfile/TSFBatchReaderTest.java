@@ -0,0 +1,192 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.hadoop.tsfile;
+
+import org.apache.iotdb.hadoop.tsfile.constant.TestConstant;
+import org.apache.iotdb.tsfile.file.metadata.ChunkMetadata;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
+import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.read.filter.TimeFilter;
+import org.apache.iotdb.tsfile.read.filter.basic.Filter;
+import org.apache.iotdb.tsfile.read.filter.factory.FilterFactory;
+import org.apache.iotdb.tsfile.write.TsFileWriter;
+import org.apache.iotdb.tsfile.write.record.TSRecord;
+import org.apache.iotdb.tsfile.write.record.datapoint.DoubleDataPoint;
+import org.apache.iotdb.tsfile.write.record.datapoint.LongDataPoint;
+import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class TSFBatchReaderTest {
+
+  private static final int ROW_NUM = 1000;
+  private static final int FLUSH_INTERVAL = 300;
+
+  private final String tsfilePath = TestConstant.BASE_OUTPUT_PATH.concat("batch-reader.tsfile");
+
+  @Before
+  public void setUp() throws Exception {
+    File file = new File(tsfilePath);
+    if (file.exists()) {
+      file.delete();
+    }
+    file.getParentFile().mkdirs();
+    try (TsFileWriter writer = new TsFileWriter(file)) {
+      for (String device : new String[] {"d1", "d2"}) {
+        writer.registerTimeseries(
+            new Path(device), new MeasurementSchema("s1", TSDataType.INT64, TSEncoding.TS_2DIFF));
+        writer.registerTimeseries(
+            new Path(device), new MeasurementSchema("s2", TSDataType.DOUBLE, TSEncoding.GORILLA));
+      }
+      for (long time = 0; time < ROW_NUM; time++) {
+        for (String device : new String[] {"d1", "d2"}) {
+          TSRecord record = new TSRecord(time, device);
+          record.addTuple(new LongDataPoint("s1", time));
+          // s2 only has the even timestamps
+          if (time % 2 == 0) {
+            record.addTuple(new DoubleDataPoint("s2", time / 2.0));
+          }
+          writer.write(record);
+        }
+        if (time % FLUSH_INTERVAL == FLUSH_INTERVAL - 1) {
+          writer.flushAllChunkGroups();
+        }
+      }
+    }
+  }
+
+  @After
+  public void tearDown() {
+    TsFileTestHelper.deleteTsFile(tsfilePath);
+  }
+
+  @Test
+  public void testReadByDevice() throws IOException {
+    try (TsFileSequenceReader reader = new TsFileSequenceReader(tsfilePath)) {
+      TSFBatchReader batchReader =
+          new TSFBatchReader(
+              reader,
+              TSFBatchReader.groupByDevice(Arrays.asList("d1", "d2"), Arrays.asList("s1", "s2")),
+              null,
+              128);
+      for (String device : new String[] {"d1", "d2"}) {
+        assertEquals(ROW_NUM, checkRows(batchReader, device, 0, ROW_NUM));
+      }
+      assertNull(batchReader.nextBatch());
+    }
+  }
+
+  @Test
+  public void testTimeFilter() throws IOException {
+    Filter timeFilter = FilterFactory.and(TimeFilter.gtEq(250), TimeFilter.lt(650));
+    try (TsFileSequenceReader reader = new TsFileSequenceReader(tsfilePath)) {
+      TSFBatchReader batchReader =
+          new TSFBatchReader(
+              reader,
+              TSFBatchReader.groupByDevice(
+                  Collections.singletonList("d2"), Arrays.asList("s1", "s2")),
+              timeFilter,
+              TSFBatchReader.DEFAULT_BATCH_SIZE);
+      assertEquals(400, checkRows(batchReader, "d2", 250, 650));
+      assertNull(batchReader.nextBatch());
+    }
+  }
+
+  @Test
+  public void testMissingSeries() throws IOException {
+    try (TsFileSequenceReader reader = new TsFileSequenceReader(tsfilePath)) {
+      TSFBatchReader batchReader =
+          new TSFBatchReader(
+              reader,
+              Collections.singletonList(Arrays.asList(new Path("d1", "s1"), new Path("d3", "s1"))),
+              null,
+              TSFBatchReader.DEFAULT_BATCH_SIZE);
+      TSFColumnBatch batch = batchReader.nextBatch();
+      assertNull(batch.getDeviceId());
+      assertNull(batch.getDataTypes()[1]);
+      assertNull(batch.getColumn(1));
+      for (int row = 0; row < batch.size(); row++) {
+        assertFalse(batch.isNull(row, 0));
+        assertTrue(batch.isNull(row, 1));
+      }
+    }
+  }
+
+  @Test
+  public void testSplits() throws IOException {
+    try (TsFileSequenceReader reader = new TsFileSequenceReader(tsfilePath)) {
+      // split the file at the second chunk of d1.s1
+      List<ChunkMetadata> chunkMetadataList = reader.getChunkMetadataList(new Path("d1", "s1"));
+      assertTrue(chunkMetadataList.size() > 1);
+      long splitOffset = chunkMetadataList.get(1).getOffsetOfChunkHeader();
+      long fileLength = new File(tsfilePath).length();
+
+      List<List<Path>> groups =
+          TSFBatchReader.groupByDevice(Collections.singletonList("d1"), Arrays.asList("s1", "s2"));
+      TSFBatchReader first =
+          new TSFBatchReader(
+              reader, groups, null, 0, splitOffset, TSFBatchReader.DEFAULT_BATCH_SIZE);
+      TSFBatchReader second =
+          new TSFBatchReader(
+              reader, groups, null, splitOffset, fileLength, TSFBatchReader.DEFAULT_BATCH_SIZE);
+      assertEquals(FLUSH_INTERVAL, checkRows(first, "d1", 0, FLUSH_INTERVAL));
+      assertNull(first.nextBatch());
+      assertEquals(ROW_NUM - FLUSH_INTERVAL, checkRows(second, "d1", FLUSH_INTERVAL, ROW_NUM));
+      assertNull(second.nextBatch());
+    }
+  }
+
+  /** check the rows of one device in [startTime, endTime) and return the number of rows */
+  private int checkRows(TSFBatchReader batchReader, String device, long startTime, long endTime)
+      throws IOException {
+    long expectedTime = startTime;
+    int count = 0;
+    while (expectedTime < endTime) {
+      TSFColumnBatch batch = batchReader.nextBatch();
+      assertEquals(device, batch.getDeviceId());
+      for (int row = 0; row < batch.size(); row++, expectedTime++, count++) {
+        assertEquals(expectedTime, batch.getTimestamps()[row]);
+        assertEquals(expectedTime, batch.getLong(row, 0));
+        if (expectedTime % 2 == 0) {
+          assertFalse(batch.isNull(row, 1));
+          assertEquals(expectedTime / 2.0, batch.getDouble(row, 1), 0);
+        } else {
+          assertTrue(batch.isNull(row, 1));
+        }
+      }
+    }
+    assertEquals(endTime, expectedTime);
+    return count;
+  }
+}
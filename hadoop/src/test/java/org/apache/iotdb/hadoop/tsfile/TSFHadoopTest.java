@@ -226,4 +226,47 @@ public class TSFHadoopTest {
       TSFileDescriptor.getInstance().getConfig().setTSFileStorageFs(beforeFSType);
     }
   }
+
+  @Test
+  public void BatchRecordReaderTest() {
+    TsFileTestHelper.writeTsFile(tsfilePath);
+    try {
+      Job job = Job.getInstance();
+      // set input path to the job
+      TSFInputFormat.setInputPaths(job, tsfilePath);
+      String[] devices = {"device_1"};
+      TSFInputFormat.setReadDeviceIds(job, devices);
+      String[] sensors = {"sensor_1", "sensor_2", "sensor_3"};
+      TSFInputFormat.setReadMeasurementIds(job, sensors);
+      TSFInputFormat.setReadTimeRange(job, 1001, 2000);
+      TSFInputFormat.setReadBatchSize(job, 100);
+      List<InputSplit> inputSplits = new TSFBatchInputFormat().getSplits(job);
+      beforeFSType = TSFileDescriptor.getInstance().getConfig().getTSFileStorageFs();
+      TSFileDescriptor.getInstance().getConfig().setTSFileStorageFs(FSType.HDFS);
+      // read one split
+      TSFBatchRecordReader recordReader = new TSFBatchRecordReader();
+      TaskAttemptContextImpl attemptContextImpl =
+          new TaskAttemptContextImpl(job.getConfiguration(), new TaskAttemptID());
+      recordReader.initialize(inputSplits.get(0), attemptContextImpl);
+      long timestamp = 1001;
+      while (recordReader.nextKeyValue()) {
+        TSFColumnBatch batch = recordReader.getCurrentValue();
+        assertEquals("device_1", batch.getDeviceId());
+        assertEquals(sensors.length, batch.getPaths().size());
+        for (int row = 0; row < batch.size(); row++, timestamp++) {
+          assertEquals(timestamp, batch.getTimestamps()[row]);
+          for (int column = 0; column < sensors.length; column++) {
+            assertEquals(timestamp + 999999L, batch.getLong(row, column));
+          }
+        }
+      }
+      assertEquals(2001L, timestamp);
+      recordReader.close();
+    } catch (IOException | TSFHadoopException e) {
+      e.printStackTrace();
+      fail(e.getMessage());
+    } finally {
+      TSFileDescriptor.getInstance().getConfig().setTSFileStorageFs(beforeFSType);
+    }
+  }
 }
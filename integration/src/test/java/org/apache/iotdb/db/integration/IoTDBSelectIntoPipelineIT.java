@@ -0,0 +1,55 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.integration;
+
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.itbase.category.LocalStandaloneTest;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.experimental.categories.Category;
+
+/** Runs all cases of {@link IoTDBSelectIntoIT} with the select-into pipeline enabled. */
+@Category({LocalStandaloneTest.class})
+public class IoTDBSelectIntoPipelineIT extends IoTDBSelectIntoIT {
+
+  private static boolean isEnableSelectIntoPipeline;
+  private static long selectIntoPipelineMemoryLimitInByte;
+
+  @BeforeClass
+  public static void enablePipeline() {
+    isEnableSelectIntoPipeline =
+        IoTDBDescriptor.getInstance().getConfig().isEnableSelectIntoPipeline();
+    selectIntoPipelineMemoryLimitInByte =
+        IoTDBDescriptor.getInstance().getConfig().getSelectIntoPipelineMemoryLimitInByte();
+    IoTDBDescriptor.getInstance().getConfig().setEnableSelectIntoPipeline(true);
+    // make the query wait for the writers frequently
+    IoTDBDescriptor.getInstance().getConfig().setSelectIntoPipelineMemoryLimitInByte(1);
+  }
+
+  @AfterClass
+  public static void restorePipeline() {
+    IoTDBDescriptor.getInstance()
+        .getConfig()
+        .setEnableSelectIntoPipeline(isEnableSelectIntoPipeline);
+    IoTDBDescriptor.getInstance()
+        .getConfig()
+        .setSelectIntoPipelineMemoryLimitInByte(selectIntoPipelineMemoryLimitInByte);
+  }
+}
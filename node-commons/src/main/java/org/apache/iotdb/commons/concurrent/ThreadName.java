@@ -52,12 +52,14 @@ public enum ThreadName {
   SUB_RAW_QUERY_SERVICE("Sub_RawQuery"),
   INSERTION_SERVICE("MultithreadingInsertionPool"),
   WINDOW_EVALUATION_SERVICE("WindowEvaluationTaskPoolManager"),
+  ASYNC_TRIGGER_SERVICE("AsyncTriggerTaskPoolManager"),
   TTL_CHECK_SERVICE("TTL-CHECK"),
   TIMED_FlUSH_SEQ_MEMTABLE("Timed-Flush-Seq-Memtable"),
   TIMED_FlUSH_UNSEQ_MEMTABLE("Timed-Flush-Unseq-Memtable"),
   TIMED_CLOSE_TSFILE("Timed-Close-TsFile"),
   SETTLE_SERVICE("Settle"),
   CONTINUOUS_QUERY_SERVICE("ContinuousQueryTaskPoolManager"),
+  SELECT_INTO_PIPELINE("Select-Into-Pipeline"),
   CLUSTER_INFO_SERVICE("ClusterInfoClient"),
   CLUSTER_RPC_SERVICE("ClusterRPC"),
   CLUSTER_RPC_CLIENT("Cluster-RPC-Client"),
@@ -77,6 +79,7 @@ public enum ThreadName {
   Cluster_Monitor("ClusterMonitor"),
   DATA_BLOCK_MANAGER_SERVICE("DataBlockManagerService"),
   DATA_BLOCK_MANAGER_CLIENT("DataBlockManagerService-Client"),
+  DATA_REGION_APPLY("DataRegion-Apply"),
   ;
 
   private final String name;
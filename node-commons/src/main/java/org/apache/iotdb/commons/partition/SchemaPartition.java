@@ -70,16 +70,12 @@ public class SchemaPartition {
   public List<Integer> filterNoAssignDeviceGroupId(
       String storageGroup, List<Integer> deviceGroupIDs) {
     if (!schemaPartition.containsKey(storageGroup)) {
-      return deviceGroupIDs;
+      return deviceGroupIDs.stream().distinct().collect(Collectors.toList());
     }
+    Map<SeriesPartitionSlot, RegionReplicaSet> deviceGroupMap = schemaPartition.get(storageGroup);
     return deviceGroupIDs.stream()
-        .filter(
-            id -> {
-              if (schemaPartition.get(storageGroup).containsKey(deviceGroupIDs)) {
-                return false;
-              }
-              return true;
-            })
+        .filter(id -> !deviceGroupMap.containsKey(new SeriesPartitionSlot(id)))
+        .distinct()
         .collect(Collectors.toList());
   }
 
@@ -21,6 +21,12 @@ package org.apache.iotdb.commons.partition;
 public class TimePartitionSlot {
   private long startTime;
 
+  public TimePartitionSlot() {}
+
+  public TimePartitionSlot(long startTime) {
+    this.startTime = startTime;
+  }
+
   public long getStartTime() {
     return startTime;
   }
@@ -28,4 +34,15 @@ public class TimePartitionSlot {
   public void setStartTime(long startTime) {
     this.startTime = startTime;
   }
+
+  @Override
+  public int hashCode() {
+    return Long.hashCode(startTime);
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    return obj instanceof TimePartitionSlot
+        && this.startTime == ((TimePartitionSlot) obj).startTime;
+  }
 }
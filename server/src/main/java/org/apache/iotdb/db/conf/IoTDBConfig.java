@@ -295,6 +295,12 @@ public class IoTDBConfig {
    */
   private int maxPendingWindowEvaluationTasks = 64;
 
+  /**
+   * How many threads can concurrently deliver events to asynchronous triggers. When <= 0, use CPU
+   * core number.
+   */
+  private int concurrentAsyncTriggerThread = Runtime.getRuntime().availableProcessors();
+
   /** Is the write mem control for writing enable. */
   private boolean enableMemControl = true;
 
@@ -406,12 +412,25 @@ public class IoTDBConfig {
   /** The target tsfile size in compaction, 1 GB by default */
   private long targetCompactionFileSize = 1073741824L;
 
+  /**
+   * When a TsFile writer of compaction holds this many chunk metadata in memory, they are spilled
+   * to a temporary file and merged back when the file is sealed. Spilling is disabled if it is not
+   * positive.
+   */
+  private int chunkMetadataSpillThreshold = 100000;
+
   /** The target chunk size in compaction. */
   private long targetChunkSize = 1048576L;
 
   /** The target chunk point num in compaction. */
   private long targetChunkPointNum = 100000L;
 
+  /**
+   * Max byte size of the ZSTD dictionary trained for a storage group from the pages of its
+   * compaction targets. 0 means chunks are compressed without dictionaries.
+   */
+  private int zstdDictionarySize = 0;
+
   /**
    * If the chunk size is lower than this threshold, it will be deserialized into points, default is
    * 1 KB
@@ -469,6 +488,12 @@ public class IoTDBConfig {
   /** Cache size of {@code checkAndGetDataTypeCache} in {@link LocalSchemaProcessor}. */
   private int mRemoteSchemaCacheSize = 100000;
 
+  /**
+   * Max number of devices whose resolved schemas are cached for the insert path, see {@link
+   * org.apache.iotdb.db.metadata.cache.DeviceSchemaCache}. 0 means disabled.
+   */
+  private int deviceSchemaCacheSize = 10000;
+
   /** Is external sort enable. */
   private boolean enableExternalSort = true;
 
@@ -618,6 +643,12 @@ public class IoTDBConfig {
    */
   private long continuousQueryMinimumEveryInterval = 1000;
 
+  /*
+   * Whether continuous queries only recompute the group by windows which are new or affected by
+   * inserts and deletes since the last execution, instead of the whole for interval.
+   */
+  private boolean enableIncrementalContinuousQuery = false;
+
   /**
    * The size of log buffer for every CQ management operation plan. If the size of a CQ management
    * operation plan is larger than this parameter, the CQ management operation plan will be rejected
@@ -631,6 +662,22 @@ public class IoTDBConfig {
    */
   private int selectIntoInsertTabletPlanRowLimit = 10000;
 
+  /**
+   * Whether select-into statements read the query result and execute the generated
+   * insert-tablet-plans concurrently, writing different target storage groups in parallel.
+   */
+  private boolean enableSelectIntoPipeline = false;
+
+  /** How many threads can execute the insert-tablet-plans generated by select-into statements. */
+  private int selectIntoPipelineThreadNum =
+      Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+
+  /**
+   * The max estimated size of the insert-tablet-plans generated but not yet executed by one
+   * select-into statement. The query is paused when it is reached. Unit: byte
+   */
+  private long selectIntoPipelineMemoryLimitInByte = 64L * 1024 * 1024;
+
   /**
    * When the insert plan column count reaches the specified threshold, which means that the plan is
    * relatively large. At this time, may be enabled multithreading. If the tablet is small, the time
@@ -811,6 +858,12 @@ public class IoTDBConfig {
    */
   private boolean enableIDTableLogFile = false;
 
+  /**
+   * the implementation of id table, can be 'HashMap' or 'OpenAddressing'. 'OpenAddressing' keeps
+   * device keys in primitive arrays and serves lookups without locking
+   */
+  private String idTableImplementation = "HashMap";
+
   /** Encryption provider class */
   private String encryptDecryptProvider =
       "org.apache.iotdb.db.security.encrypt.MessageDigestEncrypt";
@@ -832,6 +885,13 @@ public class IoTDBConfig {
   /** Internal port for consensus protocol */
   private int consensusPort = 40010;
 
+  /**
+   * Number of threads applying committed requests of all data regions. Inserts to different
+   * devices of a region are applied concurrently, 1 applies every region strictly in log order.
+   */
+  private int dataRegionApplyThreadNum =
+      Math.max(Runtime.getRuntime().availableProcessors() / 2, 1);
+
   /** The max time of data node waiting to join into the cluster */
   private long joinClusterTimeOutMs = TimeUnit.SECONDS.toMillis(60);
 
@@ -1283,6 +1343,14 @@ public class IoTDBConfig {
     this.maxPendingWindowEvaluationTasks = maxPendingWindowEvaluationTasks;
   }
 
+  public int getConcurrentAsyncTriggerThread() {
+    return concurrentAsyncTriggerThread;
+  }
+
+  public void setConcurrentAsyncTriggerThread(int concurrentAsyncTriggerThread) {
+    this.concurrentAsyncTriggerThread = concurrentAsyncTriggerThread;
+  }
+
   public long getSeqTsFileSize() {
     return seqTsFileSize;
   }
@@ -1323,6 +1391,14 @@ public class IoTDBConfig {
     this.mRemoteSchemaCacheSize = mRemoteSchemaCacheSize;
   }
 
+  public int getDeviceSchemaCacheSize() {
+    return deviceSchemaCacheSize;
+  }
+
+  public void setDeviceSchemaCacheSize(int deviceSchemaCacheSize) {
+    this.deviceSchemaCacheSize = deviceSchemaCacheSize;
+  }
+
   public boolean isSyncEnable() {
     return isSyncEnable;
   }
@@ -1621,6 +1697,14 @@ public class IoTDBConfig {
     this.continuousQueryMinimumEveryInterval = minimumEveryInterval;
   }
 
+  public boolean isEnableIncrementalContinuousQuery() {
+    return enableIncrementalContinuousQuery;
+  }
+
+  public void setEnableIncrementalContinuousQuery(boolean enableIncrementalContinuousQuery) {
+    this.enableIncrementalContinuousQuery = enableIncrementalContinuousQuery;
+  }
+
   public int getCqlogBufferSize() {
     return cqlogBufferSize;
   }
@@ -1637,6 +1721,30 @@ public class IoTDBConfig {
     return selectIntoInsertTabletPlanRowLimit;
   }
 
+  public boolean isEnableSelectIntoPipeline() {
+    return enableSelectIntoPipeline;
+  }
+
+  public void setEnableSelectIntoPipeline(boolean enableSelectIntoPipeline) {
+    this.enableSelectIntoPipeline = enableSelectIntoPipeline;
+  }
+
+  public int getSelectIntoPipelineThreadNum() {
+    return selectIntoPipelineThreadNum;
+  }
+
+  public void setSelectIntoPipelineThreadNum(int selectIntoPipelineThreadNum) {
+    this.selectIntoPipelineThreadNum = selectIntoPipelineThreadNum;
+  }
+
+  public long getSelectIntoPipelineMemoryLimitInByte() {
+    return selectIntoPipelineMemoryLimitInByte;
+  }
+
+  public void setSelectIntoPipelineMemoryLimitInByte(long selectIntoPipelineMemoryLimitInByte) {
+    this.selectIntoPipelineMemoryLimitInByte = selectIntoPipelineMemoryLimitInByte;
+  }
+
   public int getInsertMultiTabletEnableMultithreadingColumnThreshold() {
     return insertMultiTabletEnableMultithreadingColumnThreshold;
   }
@@ -2480,6 +2588,14 @@ public class IoTDBConfig {
     this.targetCompactionFileSize = targetCompactionFileSize;
   }
 
+  public int getChunkMetadataSpillThreshold() {
+    return chunkMetadataSpillThreshold;
+  }
+
+  public void setChunkMetadataSpillThreshold(int chunkMetadataSpillThreshold) {
+    this.chunkMetadataSpillThreshold = chunkMetadataSpillThreshold;
+  }
+
   public long getTargetChunkSize() {
     return targetChunkSize;
   }
@@ -2488,6 +2604,14 @@ public class IoTDBConfig {
     this.targetChunkSize = targetChunkSize;
   }
 
+  public int getZstdDictionarySize() {
+    return zstdDictionarySize;
+  }
+
+  public void setZstdDictionarySize(int zstdDictionarySize) {
+    this.zstdDictionarySize = zstdDictionarySize;
+  }
+
   public long getChunkSizeLowerBoundInCompaction() {
     return chunkSizeLowerBoundInCompaction;
   }
@@ -2556,6 +2680,14 @@ public class IoTDBConfig {
     return deviceIDTransformationMethod;
   }
 
+  public String getIDTableImplementation() {
+    return idTableImplementation;
+  }
+
+  public void setIDTableImplementation(String idTableImplementation) {
+    this.idTableImplementation = idTableImplementation;
+  }
+
   public void setDeviceIDTransformationMethod(String deviceIDTransformationMethod) {
     this.deviceIDTransformationMethod = deviceIDTransformationMethod;
   }
@@ -2624,6 +2756,14 @@ public class IoTDBConfig {
     this.consensusPort = consensusPort;
   }
 
+  public int getDataRegionApplyThreadNum() {
+    return dataRegionApplyThreadNum;
+  }
+
+  public void setDataRegionApplyThreadNum(int dataRegionApplyThreadNum) {
+    this.dataRegionApplyThreadNum = dataRegionApplyThreadNum;
+  }
+
   public long getJoinClusterTimeOutMs() {
     return joinClusterTimeOutMs;
   }
@@ -480,6 +480,14 @@ public class IoTDBDescriptor {
                       Integer.toString(conf.getmRemoteSchemaCacheSize()))
                   .trim()));
 
+      conf.setDeviceSchemaCacheSize(
+          Integer.parseInt(
+              properties
+                  .getProperty(
+                      "device_schema_cache_size",
+                      Integer.toString(conf.getDeviceSchemaCacheSize()))
+                  .trim()));
+
       conf.setLanguageVersion(
           properties.getProperty("language_version", conf.getLanguageVersion()).trim());
 
@@ -524,6 +532,11 @@ public class IoTDBDescriptor {
               properties.getProperty(
                   "target_compaction_file_size",
                   Long.toString(conf.getTargetCompactionFileSize()))));
+      conf.setChunkMetadataSpillThreshold(
+          Integer.parseInt(
+              properties.getProperty(
+                  "chunk_metadata_spill_threshold",
+                  Integer.toString(conf.getChunkMetadataSpillThreshold()))));
       conf.setTargetChunkSize(
           Long.parseLong(
               properties.getProperty(
@@ -532,6 +545,10 @@ public class IoTDBDescriptor {
           Long.parseLong(
               properties.getProperty(
                   "target_chunk_point_num", Long.toString(conf.getTargetChunkPointNum()))));
+      conf.setZstdDictionarySize(
+          Integer.parseInt(
+              properties.getProperty(
+                  "zstd_dictionary_size", Integer.toString(conf.getZstdDictionarySize()))));
       conf.setChunkPointNumLowerBoundInCompaction(
           Long.parseLong(
               properties.getProperty(
@@ -708,6 +725,15 @@ public class IoTDBDescriptor {
         conf.setMaxPendingWindowEvaluationTasks(64);
       }
 
+      conf.setConcurrentAsyncTriggerThread(
+          Integer.parseInt(
+              properties.getProperty(
+                  "concurrent_async_trigger_thread",
+                  Integer.toString(conf.getConcurrentAsyncTriggerThread()))));
+      if (conf.getConcurrentAsyncTriggerThread() <= 0) {
+        conf.setConcurrentAsyncTriggerThread(Runtime.getRuntime().availableProcessors());
+      }
+
       // id table related configuration
       conf.setDeviceIDTransformationMethod(
           properties.getProperty(
@@ -721,6 +747,9 @@ public class IoTDBDescriptor {
           Boolean.parseBoolean(
               properties.getProperty(
                   "enable_id_table_log_file", String.valueOf(conf.isEnableIDTableLogFile()))));
+
+      conf.setIDTableImplementation(
+          properties.getProperty("id_table_implementation", conf.getIDTableImplementation()));
       // mqtt
       loadMqttProps(properties);
 
@@ -749,6 +778,28 @@ public class IoTDBDescriptor {
                   "select_into_insert_tablet_plan_row_limit",
                   String.valueOf(conf.getSelectIntoInsertTabletPlanRowLimit()))));
 
+      conf.setEnableSelectIntoPipeline(
+          Boolean.parseBoolean(
+              properties.getProperty(
+                  "enable_select_into_pipeline",
+                  String.valueOf(conf.isEnableSelectIntoPipeline()))));
+
+      conf.setSelectIntoPipelineThreadNum(
+          Integer.parseInt(
+              properties.getProperty(
+                  "select_into_pipeline_thread_num",
+                  String.valueOf(conf.getSelectIntoPipelineThreadNum()))));
+      if (conf.getSelectIntoPipelineThreadNum() <= 0) {
+        conf.setSelectIntoPipelineThreadNum(
+            Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
+      }
+
+      conf.setSelectIntoPipelineMemoryLimitInByte(
+          Long.parseLong(
+              properties.getProperty(
+                  "select_into_pipeline_memory_limit_in_byte",
+                  String.valueOf(conf.getSelectIntoPipelineMemoryLimitInByte()))));
+
       conf.setInsertMultiTabletEnableMultithreadingColumnThreshold(
           Integer.parseInt(
               properties.getProperty(
@@ -1035,6 +1086,14 @@ public class IoTDBDescriptor {
                     "max_number_of_points_in_page",
                     Integer.toString(
                         TSFileDescriptor.getInstance().getConfig().getMaxNumberOfPointsInPage()))));
+    TSFileDescriptor.getInstance()
+        .getConfig()
+        .setPageMiniBlockSize(
+            Integer.parseInt(
+                properties.getProperty(
+                    "page_mini_block_size",
+                    Integer.toString(
+                        TSFileDescriptor.getInstance().getConfig().getPageMiniBlockSize()))));
     TSFileDescriptor.getInstance()
         .getConfig()
         .setMaxStringLength(
@@ -1051,6 +1110,14 @@ public class IoTDBDescriptor {
                     "bloom_filter_error_rate",
                     Double.toString(
                         TSFileDescriptor.getInstance().getConfig().getBloomFilterErrorRate()))));
+    TSFileDescriptor.getInstance()
+        .getConfig()
+        .setDeviceLevelBloomFilter(
+            Boolean.parseBoolean(
+                properties.getProperty(
+                    "device_level_bloom_filter",
+                    Boolean.toString(
+                        TSFileDescriptor.getInstance().getConfig().isDeviceLevelBloomFilter()))));
     TSFileDescriptor.getInstance()
         .getConfig()
         .setFloatPrecision(
@@ -1075,6 +1142,14 @@ public class IoTDBDescriptor {
             properties.getProperty(
                 "compressor",
                 TSFileDescriptor.getInstance().getConfig().getCompressor().toString()));
+    TSFileDescriptor.getInstance()
+        .getConfig()
+        .setZstdCompressionLevel(
+            Integer.parseInt(
+                properties.getProperty(
+                    "zstd_compression_level",
+                    Integer.toString(
+                        TSFileDescriptor.getInstance().getConfig().getZstdCompressionLevel()))));
     TSFileDescriptor.getInstance()
         .getConfig()
         .setMaxDegreeOfIndexNode(
@@ -1463,6 +1538,12 @@ public class IoTDBDescriptor {
             properties.getProperty("continuous_query_minimum_every_interval", "1s"),
             conf.getTimestampPrecision()));
 
+    conf.setEnableIncrementalContinuousQuery(
+        Boolean.parseBoolean(
+            properties.getProperty(
+                "enable_incremental_continuous_query",
+                Boolean.toString(conf.isEnableIncrementalContinuousQuery()))));
+
     conf.setCqlogBufferSize(
         Integer.parseInt(
             properties.getProperty(
@@ -1485,6 +1566,15 @@ public class IoTDBDescriptor {
     conf.setConsensusPort(
         Integer.parseInt(
             properties.getProperty("consensus_port", Integer.toString(conf.getConsensusPort()))));
+
+    int dataRegionApplyThreadNum =
+        Integer.parseInt(
+            properties.getProperty(
+                "data_region_apply_thread_num",
+                Integer.toString(conf.getDataRegionApplyThreadNum())));
+    if (dataRegionApplyThreadNum > 0) {
+      conf.setDataRegionApplyThreadNum(dataRegionApplyThreadNum);
+    }
   }
 
   public void loadShuffleProps(Properties properties) {
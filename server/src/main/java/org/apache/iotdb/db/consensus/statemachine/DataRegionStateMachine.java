@@ -16,33 +16,133 @@
  * specific language governing permissions and limitations
  * under the License.
  */
-
 package org.apache.iotdb.db.consensus.statemachine;
 
+import org.apache.iotdb.commons.concurrent.IoTDBThreadPoolFactory;
+import org.apache.iotdb.commons.concurrent.ThreadName;
 import org.apache.iotdb.consensus.common.DataSet;
+import org.apache.iotdb.consensus.common.request.IConsensusRequest;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.metadata.path.PartialPath;
 import org.apache.iotdb.db.mpp.common.DataRegion;
 import org.apache.iotdb.db.mpp.sql.planner.plan.FragmentInstance;
+import org.apache.iotdb.db.mpp.sql.planner.plan.node.PlanNode;
+import org.apache.iotdb.db.mpp.sql.planner.plan.node.write.InsertNode;
 import org.apache.iotdb.rpc.TSStatusCode;
 import org.apache.iotdb.service.rpc.thrift.TSStatus;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * State machine of a data region. Committed requests are applied on a worker pool shared by all
+ * data regions. Inserts to different devices run concurrently and inserts to the same device keep
+ * their log order. Every other request (deletions, multi-device inserts, schema changes) is a
+ * barrier that waits for all earlier requests and blocks all later ones.
+ */
 public class DataRegionStateMachine extends BaseStateMachine {
 
   private static final Logger logger = LoggerFactory.getLogger(DataRegionStateMachine.class);
 
+  /** prune finished device tails once there are this many of them */
+  private static final int DEVICE_TAIL_PRUNE_THRESHOLD = 1024;
+
   private final DataRegion region;
 
+  private final ExecutorService applyPool;
+
+  // the following two fields are only accessed by the consensus apply thread
+  /** the last submitted request that is not a single-device insert */
+  private CompletableFuture<TSStatus> barrier = CompletableFuture.completedFuture(null);
+  /** device -> the last submitted insert to the device after the barrier */
+  private final Map<PartialPath, CompletableFuture<TSStatus>> deviceTails = new HashMap<>();
+
   public DataRegionStateMachine(DataRegion region) {
+    this(region, ApplyPoolHolder.INSTANCE);
+  }
+
+  DataRegionStateMachine(DataRegion region, ExecutorService applyPool) {
     this.region = region;
+    this.applyPool = applyPool;
   }
 
   @Override
   public void start() {}
 
   @Override
-  public void stop() {}
+  public void stop() {
+    try {
+      waitForAll().get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (ExecutionException e) {
+      logger.error("Failed to wait for the pending writes of {}", region, e);
+    }
+  }
+
+  @Override
+  public CompletableFuture<TSStatus> writeAsync(IConsensusRequest request) {
+    FragmentInstance fragmentInstance;
+    try {
+      fragmentInstance = getFragmentInstance(request);
+    } catch (IllegalArgumentException e) {
+      return CompletableFuture.completedFuture(
+          new TSStatus(TSStatusCode.INTERNAL_SERVER_ERROR.getStatusCode()));
+    }
+
+    PartialPath device = getConflictDevice(fragmentInstance);
+    CompletableFuture<TSStatus> result;
+    if (device == null) {
+      result = waitForAll().thenApplyAsync(v -> applySafely(fragmentInstance), applyPool);
+      barrier = result;
+      deviceTails.clear();
+    } else {
+      CompletableFuture<TSStatus> previous = deviceTails.getOrDefault(device, barrier);
+      result = previous.thenApplyAsync(v -> applySafely(fragmentInstance), applyPool);
+      if (deviceTails.size() >= DEVICE_TAIL_PRUNE_THRESHOLD) {
+        // a finished tail is not needed, later inserts to the device may start right away
+        deviceTails.values().removeIf(CompletableFuture::isDone);
+      }
+      deviceTails.put(device, result);
+    }
+    return result;
+  }
+
+  /** @return the device an insert writes to, or null if the request must be applied alone */
+  private PartialPath getConflictDevice(FragmentInstance fragmentInstance) {
+    PlanNode root = fragmentInstance.getFragment().getRoot();
+    if (root instanceof InsertNode) {
+      // multi-device inserts leave the device path unset
+      return ((InsertNode) root).getDevicePath();
+    }
+    return null;
+  }
+
+  private CompletableFuture<Void> waitForAll() {
+    CompletableFuture<?>[] pending = new CompletableFuture<?>[deviceTails.size() + 1];
+    int i = 0;
+    for (CompletableFuture<TSStatus> tail : deviceTails.values()) {
+      pending[i++] = tail;
+    }
+    pending[i] = barrier;
+    return CompletableFuture.allOf(pending);
+  }
+
+  private TSStatus applySafely(FragmentInstance fragmentInstance) {
+    try {
+      return write(fragmentInstance);
+    } catch (Exception e) {
+      // a failed request must not stop the requests queued behind it
+      logger.error("Failed to apply {} in {}", fragmentInstance.getId(), region, e);
+      return new TSStatus(TSStatusCode.INTERNAL_SERVER_ERROR.getStatusCode());
+    }
+  }
 
   @Override
   protected TSStatus write(FragmentInstance fragmentInstance) {
@@ -55,4 +155,14 @@ public class DataRegionStateMachine extends BaseStateMachine {
     logger.info("Execute read plan in DataRegionStateMachine");
     return null;
   }
+
+  private static class ApplyPoolHolder {
+
+    private static final ExecutorService INSTANCE =
+        IoTDBThreadPoolFactory.newFixedThreadPool(
+            IoTDBDescriptor.getInstance().getConfig().getDataRegionApplyThreadNum(),
+            ThreadName.DATA_REGION_APPLY.getName());
+
+    private ApplyPoolHolder() {}
+  }
 }
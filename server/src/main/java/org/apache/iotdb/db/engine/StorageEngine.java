@@ -29,6 +29,7 @@ import org.apache.iotdb.commons.utils.TestOnly;
 import org.apache.iotdb.db.conf.IoTDBConfig;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.conf.ServerConfigConsistent;
+import org.apache.iotdb.db.engine.cq.ContinuousQueryService;
 import org.apache.iotdb.db.engine.fileSystem.SystemFileFactory;
 import org.apache.iotdb.db.engine.flush.CloseFileListener;
 import org.apache.iotdb.db.engine.flush.FlushListener;
@@ -84,6 +85,7 @@ import java.util.Comparator;
 import java.util.ConcurrentModificationException;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -608,6 +610,12 @@ public class StorageEngine implements IService {
     } catch (WriteProcessException e) {
       throw new StorageEngineException(e);
     }
+    ContinuousQueryService.getInstance()
+        .markDirty(
+            insertRowPlan.getDevicePath(),
+            insertRowPlan.getMeasurements(),
+            insertRowPlan.getTime(),
+            insertRowPlan.getTime());
   }
 
   public void insert(InsertRowsOfOneDevicePlan insertRowsOfOneDevicePlan)
@@ -635,6 +643,10 @@ public class StorageEngine implements IService {
     } catch (WriteProcessException e) {
       throw new StorageEngineException(e);
     }
+    for (InsertRowPlan plan : insertRowsOfOneDevicePlan.getRowPlans()) {
+      ContinuousQueryService.getInstance()
+          .markDirty(plan.getDevicePath(), plan.getMeasurements(), plan.getTime(), plan.getTime());
+    }
   }
 
   /** insert a InsertTabletPlan to a storage group */
@@ -661,7 +673,12 @@ public class StorageEngine implements IService {
     }
 
     getSeriesSchemas(insertTabletPlan, virtualStorageGroupProcessor);
-    virtualStorageGroupProcessor.insertTablet(insertTabletPlan);
+    try {
+      virtualStorageGroupProcessor.insertTablet(insertTabletPlan);
+    } finally {
+      // some rows may have been written even if the insertion partially failed
+      ContinuousQueryService.getInstance().markDirty(insertTabletPlan);
+    }
   }
 
   /** flush command Sync asyncCloseOneProcessor all file node processors. */
@@ -729,6 +746,7 @@ public class StorageEngine implements IService {
               .delete(possiblePath, startTime, endTime, planIndex, timePartitionFilter);
         }
       }
+      ContinuousQueryService.getInstance().markDirty(null, null, startTime, endTime);
     } catch (IOException | MetadataException e) {
       throw new StorageEngineException(e.getMessage());
     }
@@ -898,6 +916,36 @@ public class StorageEngine implements IService {
 
   public void loadNewTsFile(TsFileResource newTsFileResource)
       throws LoadFileException, StorageEngineException, MetadataException {
+    getProcessorOfLoadingFile(newTsFileResource).loadNewTsFile(newTsFileResource);
+  }
+
+  /**
+   * Load a batch of new tsfiles. The files going to the same storage group are loaded as a whole,
+   * see {@link VirtualStorageGroupProcessor#loadNewTsFiles(List)}.
+   */
+  public void loadNewTsFiles(List<TsFileResource> newTsFileResources)
+      throws LoadFileException, StorageEngineException, MetadataException {
+    Map<VirtualStorageGroupProcessor, List<TsFileResource>> processorToResources =
+        new LinkedHashMap<>();
+    for (TsFileResource newTsFileResource : newTsFileResources) {
+      processorToResources
+          .computeIfAbsent(getProcessorOfLoadingFile(newTsFileResource), p -> new ArrayList<>())
+          .add(newTsFileResource);
+    }
+    for (Entry<VirtualStorageGroupProcessor, List<TsFileResource>> entry :
+        processorToResources.entrySet()) {
+      entry.getKey().loadNewTsFiles(entry.getValue());
+    }
+  }
+
+  /** @return devices of the new tsfile that keep it out of the sequence list */
+  public Set<String> getUnsequenceDevices(TsFileResource newTsFileResource)
+      throws StorageEngineException, MetadataException {
+    return getProcessorOfLoadingFile(newTsFileResource).getUnsequenceDevices(newTsFileResource);
+  }
+
+  private VirtualStorageGroupProcessor getProcessorOfLoadingFile(TsFileResource newTsFileResource)
+      throws StorageEngineException, MetadataException {
     Set<String> deviceSet = newTsFileResource.getDevices();
     if (deviceSet == null || deviceSet.isEmpty()) {
       throw new StorageEngineException("Can not get the corresponding storage group.");
@@ -905,7 +953,7 @@ public class StorageEngine implements IService {
     String device = deviceSet.iterator().next();
     PartialPath devicePath = new PartialPath(device);
     PartialPath storageGroupPath = IoTDB.schemaProcessor.getBelongedStorageGroup(devicePath);
-    getProcessorDirectly(storageGroupPath).loadNewTsFile(newTsFileResource);
+    return getProcessorDirectly(storageGroupPath);
   }
 
   public boolean deleteTsfileForSync(File deletedTsfile)
@@ -23,8 +23,8 @@ import org.apache.iotdb.db.conf.IoTDBConfig;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.query.control.FileReaderManager;
 import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
-import org.apache.iotdb.tsfile.utils.BloomFilter;
 import org.apache.iotdb.tsfile.utils.FilePathUtils;
+import org.apache.iotdb.tsfile.utils.IBloomFilter;
 import org.apache.iotdb.tsfile.utils.Pair;
 import org.apache.iotdb.tsfile.utils.RamUsageEstimator;
 
@@ -49,7 +49,7 @@ public class BloomFilterCache {
   private static final boolean CACHE_ENABLE = config.isMetaDataCacheEnable();
   private final AtomicLong entryAverageSize = new AtomicLong(0);
 
-  private final LoadingCache<BloomFilterCacheKey, BloomFilter> lruCache;
+  private final LoadingCache<BloomFilterCacheKey, IBloomFilter> lruCache;
 
   private BloomFilterCache() {
     if (CACHE_ENABLE) {
@@ -59,7 +59,7 @@ public class BloomFilterCache {
         Caffeine.newBuilder()
             .maximumWeight(MEMORY_THRESHOLD_IN_BLOOM_FILTER_CACHE)
             .weigher(
-                (Weigher<BloomFilterCacheKey, BloomFilter>)
+                (Weigher<BloomFilterCacheKey, IBloomFilter>)
                     (key, bloomFilter) ->
                         (int)
                             (RamUsageEstimator.shallowSizeOf(key)
@@ -86,17 +86,17 @@ public class BloomFilterCache {
     return BloomFilterCacheHolder.INSTANCE;
   }
 
-  public BloomFilter get(BloomFilterCacheKey key) throws IOException {
+  public IBloomFilter get(BloomFilterCacheKey key) throws IOException {
     return get(key, false);
   }
 
-  public BloomFilter get(BloomFilterCacheKey key, boolean debug) throws IOException {
+  public IBloomFilter get(BloomFilterCacheKey key, boolean debug) throws IOException {
     if (!CACHE_ENABLE) {
       TsFileSequenceReader reader = FileReaderManager.getInstance().get(key.filePath, true);
       return reader.readBloomFilter();
     }
 
-    BloomFilter bloomFilter = lruCache.get(key);
+    IBloomFilter bloomFilter = lruCache.get(key);
 
     if (debug) {
       DEBUG_LOGGER.info("get bloomFilter from cache where filePath is: " + key.filePath);
@@ -137,7 +137,7 @@ public class BloomFilterCache {
   }
 
   @TestOnly
-  public BloomFilter getIfPresent(BloomFilterCacheKey key) {
+  public IBloomFilter getIfPresent(BloomFilterCacheKey key) {
     return lruCache.getIfPresent(key);
   }
 
@@ -33,8 +33,8 @@ import org.apache.iotdb.tsfile.file.metadata.ChunkMetadata;
 import org.apache.iotdb.tsfile.file.metadata.TimeseriesMetadata;
 import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
 import org.apache.iotdb.tsfile.read.common.Path;
-import org.apache.iotdb.tsfile.utils.BloomFilter;
 import org.apache.iotdb.tsfile.utils.FilePathUtils;
+import org.apache.iotdb.tsfile.utils.IBloomFilter;
 import org.apache.iotdb.tsfile.utils.Pair;
 import org.apache.iotdb.tsfile.utils.RamUsageEstimator;
 
@@ -152,9 +152,11 @@ public class TimeSeriesMetadataCache {
     if (!CACHE_ENABLE) {
       // bloom filter part
       TsFileSequenceReader reader = FileReaderManager.getInstance().get(key.filePath, true);
-      BloomFilter bloomFilter = reader.readBloomFilter();
+      IBloomFilter bloomFilter = reader.readBloomFilter();
       if (bloomFilter != null
-          && !bloomFilter.contains(key.device + IoTDBConstant.PATH_SEPARATOR + key.measurement)) {
+          && !(bloomFilter.containsDevice(key.device)
+              && bloomFilter.contains(
+                  key.device + IoTDBConstant.PATH_SEPARATOR + key.measurement))) {
         return null;
       }
       TimeseriesMetadata timeseriesMetadata =
@@ -180,12 +182,13 @@ public class TimeSeriesMetadataCache {
         if (timeseriesMetadata == null) {
           Path path = new Path(key.device, key.measurement);
           // bloom filter part
-          BloomFilter bloomFilter =
+          IBloomFilter bloomFilter =
               BloomFilterCache.getInstance()
                   .get(new BloomFilterCache.BloomFilterCacheKey(key.filePath), debug);
           if (bloomFilter != null) {
             bloomFilterRequestCount.incrementAndGet();
-            if (!bloomFilter.contains(path.getFullPath())) {
+            if (!bloomFilter.containsDevice(key.device)
+                || !bloomFilter.contains(path.getFullPath())) {
               bloomFilterPreventCount.incrementAndGet();
               if (debug) {
                 DEBUG_LOGGER.info("TimeSeries meta data {} is filter by bloomFilter!", key);
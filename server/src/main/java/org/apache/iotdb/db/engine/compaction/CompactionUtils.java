@@ -20,6 +20,7 @@ package org.apache.iotdb.db.engine.compaction;
 
 import org.apache.iotdb.commons.conf.IoTDBConstant;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.engine.compaction.cross.utils.SeqDataPassthrough;
 import org.apache.iotdb.db.engine.compaction.inner.utils.MultiTsFileDeviceIterator;
 import org.apache.iotdb.db.engine.compaction.writer.AbstractCompactionWriter;
 import org.apache.iotdb.db.engine.compaction.writer.CrossSpaceCompactionWriter;
@@ -47,6 +48,7 @@ import org.apache.iotdb.tsfile.exception.write.WriteProcessException;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.fileSystem.FSFactoryProducer;
 import org.apache.iotdb.tsfile.read.common.BatchData;
+import org.apache.iotdb.tsfile.read.filter.basic.Filter;
 import org.apache.iotdb.tsfile.read.reader.IBatchReader;
 import org.apache.iotdb.tsfile.utils.Pair;
 import org.apache.iotdb.tsfile.write.schema.IMeasurementSchema;
@@ -152,6 +154,7 @@ public class CompactionUtils {
             allMeasurements,
             queryContext,
             queryDataSource,
+            null,
             true);
 
     if (dataBatchReader.hasNextBatch()) {
@@ -189,6 +192,20 @@ public class CompactionUtils {
         continue;
       }
 
+      // in cross space compaction, sequence chunks and pages overlapping neither unsequence data
+      // nor deletions are copied as they are instead of being decoded and encoded again
+      SeqDataPassthrough passthrough = null;
+      if (compactionWriter instanceof CrossSpaceCompactionWriter) {
+        passthrough =
+            new SeqDataPassthrough(
+                compactionWriter,
+                device,
+                measurementSchemas.get(0),
+                queryContext,
+                queryDataSource.getSeqResources(),
+                queryDataSource.getUnseqResources());
+      }
+
       IBatchReader dataBatchReader =
           constructReader(
               device,
@@ -197,9 +214,10 @@ public class CompactionUtils {
               allMeasurements,
               queryContext,
               queryDataSource,
+              passthrough == null ? null : passthrough.getTimeFilter(),
               false);
 
-      if (dataBatchReader.hasNextBatch()) {
+      if (dataBatchReader.hasNextBatch() || (passthrough != null && !passthrough.isEmpty())) {
         if (!hasStartChunkGroup) {
           // chunkgroup is serialized only when at least one timeseries under this device has
           // data
@@ -207,7 +225,11 @@ public class CompactionUtils {
           hasStartChunkGroup = true;
         }
         compactionWriter.startMeasurement(measurementSchemas);
-        writeWithReader(compactionWriter, dataBatchReader);
+        if (passthrough == null) {
+          writeWithReader(compactionWriter, dataBatchReader);
+        } else {
+          writeWithReaderAndPassthrough(compactionWriter, dataBatchReader, passthrough);
+        }
         compactionWriter.endMeasurement();
       }
     }
@@ -219,13 +241,23 @@ public class CompactionUtils {
 
   private static void writeWithReader(AbstractCompactionWriter writer, IBatchReader reader)
       throws IOException {
+    while (reader.hasNextBatch()) {
+      writer.write(reader.nextBatch(), Long.MAX_VALUE);
+    }
+  }
+
+  /** Write the points of the reader and the data of the passthrough in time order. */
+  private static void writeWithReaderAndPassthrough(
+      AbstractCompactionWriter writer, IBatchReader reader, SeqDataPassthrough passthrough)
+      throws IOException {
     while (reader.hasNextBatch()) {
       BatchData batchData = reader.nextBatch();
       while (batchData.hasCurrent()) {
-        writer.write(batchData.currentTime(), batchData.currentValue());
-        batchData.next();
+        passthrough.writeBefore(batchData.currentTime());
+        writer.write(batchData, passthrough.getMaxTimeBeforeNext());
       }
     }
+    passthrough.writeRemaining();
   }
 
   /**
@@ -239,6 +271,7 @@ public class CompactionUtils {
       Set<String> allSensors,
       QueryContext queryContext,
       QueryDataSource queryDataSource,
+      Filter timeFilter,
       boolean isAlign)
       throws IllegalPathException {
     PartialPath seriesPath;
@@ -251,7 +284,15 @@ public class CompactionUtils {
       tsDataType = measurementSchemas.get(0).getType();
     }
     return new SeriesRawDataBatchReader(
-        seriesPath, allSensors, tsDataType, queryContext, queryDataSource, null, null, null, true);
+        seriesPath,
+        allSensors,
+        tsDataType,
+        queryContext,
+        queryDataSource,
+        timeFilter,
+        null,
+        null,
+        true);
   }
 
   private static AbstractCompactionWriter getCompactionWriter(
@@ -29,6 +29,7 @@ import org.apache.iotdb.db.engine.storagegroup.TsFileNameGenerator;
 import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
 import org.apache.iotdb.db.engine.storagegroup.TsFileResourceList;
 import org.apache.iotdb.db.engine.storagegroup.TsFileResourceStatus;
+import org.apache.iotdb.db.engine.storagegroup.ZstdDictionaryManager;
 import org.apache.iotdb.db.exception.StorageEngineException;
 import org.apache.iotdb.db.exception.metadata.MetadataException;
 import org.apache.iotdb.db.query.control.FileReaderManager;
@@ -178,6 +179,13 @@ public class RewriteCrossSpaceCompactionTask extends AbstractCrossSpaceCompactio
           "{} [Compaction] CrossSpaceCompactionTask Costs {} s",
           fullStorageGroupName,
           (System.currentTimeMillis() - startTime) / 1000);
+      for (TsFileResource targetResource : targetTsfileResourceList) {
+        if (targetResource.getTsFile().exists()) {
+          ZstdDictionaryManager.getInstance()
+              .trainIfAbsent(targetResource, tsFileManager.getStorageGroupName());
+          break;
+        }
+      }
     }
   }
 
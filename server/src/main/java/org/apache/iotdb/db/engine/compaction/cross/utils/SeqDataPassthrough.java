@@ -0,0 +1,303 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.compaction.cross.utils;
+
+import org.apache.iotdb.db.engine.cache.ChunkCache;
+import org.apache.iotdb.db.engine.compaction.writer.AbstractCompactionWriter;
+import org.apache.iotdb.db.engine.modification.Modification;
+import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
+import org.apache.iotdb.db.exception.metadata.IllegalPathException;
+import org.apache.iotdb.db.metadata.path.PartialPath;
+import org.apache.iotdb.db.query.context.QueryContext;
+import org.apache.iotdb.db.query.control.FileReaderManager;
+import org.apache.iotdb.db.utils.QueryUtils;
+import org.apache.iotdb.tsfile.file.MetaMarker;
+import org.apache.iotdb.tsfile.file.header.ChunkHeader;
+import org.apache.iotdb.tsfile.file.header.PageHeader;
+import org.apache.iotdb.tsfile.file.metadata.ChunkMetadata;
+import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
+import org.apache.iotdb.tsfile.read.common.Chunk;
+import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.read.common.TimeRange;
+import org.apache.iotdb.tsfile.read.filter.TimeFilter;
+import org.apache.iotdb.tsfile.read.filter.basic.Filter;
+import org.apache.iotdb.tsfile.read.filter.factory.FilterFactory;
+import org.apache.iotdb.tsfile.write.schema.IMeasurementSchema;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * This class finds the data of a non-aligned series in the sequence files of a cross space
+ * compaction that can be written into the target files without decoding: whole chunks, and
+ * compressed pages of the other chunks, whose time ranges overlap neither the unsequence data nor
+ * the deletions of the series. The series reader skips them with {@link #getTimeFilter()}, and they
+ * are written between the merged points in time order by {@link #writeBefore(long)} and {@link
+ * #writeRemaining()}.
+ */
+public class SeqDataPassthrough {
+
+  private final AbstractCompactionWriter compactionWriter;
+
+  private final IMeasurementSchema schema;
+
+  // merged time ranges of the unsequence chunks, sorted by start time
+  private final List<TimeRange> unseqTimeRanges = new ArrayList<>();
+
+  // chunks and pages to be written as they are, sorted by start time
+  private final List<PassthroughUnit> units = new ArrayList<>();
+
+  private int nextUnitIndex = 0;
+
+  // the chunk whose pages are being written, to avoid loading it for every page
+  private ChunkMetadata loadedChunkMetadata;
+  private Chunk loadedChunk;
+
+  public SeqDataPassthrough(
+      AbstractCompactionWriter compactionWriter,
+      String device,
+      IMeasurementSchema schema,
+      QueryContext queryContext,
+      List<TsFileResource> seqResources,
+      List<TsFileResource> unseqResources)
+      throws IOException, IllegalPathException {
+    this.compactionWriter = compactionWriter;
+    this.schema = schema;
+    Path path = new Path(device, schema.getMeasurementId());
+    collectUnseqTimeRanges(device, path, unseqResources);
+    collectUnits(
+        device,
+        path,
+        new PartialPath(device, schema.getMeasurementId()),
+        queryContext,
+        seqResources);
+  }
+
+  private void collectUnseqTimeRanges(
+      String device, Path path, List<TsFileResource> unseqResources) throws IOException {
+    List<TimeRange> timeRanges = new ArrayList<>();
+    for (TsFileResource unseqResource : unseqResources) {
+      if (!unseqResource.mayContainsDevice(device)) {
+        continue;
+      }
+      TsFileSequenceReader reader =
+          FileReaderManager.getInstance().get(unseqResource.getTsFilePath(), true);
+      for (ChunkMetadata chunkMetadata : reader.getChunkMetadataList(path, true)) {
+        timeRanges.add(new TimeRange(chunkMetadata.getStartTime(), chunkMetadata.getEndTime()));
+      }
+    }
+    timeRanges.sort(Comparator.comparingLong(TimeRange::getMin));
+    for (TimeRange timeRange : timeRanges) {
+      TimeRange last =
+          unseqTimeRanges.isEmpty() ? null : unseqTimeRanges.get(unseqTimeRanges.size() - 1);
+      if (last != null && timeRange.getMin() <= last.getMax()) {
+        last.setMax(Math.max(last.getMax(), timeRange.getMax()));
+      } else {
+        unseqTimeRanges.add(new TimeRange(timeRange.getMin(), timeRange.getMax()));
+      }
+    }
+  }
+
+  private void collectUnits(
+      String device,
+      Path path,
+      PartialPath seriesPath,
+      QueryContext queryContext,
+      List<TsFileResource> seqResources)
+      throws IOException {
+    List<ChunkMetadata> seqChunkMetadataList = new ArrayList<>();
+    for (TsFileResource seqResource : seqResources) {
+      if (!seqResource.mayContainsDevice(device)) {
+        continue;
+      }
+      TsFileSequenceReader reader =
+          FileReaderManager.getInstance().get(seqResource.getTsFilePath(), true);
+      List<ChunkMetadata> chunkMetadataList = reader.getChunkMetadataList(path, true);
+      List<Modification> modifications =
+          queryContext.getPathModifications(seqResource.getModFile(), seriesPath);
+      if (!modifications.isEmpty()) {
+        QueryUtils.modifyChunkMetaData(chunkMetadataList, modifications);
+      }
+      for (ChunkMetadata chunkMetadata : chunkMetadataList) {
+        chunkMetadata.setFilePath(seqResource.getTsFilePath());
+        chunkMetadata.setClosed(true);
+      }
+      seqChunkMetadataList.addAll(chunkMetadataList);
+    }
+    seqChunkMetadataList.sort(Comparator.comparingLong(ChunkMetadata::getStartTime));
+
+    // the max end time of the chunks before the current one, which may not be the previous one
+    long maxPrevEndTime = Long.MIN_VALUE;
+    for (int i = 0; i < seqChunkMetadataList.size(); i++) {
+      ChunkMetadata chunkMetadata = seqChunkMetadataList.get(i);
+      boolean overlapped =
+          maxPrevEndTime >= chunkMetadata.getStartTime()
+              || (i < seqChunkMetadataList.size() - 1
+                  && seqChunkMetadataList.get(i + 1).getStartTime() <= chunkMetadata.getEndTime());
+      maxPrevEndTime = Math.max(maxPrevEndTime, chunkMetadata.getEndTime());
+      if (overlapped || chunkMetadata.getDataType() != schema.getType()) {
+        // sequence chunks are not supposed to overlap, leave such chunks to the reader
+        continue;
+      }
+      if (isClean(chunkMetadata, chunkMetadata.getStartTime(), chunkMetadata.getEndTime())) {
+        units.add(new PassthroughUnit(chunkMetadata, null, 0));
+      } else {
+        collectPages(chunkMetadata);
+      }
+    }
+  }
+
+  /** Collect the clean pages of a chunk that cannot be written as a whole. */
+  private void collectPages(ChunkMetadata chunkMetadata) throws IOException {
+    Chunk chunk = ChunkCache.getInstance().get(chunkMetadata);
+    ChunkHeader chunkHeader = chunk.getHeader();
+    if ((chunkHeader.getChunkType() & 0x3F) == MetaMarker.ONLY_ONE_PAGE_CHUNK_HEADER
+        || chunkHeader.getEncodingType() != schema.getEncodingType()
+        || chunkHeader.getCompressionType() != schema.getCompressor()) {
+      // the page has the same time range as the chunk, or it cannot be mixed with the pages
+      // encoded by the compaction writer
+      return;
+    }
+    ByteBuffer chunkData = chunk.getData().duplicate();
+    while (chunkData.hasRemaining()) {
+      PageHeader pageHeader = PageHeader.deserializeFrom(chunkData, chunkHeader.getDataType());
+      int pageDataOffset = chunkData.position();
+      chunkData.position(pageDataOffset + pageHeader.getCompressedSize());
+      if (pageHeader.getStatistics() != null
+          && isClean(chunkMetadata, pageHeader.getStartTime(), pageHeader.getEndTime())) {
+        units.add(new PassthroughUnit(chunkMetadata, pageHeader, pageDataOffset));
+      }
+    }
+  }
+
+  private boolean isClean(ChunkMetadata chunkMetadata, long startTime, long endTime) {
+    if (chunkMetadata.getDeleteIntervalList() != null) {
+      for (TimeRange deletion : chunkMetadata.getDeleteIntervalList()) {
+        if (deletion.getMin() <= endTime && startTime <= deletion.getMax()) {
+          return false;
+        }
+      }
+    }
+    // find the first unsequence range that does not end before startTime
+    int low = 0;
+    int high = unseqTimeRanges.size();
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (unseqTimeRanges.get(mid).getMax() < startTime) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low == unseqTimeRanges.size() || unseqTimeRanges.get(low).getMin() > endTime;
+  }
+
+  public boolean isEmpty() {
+    return units.isEmpty();
+  }
+
+  /**
+   * @return a time filter that only accepts the time ranges not written by this class, or null if
+   *     nothing is written by this class
+   */
+  public Filter getTimeFilter() {
+    if (units.isEmpty()) {
+      return null;
+    }
+    List<Filter> gaps = new ArrayList<>();
+    gaps.add(TimeFilter.lt(units.get(0).startTime));
+    for (int i = 1; i < units.size(); i++) {
+      long gapStart = units.get(i - 1).endTime + 1;
+      long gapEnd = units.get(i).startTime - 1;
+      if (gapStart <= gapEnd) {
+        gaps.add(FilterFactory.and(TimeFilter.gtEq(gapStart), TimeFilter.ltEq(gapEnd)));
+      }
+    }
+    gaps.add(TimeFilter.gt(units.get(units.size() - 1).endTime));
+    return or(gaps, 0, gaps.size());
+  }
+
+  /** build a balanced tree so that the depth of the filter grows logarithmically */
+  private static Filter or(List<Filter> filters, int from, int to) {
+    if (to - from == 1) {
+      return filters.get(from);
+    }
+    int mid = (from + to) >>> 1;
+    return FilterFactory.or(or(filters, from, mid), or(filters, mid, to));
+  }
+
+  /** Write the chunks and pages starting before the given time. */
+  public void writeBefore(long time) throws IOException {
+    while (nextUnitIndex < units.size() && units.get(nextUnitIndex).startTime < time) {
+      write(units.get(nextUnitIndex++));
+    }
+  }
+
+  /** @return the latest time that can be written before the next chunk or page of this class */
+  public long getMaxTimeBeforeNext() {
+    return nextUnitIndex < units.size() ? units.get(nextUnitIndex).startTime - 1 : Long.MAX_VALUE;
+  }
+
+  public void writeRemaining() throws IOException {
+    while (nextUnitIndex < units.size()) {
+      write(units.get(nextUnitIndex++));
+    }
+    loadedChunk = null;
+    loadedChunkMetadata = null;
+  }
+
+  private void write(PassthroughUnit unit) throws IOException {
+    if (unit.pageHeader == null) {
+      TsFileSequenceReader reader =
+          FileReaderManager.getInstance().get(unit.chunkMetadata.getFilePath(), true);
+      compactionWriter.writeChunk(reader.readMemChunk(unit.chunkMetadata), unit.chunkMetadata);
+      return;
+    }
+    if (loadedChunkMetadata != unit.chunkMetadata) {
+      loadedChunk = ChunkCache.getInstance().get(unit.chunkMetadata);
+      loadedChunkMetadata = unit.chunkMetadata;
+    }
+    ByteBuffer pageData = loadedChunk.getData().duplicate();
+    pageData.position(unit.pageDataOffset);
+    pageData.limit(unit.pageDataOffset + unit.pageHeader.getCompressedSize());
+    compactionWriter.writePage(unit.pageHeader, pageData.slice());
+  }
+
+  private static class PassthroughUnit {
+
+    private final ChunkMetadata chunkMetadata;
+    // null if the whole chunk is written
+    private final PageHeader pageHeader;
+    private final int pageDataOffset;
+    private final long startTime;
+    private final long endTime;
+
+    private PassthroughUnit(ChunkMetadata chunkMetadata, PageHeader pageHeader, int offset) {
+      this.chunkMetadata = chunkMetadata;
+      this.pageHeader = pageHeader;
+      this.pageDataOffset = offset;
+      this.startTime =
+          pageHeader == null ? chunkMetadata.getStartTime() : pageHeader.getStartTime();
+      this.endTime = pageHeader == null ? chunkMetadata.getEndTime() : pageHeader.getEndTime();
+    }
+  }
+}
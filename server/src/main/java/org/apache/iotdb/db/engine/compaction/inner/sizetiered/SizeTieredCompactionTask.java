@@ -30,6 +30,7 @@ import org.apache.iotdb.db.engine.storagegroup.TsFileNameGenerator;
 import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
 import org.apache.iotdb.db.engine.storagegroup.TsFileResourceList;
 import org.apache.iotdb.db.engine.storagegroup.TsFileResourceStatus;
+import org.apache.iotdb.db.engine.storagegroup.ZstdDictionaryManager;
 import org.apache.iotdb.tsfile.common.conf.TSFileConfig;
 
 import org.apache.commons.io.FileUtils;
@@ -190,6 +191,8 @@ public class SizeTieredCompactionTask extends AbstractInnerSpaceCompactionTask {
       if (logFile.exists()) {
         FileUtils.delete(logFile);
       }
+      ZstdDictionaryManager.getInstance()
+          .trainIfAbsent(targetTsFileResource, tsFileManager.getStorageGroupName());
     } catch (Throwable throwable) {
       LOGGER.error(
           "{} [Compaction] Throwable is caught during execution of SizeTieredCompaction, {}",
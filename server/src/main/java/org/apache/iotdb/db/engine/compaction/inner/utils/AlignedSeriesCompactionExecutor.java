@@ -24,6 +24,7 @@ import org.apache.iotdb.db.engine.compaction.CompactionTaskManager;
 import org.apache.iotdb.db.engine.compaction.constant.CompactionType;
 import org.apache.iotdb.db.engine.compaction.constant.ProcessChunkType;
 import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
+import org.apache.iotdb.db.engine.storagegroup.ZstdDictionaryManager;
 import org.apache.iotdb.tsfile.file.metadata.AlignedChunkMetadata;
 import org.apache.iotdb.tsfile.file.metadata.IChunkMetadata;
 import org.apache.iotdb.tsfile.read.TsFileAlignedSeriesReaderIterator;
@@ -76,6 +77,9 @@ public class AlignedSeriesCompactionExecutor {
     this.targetResource = targetResource;
     schemaList = collectSchemaFromAlignedChunkMetadataList(readerAndChunkMetadataList);
     chunkWriter = new AlignedChunkWriterImpl(schemaList);
+    ZstdDictionaryManager.getInstance()
+        .applyDictionary(
+            chunkWriter, ZstdDictionaryManager.getStorageGroup(targetResource.getTsFile()));
   }
 
   /**
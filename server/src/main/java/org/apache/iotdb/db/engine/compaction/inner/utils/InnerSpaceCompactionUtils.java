@@ -71,6 +71,8 @@ public class InnerSpaceCompactionUtils {
 
     try (MultiTsFileDeviceIterator deviceIterator = new MultiTsFileDeviceIterator(tsFileResources);
         TsFileIOWriter writer = new TsFileIOWriter(targetResource.getTsFile())) {
+      writer.setChunkMetadataSpillThreshold(
+          IoTDBDescriptor.getInstance().getConfig().getChunkMetadataSpillThreshold());
       while (deviceIterator.hasNextDevice()) {
         Pair<String, Boolean> deviceInfo = deviceIterator.nextDevice();
         String device = deviceInfo.left;
@@ -24,8 +24,14 @@ import org.apache.iotdb.db.engine.compaction.CompactionTaskManager;
 import org.apache.iotdb.db.engine.compaction.constant.CompactionType;
 import org.apache.iotdb.db.engine.compaction.constant.ProcessChunkType;
 import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
+import org.apache.iotdb.db.engine.storagegroup.ZstdDictionaryManager;
 import org.apache.iotdb.metrics.config.MetricConfigDescriptor;
+import org.apache.iotdb.tsfile.exception.write.PageException;
+import org.apache.iotdb.tsfile.file.header.PageHeader;
+import org.apache.iotdb.tsfile.file.metadata.ChunkMetadata;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.common.BatchData;
+import org.apache.iotdb.tsfile.read.common.Chunk;
 import org.apache.iotdb.tsfile.utils.Binary;
 import org.apache.iotdb.tsfile.utils.TsPrimitiveType;
 import org.apache.iotdb.tsfile.write.chunk.AlignedChunkWriterImpl;
@@ -35,6 +41,7 @@ import org.apache.iotdb.tsfile.write.schema.IMeasurementSchema;
 import org.apache.iotdb.tsfile.write.writer.TsFileIOWriter;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.List;
 
 public abstract class AbstractCompactionWriter implements AutoCloseable {
@@ -44,6 +51,10 @@ public abstract class AbstractCompactionWriter implements AutoCloseable {
   protected boolean isAlign;
 
   protected String deviceId;
+
+  /** logical storage group of the target files, new chunks use its ZSTD dictionary */
+  protected String storageGroup;
+
   private final long targetChunkSize =
       IoTDBDescriptor.getInstance().getConfig().getTargetChunkSize();
   private final boolean enableMetrics =
@@ -63,6 +74,7 @@ public abstract class AbstractCompactionWriter implements AutoCloseable {
     } else {
       chunkWriter = new ChunkWriterImpl(measurementSchemaList.get(0), true);
     }
+    ZstdDictionaryManager.getInstance().applyDictionary(chunkWriter, storageGroup);
   }
 
   public abstract void endMeasurement() throws IOException;
@@ -71,6 +83,27 @@ public abstract class AbstractCompactionWriter implements AutoCloseable {
 
   public abstract void write(long[] timestamps, Object values);
 
+  /**
+   * Write the points of the batch data until the first one later than maxTime, at which the batch
+   * data is left. Unlike {@link #write(long, Object)}, values are read with the primitive getters
+   * of {@link BatchData} and never boxed.
+   */
+  public abstract void write(BatchData batchData, long maxTime) throws IOException;
+
+  /**
+   * Write a whole chunk of a source file as it is. Points of the current measurement written
+   * before are flushed first, so the chunk must be later than all of them.
+   */
+  public abstract void writeChunk(Chunk chunk, ChunkMetadata chunkMetadata) throws IOException;
+
+  /**
+   * Write a compressed page of a source file into the current chunk without decoding it. The page
+   * must be later than all points written before, and its encoding and compression must be the
+   * same as those of the current measurement.
+   */
+  public abstract void writePage(PageHeader pageHeader, ByteBuffer compressedPageData)
+      throws IOException;
+
   public abstract void endFile() throws IOException;
 
   public abstract void close() throws IOException;
@@ -101,55 +134,124 @@ public abstract class AbstractCompactionWriter implements AutoCloseable {
           throw new UnsupportedOperationException("Unknown data type " + chunkWriter.getDataType());
       }
     } else {
-      AlignedChunkWriterImpl chunkWriter = (AlignedChunkWriterImpl) this.chunkWriter;
-      for (TsPrimitiveType val : (TsPrimitiveType[]) value) {
-        if (val == null) {
-          chunkWriter.write(timestamp, null, true);
-        } else {
-          TSDataType tsDataType = chunkWriter.getCurrentValueChunkType();
-          switch (tsDataType) {
-            case TEXT:
-              chunkWriter.write(timestamp, val.getBinary(), false);
-              break;
-            case DOUBLE:
-              chunkWriter.write(timestamp, val.getDouble(), false);
-              break;
-            case BOOLEAN:
-              chunkWriter.write(timestamp, val.getBoolean(), false);
-              break;
-            case INT64:
-              chunkWriter.write(timestamp, val.getLong(), false);
-              break;
-            case INT32:
-              chunkWriter.write(timestamp, val.getInt(), false);
-              break;
-            case FLOAT:
-              chunkWriter.write(timestamp, val.getFloat(), false);
-              break;
-            default:
-              throw new UnsupportedOperationException("Unknown data type " + tsDataType);
-          }
-        }
+      writeAlignedDataPoint(timestamp, (TsPrimitiveType[]) value);
+    }
+    measurementPointCount++;
+  }
+
+  /** Write the current point of the batch data, see {@link #write(BatchData, long)}. */
+  protected void writeDataPoint(long timestamp, BatchData batchData) {
+    if (!isAlign) {
+      ChunkWriterImpl chunkWriter = (ChunkWriterImpl) this.chunkWriter;
+      switch (chunkWriter.getDataType()) {
+        case TEXT:
+          chunkWriter.write(timestamp, batchData.getBinary());
+          break;
+        case DOUBLE:
+          chunkWriter.write(timestamp, batchData.getDouble());
+          break;
+        case BOOLEAN:
+          chunkWriter.write(timestamp, batchData.getBoolean());
+          break;
+        case INT64:
+          chunkWriter.write(timestamp, batchData.getLong());
+          break;
+        case INT32:
+          chunkWriter.write(timestamp, batchData.getInt());
+          break;
+        case FLOAT:
+          chunkWriter.write(timestamp, batchData.getFloat());
+          break;
+        default:
+          throw new UnsupportedOperationException("Unknown data type " + chunkWriter.getDataType());
       }
-      chunkWriter.write(timestamp);
+    } else {
+      writeAlignedDataPoint(timestamp, batchData.getVector());
     }
     measurementPointCount++;
   }
 
+  private void writeAlignedDataPoint(long timestamp, TsPrimitiveType[] values) {
+    AlignedChunkWriterImpl chunkWriter = (AlignedChunkWriterImpl) this.chunkWriter;
+    for (TsPrimitiveType val : values) {
+      if (val == null) {
+        chunkWriter.write(timestamp, null, true);
+      } else {
+        TSDataType tsDataType = chunkWriter.getCurrentValueChunkType();
+        switch (tsDataType) {
+          case TEXT:
+            chunkWriter.write(timestamp, val.getBinary(), false);
+            break;
+          case DOUBLE:
+            chunkWriter.write(timestamp, val.getDouble(), false);
+            break;
+          case BOOLEAN:
+            chunkWriter.write(timestamp, val.getBoolean(), false);
+            break;
+          case INT64:
+            chunkWriter.write(timestamp, val.getLong(), false);
+            break;
+          case INT32:
+            chunkWriter.write(timestamp, val.getInt(), false);
+            break;
+          case FLOAT:
+            chunkWriter.write(timestamp, val.getFloat(), false);
+            break;
+          default:
+            throw new UnsupportedOperationException("Unknown data type " + tsDataType);
+        }
+      }
+    }
+    chunkWriter.write(timestamp);
+  }
+
   protected void checkChunkSizeAndMayOpenANewChunk(TsFileIOWriter fileWriter) throws IOException {
     if (measurementPointCount % 10 == 0 && checkChunkSize()) {
-      writeRateLimit(chunkWriter.estimateMaxSeriesMemSize());
-      CompactionMetricsManager.recordWriteInfo(
-          this instanceof CrossSpaceCompactionWriter
-              ? CompactionType.CROSS_COMPACTION
-              : CompactionType.INNER_UNSEQ_COMPACTION,
-          ProcessChunkType.DESERIALIZE_CHUNK,
-          this.isAlign,
-          chunkWriter.estimateMaxSeriesMemSize());
-      chunkWriter.writeToFileWriter(fileWriter);
+      flushChunkWriter(fileWriter, ProcessChunkType.DESERIALIZE_CHUNK);
     }
   }
 
+  /** Flush the points written before and copy the chunk into the file. */
+  protected void flushAndWriteChunk(
+      TsFileIOWriter fileWriter, Chunk chunk, ChunkMetadata chunkMetadata) throws IOException {
+    flushChunkWriter(fileWriter, ProcessChunkType.DESERIALIZE_CHUNK);
+    long chunkSize = chunk.getHeader().getSerializedSize() + (long) chunk.getHeader().getDataSize();
+    writeRateLimit(chunkSize);
+    CompactionMetricsManager.recordWriteInfo(
+        getCompactionType(), ProcessChunkType.FLUSH_CHUNK, isAlign, chunkSize);
+    fileWriter.writeChunk(chunk, chunkMetadata);
+  }
+
+  /** Append the compressed page to the current chunk and flush the chunk if it is large enough. */
+  protected void writePageAndMayOpenANewChunk(
+      TsFileIOWriter fileWriter, PageHeader pageHeader, ByteBuffer compressedPageData)
+      throws IOException {
+    ChunkWriterImpl chunkWriter = (ChunkWriterImpl) this.chunkWriter;
+    chunkWriter.sealCurrentPage();
+    try {
+      chunkWriter.writePageHeaderAndDataIntoBuff(compressedPageData, pageHeader);
+    } catch (PageException e) {
+      throw new IOException(e);
+    }
+    if (checkChunkSize()) {
+      flushChunkWriter(fileWriter, ProcessChunkType.MERGE_CHUNK);
+    }
+  }
+
+  private void flushChunkWriter(TsFileIOWriter fileWriter, ProcessChunkType processChunkType)
+      throws IOException {
+    writeRateLimit(chunkWriter.estimateMaxSeriesMemSize());
+    CompactionMetricsManager.recordWriteInfo(
+        getCompactionType(), processChunkType, isAlign, chunkWriter.estimateMaxSeriesMemSize());
+    chunkWriter.writeToFileWriter(fileWriter);
+  }
+
+  private CompactionType getCompactionType() {
+    return this instanceof CrossSpaceCompactionWriter
+        ? CompactionType.CROSS_COMPACTION
+        : CompactionType.INNER_UNSEQ_COMPACTION;
+  }
+
   private boolean checkChunkSize() {
     if (chunkWriter instanceof AlignedChunkWriterImpl) {
       return ((AlignedChunkWriterImpl) chunkWriter).checkIsChunkSizeOverThreshold(targetChunkSize);
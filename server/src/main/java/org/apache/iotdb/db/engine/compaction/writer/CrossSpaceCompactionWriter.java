@@ -18,13 +18,19 @@
  */
 package org.apache.iotdb.db.engine.compaction.writer;
 
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
+import org.apache.iotdb.db.engine.storagegroup.ZstdDictionaryManager;
 import org.apache.iotdb.db.query.control.FileReaderManager;
+import org.apache.iotdb.tsfile.file.header.PageHeader;
+import org.apache.iotdb.tsfile.file.metadata.ChunkMetadata;
 import org.apache.iotdb.tsfile.file.metadata.TimeseriesMetadata;
-import org.apache.iotdb.tsfile.write.writer.RestorableTsFileIOWriter;
+import org.apache.iotdb.tsfile.read.common.BatchData;
+import org.apache.iotdb.tsfile.read.common.Chunk;
 import org.apache.iotdb.tsfile.write.writer.TsFileIOWriter;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
@@ -53,11 +59,18 @@ public class CrossSpaceCompactionWriter extends AbstractCompactionWriter {
     isEmptyFile = new boolean[seqFileResources.size()];
     hasTargetFileStartChunkGroup = new boolean[seqFileResources.size()];
     for (int i = 0; i < targetResources.size(); i++) {
-      this.fileWriterList.add(new RestorableTsFileIOWriter(targetResources.get(i).getTsFile()));
+      TsFileIOWriter fileWriter = new TsFileIOWriter(targetResources.get(i).getTsFile());
+      fileWriter.setChunkMetadataSpillThreshold(
+          IoTDBDescriptor.getInstance().getConfig().getChunkMetadataSpillThreshold());
+      this.fileWriterList.add(fileWriter);
       isEmptyFile[i] = true;
     }
     this.seqTsFileResources = seqFileResources;
     this.targetTsFileResources = targetResources;
+    this.storageGroup =
+        targetResources.isEmpty()
+            ? null
+            : ZstdDictionaryManager.getStorageGroup(targetResources.get(0).getTsFile());
     seqFileIndex = 0;
   }
 
@@ -103,6 +116,43 @@ public class CrossSpaceCompactionWriter extends AbstractCompactionWriter {
   @Override
   public void write(long[] timestamps, Object values) {}
 
+  @Override
+  public void write(BatchData batchData, long maxTime) throws IOException {
+    while (batchData.hasCurrent() && batchData.currentTime() <= maxTime) {
+      long timestamp = batchData.currentTime();
+      checkTimeAndMayFlushChunkToCurrentFile(timestamp);
+      checkAndMayStartChunkGroup();
+      writeDataPoint(timestamp, batchData);
+      updateDeviceStartAndEndTime(targetTsFileResources.get(seqFileIndex), timestamp);
+      checkChunkSizeAndMayOpenANewChunk(fileWriterList.get(seqFileIndex));
+      isEmptyFile[seqFileIndex] = false;
+      batchData.next();
+    }
+  }
+
+  @Override
+  public void writeChunk(Chunk chunk, ChunkMetadata chunkMetadata) throws IOException {
+    checkTimeAndMayFlushChunkToCurrentFile(chunkMetadata.getStartTime());
+    checkAndMayStartChunkGroup();
+    flushAndWriteChunk(fileWriterList.get(seqFileIndex), chunk, chunkMetadata);
+    TsFileResource targetResource = targetTsFileResources.get(seqFileIndex);
+    updateDeviceStartAndEndTime(targetResource, chunkMetadata.getStartTime());
+    updateDeviceStartAndEndTime(targetResource, chunkMetadata.getEndTime());
+    isEmptyFile[seqFileIndex] = false;
+  }
+
+  @Override
+  public void writePage(PageHeader pageHeader, ByteBuffer compressedPageData) throws IOException {
+    checkTimeAndMayFlushChunkToCurrentFile(pageHeader.getStartTime());
+    checkAndMayStartChunkGroup();
+    writePageAndMayOpenANewChunk(
+        fileWriterList.get(seqFileIndex), pageHeader, compressedPageData);
+    TsFileResource targetResource = targetTsFileResources.get(seqFileIndex);
+    updateDeviceStartAndEndTime(targetResource, pageHeader.getStartTime());
+    updateDeviceStartAndEndTime(targetResource, pageHeader.getEndTime());
+    isEmptyFile[seqFileIndex] = false;
+  }
+
   @Override
   public void endFile() throws IOException {
     for (int i = 0; i < isEmptyFile.length; i++) {
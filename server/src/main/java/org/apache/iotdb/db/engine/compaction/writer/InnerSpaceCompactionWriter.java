@@ -18,11 +18,17 @@
  */
 package org.apache.iotdb.db.engine.compaction.writer;
 
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
-import org.apache.iotdb.tsfile.write.writer.RestorableTsFileIOWriter;
+import org.apache.iotdb.db.engine.storagegroup.ZstdDictionaryManager;
+import org.apache.iotdb.tsfile.file.header.PageHeader;
+import org.apache.iotdb.tsfile.file.metadata.ChunkMetadata;
+import org.apache.iotdb.tsfile.read.common.BatchData;
+import org.apache.iotdb.tsfile.read.common.Chunk;
 import org.apache.iotdb.tsfile.write.writer.TsFileIOWriter;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 
 public class InnerSpaceCompactionWriter extends AbstractCompactionWriter {
   private TsFileIOWriter fileWriter;
@@ -32,9 +38,12 @@ public class InnerSpaceCompactionWriter extends AbstractCompactionWriter {
   private final TsFileResource targetTsFileResource;
 
   public InnerSpaceCompactionWriter(TsFileResource targetFileResource) throws IOException {
-    fileWriter = new RestorableTsFileIOWriter(targetFileResource.getTsFile());
+    fileWriter = new TsFileIOWriter(targetFileResource.getTsFile());
+    fileWriter.setChunkMetadataSpillThreshold(
+        IoTDBDescriptor.getInstance().getConfig().getChunkMetadataSpillThreshold());
     isEmptyFile = true;
     this.targetTsFileResource = targetFileResource;
+    this.storageGroup = ZstdDictionaryManager.getStorageGroup(targetFileResource.getTsFile());
   }
 
   @Override
@@ -67,6 +76,34 @@ public class InnerSpaceCompactionWriter extends AbstractCompactionWriter {
   @Override
   public void write(long[] timestamps, Object values) {}
 
+  @Override
+  public void write(BatchData batchData, long maxTime) throws IOException {
+    while (batchData.hasCurrent() && batchData.currentTime() <= maxTime) {
+      long timestamp = batchData.currentTime();
+      writeDataPoint(timestamp, batchData);
+      updateDeviceStartAndEndTime(targetTsFileResource, timestamp);
+      checkChunkSizeAndMayOpenANewChunk(fileWriter);
+      isEmptyFile = false;
+      batchData.next();
+    }
+  }
+
+  @Override
+  public void writeChunk(Chunk chunk, ChunkMetadata chunkMetadata) throws IOException {
+    flushAndWriteChunk(fileWriter, chunk, chunkMetadata);
+    updateDeviceStartAndEndTime(targetTsFileResource, chunkMetadata.getStartTime());
+    updateDeviceStartAndEndTime(targetTsFileResource, chunkMetadata.getEndTime());
+    isEmptyFile = false;
+  }
+
+  @Override
+  public void writePage(PageHeader pageHeader, ByteBuffer compressedPageData) throws IOException {
+    writePageAndMayOpenANewChunk(fileWriter, pageHeader, compressedPageData);
+    updateDeviceStartAndEndTime(targetTsFileResource, pageHeader.getStartTime());
+    updateDeviceStartAndEndTime(targetTsFileResource, pageHeader.getEndTime());
+    isEmptyFile = false;
+  }
+
   @Override
   public void endFile() throws IOException {
     fileWriter.endFile();
@@ -27,9 +27,14 @@ import org.apache.iotdb.commons.utils.TestOnly;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.engine.fileSystem.SystemFileFactory;
 import org.apache.iotdb.db.exception.ContinuousQueryException;
+import org.apache.iotdb.db.metadata.path.PartialPath;
+import org.apache.iotdb.db.qp.logical.Operator;
+import org.apache.iotdb.db.qp.logical.crud.QueryOperator;
 import org.apache.iotdb.db.qp.physical.PhysicalPlan;
+import org.apache.iotdb.db.qp.physical.crud.InsertTabletPlan;
 import org.apache.iotdb.db.qp.physical.sys.CreateContinuousQueryPlan;
 import org.apache.iotdb.db.qp.physical.sys.DropContinuousQueryPlan;
+import org.apache.iotdb.db.qp.strategy.LogicalGenerator;
 import org.apache.iotdb.db.qp.utils.DatetimeUtils;
 import org.apache.iotdb.db.query.dataset.ShowContinuousQueriesResult;
 
@@ -38,6 +43,7 @@ import org.slf4j.LoggerFactory;
 
 import java.io.File;
 import java.io.IOException;
+import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
@@ -53,6 +59,8 @@ public class ContinuousQueryService implements IService {
 
   private static final ContinuousQueryTaskPoolManager TASK_POOL_MANAGER =
       ContinuousQueryTaskPoolManager.getInstance();
+  private static final boolean ENABLE_INCREMENTAL_EXECUTION =
+      IoTDBDescriptor.getInstance().getConfig().isEnableIncrementalContinuousQuery();
   private static final long TASK_SUBMIT_CHECK_INTERVAL =
       IoTDBDescriptor.getInstance().getConfig().getContinuousQueryMinimumEveryInterval() / 2;
 
@@ -68,6 +76,8 @@ public class ContinuousQueryService implements IService {
   private final ConcurrentHashMap<String, CreateContinuousQueryPlan> continuousQueryPlans =
       new ConcurrentHashMap<>();
   private final ConcurrentHashMap<String, Long> nextExecutionTimestamps = new ConcurrentHashMap<>();
+  private final ConcurrentHashMap<String, IncrementalContinuousQueryState> incrementalStates =
+      new ConcurrentHashMap<>();
 
   private CQLogWriter logWriter;
 
@@ -161,7 +171,11 @@ public class ContinuousQueryService implements IService {
     for (CreateContinuousQueryPlan plan : continuousQueryPlans.values()) {
       long nextExecutionTimestamp = nextExecutionTimestamps.get(plan.getContinuousQueryName());
       while (currentTimestamp >= nextExecutionTimestamp) {
-        TASK_POOL_MANAGER.submit(new ContinuousQueryTask(plan, nextExecutionTimestamp));
+        TASK_POOL_MANAGER.submit(
+            new ContinuousQueryTask(
+                plan,
+                nextExecutionTimestamp,
+                incrementalStates.get(plan.getContinuousQueryName())));
         nextExecutionTimestamp += plan.getEveryInterval();
       }
       nextExecutionTimestamps.replace(plan.getContinuousQueryName(), nextExecutionTimestamp);
@@ -183,6 +197,7 @@ public class ContinuousQueryService implements IService {
       }
 
       continuousQueryPlans.clear();
+      incrementalStates.clear();
 
       if (logWriter != null) {
         logWriter.close();
@@ -243,6 +258,60 @@ public class ContinuousQueryService implements IService {
     nextExecutionTimestamps.put(
         plan.getContinuousQueryName(),
         calculateNextExecutionTimestamp(plan, DatetimeUtils.currentTime()));
+    if (ENABLE_INCREMENTAL_EXECUTION) {
+      IncrementalContinuousQueryState state = createIncrementalState(plan);
+      if (state != null) {
+        incrementalStates.put(plan.getContinuousQueryName(), state);
+      }
+    }
+  }
+
+  private IncrementalContinuousQueryState createIncrementalState(CreateContinuousQueryPlan plan) {
+    try {
+      Operator operator =
+          LogicalGenerator.generate(
+              new ContinuousQueryTask(plan, plan.getFirstExecutionTimeBoundary()).generateSQL(),
+              ZoneId.systemDefault());
+      return new IncrementalContinuousQueryState(
+          ((QueryOperator) operator).getFromComponent().getPrefixPaths(), plan.getTargetPath());
+    } catch (RuntimeException e) {
+      LOGGER.warn(
+          "Failed to resolve the source paths of continuous query {}, it will be fully recomputed"
+              + " in every execution.",
+          plan.getContinuousQueryName(),
+          e);
+      return null;
+    }
+  }
+
+  /**
+   * Called after the data of a device in [startTime, endTime] has been inserted or deleted, so that
+   * incremental continuous queries recompute the affected windows.
+   *
+   * @param devicePath the changed device, null if the data of multiple devices is changed
+   */
+  public void markDirty(
+      PartialPath devicePath, String[] measurements, long startTime, long endTime) {
+    if (incrementalStates.isEmpty()) {
+      return;
+    }
+    for (IncrementalContinuousQueryState state : incrementalStates.values()) {
+      state.markDirty(devicePath, measurements, startTime, endTime);
+    }
+  }
+
+  public void markDirty(InsertTabletPlan plan) {
+    if (incrementalStates.isEmpty() || plan.getRowCount() == 0) {
+      return;
+    }
+    long[] times = plan.getTimes();
+    long minTime = Long.MAX_VALUE;
+    long maxTime = Long.MIN_VALUE;
+    for (int i = 0; i < plan.getRowCount(); i++) {
+      minTime = Math.min(minTime, times[i]);
+      maxTime = Math.max(maxTime, times[i]);
+    }
+    markDirty(plan.getDevicePath(), plan.getMeasurements(), minTime, maxTime);
   }
 
   @TestOnly
@@ -276,6 +345,12 @@ public class ContinuousQueryService implements IService {
   private void doDeregister(DropContinuousQueryPlan plan) {
     continuousQueryPlans.remove(plan.getContinuousQueryName());
     nextExecutionTimestamps.remove(plan.getContinuousQueryName());
+    incrementalStates.remove(plan.getContinuousQueryName());
+  }
+
+  @TestOnly
+  public IncrementalContinuousQueryState getIncrementalState(String continuousQueryName) {
+    return incrementalStates.get(continuousQueryName);
   }
 
   public List<ShowContinuousQueriesResult> getShowContinuousQueriesResultList() {
@@ -66,11 +66,21 @@ public class ContinuousQueryTask extends WrappedRunnable {
   protected final CreateContinuousQueryPlan continuousQueryPlan;
   // Next timestamp to execute a query
   protected final long windowEndTimestamp;
+  // null if the whole window is recomputed in every execution
+  protected final IncrementalContinuousQueryState incrementalState;
 
   public ContinuousQueryTask(
       CreateContinuousQueryPlan continuousQueryPlan, long windowEndTimestamp) {
+    this(continuousQueryPlan, windowEndTimestamp, null);
+  }
+
+  public ContinuousQueryTask(
+      CreateContinuousQueryPlan continuousQueryPlan,
+      long windowEndTimestamp,
+      IncrementalContinuousQueryState incrementalState) {
     this.continuousQueryPlan = continuousQueryPlan;
     this.windowEndTimestamp = windowEndTimestamp;
+    this.incrementalState = incrementalState;
     serviceProvider = IoTDB.serviceProvider;
   }
 
@@ -78,8 +88,41 @@ public class ContinuousQueryTask extends WrappedRunnable {
   public void runMayThrow()
       throws QueryProcessException, StorageEngineException, IOException, InterruptedException,
           QueryFilterOptimizationException, MetadataException, TException, SQLException {
+    final long windowStartTimestamp = windowEndTimestamp - continuousQueryPlan.getForInterval();
+    if (incrementalState == null) {
+      execute(windowStartTimestamp, windowEndTimestamp);
+      return;
+    }
+
+    IncrementalContinuousQueryState.Execution execution =
+        incrementalState.beginExecution(
+            windowStartTimestamp, windowEndTimestamp, continuousQueryPlan.getGroupByTimeInterval());
+    if (continuousQueryPlan.isDebug()) {
+      LOGGER.info(
+          "{}: recompute {} time ranges of window [{}, {}).",
+          continuousQueryPlan.getContinuousQueryName(),
+          execution.getTimeRanges().size(),
+          windowStartTimestamp,
+          windowEndTimestamp);
+    }
+    boolean isSucceeded = false;
+    try {
+      for (long[] timeRange : execution.getTimeRanges()) {
+        execute(timeRange[0], timeRange[1]);
+      }
+      isSucceeded = true;
+    } finally {
+      if (!isSucceeded) {
+        incrementalState.abortExecution(execution);
+      }
+    }
+  }
+
+  private void execute(long startTimestamp, long endTimestamp)
+      throws QueryProcessException, StorageEngineException, IOException, InterruptedException,
+          QueryFilterOptimizationException, MetadataException, TException, SQLException {
     // construct logical operator
-    final String sql = generateSQL();
+    final String sql = generateSQL(startTimestamp, endTimestamp);
     Operator operator = LogicalGenerator.generate(sql, ZoneId.systemDefault());
     if (!operator.isQuery()) {
       throw new ContinuousQueryException(
@@ -124,11 +167,16 @@ public class ContinuousQueryTask extends WrappedRunnable {
   }
 
   protected String generateSQL() {
+    return generateSQL(
+        windowEndTimestamp - continuousQueryPlan.getForInterval(), windowEndTimestamp);
+  }
+
+  protected String generateSQL(long startTimestamp, long endTimestamp) {
     return continuousQueryPlan.getQuerySqlBeforeGroupByClause()
         + "group by (["
-        + (windowEndTimestamp - continuousQueryPlan.getForInterval())
+        + startTimestamp
         + ','
-        + windowEndTimestamp
+        + endTimestamp
         + "),"
         + continuousQueryPlan.getGroupByTimeIntervalString()
         + ") "
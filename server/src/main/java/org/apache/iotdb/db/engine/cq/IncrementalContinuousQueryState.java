@@ -0,0 +1,236 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.cq;
+
+import org.apache.iotdb.commons.conf.IoTDBConstant;
+import org.apache.iotdb.db.metadata.path.PartialPath;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+/**
+ * The incremental execution state of a continuous query. It records the watermark, i.e. the end of
+ * the latest window that has been computed, and the time ranges below the watermark which have
+ * been changed by inserts or deletes since they were computed.
+ *
+ * <p>When a window is executed, only the group by intervals after the watermark and the intervals
+ * overlapping a dirty range are recomputed. Windows arriving out of order and the first window
+ * after a restart are fully recomputed.
+ */
+public class IncrementalContinuousQueryState {
+
+  private static final Pattern TARGET_PATH_PLACEHOLDER_PATTERN = Pattern.compile("\\$\\{\\w+}");
+
+  /** the source series patterns, i.e. prefix paths of the from clause followed by "**" */
+  private final List<PartialPath> sourcePathPatterns;
+
+  /**
+   * the series written by the query itself, with the ${x} placeholders replaced by "*". Writing
+   * them must not mark the windows dirty, otherwise the results would be recomputed forever.
+   */
+  private final PartialPath targetPathPattern;
+
+  private volatile long watermark = Long.MIN_VALUE;
+
+  /** start time -> end time (both inclusive) of disjoint dirty ranges, guarded by this */
+  private final TreeMap<Long, Long> dirtyRanges = new TreeMap<>();
+
+  public IncrementalContinuousQueryState(
+      List<PartialPath> fromPrefixPaths, PartialPath targetPathTemplate) {
+    sourcePathPatterns = new ArrayList<>(fromPrefixPaths.size());
+    for (PartialPath prefixPath : fromPrefixPaths) {
+      sourcePathPatterns.add(prefixPath.concatNode(IoTDBConstant.MULTI_LEVEL_PATH_WILDCARD));
+    }
+    String[] targetNodes = targetPathTemplate.getNodes().clone();
+    for (int i = 0; i < targetNodes.length; i++) {
+      targetNodes[i] =
+          TARGET_PATH_PLACEHOLDER_PATTERN
+              .matcher(targetNodes[i])
+              .replaceAll(IoTDBConstant.ONE_LEVEL_PATH_WILDCARD);
+    }
+    targetPathPattern = new PartialPath(targetNodes);
+  }
+
+  /**
+   * Record that the data of some series of a device in [startTime, endTime] has been changed.
+   *
+   * @param devicePath the changed device, null if the source of the change is unknown (e.g. a
+   *     deletion with a path pattern)
+   */
+  public void markDirty(
+      PartialPath devicePath, String[] measurements, long startTime, long endTime) {
+    // most inserts are newer than the watermark, so check it before matching the paths
+    if (startTime >= watermark) {
+      return;
+    }
+    if (devicePath != null && !isSourceDevice(devicePath, measurements)) {
+      return;
+    }
+    synchronized (this) {
+      addDirtyRange(startTime, Math.min(endTime, watermark - 1));
+    }
+  }
+
+  private boolean isSourceDevice(PartialPath devicePath, String[] measurements) {
+    for (String measurement : measurements) {
+      if (measurement == null) {
+        continue;
+      }
+      PartialPath seriesPath = devicePath.concatNode(measurement);
+      if (targetPathPattern.matchFullPath(seriesPath)) {
+        continue;
+      }
+      for (PartialPath pattern : sourcePathPatterns) {
+        if (pattern.matchFullPath(seriesPath)) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Calculate the time ranges to be computed for the window [windowStart, windowEnd) and move the
+   * watermark to windowEnd. The dirty ranges handed out are removed from the state, so the caller
+   * must call {@link #abortExecution(Execution)} if the execution fails.
+   */
+  public synchronized Execution beginExecution(
+      long windowStart, long windowEnd, long groupByInterval) {
+    if (watermark == Long.MIN_VALUE || windowEnd <= watermark) {
+      // nothing is known about the data of this window, compute all of it
+      List<long[]> timeRanges = new ArrayList<>();
+      timeRanges.add(new long[] {windowStart, windowEnd});
+      Execution execution = new Execution(timeRanges, new TreeMap<>(), watermark);
+      watermark = Math.max(watermark, windowEnd);
+      return execution;
+    }
+
+    List<long[]> timeRanges = new ArrayList<>();
+    for (Map.Entry<Long, Long> dirtyRange : dirtyRanges.entrySet()) {
+      long start = Math.max(dirtyRange.getKey(), windowStart);
+      long end = dirtyRange.getValue();
+      if (start > end) {
+        continue;
+      }
+      timeRanges.add(
+          new long[] {
+            alignDown(start, windowStart, groupByInterval),
+            Math.min(alignDown(end, windowStart, groupByInterval) + groupByInterval, windowEnd)
+          });
+    }
+    long newDataStart = Math.max(watermark, windowStart);
+    if (newDataStart < windowEnd) {
+      timeRanges.add(
+          new long[] {alignDown(newDataStart, windowStart, groupByInterval), windowEnd});
+    }
+
+    // dirty ranges before this window will never be covered by later windows, and the ones inside
+    // this window are recomputed now
+    Execution execution =
+        new Execution(mergeTimeRanges(timeRanges), new TreeMap<>(dirtyRanges), watermark);
+    dirtyRanges.clear();
+    watermark = windowEnd;
+    return execution;
+  }
+
+  /** Give the dirty ranges of a failed execution back so that the next window recomputes them. */
+  public synchronized void abortExecution(Execution execution) {
+    for (Map.Entry<Long, Long> dirtyRange : execution.dirtyRanges.entrySet()) {
+      addDirtyRange(dirtyRange.getKey(), dirtyRange.getValue());
+    }
+    for (long[] timeRange : execution.timeRanges) {
+      if (timeRange[0] < watermark) {
+        addDirtyRange(timeRange[0], Math.min(timeRange[1], watermark) - 1);
+      }
+    }
+  }
+
+  private void addDirtyRange(long startTime, long endTime) {
+    if (startTime > endTime) {
+      return;
+    }
+    Map.Entry<Long, Long> floor = dirtyRanges.floorEntry(startTime);
+    if (floor != null && floor.getValue() >= startTime - 1) {
+      startTime = floor.getKey();
+      endTime = Math.max(endTime, floor.getValue());
+    }
+    Map.Entry<Long, Long> next = dirtyRanges.ceilingEntry(startTime);
+    while (next != null && next.getKey() <= endTime + 1) {
+      endTime = Math.max(endTime, next.getValue());
+      dirtyRanges.remove(next.getKey());
+      next = dirtyRanges.ceilingEntry(startTime);
+    }
+    dirtyRanges.put(startTime, endTime);
+  }
+
+  private static long alignDown(long time, long windowStart, long groupByInterval) {
+    return windowStart + Math.floorDiv(time - windowStart, groupByInterval) * groupByInterval;
+  }
+
+  private static List<long[]> mergeTimeRanges(List<long[]> timeRanges) {
+    timeRanges.sort((r1, r2) -> Long.compare(r1[0], r2[0]));
+    List<long[]> merged = new ArrayList<>(timeRanges.size());
+    for (long[] timeRange : timeRanges) {
+      long[] last = merged.isEmpty() ? null : merged.get(merged.size() - 1);
+      if (last != null && timeRange[0] <= last[1]) {
+        last[1] = Math.max(last[1], timeRange[1]);
+      } else {
+        merged.add(timeRange);
+      }
+    }
+    return merged;
+  }
+
+  public long getWatermark() {
+    return watermark;
+  }
+
+  public synchronized Map<Long, Long> getDirtyRanges() {
+    return Collections.unmodifiableMap(new TreeMap<>(dirtyRanges));
+  }
+
+  /** The time ranges of one window execution, together with what is needed to roll it back. */
+  public static class Execution {
+
+    /** disjoint [start, end) ranges aligned to the group by interval, in ascending order */
+    private final List<long[]> timeRanges;
+
+    private final TreeMap<Long, Long> dirtyRanges;
+    private final long previousWatermark;
+
+    private Execution(
+        List<long[]> timeRanges, TreeMap<Long, Long> dirtyRanges, long previousWatermark) {
+      this.timeRanges = timeRanges;
+      this.dirtyRanges = dirtyRanges;
+      this.previousWatermark = previousWatermark;
+    }
+
+    public List<long[]> getTimeRanges() {
+      return timeRanges;
+    }
+
+    public long getPreviousWatermark() {
+      return previousWatermark;
+    }
+  }
+}
@@ -0,0 +1,253 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.engine.selectinto;
+
+import org.apache.iotdb.commons.concurrent.IoTDBThreadPoolFactory;
+import org.apache.iotdb.commons.concurrent.ThreadName;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.exception.metadata.IllegalPathException;
+import org.apache.iotdb.db.exception.metadata.MetadataException;
+import org.apache.iotdb.db.metadata.path.PartialPath;
+import org.apache.iotdb.db.qp.physical.crud.InsertTabletPlan;
+import org.apache.iotdb.db.service.IoTDB;
+import org.apache.iotdb.rpc.RpcUtils;
+import org.apache.iotdb.rpc.TSStatusCode;
+import org.apache.iotdb.service.rpc.thrift.TSStatus;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.utils.Binary;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Executes the insert-tablet-plans of a select-into statement while the query is still being read.
+ * The query thread keeps pulling plans from the {@link InsertTabletPlansIterator} and hands them to
+ * one lane per target storage group. Lanes are drained by a shared thread pool, so different
+ * storage groups are written in parallel while the plans of one storage group keep their order.
+ *
+ * <p>The estimated size of the plans which have been generated but not executed is bounded by
+ * {@link org.apache.iotdb.db.conf.IoTDBConfig#getSelectIntoPipelineMemoryLimitInByte()}. Once any
+ * plan fails, no more plans are submitted and the first failure is returned.
+ */
+public class InsertTabletPlansPipeline {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(InsertTabletPlansPipeline.class);
+
+  /** Executes a batch of insert-tablet-plans, e.g. with authority checks and cluster routing. */
+  @FunctionalInterface
+  public interface InsertTabletPlansExecutor {
+
+    TSStatus execute(List<InsertTabletPlan> insertTabletPlans);
+  }
+
+  private final InsertTabletPlansIterator insertTabletPlansIterator;
+  private final InsertTabletPlansExecutor insertTabletPlansExecutor;
+  private final long memoryLimitInByte;
+
+  // all fields below are guarded by this
+  private final Map<String, Lane> storageGroupToLane = new HashMap<>();
+  private long pendingMemoryInByte = 0;
+  private int pendingBatchNum = 0;
+  private TSStatus failedStatus = null;
+
+  public InsertTabletPlansPipeline(
+      InsertTabletPlansIterator insertTabletPlansIterator,
+      InsertTabletPlansExecutor insertTabletPlansExecutor) {
+    this.insertTabletPlansIterator = insertTabletPlansIterator;
+    this.insertTabletPlansExecutor = insertTabletPlansExecutor;
+    memoryLimitInByte =
+        IoTDBDescriptor.getInstance().getConfig().getSelectIntoPipelineMemoryLimitInByte();
+  }
+
+  /** @return the status of the first failed batch, or SUCCESS_STATUS if all batches succeeded */
+  public TSStatus execute() throws IOException, IllegalPathException, InterruptedException {
+    try {
+      while (insertTabletPlansIterator.hasNext() && !isFailed()) {
+        List<InsertTabletPlan> insertTabletPlans = insertTabletPlansIterator.next();
+        for (Map.Entry<String, List<InsertTabletPlan>> entry :
+            groupByStorageGroup(insertTabletPlans).entrySet()) {
+          submit(entry.getKey(), entry.getValue());
+        }
+      }
+    } finally {
+      waitForPendingBatches();
+    }
+
+    synchronized (this) {
+      return failedStatus != null ? failedStatus : RpcUtils.getStatus(TSStatusCode.SUCCESS_STATUS);
+    }
+  }
+
+  private Map<String, List<InsertTabletPlan>> groupByStorageGroup(
+      List<InsertTabletPlan> insertTabletPlans) {
+    Map<String, List<InsertTabletPlan>> storageGroupToPlans = new HashMap<>();
+    for (InsertTabletPlan insertTabletPlan : insertTabletPlans) {
+      String storageGroup = getStorageGroup(insertTabletPlan.getDevicePath());
+      storageGroupToPlans
+          .computeIfAbsent(storageGroup, k -> new ArrayList<>())
+          .add(insertTabletPlan);
+    }
+    return storageGroupToPlans;
+  }
+
+  private String getStorageGroup(PartialPath devicePath) {
+    try {
+      return IoTDB.schemaProcessor.getBelongedStorageGroup(devicePath).getFullPath();
+    } catch (MetadataException e) {
+      // the storage group may be created automatically by the insertion. plans of such devices
+      // share one lane, so that their creation is not executed concurrently
+      return "";
+    }
+  }
+
+  private synchronized void submit(String storageGroup, List<InsertTabletPlan> insertTabletPlans)
+      throws InterruptedException {
+    long memoryInByte = estimateMemory(insertTabletPlans);
+    // a batch larger than the limit is still accepted when nothing else is pending
+    while (failedStatus == null
+        && pendingBatchNum != 0
+        && pendingMemoryInByte + memoryInByte > memoryLimitInByte) {
+      wait();
+    }
+    if (failedStatus != null) {
+      return;
+    }
+
+    pendingMemoryInByte += memoryInByte;
+    ++pendingBatchNum;
+    Lane lane = storageGroupToLane.computeIfAbsent(storageGroup, k -> new Lane());
+    lane.batches.add(new Batch(insertTabletPlans, memoryInByte));
+    if (!lane.isRunning) {
+      lane.isRunning = true;
+      PoolHolder.POOL.submit(() -> drain(lane));
+    }
+  }
+
+  private void drain(Lane lane) {
+    while (true) {
+      Batch batch;
+      synchronized (this) {
+        batch = lane.batches.poll();
+        if (batch == null || failedStatus != null) {
+          // discard the rest once any batch failed
+          while (batch != null) {
+            onBatchFinished(batch);
+            batch = lane.batches.poll();
+          }
+          lane.isRunning = false;
+          return;
+        }
+      }
+
+      TSStatus status;
+      try {
+        status = insertTabletPlansExecutor.execute(batch.insertTabletPlans);
+      } catch (Exception e) {
+        LOGGER.warn("select into: failed to execute insert-tablet-plans", e);
+        status = RpcUtils.getStatus(TSStatusCode.EXECUTE_STATEMENT_ERROR, e.getMessage());
+      }
+
+      synchronized (this) {
+        if (!isSuccess(status) && failedStatus == null) {
+          failedStatus = status;
+        }
+        onBatchFinished(batch);
+      }
+    }
+  }
+
+  private void onBatchFinished(Batch batch) {
+    pendingMemoryInByte -= batch.memoryInByte;
+    --pendingBatchNum;
+    notifyAll();
+  }
+
+  private synchronized boolean isFailed() {
+    return failedStatus != null;
+  }
+
+  private synchronized void waitForPendingBatches() throws InterruptedException {
+    while (pendingBatchNum != 0) {
+      wait();
+    }
+  }
+
+  private static boolean isSuccess(TSStatus status) {
+    return status.getCode() == TSStatusCode.SUCCESS_STATUS.getStatusCode()
+        || status.getCode() == TSStatusCode.NEED_REDIRECTION.getStatusCode();
+  }
+
+  private static long estimateMemory(List<InsertTabletPlan> insertTabletPlans) {
+    long memoryInByte = 0;
+    for (InsertTabletPlan insertTabletPlan : insertTabletPlans) {
+      int rowCount = insertTabletPlan.getRowCount();
+      memoryInByte += (long) Long.BYTES * rowCount;
+
+      TSDataType[] dataTypes = insertTabletPlan.getDataTypes();
+      Object[] columns = insertTabletPlan.getColumns();
+      for (int i = 0; i < columns.length; ++i) {
+        if (dataTypes[i] != TSDataType.TEXT) {
+          memoryInByte += (long) dataTypes[i].getDataTypeSize() * rowCount;
+          continue;
+        }
+        for (Binary binary : (Binary[]) columns[i]) {
+          memoryInByte += binary == null ? Long.BYTES : Long.BYTES + binary.getLength();
+        }
+      }
+    }
+    return memoryInByte;
+  }
+
+  private static class Lane {
+
+    private final Queue<Batch> batches = new ArrayDeque<>();
+    private boolean isRunning = false;
+  }
+
+  private static class Batch {
+
+    private final List<InsertTabletPlan> insertTabletPlans;
+    private final long memoryInByte;
+
+    private Batch(List<InsertTabletPlan> insertTabletPlans, long memoryInByte) {
+      this.insertTabletPlans = insertTabletPlans;
+      this.memoryInByte = memoryInByte;
+    }
+  }
+
+  private static class PoolHolder {
+
+    private static final ExecutorService POOL =
+        IoTDBThreadPoolFactory.newFixedThreadPool(
+            IoTDBDescriptor.getInstance().getConfig().getSelectIntoPipelineThreadNum(),
+            ThreadName.SELECT_INTO_PIPELINE.getName());
+
+    private PoolHolder() {}
+  }
+}
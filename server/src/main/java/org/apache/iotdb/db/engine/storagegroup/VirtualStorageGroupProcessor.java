@@ -107,6 +107,7 @@ import java.util.Collections;
 import java.util.Date;
 import java.util.Deque;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
@@ -493,6 +494,8 @@ public class VirtualStorageGroupProcessor {
 
   /** recover from file */
   private void recover() throws StorageGroupProcessorException {
+    // keep compressing the compaction targets with the ZSTD dictionary of the storage group
+    ZstdDictionaryManager.getInstance().loadDictionaries(logicalStorageGroupName);
     try {
       recoverCompaction();
     } catch (Exception e) {
@@ -2343,9 +2346,159 @@ public class VirtualStorageGroupProcessor {
    * @param newTsFileResource tsfile resource @UsedBy load external tsfile module
    */
   public void loadNewTsFile(TsFileResource newTsFileResource) throws LoadFileException {
+    writeLock("loadNewTsFile");
+    try {
+      loadNewTsFileWithoutLock(newTsFileResource);
+    } finally {
+      writeUnlock();
+    }
+  }
+
+  /**
+   * Load a batch of new tsfiles to storage group processor as a whole. The write lock is held for
+   * the entire batch, so queries and merges either see none or all of the files. If any file fails
+   * to be loaded, it and the files already loaded in this batch are removed from the file lists
+   * and moved back to where they came from before the exception is thrown.
+   *
+   * @param newTsFileResources tsfile resources @UsedBy load external tsfile module
+   */
+  public void loadNewTsFiles(List<TsFileResource> newTsFileResources) throws LoadFileException {
+    writeLock("loadNewTsFiles");
+    try {
+      List<TsFileResource> loadedResources = new ArrayList<>();
+      List<File> originFiles = new ArrayList<>();
+      for (TsFileResource newTsFileResource : newTsFileResources) {
+        File originFile = newTsFileResource.getTsFile();
+        try {
+          loadNewTsFileWithoutLock(newTsFileResource);
+        } catch (LoadFileException e) {
+          // the failed file may have been moved partly
+          rollbackLoadedTsFile(newTsFileResource, originFile);
+          for (int i = loadedResources.size() - 1; i >= 0; i--) {
+            rollbackLoadedTsFile(loadedResources.get(i), originFiles.get(i));
+          }
+          throw e;
+        }
+        loadedResources.add(newTsFileResource);
+        originFiles.add(originFile);
+      }
+    } finally {
+      writeUnlock();
+    }
+  }
+
+  /**
+   * Remove a file loaded by {@link #loadNewTsFiles} from the file lists and move it, together with
+   * its .resource and .mods files, back to its origin path. Files that have not been moved are
+   * left as they are. The latest time maps are not rolled
+   * back, which at worst makes later data of these devices be treated as unsequence data.
+   */
+  private void rollbackLoadedTsFile(TsFileResource resource, File originFile) {
+    tsFileManager.remove(resource, resource.isSeq());
+    File loadedFile = resource.getTsFile();
+    String[] suffixes = {"", TsFileResource.RESOURCE_SUFFIX, ModificationFile.FILE_SUFFIX};
+    for (String suffix : suffixes) {
+      File from = fsFactory.getFile(loadedFile.getAbsolutePath() + suffix);
+      File to = fsFactory.getFile(originFile.getAbsolutePath() + suffix);
+      if (!from.exists() || from.equals(to)) {
+        continue;
+      }
+      try {
+        FileUtils.moveFile(from, to);
+      } catch (IOException e) {
+        logger.error("Cannot move {} back to {} when rolling back a failed load", from, to, e);
+      }
+    }
+    resource.setFile(originFile);
+    resource.setModFile(null);
+    logger.info("TsFile {} is unloaded because its batch failed to be loaded", originFile);
+  }
+
+  /**
+   * Find the devices of a tsfile to be loaded that keep it out of the sequence list of its time
+   * partition. Like {@link #compareTsFileDevices}, a device fits between two sequence files if its
+   * data is after all of it in the older files and before all of it in the newer ones. The other
+   * devices all fit at one position, the one shared by the most devices, so a file of only them is
+   * loaded as a sequence file. If no device fits anywhere, all the devices are returned.
+   */
+  public Set<String> getUnsequenceDevices(TsFileResource newTsFileResource) {
+    Set<String> unsequenceDevices = new HashSet<>();
+    // the sequence positions a device fits, in [range[0], range[1]), see findInsertionPosition
+    Map<String, int[]> insertionRanges = new HashMap<>();
+    readLock();
+    try {
+      List<TsFileResource> sequenceList =
+          tsFileManager.getSequenceListByTimePartition(newTsFileResource.getTimePartition());
+      for (String device : newTsFileResource.getDevices()) {
+        int[] insertionRange = getInsertionRange(newTsFileResource, device, sequenceList);
+        if (insertionRange == null) {
+          unsequenceDevices.add(device);
+        } else {
+          insertionRanges.put(device, insertionRange);
+        }
+      }
+
+      int bestPos = POS_OVERLAP;
+      int bestDeviceNum = 0;
+      for (int pos = -1; pos < sequenceList.size(); pos++) {
+        int deviceNum = 0;
+        // a file of the devices is inserted before the first newer sequence file of any of them
+        int insertPos = sequenceList.size() - 1;
+        for (int[] insertionRange : insertionRanges.values()) {
+          if (insertionRange[0] <= pos && pos < insertionRange[1]) {
+            deviceNum++;
+            insertPos = Math.min(insertPos, insertionRange[1] - 1);
+          }
+        }
+        if (deviceNum > bestDeviceNum
+            && getLoadingTsFileType(insertPos, sequenceList) == LoadTsFileType.LOAD_SEQUENCE) {
+          bestPos = pos;
+          bestDeviceNum = deviceNum;
+        }
+      }
+      for (Entry<String, int[]> entry : insertionRanges.entrySet()) {
+        if (entry.getValue()[0] > bestPos || bestPos >= entry.getValue()[1]) {
+          unsequenceDevices.add(entry.getKey());
+        }
+      }
+    } finally {
+      readUnlock();
+    }
+    return unsequenceDevices;
+  }
+
+  /**
+   * @return the positions [range[0], range[1]) between the sequence files where the data of the
+   *     device in the new file can be inserted, or null if it overlaps some sequence file
+   */
+  private int[] getInsertionRange(
+      TsFileResource newTsFileResource, String device, List<TsFileResource> sequenceList) {
+    long startTime = newTsFileResource.getStartTime(device);
+    long endTime = newTsFileResource.getEndTime(device);
+    int lastOlderFile = -1;
+    int firstNewerFile = sequenceList.size();
+    for (int i = 0; i < sequenceList.size(); i++) {
+      TsFileResource localFile = sequenceList.get(i);
+      if (!localFile.mayContainsDevice(device)) {
+        continue;
+      }
+      // the end time of an unclosed file is still growing
+      long localEndTime = localFile.isClosed() ? localFile.getEndTime(device) : Long.MAX_VALUE;
+      if (startTime > localEndTime && firstNewerFile == sequenceList.size()) {
+        lastOlderFile = i;
+      } else if (localFile.getStartTime(device) > endTime) {
+        firstNewerFile = Math.min(firstNewerFile, i);
+      } else {
+        return null;
+      }
+    }
+    return new int[] {lastOlderFile, firstNewerFile};
+  }
+
+  private void loadNewTsFileWithoutLock(TsFileResource newTsFileResource)
+      throws LoadFileException {
     File tsfileToBeInserted = newTsFileResource.getTsFile();
     long newFilePartitionId = newTsFileResource.getTimePartitionWithCheck();
-    writeLock("loadNewTsFile");
     try {
       List<TsFileResource> sequenceList =
           tsFileManager.getSequenceListByTimePartition(newFilePartitionId);
@@ -2388,8 +2541,6 @@ public class VirtualStorageGroupProcessor {
       logger.error(
           "Failed to reset last cache when loading file {}", newTsFileResource.getTsFilePath());
       throw new LoadFileException(e);
-    } finally {
-      writeUnlock();
     }
   }
 
@@ -2683,7 +2834,6 @@ public class VirtualStorageGroupProcessor {
           logger.error("The file {} has already been loaded in unsequence list", tsFileResource);
           return false;
         }
-        tsFileManager.add(tsFileResource, false);
         logger.info(
             "Load tsfile in unsequence list, move file from {} to {}",
             tsFileToLoad.getAbsolutePath(),
@@ -2705,11 +2855,6 @@ public class VirtualStorageGroupProcessor {
           logger.error("The file {} has already been loaded in sequence list", tsFileResource);
           return false;
         }
-        if (insertPos == -1) {
-          tsFileManager.insertToPartitionFileList(tsFileResource, true, 0);
-        } else {
-          tsFileManager.insertToPartitionFileList(tsFileResource, true, insertPos + 1);
-        }
         logger.info(
             "Load tsfile in sequence list, move file from {} to {}",
             tsFileToLoad.getAbsolutePath(),
@@ -2789,6 +2934,13 @@ public class VirtualStorageGroupProcessor {
       }
     }
 
+    // register the file only after all its files are in place, so that a failed move does not
+    // leave a resource pointing at nothing in the file lists
+    if (type == LoadTsFileType.LOAD_SEQUENCE) {
+      tsFileManager.insertToPartitionFileList(tsFileResource, true, insertPos + 1);
+    } else {
+      tsFileManager.add(tsFileResource, false);
+    }
     updatePartitionFileVersion(filePartitionId, tsFileResource.getVersion());
     return true;
   }
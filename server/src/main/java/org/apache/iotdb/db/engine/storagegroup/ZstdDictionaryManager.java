@@ -0,0 +1,232 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.storagegroup;
+
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.engine.fileSystem.SystemFileFactory;
+import org.apache.iotdb.tsfile.compress.ZstdDictionaryRegistry;
+import org.apache.iotdb.tsfile.file.MetaMarker;
+import org.apache.iotdb.tsfile.file.header.ChunkHeader;
+import org.apache.iotdb.tsfile.file.header.PageHeader;
+import org.apache.iotdb.tsfile.file.metadata.ChunkMetadata;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
+import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
+import org.apache.iotdb.tsfile.utils.FilePathUtils;
+import org.apache.iotdb.tsfile.write.chunk.IChunkWriter;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Manages the ZSTD dictionaries of the storage groups. When zstd_dictionary_size is positive, a
+ * dictionary is trained from the pages of the first compaction target of a storage group and used
+ * by the chunk writers of the later compactions of the storage group. The dictionary is persisted
+ * under system/storage_groups/{storage group}/zstd_dictionaries only to keep compressing with it
+ * after a restart: every TsFile carries the dictionaries its pages are compressed with, see {@link
+ * ZstdDictionaryRegistry}.
+ *
+ * <p>Flushed files are not compressed with dictionaries, as an unsealed file has no tail to carry
+ * them until it is sealed and must be readable after a crash.
+ */
+public class ZstdDictionaryManager {
+
+  private static final Logger logger = LoggerFactory.getLogger(ZstdDictionaryManager.class);
+
+  public static final String DICTIONARY_DIR_NAME = "zstd_dictionaries";
+
+  public static final String DICTIONARY_FILE_SUFFIX = ".dict";
+
+  /** the uncompressed bytes sampled to train a dictionary, as a multiple of the dictionary size */
+  private static final int SAMPLE_SIZE_RATIO = 100;
+
+  /** storage groups whose dictionaries are being trained */
+  private final Set<String> trainingStorageGroups = ConcurrentHashMap.newKeySet();
+
+  private ZstdDictionaryManager() {}
+
+  public static ZstdDictionaryManager getInstance() {
+    return ZstdDictionaryManagerHolder.INSTANCE;
+  }
+
+  public static File getDictionaryDir(String storageGroup) {
+    return SystemFileFactory.INSTANCE.getFile(
+        FilePathUtils.regularizePath(IoTDBDescriptor.getInstance().getConfig().getSystemDir())
+            + "storage_groups"
+            + File.separator
+            + storageGroup
+            + File.separator
+            + DICTIONARY_DIR_NAME);
+  }
+
+  /**
+   * get the logical storage group of a TsFile from its path ".../{storage group}/{virtual storage
+   * group}/{time partition}/xxx.tsfile".
+   *
+   * @return the storage group, or null if the path is too short
+   */
+  public static String getStorageGroup(File tsFile) {
+    File storageGroupDir = tsFile.getAbsoluteFile();
+    for (int i = 0; i < 3 && storageGroupDir != null; i++) {
+      storageGroupDir = storageGroupDir.getParentFile();
+    }
+    return storageGroupDir == null ? null : storageGroupDir.getName();
+  }
+
+  /** compress the new compaction targets of the storage group with its persisted dictionary */
+  public void loadDictionaries(String storageGroup) {
+    File[] dictionaryFiles =
+        getDictionaryDir(storageGroup)
+            .listFiles((dir, name) -> name.endsWith(DICTIONARY_FILE_SUFFIX));
+    if (dictionaryFiles == null || dictionaryFiles.length == 0) {
+      return;
+    }
+    File latestFile = dictionaryFiles[0];
+    for (File dictionaryFile : dictionaryFiles) {
+      if (dictionaryFile.lastModified() > latestFile.lastModified()) {
+        latestFile = dictionaryFile;
+      }
+    }
+    try {
+      ZstdDictionaryRegistry.getInstance()
+          .setCompressDictionary(storageGroup, Files.readAllBytes(latestFile.toPath()));
+    } catch (IOException | RuntimeException e) {
+      logger.error(
+          "Failed to load the ZSTD dictionary {} of storage group {}", latestFile, storageGroup, e);
+    }
+  }
+
+  /** compress the chunks of the writer with the dictionary of the storage group if there is one */
+  public void applyDictionary(IChunkWriter chunkWriter, String storageGroup) {
+    if (storageGroup != null
+        && IoTDBDescriptor.getInstance().getConfig().getZstdDictionarySize() > 0) {
+      chunkWriter.useCompressionDictionary(storageGroup);
+    }
+  }
+
+  /**
+   * train and persist a dictionary of the storage group from the ZSTD pages of a compaction target
+   * if the storage group does not have one yet. Failures are only logged as the dictionary is just
+   * an optimization.
+   */
+  public void trainIfAbsent(TsFileResource targetResource, String storageGroup) {
+    int dictionarySize = IoTDBDescriptor.getInstance().getConfig().getZstdDictionarySize();
+    if (dictionarySize <= 0
+        || ZstdDictionaryRegistry.getInstance().getCompressor(storageGroup) != null
+        || !trainingStorageGroups.add(storageGroup)) {
+      return;
+    }
+    try {
+      List<byte[]> samples = samplePages(targetResource, (long) dictionarySize * SAMPLE_SIZE_RATIO);
+      if (samples.isEmpty()) {
+        return;
+      }
+      long dictionaryId =
+          saveDictionary(
+              storageGroup, ZstdDictionaryRegistry.trainDictionary(samples, dictionarySize));
+      logger.info(
+          "Trained ZSTD dictionary {} of storage group {} from {} pages of {}",
+          dictionaryId,
+          storageGroup,
+          samples.size(),
+          targetResource.getTsFile().getName());
+    } catch (Exception e) {
+      logger.warn("Failed to train a ZSTD dictionary of storage group {}", storageGroup, e);
+    } finally {
+      trainingStorageGroups.remove(storageGroup);
+    }
+  }
+
+  /**
+   * persist the dictionary of the storage group and compress its new compaction targets with it.
+   *
+   * @return the id of the dictionary
+   */
+  private long saveDictionary(String storageGroup, byte[] dictionary) throws IOException {
+    long dictionaryId = ZstdDictionaryRegistry.getInstance().register(dictionary);
+    File directory = getDictionaryDir(storageGroup);
+    Files.createDirectories(directory.toPath());
+    File dictionaryFile = new File(directory, dictionaryId + DICTIONARY_FILE_SUFFIX);
+    if (!dictionaryFile.exists()) {
+      // write to a temporary file first so that a crash never leaves a partial dictionary
+      File tmpFile = new File(directory, dictionaryId + DICTIONARY_FILE_SUFFIX + ".tmp");
+      Files.write(tmpFile.toPath(), dictionary);
+      Files.move(tmpFile.toPath(), dictionaryFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+    ZstdDictionaryRegistry.getInstance().setCompressDictionary(storageGroup, dictionary);
+    return dictionaryId;
+  }
+
+  /** read the uncompressed ZSTD pages of the TsFile until there are sampleSize bytes */
+  private List<byte[]> samplePages(TsFileResource resource, long sampleSize) throws IOException {
+    List<byte[]> samples = new ArrayList<>();
+    long sampledSize = 0;
+    resource.readLock();
+    try (TsFileSequenceReader reader = new TsFileSequenceReader(resource.getTsFilePath())) {
+      for (String device : reader.getAllDevices()) {
+        for (List<ChunkMetadata> chunkMetadataList :
+            reader.readChunkMetadataInDevice(device).values()) {
+          for (ChunkMetadata chunkMetadata : chunkMetadataList) {
+            reader.position(chunkMetadata.getOffsetOfChunkHeader());
+            ChunkHeader chunkHeader = reader.readChunkHeader(reader.readMarker());
+            if (chunkHeader.getCompressionType() != CompressionType.ZSTD) {
+              continue;
+            }
+            boolean hasStatistic =
+                ((byte) (chunkHeader.getChunkType() & 0x3F)) == MetaMarker.CHUNK_HEADER;
+            int dataSize = chunkHeader.getDataSize();
+            while (dataSize > 0) {
+              PageHeader pageHeader =
+                  reader.readPageHeader(chunkHeader.getDataType(), hasStatistic);
+              ByteBuffer pageData = reader.readPage(pageHeader, CompressionType.ZSTD);
+              dataSize -= pageHeader.getSerializedPageSize();
+              if (pageHeader.getUncompressedSize() == 0) {
+                continue;
+              }
+              byte[] sample = new byte[pageData.remaining()];
+              pageData.get(sample);
+              samples.add(sample);
+              sampledSize += sample.length;
+              if (sampledSize >= sampleSize) {
+                return samples;
+              }
+            }
+          }
+        }
+      }
+    } finally {
+      resource.readUnlock();
+    }
+    return samples;
+  }
+
+  private static class ZstdDictionaryManagerHolder {
+
+    private static final ZstdDictionaryManager INSTANCE = new ZstdDictionaryManager();
+  }
+}
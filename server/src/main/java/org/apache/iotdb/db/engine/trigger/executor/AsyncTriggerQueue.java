@@ -0,0 +1,681 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.engine.trigger.executor;
+
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.engine.trigger.api.TriggerAttributes;
+import org.apache.iotdb.db.exception.TriggerExecutionException;
+import org.apache.iotdb.db.exception.TriggerManagementException;
+import org.apache.iotdb.db.service.metrics.Metric;
+import org.apache.iotdb.db.service.metrics.MetricsService;
+import org.apache.iotdb.db.service.metrics.Tag;
+import org.apache.iotdb.metrics.config.MetricConfigDescriptor;
+import org.apache.iotdb.metrics.utils.MetricLevel;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.fileSystem.FSFactoryProducer;
+import org.apache.iotdb.tsfile.utils.Binary;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The event buffer of an asynchronous trigger. Insert threads append copies of the fired points to
+ * a bounded queue and return immediately; a task in {@link AsyncTriggerTaskPoolManager} drains the
+ * queue, merges consecutive batches into columns of at most {@link #BATCH_SIZE_ATTRIBUTE} points
+ * and delivers them through {@link TriggerExecutor#fireBatch(long[], Object)}.
+ *
+ * <p>When the queue is full, the behaviour depends on {@link #BACKPRESSURE_ATTRIBUTE}: BLOCK makes
+ * the insert thread wait, DROP discards the new events and SPILL appends them to a file under the
+ * system directory, which is replayed in order once the queue has been drained.
+ */
+public class AsyncTriggerQueue {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(AsyncTriggerQueue.class);
+
+  public static final String ASYNC_ATTRIBUTE = "async";
+  public static final String BUFFER_SIZE_ATTRIBUTE = "async_buffer_size";
+  public static final String BATCH_SIZE_ATTRIBUTE = "async_batch_size";
+  public static final String BACKPRESSURE_ATTRIBUTE = "async_backpressure";
+
+  private static final int DEFAULT_BUFFER_SIZE = 1024;
+  private static final int DEFAULT_BATCH_SIZE = 1024;
+
+  /** max number of fire calls in one delivery task, so that a busy trigger can not starve others */
+  private static final int MAX_FIRES_PER_TASK = 64;
+
+  private static final long BLOCK_CHECK_INTERVAL_IN_MS = 100;
+
+  private static final String SPILL_DIR =
+      IoTDBDescriptor.getInstance().getConfig().getSystemDir()
+          + File.separator
+          + "trigger"
+          + File.separator
+          + "spill"
+          + File.separator;
+
+  public enum BackpressureStrategy {
+    BLOCK,
+    DROP,
+    SPILL
+  }
+
+  private final TriggerExecutor executor;
+  private final String triggerName;
+  private final TSDataType dataType;
+
+  private final int batchSize;
+  private final BackpressureStrategy backpressureStrategy;
+  private final BlockingQueue<Batch> buffer;
+
+  /** guarantees that there is at most one delivery task of this queue in the pool */
+  private final AtomicBoolean scheduled = new AtomicBoolean(false);
+
+  private volatile boolean closed = false;
+
+  // spilled batches are always newer than the batches in the buffer. all fields below are guarded
+  // by spillLock
+  private final Object spillLock = new Object();
+  private final File spillFile;
+  private final File replayFile;
+  private DataOutputStream spillOutput;
+  private volatile int spilledBatchNum = 0;
+  private volatile long firstSpilledTime = 0;
+
+  private final AtomicLong deliveredEventNum = new AtomicLong();
+  private final AtomicLong droppedEventNum = new AtomicLong();
+  private final AtomicLong failedEventNum = new AtomicLong();
+
+  AsyncTriggerQueue(
+      TriggerExecutor executor,
+      String triggerName,
+      TSDataType dataType,
+      TriggerAttributes attributes)
+      throws TriggerManagementException {
+    this.executor = executor;
+    this.triggerName = triggerName;
+    this.dataType = dataType;
+
+    int bufferSize;
+    try {
+      bufferSize = attributes.getIntOrDefault(BUFFER_SIZE_ATTRIBUTE, DEFAULT_BUFFER_SIZE);
+      batchSize = attributes.getIntOrDefault(BATCH_SIZE_ATTRIBUTE, DEFAULT_BATCH_SIZE);
+      backpressureStrategy =
+          BackpressureStrategy.valueOf(
+              attributes
+                  .getStringOrDefault(BACKPRESSURE_ATTRIBUTE, BackpressureStrategy.BLOCK.name())
+                  .toUpperCase());
+    } catch (IllegalArgumentException e) {
+      throw new TriggerManagementException(
+          String.format("Illegal async attributes of trigger %s: %s", triggerName, e));
+    }
+    if (bufferSize <= 0 || batchSize <= 0) {
+      throw new TriggerManagementException(
+          String.format(
+              "%s and %s of trigger %s should be positive.",
+              BUFFER_SIZE_ATTRIBUTE, BATCH_SIZE_ATTRIBUTE, triggerName));
+    }
+    buffer = new ArrayBlockingQueue<>(bufferSize);
+
+    spillFile = FSFactoryProducer.getFSFactory().getFile(SPILL_DIR + triggerName);
+    replayFile = FSFactoryProducer.getFSFactory().getFile(SPILL_DIR + triggerName + ".replay");
+
+    bindMetrics();
+  }
+
+  static boolean isAsync(TriggerAttributes attributes) {
+    return attributes.getBooleanOrDefault(ASYNC_ATTRIBUTE, false);
+  }
+
+  void offer(long timestamp, Object value) throws TriggerExecutionException {
+    offer(new Batch(new long[] {timestamp}, wrapValue(value)));
+  }
+
+  void offer(long[] timestamps, Object values) throws TriggerExecutionException {
+    // the arrays belong to the insert plan and may be reused after the insertion, so copy them
+    offer(
+        new Batch(
+            Arrays.copyOf(timestamps, timestamps.length),
+            copyValues(values, timestamps.length)));
+  }
+
+  private void offer(Batch batch) throws TriggerExecutionException {
+    if (closed) {
+      droppedEventNum.addAndGet(batch.size());
+      return;
+    }
+
+    switch (backpressureStrategy) {
+      case BLOCK:
+        try {
+          while (!buffer.offer(batch, BLOCK_CHECK_INTERVAL_IN_MS, TimeUnit.MILLISECONDS)) {
+            if (closed) {
+              droppedEventNum.addAndGet(batch.size());
+              return;
+            }
+            schedule();
+          }
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw new TriggerExecutionException(
+              String.format("Interrupted while waiting for the buffer of trigger %s.", triggerName),
+              e);
+        }
+        break;
+      case DROP:
+        if (!buffer.offer(batch)) {
+          droppedEventNum.addAndGet(batch.size());
+          return;
+        }
+        break;
+      case SPILL:
+        synchronized (spillLock) {
+          // once something has been spilled, new batches must follow it to keep the event order
+          if (spilledBatchNum != 0 || !buffer.offer(batch)) {
+            spill(batch);
+          }
+        }
+        break;
+      default:
+        throw new UnsupportedOperationException(backpressureStrategy.name());
+    }
+
+    schedule();
+  }
+
+  private void schedule() {
+    if (closed || !scheduled.compareAndSet(false, true)) {
+      return;
+    }
+    try {
+      AsyncTriggerTaskPoolManager.getInstance().submit(this::deliver);
+    } catch (RejectedExecutionException e) {
+      scheduled.set(false);
+      LOGGER.warn("Failed to schedule the delivery of asynchronous trigger {}", triggerName, e);
+    }
+  }
+
+  private void deliver() {
+    try {
+      for (int i = 0; i < MAX_FIRES_PER_TASK && !closed; ++i) {
+        Batch batch = pollBatch();
+        if (batch != null) {
+          fire(batch);
+        } else if (!replaySpilledBatches()) {
+          break;
+        }
+      }
+    } finally {
+      scheduled.set(false);
+    }
+
+    // reschedule instead of looping so that other triggers get a chance to run
+    if (getPendingBatchNum() != 0) {
+      schedule();
+    }
+  }
+
+  /** Poll the head of the buffer and merge the following batches into it up to batchSize. */
+  private Batch pollBatch() {
+    Batch first = buffer.poll();
+    if (first == null) {
+      return null;
+    }
+
+    List<Batch> batches = null;
+    int size = first.size();
+    Batch next;
+    // there is only one consumer, so the polled batch is always the peeked one
+    while ((next = buffer.peek()) != null && size + next.size() <= batchSize) {
+      buffer.poll();
+      if (batches == null) {
+        batches = new ArrayList<>();
+        batches.add(first);
+      }
+      batches.add(next);
+      size += next.size();
+    }
+    return batches == null ? first : merge(batches, size);
+  }
+
+  private void fire(Batch batch) {
+    try {
+      if (executor.fireBatch(batch.timestamps, batch.values)) {
+        deliveredEventNum.addAndGet(batch.size());
+      } else {
+        droppedEventNum.addAndGet(batch.size());
+      }
+    } catch (TriggerExecutionException e) {
+      failedEventNum.addAndGet(batch.size());
+      LOGGER.warn(
+          "Asynchronous trigger {} failed to process {} events.", triggerName, batch.size(), e);
+    }
+  }
+
+  private void spill(Batch batch) {
+    try {
+      if (spillOutput == null) {
+        Files.createDirectories(spillFile.getParentFile().toPath());
+        spillOutput =
+            new DataOutputStream(new BufferedOutputStream(new FileOutputStream(spillFile)));
+        firstSpilledTime = batch.enqueueTime;
+      }
+      writeBatch(spillOutput, batch);
+      ++spilledBatchNum;
+    } catch (IOException e) {
+      droppedEventNum.addAndGet(batch.size());
+      LOGGER.warn("Failed to spill events of asynchronous trigger {}", triggerName, e);
+    }
+  }
+
+  /**
+   * Deliver the spilled batches once the buffer has been drained.
+   *
+   * @return true if any spilled batch has been replayed
+   */
+  private boolean replaySpilledBatches() {
+    int replayBatchNum;
+    synchronized (spillLock) {
+      if (spilledBatchNum == 0 || !buffer.isEmpty()) {
+        return false;
+      }
+      replayBatchNum = spilledBatchNum;
+      try {
+        closeSpillOutput();
+        Files.move(
+            spillFile.toPath(), replayFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+      } catch (IOException e) {
+        droppedEventNum.addAndGet(replayBatchNum);
+        LOGGER.warn("Failed to replay spilled events of asynchronous trigger {}", triggerName, e);
+        deleteFile(spillFile);
+        return false;
+      } finally {
+        spilledBatchNum = 0;
+      }
+    }
+
+    try (DataInputStream input =
+        new DataInputStream(new BufferedInputStream(new FileInputStream(replayFile)))) {
+      List<Batch> batches = new ArrayList<>();
+      int size = 0;
+      for (int i = 0; i < replayBatchNum && !closed; ++i) {
+        Batch batch = readBatch(input);
+        if (size + batch.size() > batchSize && !batches.isEmpty()) {
+          fire(merge(batches, size));
+          batches.clear();
+          size = 0;
+        }
+        batches.add(batch);
+        size += batch.size();
+      }
+      if (!batches.isEmpty() && !closed) {
+        fire(merge(batches, size));
+      }
+    } catch (IOException e) {
+      LOGGER.warn("Failed to read spilled events of asynchronous trigger {}", triggerName, e);
+    } finally {
+      deleteFile(replayFile);
+    }
+    return true;
+  }
+
+  private void closeSpillOutput() throws IOException {
+    if (spillOutput != null) {
+      spillOutput.close();
+      spillOutput = null;
+    }
+  }
+
+  /** Discard all pending events. Called when the trigger is dropped. */
+  void close() {
+    closed = true;
+
+    long discardedEventNum = 0;
+    Batch batch;
+    while ((batch = buffer.poll()) != null) {
+      discardedEventNum += batch.size();
+    }
+    droppedEventNum.addAndGet(discardedEventNum);
+
+    synchronized (spillLock) {
+      try {
+        closeSpillOutput();
+      } catch (IOException e) {
+        LOGGER.warn("Failed to close the spill file of asynchronous trigger {}", triggerName, e);
+      }
+      spilledBatchNum = 0;
+      deleteFile(spillFile);
+    }
+
+    unbindMetrics();
+  }
+
+  private void deleteFile(File file) {
+    try {
+      Files.deleteIfExists(file.toPath());
+    } catch (IOException e) {
+      LOGGER.warn("Failed to delete {}", file, e);
+    }
+  }
+
+  private Batch merge(List<Batch> batches, int size) {
+    long[] timestamps = new long[size];
+    Object values = newValues(size);
+    int offset = 0;
+    for (Batch batch : batches) {
+      System.arraycopy(batch.timestamps, 0, timestamps, offset, batch.size());
+      System.arraycopy(batch.values, 0, values, offset, batch.size());
+      offset += batch.size();
+    }
+    return new Batch(timestamps, values, batches.get(0).enqueueTime);
+  }
+
+  private Object wrapValue(Object value) {
+    switch (dataType) {
+      case INT32:
+        return new int[] {(Integer) value};
+      case INT64:
+        return new long[] {(Long) value};
+      case FLOAT:
+        return new float[] {(Float) value};
+      case DOUBLE:
+        return new double[] {(Double) value};
+      case BOOLEAN:
+        return new boolean[] {(Boolean) value};
+      case TEXT:
+        return new Binary[] {(Binary) value};
+      default:
+        throw new UnsupportedOperationException(dataType.name());
+    }
+  }
+
+  private Object copyValues(Object values, int length) {
+    switch (dataType) {
+      case INT32:
+        return Arrays.copyOf((int[]) values, length);
+      case INT64:
+        return Arrays.copyOf((long[]) values, length);
+      case FLOAT:
+        return Arrays.copyOf((float[]) values, length);
+      case DOUBLE:
+        return Arrays.copyOf((double[]) values, length);
+      case BOOLEAN:
+        return Arrays.copyOf((boolean[]) values, length);
+      case TEXT:
+        return Arrays.copyOf((Binary[]) values, length);
+      default:
+        throw new UnsupportedOperationException(dataType.name());
+    }
+  }
+
+  private Object newValues(int length) {
+    switch (dataType) {
+      case INT32:
+        return new int[length];
+      case INT64:
+        return new long[length];
+      case FLOAT:
+        return new float[length];
+      case DOUBLE:
+        return new double[length];
+      case BOOLEAN:
+        return new boolean[length];
+      case TEXT:
+        return new Binary[length];
+      default:
+        throw new UnsupportedOperationException(dataType.name());
+    }
+  }
+
+  private void writeBatch(DataOutputStream output, Batch batch) throws IOException {
+    int size = batch.size();
+    output.writeInt(size);
+    output.writeLong(batch.enqueueTime);
+    for (long timestamp : batch.timestamps) {
+      output.writeLong(timestamp);
+    }
+    for (int i = 0; i < size; ++i) {
+      switch (dataType) {
+        case INT32:
+          output.writeInt(((int[]) batch.values)[i]);
+          break;
+        case INT64:
+          output.writeLong(((long[]) batch.values)[i]);
+          break;
+        case FLOAT:
+          output.writeFloat(((float[]) batch.values)[i]);
+          break;
+        case DOUBLE:
+          output.writeDouble(((double[]) batch.values)[i]);
+          break;
+        case BOOLEAN:
+          output.writeBoolean(((boolean[]) batch.values)[i]);
+          break;
+        case TEXT:
+          Binary binary = ((Binary[]) batch.values)[i];
+          if (binary == null) {
+            output.writeInt(-1);
+          } else {
+            output.writeInt(binary.getLength());
+            output.write(binary.getValues());
+          }
+          break;
+        default:
+          throw new UnsupportedOperationException(dataType.name());
+      }
+    }
+  }
+
+  private Batch readBatch(DataInputStream input) throws IOException {
+    int size = input.readInt();
+    long enqueueTime = input.readLong();
+    long[] timestamps = new long[size];
+    for (int i = 0; i < size; ++i) {
+      timestamps[i] = input.readLong();
+    }
+    Object values = newValues(size);
+    for (int i = 0; i < size; ++i) {
+      switch (dataType) {
+        case INT32:
+          ((int[]) values)[i] = input.readInt();
+          break;
+        case INT64:
+          ((long[]) values)[i] = input.readLong();
+          break;
+        case FLOAT:
+          ((float[]) values)[i] = input.readFloat();
+          break;
+        case DOUBLE:
+          ((double[]) values)[i] = input.readDouble();
+          break;
+        case BOOLEAN:
+          ((boolean[]) values)[i] = input.readBoolean();
+          break;
+        case TEXT:
+          int length = input.readInt();
+          if (length >= 0) {
+            byte[] bytes = new byte[length];
+            input.readFully(bytes);
+            ((Binary[]) values)[i] = new Binary(bytes);
+          }
+          break;
+        default:
+          throw new UnsupportedOperationException(dataType.name());
+      }
+    }
+    return new Batch(timestamps, values, enqueueTime);
+  }
+
+  public int getPendingBatchNum() {
+    return closed ? 0 : buffer.size() + spilledBatchNum;
+  }
+
+  /** @return how long the oldest pending event has been waiting, in milliseconds */
+  public long getLagInMs() {
+    Batch head = buffer.peek();
+    if (head != null) {
+      return System.currentTimeMillis() - head.enqueueTime;
+    }
+    return spilledBatchNum == 0 ? 0 : System.currentTimeMillis() - firstSpilledTime;
+  }
+
+  public long getDeliveredEventNum() {
+    return deliveredEventNum.get();
+  }
+
+  public long getDroppedEventNum() {
+    return droppedEventNum.get();
+  }
+
+  public long getFailedEventNum() {
+    return failedEventNum.get();
+  }
+
+  private void bindMetrics() {
+    if (!MetricConfigDescriptor.getInstance().getMetricConfig().getEnableMetric()) {
+      return;
+    }
+    MetricsService.getInstance()
+        .getMetricManager()
+        .getOrCreateAutoGauge(
+            Metric.QUEUE.toString(),
+            MetricLevel.IMPORTANT,
+            this,
+            AsyncTriggerQueue::getPendingBatchNum,
+            Tag.NAME.toString(),
+            getQueueMetricName(),
+            Tag.STATUS.toString(),
+            "pending");
+    MetricsService.getInstance()
+        .getMetricManager()
+        .getOrCreateAutoGauge(
+            Metric.QUEUE.toString(),
+            MetricLevel.IMPORTANT,
+            this,
+            AsyncTriggerQueue::getLagInMs,
+            Tag.NAME.toString(),
+            getQueueMetricName(),
+            Tag.STATUS.toString(),
+            "lag");
+    MetricsService.getInstance()
+        .getMetricManager()
+        .getOrCreateAutoGauge(
+            Metric.TRIGGER_EVENT.toString(),
+            MetricLevel.IMPORTANT,
+            deliveredEventNum,
+            AtomicLong::get,
+            Tag.NAME.toString(),
+            triggerName,
+            Tag.STATUS.toString(),
+            "delivered");
+    MetricsService.getInstance()
+        .getMetricManager()
+        .getOrCreateAutoGauge(
+            Metric.TRIGGER_EVENT.toString(),
+            MetricLevel.IMPORTANT,
+            droppedEventNum,
+            AtomicLong::get,
+            Tag.NAME.toString(),
+            triggerName,
+            Tag.STATUS.toString(),
+            "dropped");
+    MetricsService.getInstance()
+        .getMetricManager()
+        .getOrCreateAutoGauge(
+            Metric.TRIGGER_EVENT.toString(),
+            MetricLevel.IMPORTANT,
+            failedEventNum,
+            AtomicLong::get,
+            Tag.NAME.toString(),
+            triggerName,
+            Tag.STATUS.toString(),
+            "failed");
+  }
+
+  private void unbindMetrics() {
+    if (!MetricConfigDescriptor.getInstance().getMetricConfig().getEnableMetric()) {
+      return;
+    }
+    for (String status : new String[] {"pending", "lag"}) {
+      MetricsService.getInstance()
+          .getMetricManager()
+          .removeGauge(
+              Metric.QUEUE.toString(),
+              Tag.NAME.toString(),
+              getQueueMetricName(),
+              Tag.STATUS.toString(),
+              status);
+    }
+    for (String status : new String[] {"delivered", "dropped", "failed"}) {
+      MetricsService.getInstance()
+          .getMetricManager()
+          .removeGauge(
+              Metric.TRIGGER_EVENT.toString(),
+              Tag.NAME.toString(),
+              triggerName,
+              Tag.STATUS.toString(),
+              status);
+    }
+  }
+
+  private String getQueueMetricName() {
+    return "trigger_" + triggerName;
+  }
+
+  private static class Batch {
+
+    private final long[] timestamps;
+    private final Object values;
+    private final long enqueueTime;
+
+    private Batch(long[] timestamps, Object values) {
+      this(timestamps, values, System.currentTimeMillis());
+    }
+
+    private Batch(long[] timestamps, Object values, long enqueueTime) {
+      this.timestamps = timestamps;
+      this.values = values;
+      this.enqueueTime = enqueueTime;
+    }
+
+    private int size() {
+      return timestamps.length;
+    }
+  }
+}
@@ -0,0 +1,79 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.engine.trigger.executor;
+
+import org.apache.iotdb.commons.concurrent.IoTDBThreadPoolFactory;
+import org.apache.iotdb.commons.concurrent.ThreadName;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.rescon.AbstractPoolManager;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The pool delivering buffered events to asynchronous triggers. Each {@link AsyncTriggerQueue} has
+ * at most one delivery task in the pool at any time, so the pool size bounds how many triggers can
+ * be fired concurrently.
+ */
+public class AsyncTriggerTaskPoolManager extends AbstractPoolManager {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(AsyncTriggerTaskPoolManager.class);
+
+  private AsyncTriggerTaskPoolManager() {
+    start();
+  }
+
+  @Override
+  public Logger getLogger() {
+    return LOGGER;
+  }
+
+  @Override
+  public String getName() {
+    return "async trigger task";
+  }
+
+  @Override
+  public synchronized void start() {
+    if (pool != null) {
+      return;
+    }
+
+    final int nThreads =
+        IoTDBDescriptor.getInstance().getConfig().getConcurrentAsyncTriggerThread();
+    LOGGER.info("AsyncTriggerTaskPoolManager is initializing, thread number: {}", nThreads);
+    pool =
+        IoTDBThreadPoolFactory.newFixedThreadPool(
+            nThreads, ThreadName.ASYNC_TRIGGER_SERVICE.getName());
+  }
+
+  public static AsyncTriggerTaskPoolManager getInstance() {
+    return AsyncTriggerTaskPoolManager.InstanceHolder.INSTANCE;
+  }
+
+  private static class InstanceHolder {
+
+    private InstanceHolder() {
+      // nothing to do
+    }
+
+    private static final AsyncTriggerTaskPoolManager INSTANCE = new AsyncTriggerTaskPoolManager();
+  }
+}
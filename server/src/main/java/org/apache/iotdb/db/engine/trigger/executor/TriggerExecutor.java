@@ -44,6 +44,9 @@ public class TriggerExecutor {
 
   private final Trigger trigger;
 
+  /** null if the trigger is fired synchronously in the insert path */
+  private final AsyncTriggerQueue asyncQueue;
+
   public TriggerExecutor(
       TriggerRegistrationInformation registrationInformation,
       TriggerClassLoader classLoader,
@@ -58,6 +61,12 @@ public class TriggerExecutor {
     seriesDataType = measurementMNode.getSchema().getType();
 
     trigger = constructTriggerInstance();
+
+    asyncQueue =
+        AsyncTriggerQueue.isAsync(attributes)
+            ? new AsyncTriggerQueue(
+                this, registrationInformation.getTriggerName(), seriesDataType, attributes)
+            : null;
   }
 
   private Trigger constructTriggerInstance() throws TriggerManagementException {
@@ -83,6 +92,9 @@ public class TriggerExecutor {
     try {
       trigger.onCreate(attributes);
     } catch (Exception e) {
+      if (asyncQueue != null) {
+        asyncQueue.close();
+      }
       onTriggerExecutionError("onConfig(TriggerAttributes)", e);
     }
 
@@ -98,6 +110,10 @@ public class TriggerExecutor {
 
     registrationInformation.markAsStopped();
 
+    if (asyncQueue != null) {
+      asyncQueue.close();
+    }
+
     try {
       trigger.onDrop();
     } catch (Exception e) {
@@ -140,7 +156,11 @@ public class TriggerExecutor {
   public void fireIfActivated(TriggerEvent event, long timestamp, Object value)
       throws TriggerExecutionException {
     if (!registrationInformation.isStopped() && event.equals(registrationInformation.getEvent())) {
-      fire(timestamp, value);
+      if (asyncQueue != null) {
+        asyncQueue.offer(timestamp, value);
+      } else {
+        fire(timestamp, value);
+      }
     }
   }
 
@@ -180,8 +200,26 @@ public class TriggerExecutor {
   public void fireIfActivated(TriggerEvent event, long[] timestamps, Object values)
       throws TriggerExecutionException {
     if (!registrationInformation.isStopped() && event.equals(registrationInformation.getEvent())) {
-      fire(timestamps, values);
+      if (asyncQueue != null) {
+        asyncQueue.offer(timestamps, values);
+      } else {
+        fire(timestamps, values);
+      }
+    }
+  }
+
+  /**
+   * Deliver events buffered by the {@link AsyncTriggerQueue}.
+   *
+   * @return false if the trigger has been stopped or dropped and the events are discarded
+   */
+  synchronized boolean fireBatch(long[] timestamps, Object values)
+      throws TriggerExecutionException {
+    if (registrationInformation.isStopped()) {
+      return false;
     }
+    fire(timestamps, values);
+    return true;
   }
 
   private synchronized void fire(long[] timestamps, Object values)
@@ -235,6 +273,15 @@ public class TriggerExecutor {
     return measurementMNode;
   }
 
+  public boolean isAsync() {
+    return asyncQueue != null;
+  }
+
+  @TestOnly
+  public AsyncTriggerQueue getAsyncQueue() {
+    return asyncQueue;
+  }
+
   @TestOnly
   public Trigger getTrigger() {
     return trigger;
@@ -27,6 +27,7 @@ import org.apache.iotdb.db.exception.metadata.PathAlreadyExistException;
 import org.apache.iotdb.db.exception.metadata.PathNotExistException;
 import org.apache.iotdb.db.exception.metadata.StorageGroupNotSetException;
 import org.apache.iotdb.db.exception.metadata.UndefinedTemplateException;
+import org.apache.iotdb.db.metadata.cache.DeviceSchemaCache;
 import org.apache.iotdb.db.metadata.lastCache.LastCacheManager;
 import org.apache.iotdb.db.metadata.mnode.IMNode;
 import org.apache.iotdb.db.metadata.mnode.IMeasurementMNode;
@@ -1271,16 +1272,27 @@ public class LocalSchemaProcessor {
   @SuppressWarnings("squid:S3776") // Suppress high Cognitive Complexity warning
   public IMNode getSeriesSchemasAndReadLockDevice(InsertPlan plan)
       throws MetadataException, IOException {
+    // fast path, all measurements of the device have been resolved before
+    IMNode deviceMNode = DeviceSchemaCache.getInstance().getSeriesSchemas(plan);
+    if (deviceMNode != null) {
+      return deviceMNode;
+    }
+    long epoch = DeviceSchemaCache.getInstance().getEpoch();
+
     try {
-      return getBelongedSchemaRegion(plan.getDevicePath()).getSeriesSchemasAndReadLockDevice(plan);
+      deviceMNode =
+          getBelongedSchemaRegion(plan.getDevicePath()).getSeriesSchemasAndReadLockDevice(plan);
     } catch (StorageGroupNotSetException e) {
       if (config.isAutoCreateSchemaEnabled()) {
-        return getBelongedSchemaRegionWithAutoCreate(plan.getDevicePath())
-            .getSeriesSchemasAndReadLockDevice(plan);
+        deviceMNode =
+            getBelongedSchemaRegionWithAutoCreate(plan.getDevicePath())
+                .getSeriesSchemasAndReadLockDevice(plan);
       } else {
         throw e;
       }
     }
+    DeviceSchemaCache.getInstance().put(plan, deviceMNode, epoch);
+    return deviceMNode;
   }
 
   // endregion
@@ -1296,6 +1308,7 @@ public class LocalSchemaProcessor {
 
   public void pruneSchemaTemplate(PruneTemplatePlan plan) throws MetadataException {
     configManager.pruneSchemaTemplate(plan);
+    DeviceSchemaCache.getInstance().invalidateAll();
   }
 
   public int countMeasurementsInTemplate(String templateName) throws MetadataException {
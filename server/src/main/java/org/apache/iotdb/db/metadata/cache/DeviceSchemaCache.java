@@ -0,0 +1,239 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.metadata.cache;
+
+import org.apache.iotdb.commons.utils.TestOnly;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.metadata.mnode.IMNode;
+import org.apache.iotdb.db.metadata.mnode.IMeasurementMNode;
+import org.apache.iotdb.db.metadata.path.PartialPath;
+import org.apache.iotdb.db.qp.physical.crud.InsertPlan;
+import org.apache.iotdb.db.qp.physical.crud.InsertRowPlan;
+import org.apache.iotdb.db.qp.physical.crud.InsertTabletPlan;
+import org.apache.iotdb.db.service.metrics.Metric;
+import org.apache.iotdb.db.service.metrics.MetricsService;
+import org.apache.iotdb.db.service.metrics.Tag;
+import org.apache.iotdb.db.utils.TypeInferenceUtils;
+import org.apache.iotdb.metrics.config.MetricConfigDescriptor;
+import org.apache.iotdb.metrics.utils.MetricLevel;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This class caches the resolved measurement schemas of a device for the insert path. A hit lets
+ * {@link org.apache.iotdb.db.metadata.LocalSchemaProcessor#getSeriesSchemasAndReadLockDevice}
+ * fill the {@link IMeasurementMNode}s of an {@link InsertPlan} without locating the schema region
+ * or traversing the MTree.
+ *
+ * <p>Only plans whose measurements are all present in the cached entry with matching data types
+ * and alignment are served from the cache; everything else falls back to the MTree so that auto
+ * creation, template activation and error reporting behave exactly as before. Entries must be
+ * invalidated by the schema region whenever a device node is replaced, a timeseries is deleted, an
+ * alias changes or a template is activated or unset.
+ *
+ * <p>The MTree lookup of an insert is not synchronized with the invalidations, so every
+ * invalidation increases an epoch and a lookup is only cached if no invalidation happened since it
+ * began. Otherwise a schema change between the lookup and {@link #put} would be undone by caching
+ * the detached nodes.
+ */
+public class DeviceSchemaCache {
+
+  private static final int CACHE_SIZE =
+      IoTDBDescriptor.getInstance().getConfig().getDeviceSchemaCacheSize();
+  private static final boolean CACHE_ENABLE = CACHE_SIZE > 0;
+
+  // device path -> resolved schemas of the device
+  private final Cache<PartialPath, DeviceSchemaEntry> cache;
+
+  // a request is a hit only if all measurements of the plan are served by the cache
+  private final AtomicLong requestCount = new AtomicLong();
+  private final AtomicLong hitCount = new AtomicLong();
+
+  // increased by every invalidation, puts and invalidations are synchronized on this object
+  private long epoch = 0;
+
+  private DeviceSchemaCache() {
+    cache = Caffeine.newBuilder().maximumSize(Math.max(CACHE_SIZE, 0)).build();
+
+    // add metrics
+    if (CACHE_ENABLE && MetricConfigDescriptor.getInstance().getMetricConfig().getEnableMetric()) {
+      MetricsService.getInstance()
+          .getMetricManager()
+          .getOrCreateAutoGauge(
+              Metric.CACHE_HIT.toString(),
+              MetricLevel.IMPORTANT,
+              this,
+              DeviceSchemaCache::getHitRatePercentage,
+              Tag.NAME.toString(),
+              "deviceSchema");
+    }
+  }
+
+  public static DeviceSchemaCache getInstance() {
+    return DeviceSchemaCacheHolder.INSTANCE;
+  }
+
+  /**
+   * Try to fill the measurement schemas of the given plan from the cache. The plan is only modified
+   * if every measurement can be served.
+   *
+   * @return the device node if all measurements hit, otherwise null
+   */
+  public IMNode getSeriesSchemas(InsertPlan plan) {
+    if (!CACHE_ENABLE || !(plan instanceof InsertRowPlan || plan instanceof InsertTabletPlan)) {
+      return null;
+    }
+    requestCount.incrementAndGet();
+    DeviceSchemaEntry entry = cache.getIfPresent(plan.getDevicePath());
+    if (entry == null) {
+      return null;
+    }
+    IMNode deviceMNode = entry.deviceMNode;
+    if (deviceMNode.isEntity() && deviceMNode.getAsEntityMNode().isAligned() != plan.isAligned()) {
+      // let the MTree path report the alignment mismatch
+      return null;
+    }
+
+    String[] measurementList = plan.getMeasurements();
+    IMeasurementMNode[] resolved = new IMeasurementMNode[measurementList.length];
+    for (int i = 0; i < measurementList.length; i++) {
+      if (measurementList[i] == null) {
+        return null;
+      }
+      IMeasurementMNode measurementMNode = entry.measurements.get(measurementList[i]);
+      if (measurementMNode == null || !isDataTypeMatch(plan, i, measurementMNode)) {
+        return null;
+      }
+      resolved[i] = measurementMNode;
+    }
+
+    IMeasurementMNode[] measurementMNodes = plan.getMeasurementMNodes();
+    for (int i = 0; i < resolved.length; i++) {
+      measurementMNodes[i] = resolved[i];
+      // set measurementName instead of alias
+      measurementList[i] = resolved[i].getName();
+    }
+    hitCount.incrementAndGet();
+    return deviceMNode;
+  }
+
+  /** @return the current epoch, which should be fetched before the MTree lookup of a plan */
+  public synchronized long getEpoch() {
+    return epoch;
+  }
+
+  /**
+   * Record the measurement schemas resolved by the MTree for the given plan. Failed measurements
+   * are skipped.
+   *
+   * @param lookupEpoch the epoch fetched before the MTree lookup began, nothing is cached if the
+   *     schema has been invalidated since then
+   */
+  public synchronized void put(InsertPlan plan, IMNode deviceMNode, long lookupEpoch) {
+    if (!CACHE_ENABLE || !(plan instanceof InsertRowPlan || plan instanceof InsertTabletPlan)) {
+      return;
+    }
+    if (lookupEpoch != epoch) {
+      return;
+    }
+    IMeasurementMNode[] measurementMNodes = plan.getMeasurementMNodes();
+    if (measurementMNodes == null) {
+      return;
+    }
+    PartialPath devicePath = plan.getDevicePath();
+    DeviceSchemaEntry oldEntry = cache.getIfPresent(devicePath);
+    Map<String, IMeasurementMNode> measurements =
+        oldEntry == null || oldEntry.deviceMNode != deviceMNode
+            ? new HashMap<>()
+            : new HashMap<>(oldEntry.measurements);
+    for (IMeasurementMNode measurementMNode : measurementMNodes) {
+      if (measurementMNode == null) {
+        continue;
+      }
+      measurements.put(measurementMNode.getName(), measurementMNode);
+      if (measurementMNode.getAlias() != null) {
+        measurements.put(measurementMNode.getAlias(), measurementMNode);
+      }
+    }
+    if (!measurements.isEmpty()) {
+      cache.put(devicePath, new DeviceSchemaEntry(deviceMNode, measurements));
+    }
+  }
+
+  public synchronized void invalidate(PartialPath devicePath) {
+    epoch++;
+    cache.invalidate(devicePath);
+  }
+
+  public synchronized void invalidateAll() {
+    epoch++;
+    cache.invalidateAll();
+  }
+
+  private boolean isDataTypeMatch(InsertPlan plan, int loc, IMeasurementMNode measurementMNode) {
+    TSDataType dataType = measurementMNode.getSchema().getType();
+    if (plan instanceof InsertRowPlan) {
+      InsertRowPlan rowPlan = (InsertRowPlan) plan;
+      // only when InsertRowPlan's values is object[], we should check type
+      return rowPlan.isNeedInferType()
+          || TypeInferenceUtils.getPredictedDataType(rowPlan.getValues()[loc], false) == dataType;
+    }
+    return plan.getDataTypes()[loc] == dataType;
+  }
+
+  private long getHitRatePercentage() {
+    long requests = requestCount.get();
+    return requests == 0 ? 0 : hitCount.get() * 100 / requests;
+  }
+
+  @TestOnly
+  public long getHitCount() {
+    return hitCount.get();
+  }
+
+  @TestOnly
+  public long getRequestCount() {
+    return requestCount.get();
+  }
+
+  private static class DeviceSchemaEntry {
+
+    private final IMNode deviceMNode;
+    // measurement name or alias -> measurement node, never modified after construction
+    private final Map<String, IMeasurementMNode> measurements;
+
+    private DeviceSchemaEntry(IMNode deviceMNode, Map<String, IMeasurementMNode> measurements) {
+      this.deviceMNode = deviceMNode;
+      this.measurements = Collections.unmodifiableMap(measurements);
+    }
+  }
+
+  /** singleton pattern. */
+  private static class DeviceSchemaCacheHolder {
+
+    private static final DeviceSchemaCache INSTANCE = new DeviceSchemaCache();
+  }
+}
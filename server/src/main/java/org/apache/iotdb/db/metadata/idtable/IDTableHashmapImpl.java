@@ -152,7 +152,7 @@ public class IDTableHashmapImpl implements IDTable {
         // get MeasurementMNode, auto create if absent
         try {
           IMeasurementMNode measurementMNode =
-              getOrCreateMeasurementIfNotExist(deviceEntry, plan, i);
+              getOrCreateMeasurementIfNotExist(deviceEntry, plan, i, IDiskSchemaManager);
 
           checkDataTypeMatch(plan, i, measurementMNode.getSchema().getType());
           measurementMNodes[i] = measurementMNode;
@@ -327,8 +327,9 @@ public class IDTableHashmapImpl implements IDTable {
    *
    * @return measurement MNode of the time series or null if type is not match
    */
-  private IMeasurementMNode getOrCreateMeasurementIfNotExist(
-      DeviceEntry deviceEntry, InsertPlan plan, int loc) throws MetadataException {
+  static IMeasurementMNode getOrCreateMeasurementIfNotExist(
+      DeviceEntry deviceEntry, InsertPlan plan, int loc, IDiskSchemaManager IDiskSchemaManager)
+      throws MetadataException {
     String measurementName = plan.getMeasurements()[loc];
     PartialPath seriesKey = new PartialPath(plan.getDevicePath().toString(), measurementName);
 
@@ -455,7 +456,7 @@ public class IDTableHashmapImpl implements IDTable {
   }
 
   // from mmanger
-  private void checkDataTypeMatch(InsertPlan plan, int loc, TSDataType dataType)
+  static void checkDataTypeMatch(InsertPlan plan, int loc, TSDataType dataType)
       throws MetadataException {
     TSDataType insertDataType;
     if (plan instanceof InsertRowPlan) {
@@ -480,7 +481,7 @@ public class IDTableHashmapImpl implements IDTable {
   }
 
   /** get dataType of plan, in loc measurements only support InsertRowPlan and InsertTabletPlan */
-  private TSDataType getTypeInLoc(InsertPlan plan, int loc) throws MetadataException {
+  static TSDataType getTypeInLoc(InsertPlan plan, int loc) throws MetadataException {
     TSDataType dataType;
     if (plan instanceof InsertRowPlan) {
       InsertRowPlan tPlan = (InsertRowPlan) plan;
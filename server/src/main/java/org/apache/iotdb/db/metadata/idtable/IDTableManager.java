@@ -33,7 +33,8 @@ import org.slf4j.LoggerFactory;
 
 import java.io.File;
 import java.io.IOException;
-import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /** This class manages one id table for each logical storage group */
 public class IDTableManager {
@@ -42,7 +43,7 @@ public class IDTableManager {
   Logger logger = LoggerFactory.getLogger(IDTableManager.class);
 
   /** storage group path -> id table */
-  HashMap<String, IDTable> idTableMap;
+  Map<String, IDTable> idTableMap;
 
   /** system dir */
   private final String systemDir =
@@ -69,7 +70,7 @@ public class IDTableManager {
   }
 
   private IDTableManager() {
-    idTableMap = new HashMap<>();
+    idTableMap = new ConcurrentHashMap<>();
   }
   // endregion
 
@@ -79,16 +80,15 @@ public class IDTableManager {
    * @param devicePath device path
    * @return id table belongs to path's storage group
    */
-  public synchronized IDTable getIDTable(PartialPath devicePath) {
+  public IDTable getIDTable(PartialPath devicePath) {
     try {
       IStorageGroupMNode storageGroupMNode =
           IoTDB.schemaProcessor.getStorageGroupNodeByPath(devicePath);
-      return idTableMap.computeIfAbsent(
-          storageGroupMNode.getFullPath(),
-          storageGroupPath ->
-              new IDTableHashmapImpl(
-                  SystemFileFactory.INSTANCE.getFile(
-                      systemDir + File.separator + storageGroupPath)));
+      IDTable idTable = idTableMap.get(storageGroupMNode.getFullPath());
+      if (idTable != null) {
+        return idTable;
+      }
+      return idTableMap.computeIfAbsent(storageGroupMNode.getFullPath(), this::newIDTable);
     } catch (MetadataException e) {
       logger.error("get id table failed, path is: " + devicePath + ". caused by: " + e);
     }
@@ -96,6 +96,22 @@ public class IDTableManager {
     return null;
   }
 
+  /**
+   * create id table of the storage group according to the configured implementation
+   *
+   * @param storageGroupPath storage group path
+   * @return new id table
+   */
+  private IDTable newIDTable(String storageGroupPath) {
+    File storageGroupDir =
+        SystemFileFactory.INSTANCE.getFile(systemDir + File.separator + storageGroupPath);
+    if ("OpenAddressing"
+        .equals(IoTDBDescriptor.getInstance().getConfig().getIDTableImplementation())) {
+      return new IDTableOpenAddressingImpl(storageGroupDir);
+    }
+    return new IDTableHashmapImpl(storageGroupDir);
+  }
+
   /**
    * get schema from device and measurements
    *
@@ -103,7 +119,7 @@ public class IDTableManager {
    * @param measurementName measurement name of the time series
    * @return schema entry of the time series
    */
-  public synchronized IMeasurementSchema getSeriesSchema(String deviceName, String measurementName)
+  public IMeasurementSchema getSeriesSchema(String deviceName, String measurementName)
       throws MetadataException {
     for (IDTable idTable : idTableMap.values()) {
       IMeasurementSchema measurementSchema = idTable.getSeriesSchema(deviceName, measurementName);
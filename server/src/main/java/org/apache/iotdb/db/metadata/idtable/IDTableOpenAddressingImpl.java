@@ -0,0 +1,568 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.metadata.idtable;
+
+import org.apache.iotdb.commons.utils.TestOnly;
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.exception.metadata.DataTypeMismatchException;
+import org.apache.iotdb.db.exception.metadata.MetadataException;
+import org.apache.iotdb.db.metadata.idtable.entry.DeviceEntry;
+import org.apache.iotdb.db.metadata.idtable.entry.DeviceIDFactory;
+import org.apache.iotdb.db.metadata.idtable.entry.IDeviceID;
+import org.apache.iotdb.db.metadata.idtable.entry.InsertMeasurementMNode;
+import org.apache.iotdb.db.metadata.idtable.entry.SHA256DeviceID;
+import org.apache.iotdb.db.metadata.idtable.entry.SchemaEntry;
+import org.apache.iotdb.db.metadata.idtable.entry.TimeseriesID;
+import org.apache.iotdb.db.metadata.mnode.IMeasurementMNode;
+import org.apache.iotdb.db.metadata.path.PartialPath;
+import org.apache.iotdb.db.qp.physical.crud.InsertPlan;
+import org.apache.iotdb.db.qp.physical.sys.CreateAlignedTimeSeriesPlan;
+import org.apache.iotdb.db.qp.physical.sys.CreateTimeSeriesPlan;
+import org.apache.iotdb.db.service.IoTDB;
+import org.apache.iotdb.tsfile.read.TimeValuePair;
+import org.apache.iotdb.tsfile.write.schema.IMeasurementSchema;
+import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * id table belongs to a storage group and mapping timeseries path to it's schema. Different from
+ * {@link IDTableHashmapImpl}, device entries are located by open addressing on the 256 bits sha 256
+ * value of the device path, which is kept in one primitive long array instead of one key object per
+ * device, and schema entries are already packed as longs. Lookups on the insert path are lock-free,
+ * only creating devices or timeseries needs the table lock.
+ */
+public class IDTableOpenAddressingImpl implements IDTable {
+
+  /** logger */
+  private static final Logger logger = LoggerFactory.getLogger(IDTableOpenAddressingImpl.class);
+
+  /** initial number of slots, must be power of 2 */
+  private static final int INITIAL_CAPACITY = 1024;
+
+  /** the table will be resized when more than half of the slots are used */
+  private static final int MAX_LOAD_FACTOR_SHIFT = 1;
+
+  /** each device takes 4 longs in the key array */
+  private static final int KEY_LONG_NUM = 4;
+
+  /** max number of slots, limited by the length of the key array */
+  private static final int MAX_CAPACITY = 1 << 28;
+
+  /** reused buffer for calculating the key of a device path */
+  private static final ThreadLocal<long[]> KEY_BUFFER =
+      ThreadLocal.withInitial(() -> new long[KEY_LONG_NUM]);
+
+  /** current table, replaced as a whole when resized so that readers never need a lock */
+  private volatile DeviceTable deviceTable;
+
+  /** disk schema manager to manage disk schema entry */
+  private IDiskSchemaManager IDiskSchemaManager;
+
+  /** iotdb config */
+  protected static IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+
+  public IDTableOpenAddressingImpl(File storageGroupDir) {
+    deviceTable = new DeviceTable(INITIAL_CAPACITY);
+    if (config.isEnableIDTableLogFile()) {
+      IDiskSchemaManager = new AppendOnlyDiskSchemaManager(storageGroupDir);
+      IDiskSchemaManager.recover(this);
+    }
+  }
+
+  /**
+   * create aligned timeseries
+   *
+   * @param plan create aligned timeseries plan
+   * @throws MetadataException if the device is not aligned, throw it
+   */
+  @Override
+  public synchronized void createAlignedTimeseries(CreateAlignedTimeSeriesPlan plan)
+      throws MetadataException {
+    DeviceEntry deviceEntry = getDeviceEntryWithAlignedCheck(plan.getPrefixPath().toString(), true);
+
+    for (int i = 0; i < plan.getMeasurements().size(); i++) {
+      PartialPath fullPath =
+          new PartialPath(plan.getPrefixPath().toString(), plan.getMeasurements().get(i));
+      SchemaEntry schemaEntry =
+          new SchemaEntry(
+              plan.getDataTypes().get(i),
+              plan.getEncodings().get(i),
+              plan.getCompressors().get(i),
+              deviceEntry.getDeviceID(),
+              fullPath,
+              true,
+              IDiskSchemaManager);
+      deviceEntry.putSchemaEntry(plan.getMeasurements().get(i), schemaEntry);
+    }
+  }
+
+  /**
+   * create timeseries
+   *
+   * @param plan create timeseries plan
+   * @throws MetadataException if the device is aligned, throw it
+   */
+  @Override
+  public synchronized void createTimeseries(CreateTimeSeriesPlan plan) throws MetadataException {
+    DeviceEntry deviceEntry = getDeviceEntryWithAlignedCheck(plan.getPath().getDevice(), false);
+    SchemaEntry schemaEntry =
+        new SchemaEntry(
+            plan.getDataType(),
+            plan.getEncoding(),
+            plan.getCompressor(),
+            deviceEntry.getDeviceID(),
+            plan.getPath(),
+            false,
+            IDiskSchemaManager);
+    deviceEntry.putSchemaEntry(plan.getPath().getMeasurement(), schemaEntry);
+  }
+
+  /**
+   * check inserting timeseries existence and fill their measurement mnode. If the device and all
+   * the timeseries exist and match the plan, no lock is acquired.
+   *
+   * @param plan insert plan
+   * @return reusable device id
+   * @throws MetadataException if insert plan's aligned value is inconsistent with device
+   */
+  @Override
+  public IDeviceID getSeriesSchemas(InsertPlan plan) throws MetadataException {
+    DeviceEntry deviceEntry = getDeviceEntry(plan.getDevicePath().toString());
+    if (deviceEntry == null
+        || deviceEntry.isAligned() != plan.isAligned()
+        || !fillExistingSeriesSchemas(deviceEntry, plan)) {
+      return getSeriesSchemasWithLock(plan);
+    }
+
+    // set reusable device id
+    plan.setDeviceID(deviceEntry.getDeviceID());
+    // change device path to device id string for insertion
+    plan.setDevicePath(new PartialPath(deviceEntry.getDeviceID().toStringID()));
+
+    return deviceEntry.getDeviceID();
+  }
+
+  /**
+   * fill measurement mnodes of the plan if all the timeseries exist, use trigger free and match the
+   * data types of the plan. The plan is not modified otherwise.
+   *
+   * @return whether the measurement mnodes are filled
+   */
+  private boolean fillExistingSeriesSchemas(DeviceEntry deviceEntry, InsertPlan plan) {
+    String[] measurementList = plan.getMeasurements();
+    IMeasurementMNode[] measurementMNodes = new IMeasurementMNode[measurementList.length];
+    for (int i = 0; i < measurementList.length; i++) {
+      if (measurementList[i] == null) {
+        return false;
+      }
+      SchemaEntry schemaEntry = deviceEntry.getSchemaEntry(measurementList[i]);
+      if (schemaEntry == null || schemaEntry.isUsingTrigger()) {
+        return false;
+      }
+      try {
+        IDTableHashmapImpl.checkDataTypeMatch(plan, i, schemaEntry.getTSDataType());
+      } catch (MetadataException e) {
+        // let the locked path handle partial insert and error report
+        return false;
+      }
+      measurementMNodes[i] = new InsertMeasurementMNode(measurementList[i], schemaEntry);
+    }
+
+    System.arraycopy(
+        measurementMNodes, 0, plan.getMeasurementMNodes(), 0, measurementMNodes.length);
+    return true;
+  }
+
+  private synchronized IDeviceID getSeriesSchemasWithLock(InsertPlan plan)
+      throws MetadataException {
+    PartialPath devicePath = plan.getDevicePath();
+    String[] measurementList = plan.getMeasurements();
+    IMeasurementMNode[] measurementMNodes = plan.getMeasurementMNodes();
+
+    // 1. get device entry and check align
+    DeviceEntry deviceEntry =
+        getDeviceEntryWithAlignedCheck(devicePath.toString(), plan.isAligned());
+
+    // 2. get schema of each measurement
+    for (int i = 0; i < measurementList.length; i++) {
+      try {
+        // get MeasurementMNode, auto create if absent
+        try {
+          IMeasurementMNode measurementMNode =
+              IDTableHashmapImpl.getOrCreateMeasurementIfNotExist(
+                  deviceEntry, plan, i, IDiskSchemaManager);
+
+          IDTableHashmapImpl.checkDataTypeMatch(
+              plan, i, measurementMNode.getSchema().getType());
+          measurementMNodes[i] = measurementMNode;
+        } catch (DataTypeMismatchException mismatchException) {
+          if (!config.isEnablePartialInsert()) {
+            throw mismatchException;
+          } else {
+            // mark failed measurement
+            plan.markFailedMeasurementInsertion(i, mismatchException);
+          }
+        }
+      } catch (MetadataException e) {
+        if (IoTDB.isClusterMode()) {
+          logger.debug(
+              "meet error when check {}.{}, message: {}",
+              devicePath,
+              measurementList[i],
+              e.getMessage());
+        } else {
+          logger.warn(
+              "meet error when check {}.{}, message: {}",
+              devicePath,
+              measurementList[i],
+              e.getMessage());
+        }
+        if (config.isEnablePartialInsert()) {
+          // mark failed measurement
+          plan.markFailedMeasurementInsertion(i, e);
+        } else {
+          throw e;
+        }
+      }
+    }
+
+    // set reusable device id
+    plan.setDeviceID(deviceEntry.getDeviceID());
+    // change device path to device id string for insertion
+    plan.setDevicePath(new PartialPath(deviceEntry.getDeviceID().toStringID()));
+
+    return deviceEntry.getDeviceID();
+  }
+
+  /**
+   * register trigger to the timeseries
+   *
+   * @param fullPath full path of the timeseries
+   * @param measurementMNode the timeseries measurement mnode
+   * @throws MetadataException if the timeseries is not exits
+   */
+  @Override
+  public synchronized void registerTrigger(PartialPath fullPath, IMeasurementMNode measurementMNode)
+      throws MetadataException {
+    boolean isAligned = measurementMNode.getParent().isAligned();
+    DeviceEntry deviceEntry = getDeviceEntryWithAlignedCheck(fullPath.getDevice(), isAligned);
+
+    deviceEntry.getSchemaEntry(fullPath.getMeasurement()).setUsingTrigger();
+  }
+
+  /**
+   * deregister trigger to the timeseries
+   *
+   * @param fullPath full path of the timeseries
+   * @param measurementMNode the timeseries measurement mnode
+   * @throws MetadataException if the timeseries is not exits
+   */
+  @Override
+  public synchronized void deregisterTrigger(
+      PartialPath fullPath, IMeasurementMNode measurementMNode) throws MetadataException {
+    boolean isAligned = measurementMNode.getParent().isAligned();
+    DeviceEntry deviceEntry = getDeviceEntryWithAlignedCheck(fullPath.getDevice(), isAligned);
+
+    deviceEntry.getSchemaEntry(fullPath.getMeasurement()).setUnUsingTrigger();
+  }
+
+  /**
+   * get last cache of the timeseies
+   *
+   * @param timeseriesID timeseries ID of the timeseries
+   * @throws MetadataException if the timeseries is not exits
+   */
+  @Override
+  public TimeValuePair getLastCache(TimeseriesID timeseriesID) throws MetadataException {
+    SchemaEntry schemaEntry = getSchemaEntry(timeseriesID);
+    synchronized (schemaEntry) {
+      return schemaEntry.getCachedLast();
+    }
+  }
+
+  /**
+   * update last cache of the timeseies
+   *
+   * @param timeseriesID timeseries ID of the timeseries
+   * @param pair last time value pair
+   * @param highPriorityUpdate is high priority update
+   * @param latestFlushedTime last flushed time
+   * @throws MetadataException if the timeseries is not exits
+   */
+  @Override
+  public void updateLastCache(
+      TimeseriesID timeseriesID,
+      TimeValuePair pair,
+      boolean highPriorityUpdate,
+      Long latestFlushedTime)
+      throws MetadataException {
+    SchemaEntry schemaEntry = getSchemaEntry(timeseriesID);
+    synchronized (schemaEntry) {
+      schemaEntry.updateCachedLast(pair, highPriorityUpdate, latestFlushedTime);
+    }
+  }
+
+  @Override
+  public void clear() throws IOException {
+    if (IDiskSchemaManager != null) {
+      IDiskSchemaManager.close();
+    }
+  }
+
+  /**
+   * get device entry from device path
+   *
+   * @param deviceName device name of the time series
+   * @return device entry of the timeseries
+   */
+  @Override
+  public DeviceEntry getDeviceEntry(String deviceName) {
+    long[] key = KEY_BUFFER.get();
+    SHA256DeviceID.toLongs(deviceName, key);
+    return deviceTable.get(key);
+  }
+
+  /**
+   * get schema from device and measurements
+   *
+   * @param deviceName device name of the time series
+   * @param measurementName measurement name of the time series
+   * @return schema entry of the timeseries
+   */
+  @Override
+  public IMeasurementSchema getSeriesSchema(String deviceName, String measurementName) {
+    DeviceEntry deviceEntry = getDeviceEntry(deviceName);
+    if (deviceEntry == null) {
+      return null;
+    }
+
+    SchemaEntry schemaEntry = deviceEntry.getSchemaEntry(measurementName);
+    if (schemaEntry == null) {
+      return null;
+    }
+
+    // build measurement schema
+    return new MeasurementSchema(
+        measurementName,
+        schemaEntry.getTSDataType(),
+        schemaEntry.getTSEncoding(),
+        schemaEntry.getCompressionType());
+  }
+
+  @Override
+  public List<DeviceEntry> getAllDeviceEntry() {
+    return deviceTable.getAll();
+  }
+
+  @Override
+  public synchronized void putSchemaEntry(
+      String devicePath, String measurement, SchemaEntry schemaEntry, boolean isAligned)
+      throws MetadataException {
+    DeviceEntry deviceEntry = getDeviceEntryWithAlignedCheck(devicePath, isAligned);
+    deviceEntry.putSchemaEntry(measurement, schemaEntry);
+  }
+
+  /**
+   * get device id from device path and check is aligned, create the device entry if absent. Must be
+   * called with the table lock.
+   *
+   * @param deviceName device name of the time series
+   * @param isAligned whether the insert plan is aligned
+   * @return device entry of the timeseries
+   */
+  private DeviceEntry getDeviceEntryWithAlignedCheck(String deviceName, boolean isAligned)
+      throws MetadataException {
+    long[] key = new long[KEY_LONG_NUM];
+    SHA256DeviceID.toLongs(deviceName, key);
+
+    DeviceEntry deviceEntry = deviceTable.get(key);
+    // new device
+    if (deviceEntry == null) {
+      deviceEntry = new DeviceEntry(DeviceIDFactory.getInstance().getDeviceID(deviceName));
+      deviceEntry.setAligned(isAligned);
+      putDeviceEntry(key, deviceEntry);
+
+      return deviceEntry;
+    }
+
+    // check aligned
+    if (deviceEntry.isAligned() != isAligned) {
+      throw new MetadataException(
+          String.format(
+              "Timeseries under path [%s]'s align value is [%b], which is not consistent with insert plan",
+              deviceName, deviceEntry.isAligned()));
+    }
+
+    // reuse device entry in map
+    return deviceEntry;
+  }
+
+  /** put a new device entry, resize the table first if it is too full */
+  private void putDeviceEntry(long[] key, DeviceEntry deviceEntry) throws MetadataException {
+    DeviceTable table = deviceTable;
+    if ((table.size + 1) > (table.capacity >> MAX_LOAD_FACTOR_SHIFT)) {
+      if (table.capacity >= MAX_CAPACITY) {
+        throw new MetadataException(
+            String.format("Number of devices in id table exceeds the limit %d", MAX_CAPACITY / 2));
+      }
+      table = table.resize(table.capacity << 1);
+      // publish the new table, readers of the old one still see a consistent view
+      deviceTable = table;
+    }
+    table.put(key, deviceEntry);
+  }
+
+  /**
+   * get schema entry
+   *
+   * @param timeseriesID the timeseries ID
+   * @return schema entry of the timeseries
+   * @throws MetadataException throw if this timeseries is not exist
+   */
+  private SchemaEntry getSchemaEntry(TimeseriesID timeseriesID) throws MetadataException {
+    DeviceEntry deviceEntry = getDeviceEntry(timeseriesID.getDeviceID().toStringID());
+    if (deviceEntry == null) {
+      throw new MetadataException(
+          "get non exist timeseries's schema entry, timeseries id is: " + timeseriesID);
+    }
+
+    SchemaEntry schemaEntry = deviceEntry.getSchemaEntry(timeseriesID.getMeasurement());
+    if (schemaEntry == null) {
+      throw new MetadataException(
+          "get non exist timeseries's schema entry, timeseries id is: " + timeseriesID);
+    }
+
+    return schemaEntry;
+  }
+
+  @TestOnly
+  @Override
+  public Map<IDeviceID, DeviceEntry>[] getIdTables() {
+    Map<IDeviceID, DeviceEntry> map = new HashMap<>();
+    for (DeviceEntry deviceEntry : getAllDeviceEntry()) {
+      map.put(deviceEntry.getDeviceID(), deviceEntry);
+    }
+    return new Map[] {map};
+  }
+
+  @TestOnly
+  @Override
+  public IDiskSchemaManager getIDiskSchemaManager() {
+    return IDiskSchemaManager;
+  }
+
+  /**
+   * Open addressing table with linear probing. Keys are 4 longs per slot in one array and entries
+   * are published after their keys, so a reader that sees a non-null entry also sees its key. Only
+   * one writer is allowed at a time, and slots are never removed.
+   */
+  private static class DeviceTable {
+
+    private final int capacity;
+    private final int mask;
+    private final long[] keys;
+    private final AtomicReferenceArray<DeviceEntry> entries;
+    private int size;
+
+    private DeviceTable(int capacity) {
+      this.capacity = capacity;
+      this.mask = capacity - 1;
+      this.keys = new long[capacity * KEY_LONG_NUM];
+      this.entries = new AtomicReferenceArray<>(capacity);
+    }
+
+    private DeviceEntry get(long[] key) {
+      int slot = calculateSlot(key);
+      while (true) {
+        DeviceEntry deviceEntry = entries.get(slot);
+        if (deviceEntry == null) {
+          return null;
+        }
+        if (keyEquals(slot, key)) {
+          return deviceEntry;
+        }
+        slot = (slot + 1) & mask;
+      }
+    }
+
+    private void put(long[] key, DeviceEntry deviceEntry) {
+      int slot = calculateSlot(key);
+      while (entries.get(slot) != null) {
+        slot = (slot + 1) & mask;
+      }
+      System.arraycopy(key, 0, keys, slot * KEY_LONG_NUM, KEY_LONG_NUM);
+      entries.set(slot, deviceEntry);
+      size++;
+    }
+
+    private DeviceTable resize(int newCapacity) {
+      DeviceTable newTable = new DeviceTable(newCapacity);
+      long[] key = new long[KEY_LONG_NUM];
+      for (int i = 0; i < capacity; i++) {
+        DeviceEntry deviceEntry = entries.get(i);
+        if (deviceEntry != null) {
+          System.arraycopy(keys, i * KEY_LONG_NUM, key, 0, KEY_LONG_NUM);
+          newTable.put(key, deviceEntry);
+        }
+      }
+      return newTable;
+    }
+
+    private List<DeviceEntry> getAll() {
+      List<DeviceEntry> res = new ArrayList<>();
+      for (int i = 0; i < capacity; i++) {
+        DeviceEntry deviceEntry = entries.get(i);
+        if (deviceEntry != null) {
+          res.add(deviceEntry);
+        }
+      }
+      return res;
+    }
+
+    private boolean keyEquals(int slot, long[] key) {
+      int offset = slot * KEY_LONG_NUM;
+      return keys[offset] == key[0]
+          && keys[offset + 1] == key[1]
+          && keys[offset + 2] == key[2]
+          && keys[offset + 3] == key[3];
+    }
+
+    /** mix all the bits of the key, as the long values of sha 256 device id are not uniform */
+    private int calculateSlot(long[] key) {
+      long hash = key[0] * 31 + key[1];
+      hash = hash * 31 + key[2];
+      hash = hash * 31 + key[3];
+      hash ^= hash >>> 33;
+      hash *= 0xff51afd7ed558ccdL;
+      hash ^= hash >>> 33;
+      return (int) hash & mask;
+    }
+  }
+}
@@ -24,13 +24,14 @@ import org.apache.iotdb.commons.utils.TestOnly;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 
 /** device entry in id table */
 public class DeviceEntry {
   /** for device ID reuse in memtable */
   IDeviceID deviceID;
 
-  /** measurement schema map */
+  /** measurement schema map, concurrent for lock-free lookups on the insert path */
   Map<String, SchemaEntry> measurementMap;
 
   boolean isAligned;
@@ -47,7 +48,7 @@ public class DeviceEntry {
 
   public DeviceEntry(IDeviceID deviceID) {
     this.deviceID = deviceID;
-    measurementMap = new HashMap<>();
+    measurementMap = new ConcurrentHashMap<>();
     lastTimeMapOfEachPartition = new HashMap<>();
     flushTimeMapOfEachPartition = new HashMap<>();
   }
@@ -57,11 +57,26 @@ public class SHA256DeviceID implements IDeviceID {
   }
 
   public SHA256DeviceID(String deviceID) {
+    long[] longs = new long[4];
+    toLongs(deviceID, longs);
+    l1 = longs[0];
+    l2 = longs[1];
+    l3 = longs[2];
+    l4 = longs[3];
+  }
+
+  /**
+   * calculate the four long values of the sha 256 device id without building the device id object
+   *
+   * @param deviceID device path or a sha 256 string, like "1#1#1#1"
+   * @param dest array of at least four longs to put the result
+   */
+  public static void toLongs(String deviceID, long[] dest) {
     // if this device id string is a sha 256 form, we just translate it without sha256
     if (deviceID.indexOf('.') == -1) {
-      fromSHA256String(deviceID);
+      fromSHA256String(deviceID, dest);
     } else {
-      buildSHA256(deviceID);
+      buildSHA256(deviceID, dest);
     }
   }
 
@@ -70,12 +85,12 @@ public class SHA256DeviceID implements IDeviceID {
    *
    * @param deviceID a sha 256 string
    */
-  private void fromSHA256String(String deviceID) {
+  private static void fromSHA256String(String deviceID, long[] dest) {
     String[] part = deviceID.split(SEPARATOR);
-    l1 = Long.parseLong(part[0]);
-    l2 = Long.parseLong(part[1]);
-    l3 = Long.parseLong(part[2]);
-    l4 = Long.parseLong(part[3]);
+    dest[0] = Long.parseLong(part[0]);
+    dest[1] = Long.parseLong(part[1]);
+    dest[2] = Long.parseLong(part[2]);
+    dest[3] = Long.parseLong(part[3]);
   }
 
   /**
@@ -83,7 +98,7 @@ public class SHA256DeviceID implements IDeviceID {
    *
    * @param deviceID device path
    */
-  private void buildSHA256(String deviceID) {
+  private static void buildSHA256(String deviceID, long[] dest) {
     byte[] hashVal;
     int slot = calculateSlot(deviceID);
 
@@ -92,10 +107,10 @@ public class SHA256DeviceID implements IDeviceID {
       md[slot].reset();
     }
 
-    l1 = toLong(hashVal, 0);
-    l2 = toLong(hashVal, 8);
-    l3 = toLong(hashVal, 16);
-    l4 = toLong(hashVal, 24);
+    dest[0] = toLong(hashVal, 0);
+    dest[1] = toLong(hashVal, 8);
+    dest[2] = toLong(hashVal, 16);
+    dest[3] = toLong(hashVal, 24);
   }
 
   /** The probability that each bit of sha 256 is 0 or 1 is equal */
@@ -115,7 +130,7 @@ public class SHA256DeviceID implements IDeviceID {
     return l1 == that.l1 && l2 == that.l2 && l3 == that.l3 && l4 == that.l4;
   }
 
-  private long toLong(byte[] array, int start) {
+  private static long toLong(byte[] array, int start) {
     long res = 0;
     for (int i = 0; i < 8; i++) {
       res <<= 8;
@@ -131,7 +146,7 @@ public class SHA256DeviceID implements IDeviceID {
    * @param deviceID device id
    * @return slot number
    */
-  private int calculateSlot(String deviceID) {
+  private static int calculateSlot(String deviceID) {
     int hashVal = deviceID.hashCode();
     return Math.abs(hashVal == Integer.MIN_VALUE ? 0 : hashVal) % MD_NUM;
   }
@@ -37,6 +37,7 @@ import org.apache.iotdb.db.exception.metadata.SchemaDirCreationFailureException;
 import org.apache.iotdb.db.exception.metadata.TemplateIsInUseException;
 import org.apache.iotdb.db.metadata.LocalSchemaProcessor;
 import org.apache.iotdb.db.metadata.MetadataConstant;
+import org.apache.iotdb.db.metadata.cache.DeviceSchemaCache;
 import org.apache.iotdb.db.metadata.idtable.IDTable;
 import org.apache.iotdb.db.metadata.idtable.IDTableManager;
 import org.apache.iotdb.db.metadata.logfile.MLogReader;
@@ -320,6 +321,7 @@ public class SchemaRegion {
       if (this.mNodeCache != null) {
         this.mNodeCache.invalidateAll();
       }
+      DeviceSchemaCache.getInstance().invalidateAll();
 
       if (logWriter != null) {
         logWriter.close();
@@ -456,6 +458,7 @@ public class SchemaRegion {
 
       // the cached mNode may be replaced by new entityMNode in mtree
       mNodeCache.invalidate(path.getDevicePath());
+      DeviceSchemaCache.getInstance().invalidate(path.getDevicePath());
 
       // update statistics and schemaDataTypeNumMap
       timeseriesStatistics.addTimeseries(1);
@@ -569,6 +572,7 @@ public class SchemaRegion {
 
       // the cached mNode may be replaced by new entityMNode in mtree
       mNodeCache.invalidate(prefixPath);
+      DeviceSchemaCache.getInstance().invalidate(prefixPath);
 
       // update statistics and schemaDataTypeNumMap
       timeseriesStatistics.addTimeseries(plan.getMeasurements().size());
@@ -693,6 +697,8 @@ public class SchemaRegion {
 
     IMeasurementMNode measurementMNode = pair.right;
     removeFromTagInvertedIndex(measurementMNode);
+    // measurements in template may be cached under any device using the template
+    DeviceSchemaCache.getInstance().invalidateAll();
     PartialPath storageGroupPath = pair.left;
 
     // drop trigger with no exceptions
@@ -1204,6 +1210,7 @@ public class SchemaRegion {
     }
     leafMNode.getParent().addAlias(alias, leafMNode);
     leafMNode.setAlias(alias);
+    DeviceSchemaCache.getInstance().invalidate(path.getDevicePath());
 
     try {
       if (!isRecovering) {
@@ -1263,6 +1270,7 @@ public class SchemaRegion {
       }
 
       leafMNode.setAlias(alias);
+      DeviceSchemaCache.getInstance().invalidate(fullPath.getDevicePath());
       // persist to WAL
       logWriter.changeAlias(fullPath, alias);
     }
@@ -1689,6 +1697,7 @@ public class SchemaRegion {
       mtree.checkTemplateInUseOnLowerNode(node);
       Template template = node.getSchemaTemplate();
       node.setSchemaTemplate(null);
+      DeviceSchemaCache.getInstance().invalidateAll();
       TemplateManager.getInstance()
           .unmarkSchemaRegion(template, storageGroupFullPath, schemaRegionId);
       // write wal
@@ -1752,6 +1761,8 @@ public class SchemaRegion {
     if (node != mountedMNode) {
       mNodeCache.invalidate(mountedMNode.getPartialPath());
     }
+    // devices below the mounted node may be cached with the replaced node
+    DeviceSchemaCache.getInstance().invalidateAll();
     if (!isRecovering) {
       try {
         logWriter.setUsingSchemaTemplate(node.getPartialPath());
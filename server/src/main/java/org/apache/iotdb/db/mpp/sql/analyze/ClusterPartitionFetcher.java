@@ -18,42 +18,289 @@
  */
 package org.apache.iotdb.db.mpp.sql.analyze;
 
+import org.apache.iotdb.commons.cluster.Endpoint;
+import org.apache.iotdb.commons.consensus.ConsensusGroupId;
+import org.apache.iotdb.commons.consensus.DataRegionId;
+import org.apache.iotdb.commons.consensus.SchemaRegionId;
+import org.apache.iotdb.commons.hash.DeviceGroupHashExecutor;
+import org.apache.iotdb.commons.partition.DataNodeLocation;
 import org.apache.iotdb.commons.partition.DataPartition;
 import org.apache.iotdb.commons.partition.DataPartitionQueryParam;
 import org.apache.iotdb.commons.partition.PartitionInfo;
+import org.apache.iotdb.commons.partition.RegionReplicaSet;
 import org.apache.iotdb.commons.partition.SchemaPartition;
+import org.apache.iotdb.commons.partition.SeriesPartitionSlot;
+import org.apache.iotdb.commons.partition.TimePartitionSlot;
+import org.apache.iotdb.confignode.rpc.thrift.ConfigIService;
+import org.apache.iotdb.confignode.rpc.thrift.DataPartitionInfoResp;
+import org.apache.iotdb.confignode.rpc.thrift.DeviceGroupHashInfo;
+import org.apache.iotdb.confignode.rpc.thrift.FetchDataPartitionReq;
+import org.apache.iotdb.confignode.rpc.thrift.FetchSchemaPartitionReq;
+import org.apache.iotdb.confignode.rpc.thrift.RegionInfo;
+import org.apache.iotdb.confignode.rpc.thrift.SchemaPartitionInfoResp;
+import org.apache.iotdb.db.exception.sql.SemanticException;
+import org.apache.iotdb.service.rpc.thrift.EndPoint;
 
+import org.apache.thrift.TException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
+/**
+ * Fetch partitions from ConfigNode through the {@link PartitionCache}. Only the partitions that are
+ * not cached are fetched, and they are fetched in one request for all parameters of a statement.
+ */
 public class ClusterPartitionFetcher implements IPartitionFetcher {
 
+  private static final Logger logger = LoggerFactory.getLogger(ClusterPartitionFetcher.class);
+
+  // the thrift client is not thread-safe, all requests are synchronized on it
+  private final ConfigIService.Iface configNodeClient;
+  private final PartitionCache partitionCache;
+
+  public ClusterPartitionFetcher(ConfigIService.Iface configNodeClient) {
+    this(configNodeClient, PartitionCache.getInstance());
+  }
+
+  ClusterPartitionFetcher(ConfigIService.Iface configNodeClient, PartitionCache partitionCache) {
+    this.configNodeClient = configNodeClient;
+    this.partitionCache = partitionCache;
+  }
+
   @Override
   public DataPartition fetchDataPartitionInfo(DataPartitionQueryParam parameter) {
-    return null;
+    return fetchDataPartitionInfos(Collections.singletonList(parameter));
   }
 
   @Override
   public DataPartition fetchDataPartitionInfos(List<DataPartitionQueryParam> parameterList) {
-    return null;
+    initHashExecutor();
+    long version = partitionCache.getVersion();
+
+    // Map<DeviceGroupID, List<StartTime>> of the partitions that are not cached
+    Map<Integer, Set<Long>> missedSlots = new HashMap<>();
+    for (DataPartitionQueryParam parameter : parameterList) {
+      String device = parameter.getDevicePath();
+      for (TimePartitionSlot timePartitionSlot : parameter.getTimePartitionSlotList()) {
+        if (partitionCache.getDataRegionReplicaSets(device, timePartitionSlot) == null) {
+          missedSlots
+              .computeIfAbsent(
+                  partitionCache.getSeriesPartitionSlot(device).getDeviceGroupId(),
+                  k -> new LinkedHashSet<>())
+              .add(timePartitionSlot.getStartTime());
+        }
+      }
+    }
+    if (!missedSlots.isEmpty()) {
+      Map<Integer, List<Long>> deviceGroupIDToStartTimeMap = new HashMap<>();
+      for (Map.Entry<Integer, Set<Long>> entry : missedSlots.entrySet()) {
+        deviceGroupIDToStartTimeMap.put(entry.getKey(), new ArrayList<>(entry.getValue()));
+      }
+      DataPartitionInfoResp resp;
+      synchronized (configNodeClient) {
+        try {
+          resp =
+              configNodeClient.fetchDataPartitionInfo(
+                  new FetchDataPartitionReq(deviceGroupIDToStartTimeMap));
+        } catch (TException e) {
+          logger.error("Failed to fetch data partitions of {}", deviceGroupIDToStartTimeMap, e);
+          throw new SemanticException("Failed to fetch data partitions: " + e.getMessage());
+        }
+      }
+      if (resp != null && resp.getDataPartitionMap() != null) {
+        partitionCache.updateDataPartition(
+            version, convertDataPartition(resp.getDataPartitionMap()).getDataPartitionMap());
+      }
+    }
+
+    // assemble the result from the cache
+    Map<String, Map<SeriesPartitionSlot, Map<TimePartitionSlot, List<RegionReplicaSet>>>>
+        dataPartitionMap = new HashMap<>();
+    for (DataPartitionQueryParam parameter : parameterList) {
+      String device = parameter.getDevicePath();
+      String storageGroup = partitionCache.getStorageGroup(device);
+      if (storageGroup == null) {
+        continue;
+      }
+      Map<TimePartitionSlot, List<RegionReplicaSet>> timeSlotMap =
+          dataPartitionMap
+              .computeIfAbsent(storageGroup, k -> new HashMap<>())
+              .computeIfAbsent(partitionCache.getSeriesPartitionSlot(device), k -> new HashMap<>());
+      for (TimePartitionSlot timePartitionSlot : parameter.getTimePartitionSlotList()) {
+        List<RegionReplicaSet> regionReplicaSets =
+            partitionCache.getDataRegionReplicaSets(device, timePartitionSlot);
+        if (regionReplicaSets != null) {
+          timeSlotMap.put(timePartitionSlot, regionReplicaSets);
+        }
+      }
+    }
+    DataPartition dataPartition = new DataPartition();
+    dataPartition.setDataPartitionMap(dataPartitionMap);
+    return dataPartition;
   }
 
   @Override
   public SchemaPartition fetchSchemaPartitionInfo(String devicePath) {
-    return null;
+    return fetchSchemaPartitionInfos(Collections.singletonList(devicePath));
   }
 
   @Override
-  public SchemaPartition fetchSchemaPartitionInfos(List<String> devicePath) {
-    return null;
+  public SchemaPartition fetchSchemaPartitionInfos(List<String> devicePaths) {
+    initHashExecutor();
+    long version = partitionCache.getVersion();
+
+    List<String> missedDevices = new ArrayList<>();
+    for (String device : devicePaths) {
+      if (partitionCache.getSchemaRegionReplicaSet(device) == null) {
+        missedDevices.add(device);
+      }
+    }
+    if (!missedDevices.isEmpty()) {
+      SchemaPartitionInfoResp resp;
+      synchronized (configNodeClient) {
+        try {
+          resp =
+              configNodeClient.fetchSchemaPartitionInfo(new FetchSchemaPartitionReq(missedDevices));
+        } catch (TException e) {
+          logger.error("Failed to fetch schema partitions of {}", missedDevices, e);
+          throw new SemanticException("Failed to fetch schema partitions: " + e.getMessage());
+        }
+      }
+      if (resp != null && resp.getSchemaPartitionInfo() != null) {
+        partitionCache.updateSchemaPartition(
+            version, convertSchemaPartition(resp.getSchemaPartitionInfo()));
+      }
+    }
+
+    // assemble the result from the cache
+    SchemaPartition schemaPartition = new SchemaPartition();
+    for (String device : devicePaths) {
+      RegionReplicaSet regionReplicaSet = partitionCache.getSchemaRegionReplicaSet(device);
+      if (regionReplicaSet != null) {
+        schemaPartition.setSchemaRegionReplicaSet(
+            partitionCache.getStorageGroup(device),
+            partitionCache.getSeriesPartitionSlot(device).getDeviceGroupId(),
+            regionReplicaSet);
+      }
+    }
+    return schemaPartition;
   }
 
   @Override
   public PartitionInfo fetchPartitionInfo(DataPartitionQueryParam parameter) {
-    return null;
+    return fetchPartitionInfos(Collections.singletonList(parameter));
   }
 
   @Override
   public PartitionInfo fetchPartitionInfos(List<DataPartitionQueryParam> parameterList) {
-    return null;
+    List<String> devicePaths = new ArrayList<>(parameterList.size());
+    for (DataPartitionQueryParam parameter : parameterList) {
+      devicePaths.add(parameter.getDevicePath());
+    }
+    PartitionInfo partitionInfo = new PartitionInfo();
+    partitionInfo.setDataPartitionInfo(fetchDataPartitionInfos(parameterList));
+    partitionInfo.setSchemaPartitionInfo(fetchSchemaPartitionInfos(devicePaths));
+    return partitionInfo;
+  }
+
+  /** The series slot of a device is calculated locally with the hash executor of ConfigNode. */
+  private void initHashExecutor() {
+    if (partitionCache.isHashExecutorSet()) {
+      return;
+    }
+    synchronized (configNodeClient) {
+      if (partitionCache.isHashExecutorSet()) {
+        return;
+      }
+      DeviceGroupHashInfo hashInfo;
+      try {
+        hashInfo = configNodeClient.getDeviceGroupHashInfo();
+      } catch (TException e) {
+        logger.error("Failed to fetch device group hash info", e);
+        throw new SemanticException("Failed to fetch device group hash info: " + e.getMessage());
+      }
+      try {
+        partitionCache.setHashExecutor(
+            (DeviceGroupHashExecutor)
+                Class.forName(hashInfo.getHashClass())
+                    .getConstructor(int.class)
+                    .newInstance(hashInfo.getDeviceGroupCount()));
+      } catch (ClassNotFoundException
+          | NoSuchMethodException
+          | InstantiationException
+          | IllegalAccessException
+          | InvocationTargetException e) {
+        logger.error("Couldn't construct DeviceGroupHashExecutor {}", hashInfo.getHashClass(), e);
+        throw new SemanticException(
+            "Couldn't construct DeviceGroupHashExecutor " + hashInfo.getHashClass());
+      }
+    }
+  }
+
+  private static DataPartition convertDataPartition(
+      Map<String, Map<Integer, Map<Long, List<RegionInfo>>>> rpcPartition) {
+    Map<String, Map<SeriesPartitionSlot, Map<TimePartitionSlot, List<RegionReplicaSet>>>>
+        dataPartition = new HashMap<>();
+    rpcPartition.forEach(
+        (storageGroup, deviceGroupMap) -> {
+          Map<SeriesPartitionSlot, Map<TimePartitionSlot, List<RegionReplicaSet>>> slotMap =
+              dataPartition.computeIfAbsent(storageGroup, k -> new HashMap<>());
+          deviceGroupMap.forEach(
+              (deviceGroupId, startTimeMap) -> {
+                Map<TimePartitionSlot, List<RegionReplicaSet>> timeSlotMap =
+                    slotMap.computeIfAbsent(
+                        new SeriesPartitionSlot(deviceGroupId), k -> new HashMap<>());
+                startTimeMap.forEach(
+                    (startTime, regionInfos) -> {
+                      List<RegionReplicaSet> regionReplicaSets = new ArrayList<>();
+                      for (RegionInfo regionInfo : regionInfos) {
+                        regionReplicaSets.add(
+                            toRegionReplicaSet(
+                                new DataRegionId(regionInfo.getRegionId()), regionInfo));
+                      }
+                      timeSlotMap.put(new TimePartitionSlot(startTime), regionReplicaSets);
+                    });
+              });
+        });
+    DataPartition result = new DataPartition();
+    result.setDataPartitionMap(dataPartition);
+    return result;
+  }
+
+  private static Map<String, Map<SeriesPartitionSlot, RegionReplicaSet>> convertSchemaPartition(
+      Map<String, Map<Integer, RegionInfo>> rpcPartition) {
+    Map<String, Map<SeriesPartitionSlot, RegionReplicaSet>> schemaPartition = new HashMap<>();
+    rpcPartition.forEach(
+        (storageGroup, deviceGroupMap) -> {
+          Map<SeriesPartitionSlot, RegionReplicaSet> slotMap =
+              schemaPartition.computeIfAbsent(storageGroup, k -> new HashMap<>());
+          deviceGroupMap.forEach(
+              (deviceGroupId, regionInfo) -> {
+                SchemaRegionId regionId = new SchemaRegionId(regionInfo.getRegionId());
+                slotMap.put(
+                    new SeriesPartitionSlot(deviceGroupId),
+                    toRegionReplicaSet(regionId, regionInfo));
+              });
+        });
+    return schemaPartition;
+  }
+
+  private static RegionReplicaSet toRegionReplicaSet(
+      ConsensusGroupId regionId, RegionInfo regionInfo) {
+    List<DataNodeLocation> dataNodeList = new ArrayList<>();
+    for (EndPoint endPoint : regionInfo.getEndPointList()) {
+      // the region info only carries the endpoints of the DataNodes
+      Endpoint endpoint = new Endpoint(endPoint.getIp(), endPoint.getPort());
+      dataNodeList.add(new DataNodeLocation(-1, endpoint));
+    }
+    return new RegionReplicaSet(regionId, dataNodeList);
   }
 }
@@ -0,0 +1,230 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.mpp.sql.analyze;
+
+import org.apache.iotdb.commons.hash.DeviceGroupHashExecutor;
+import org.apache.iotdb.commons.partition.RegionReplicaSet;
+import org.apache.iotdb.commons.partition.SeriesPartitionSlot;
+import org.apache.iotdb.commons.partition.TimePartitionSlot;
+import org.apache.iotdb.tsfile.common.constant.TsFileConstant;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * This class caches the partitions fetched from ConfigNode on the DataNode, so that analyzing a
+ * statement only asks ConfigNode for the partitions that have not been seen before.
+ *
+ * <p>An allocated partition stays valid until a region is migrated or a storage group is deleted.
+ * When this happens, ConfigNode pushes a newer partition version and the whole cache is dropped.
+ * Partitions fetched under an older version are discarded instead of being cached.
+ */
+public class PartitionCache {
+
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+  private long version = 0;
+
+  // Map<StorageGroup, Map<SeriesPartitionSlot, SchemaRegionReplicaSet>>
+  private final Map<String, Map<SeriesPartitionSlot, RegionReplicaSet>> schemaPartitionCache =
+      new HashMap<>();
+
+  // Map<StorageGroup, Map<SeriesPartitionSlot, Map<TimePartitionSlot, DataRegionReplicaSets>>>
+  private Map<String, Map<SeriesPartitionSlot, Map<TimePartitionSlot, List<RegionReplicaSet>>>>
+      dataPartitionCache = new HashMap<>();
+
+  private volatile DeviceGroupHashExecutor hashExecutor;
+
+  PartitionCache() {}
+
+  public static PartitionCache getInstance() {
+    return PartitionCacheHolder.INSTANCE;
+  }
+
+  public boolean isHashExecutorSet() {
+    return hashExecutor != null;
+  }
+
+  public void setHashExecutor(DeviceGroupHashExecutor hashExecutor) {
+    this.hashExecutor = hashExecutor;
+  }
+
+  public SeriesPartitionSlot getSeriesPartitionSlot(String device) {
+    return new SeriesPartitionSlot(hashExecutor.getDeviceGroupID(device));
+  }
+
+  /** @return the version that partitions fetched from now on should be cached with */
+  public long getVersion() {
+    lock.readLock().lock();
+    try {
+      return version;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /** @return the storage group of the device if any partition of it is cached, otherwise null */
+  public String getStorageGroup(String device) {
+    lock.readLock().lock();
+    try {
+      for (String storageGroup : dataPartitionCache.keySet()) {
+        if (belongsTo(device, storageGroup)) {
+          return storageGroup;
+        }
+      }
+      for (String storageGroup : schemaPartitionCache.keySet()) {
+        if (belongsTo(device, storageGroup)) {
+          return storageGroup;
+        }
+      }
+      return null;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /** @return the cached schema region of the device, or null if it is not cached */
+  public RegionReplicaSet getSchemaRegionReplicaSet(String device) {
+    String storageGroup = getStorageGroup(device);
+    if (storageGroup == null) {
+      return null;
+    }
+    SeriesPartitionSlot seriesPartitionSlot = getSeriesPartitionSlot(device);
+    lock.readLock().lock();
+    try {
+      Map<SeriesPartitionSlot, RegionReplicaSet> storageGroupMap =
+          schemaPartitionCache.get(storageGroup);
+      return storageGroupMap == null ? null : storageGroupMap.get(seriesPartitionSlot);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /** @return the cached data regions of the device in the time slot, or null if not cached */
+  public List<RegionReplicaSet> getDataRegionReplicaSets(
+      String device, TimePartitionSlot timePartitionSlot) {
+    String storageGroup = getStorageGroup(device);
+    if (storageGroup == null) {
+      return null;
+    }
+    SeriesPartitionSlot seriesPartitionSlot = getSeriesPartitionSlot(device);
+    lock.readLock().lock();
+    try {
+      Map<SeriesPartitionSlot, Map<TimePartitionSlot, List<RegionReplicaSet>>> storageGroupMap =
+          dataPartitionCache.get(storageGroup);
+      if (storageGroupMap == null) {
+        return null;
+      }
+      Map<TimePartitionSlot, List<RegionReplicaSet>> timeSlotMap =
+          storageGroupMap.get(seriesPartitionSlot);
+      return timeSlotMap == null ? null : timeSlotMap.get(timePartitionSlot);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Cache the schema partitions fetched under the given version.
+   *
+   * @return false if the cache has been invalidated after the partitions were fetched
+   */
+  public boolean updateSchemaPartition(
+      long fetchVersion, Map<String, Map<SeriesPartitionSlot, RegionReplicaSet>> schemaPartition) {
+    lock.writeLock().lock();
+    try {
+      if (fetchVersion != version) {
+        return false;
+      }
+      schemaPartition.forEach(
+          (storageGroup, slotMap) ->
+              schemaPartitionCache
+                  .computeIfAbsent(storageGroup, k -> new HashMap<>())
+                  .putAll(slotMap));
+      return true;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Cache the data partitions fetched under the given version.
+   *
+   * @return false if the cache has been invalidated after the partitions were fetched
+   */
+  public boolean updateDataPartition(
+      long fetchVersion,
+      Map<String, Map<SeriesPartitionSlot, Map<TimePartitionSlot, List<RegionReplicaSet>>>>
+          dataPartition) {
+    lock.writeLock().lock();
+    try {
+      if (fetchVersion != version) {
+        return false;
+      }
+      dataPartition.forEach(
+          (storageGroup, slotMap) -> {
+            Map<SeriesPartitionSlot, Map<TimePartitionSlot, List<RegionReplicaSet>>>
+                storageGroupMap =
+                    dataPartitionCache.computeIfAbsent(storageGroup, k -> new HashMap<>());
+            slotMap.forEach(
+                (seriesPartitionSlot, timeSlotMap) ->
+                    storageGroupMap
+                        .computeIfAbsent(seriesPartitionSlot, k -> new HashMap<>())
+                        .putAll(timeSlotMap));
+          });
+      return true;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Drop all cached partitions if the given version is newer than the cached one.
+   *
+   * @return true if the cache was dropped
+   */
+  public boolean invalidateAll(long newVersion) {
+    lock.writeLock().lock();
+    try {
+      if (newVersion <= version) {
+        return false;
+      }
+      version = newVersion;
+      schemaPartitionCache.clear();
+      dataPartitionCache.clear();
+      return true;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  private static boolean belongsTo(String device, String storageGroup) {
+    return device.startsWith(storageGroup)
+        && (device.length() == storageGroup.length()
+            || device.charAt(storageGroup.length()) == TsFileConstant.PATH_SEPARATOR_CHAR);
+  }
+
+  /** singleton pattern. */
+  private static class PartitionCacheHolder {
+
+    private static final PartitionCache INSTANCE = new PartitionCache();
+  }
+}
@@ -30,17 +30,20 @@ import org.apache.iotdb.db.auth.entity.PrivilegeType;
 import org.apache.iotdb.db.auth.entity.Role;
 import org.apache.iotdb.db.auth.entity.User;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.conf.directories.DirectoryManager;
 import org.apache.iotdb.db.engine.StorageEngine;
 import org.apache.iotdb.db.engine.cache.ChunkCache;
 import org.apache.iotdb.db.engine.cache.TimeSeriesMetadataCache;
 import org.apache.iotdb.db.engine.cq.ContinuousQueryService;
 import org.apache.iotdb.db.engine.flush.pool.FlushTaskPoolManager;
+import org.apache.iotdb.db.engine.modification.ModificationFile;
 import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
 import org.apache.iotdb.db.engine.storagegroup.TsFileResourceStatus;
 import org.apache.iotdb.db.engine.storagegroup.VirtualStorageGroupProcessor.TimePartitionFilter;
 import org.apache.iotdb.db.engine.trigger.service.TriggerRegistrationService;
 import org.apache.iotdb.db.exception.BatchProcessException;
 import org.apache.iotdb.db.exception.ContinuousQueryException;
+import org.apache.iotdb.db.exception.DiskSpaceInsufficientException;
 import org.apache.iotdb.db.exception.QueryIdNotExsitException;
 import org.apache.iotdb.db.exception.StorageEngineException;
 import org.apache.iotdb.db.exception.TriggerExecutionException;
@@ -141,6 +144,7 @@ import org.apache.iotdb.db.query.udf.service.UDFRegistrationInformation;
 import org.apache.iotdb.db.query.udf.service.UDFRegistrationService;
 import org.apache.iotdb.db.service.IoTDB;
 import org.apache.iotdb.db.service.SettleService;
+import org.apache.iotdb.db.tools.TsFileDeviceSplitTool;
 import org.apache.iotdb.db.tools.TsFileRewriteTool;
 import org.apache.iotdb.db.utils.AuthUtils;
 import org.apache.iotdb.db.utils.FileLoaderUtils;
@@ -175,6 +179,7 @@ import org.slf4j.LoggerFactory;
 import java.io.File;
 import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
+import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -1317,8 +1322,27 @@ public class PlanExecutor implements IPlanExecutor {
         splitResources.add(tsFileResource);
       }
 
-      for (TsFileResource resource : splitResources) {
-        StorageEngine.getInstance().loadNewTsFile(resource);
+      List<TsFileResource> loadResources = new ArrayList<>();
+      List<TsFileResource> deviceSplitResources = new ArrayList<>();
+      List<File> deviceSplitFiles = new ArrayList<>();
+      try {
+        for (TsFileResource resource : splitResources) {
+          if (splitByUnsequenceDevices(resource, loadResources, deviceSplitFiles)) {
+            deviceSplitResources.add(resource);
+          }
+        }
+        StorageEngine.getInstance().loadNewTsFiles(loadResources);
+      } catch (Exception e) {
+        // the split files are only copies, the files they are copied from are kept for a retry
+        for (File deviceSplitFile : deviceSplitFiles) {
+          deleteDeviceSplitFile(deviceSplitFile);
+        }
+        throw e;
+      }
+
+      // like a file loaded as a whole, a split file is gone from where it was loaded from
+      for (TsFileResource resource : deviceSplitResources) {
+        resource.remove();
       }
     } catch (Exception e) {
       logger.error("fail to load file {}", file.getName(), e);
@@ -1327,6 +1351,74 @@ public class PlanExecutor implements IPlanExecutor {
     }
   }
 
+  /**
+   * If only some devices of the file keep it out of the sequence list of the storage group, copy
+   * the chunks of these devices and of the others into two new files. The latter fits at one
+   * position of the sequence list, so it is still loaded as a sequence file instead of making the
+   * whole file unsequence. The overlapping chunks themselves are copied as they are and left to
+   * compaction. Files with modifications are not split. The new files are written under a data
+   * directory, so they are moved rather than copied when loaded, and never show up in the
+   * directory being loaded.
+   *
+   * @param loadResources the files to be loaded are appended to it
+   * @param deviceSplitFiles the new files are appended to it before they are written
+   * @return whether the file is split
+   */
+  private boolean splitByUnsequenceDevices(
+      TsFileResource resource, List<TsFileResource> loadResources, List<File> deviceSplitFiles)
+      throws IOException, StorageEngineException, MetadataException,
+          DiskSpaceInsufficientException {
+    Set<String> devices = resource.getDevices();
+    Set<String> unsequenceDevices = StorageEngine.getInstance().getUnsequenceDevices(resource);
+    if (unsequenceDevices.isEmpty()
+        || unsequenceDevices.size() == devices.size()
+        || new File(resource.getTsFilePath() + ModificationFile.FILE_SUFFIX).exists()) {
+      loadResources.add(resource);
+      return false;
+    }
+    Set<String> otherDevices = new HashSet<>(devices);
+    otherDevices.removeAll(unsequenceDevices);
+
+    File tsFile = resource.getTsFile();
+    File splitDir =
+        new File(
+            new File(DirectoryManager.getInstance().getNextFolderForSequenceFile()).getParentFile(),
+            IoTDBConstant.LOAD_SPLIT_FOLDER_NAME);
+    File seqFile =
+        new File(
+            splitDir, IoTDBConstant.SEQUENCE_FLODER_NAME + File.separator + tsFile.getName());
+    File unseqFile =
+        new File(
+            splitDir, IoTDBConstant.UNSEQUENCE_FLODER_NAME + File.separator + tsFile.getName());
+    logger.info(
+        "split the tsFile={} as {} of its {} devices cannot be loaded as sequence data",
+        tsFile.getPath(),
+        unsequenceDevices.size(),
+        devices.size());
+    try (TsFileSequenceReader reader = new TsFileSequenceReader(tsFile.getAbsolutePath())) {
+      deviceSplitFiles.add(seqFile);
+      loadResources.add(
+          TsFileDeviceSplitTool.copyDevices(reader, otherDevices, seqFile, resource));
+      deviceSplitFiles.add(unseqFile);
+      loadResources.add(
+          TsFileDeviceSplitTool.copyDevices(reader, unsequenceDevices, unseqFile, resource));
+    }
+    return true;
+  }
+
+  /** Delete a file written by {@link #splitByUnsequenceDevices} with its .resource file. */
+  private void deleteDeviceSplitFile(File deviceSplitFile) {
+    String[] suffixes = {"", TsFileResource.RESOURCE_SUFFIX, ModificationFile.FILE_SUFFIX};
+    for (String suffix : suffixes) {
+      File file = new File(deviceSplitFile.getAbsolutePath() + suffix);
+      try {
+        Files.deleteIfExists(file.toPath());
+      } catch (IOException e) {
+        logger.warn("Cannot delete {} after a failed load", file, e);
+      }
+    }
+  }
+
   private void loadNewTsFileVerifyMetadata(TsFileSequenceReader tsFileSequenceReader)
       throws MetadataException, QueryProcessException, IOException {
     Map<String, List<TimeseriesMetadata>> metadataSet =
@@ -146,11 +146,7 @@ public class AggregationPlan extends RawDataQueryPlan {
       groupPathsResultMap.clear();
     }
     for (int i = 0; i < getDeduplicatedPaths().size(); i++) {
-      String rawPath =
-          String.format(
-              "%s(%s)",
-              deduplicatedAggregations.get(i), getDeduplicatedPaths().get(i).getFullPath());
-      String transformedPath = groupByLevelController.getGroupedPath(rawPath);
+      String transformedPath = getGroupedPath(i);
       AggregateResult result = groupPathsResultMap.get(transformedPath);
       if (result == null) {
         groupPathsResultMap.put(transformedPath, aggregateResults.get(i).clone());
@@ -162,6 +158,18 @@ public class AggregationPlan extends RawDataQueryPlan {
     return groupPathsResultMap;
   }
 
+  /**
+   * @param index index of a deduplicated path and its aggregation
+   * @return the result column that the aggregation over the path is grouped into by level
+   */
+  public String getGroupedPath(int index) {
+    String rawPath =
+        String.format(
+            "%s(%s)",
+            deduplicatedAggregations.get(index), getDeduplicatedPaths().get(index).getFullPath());
+    return groupByLevelController.getGroupedPath(rawPath);
+  }
+
   @Override
   public boolean isGroupByLevel() {
     return levels != null;
@@ -32,6 +32,7 @@ public enum Metric {
   DATA_WRITTEN,
   DATA_READ,
   COMPACTION_TASK_COUNT,
+  TRIGGER_EVENT,
   CLUSTER_NODE_STATUS,
   CLUSTER_NODE_LEADER_COUNT,
   CLUSTER_ELECT,
@@ -27,6 +27,7 @@ import org.apache.iotdb.db.conf.IoTDBConfig;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.conf.OperationType;
 import org.apache.iotdb.db.engine.selectinto.InsertTabletPlansIterator;
+import org.apache.iotdb.db.engine.selectinto.InsertTabletPlansPipeline;
 import org.apache.iotdb.db.exception.QueryInBatchStatementException;
 import org.apache.iotdb.db.exception.StorageEngineException;
 import org.apache.iotdb.db.exception.metadata.IllegalPathException;
@@ -957,6 +958,15 @@ public class TSServiceImpl implements TSIService.Iface {
               selectIntoPlan.getFromPath(),
               selectIntoPlan.getIntoPaths(),
               selectIntoPlan.isIntoPathsAligned());
+      if (CONFIG.isEnableSelectIntoPipeline()) {
+        TSStatus executionStatus =
+            new InsertTabletPlansPipeline(
+                    insertTabletPlansIterator,
+                    insertTabletPlans -> insertTabletsInternally(insertTabletPlans, sessionId))
+                .execute();
+        return RpcUtils.getTSExecuteStatementResp(executionStatus).setQueryId(queryId);
+      }
+
       while (insertTabletPlansIterator.hasNext()) {
         List<InsertTabletPlan> insertTabletPlans = insertTabletPlansIterator.next();
         if (insertTabletPlans.isEmpty()) {
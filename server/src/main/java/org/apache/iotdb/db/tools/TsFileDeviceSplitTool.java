@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.tools;
+
+import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
+import org.apache.iotdb.db.engine.storagegroup.TsFileResourceStatus;
+import org.apache.iotdb.tsfile.file.metadata.ChunkMetadata;
+import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
+import org.apache.iotdb.tsfile.write.writer.TsFileIOWriter;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * TsFileDeviceSplitTool copies the data of some devices of a TsFile into a new TsFile. Chunks are
+ * copied as they are, without decoding any page, so loading a TsFile whose devices partly overlap
+ * the existing data only costs one sequential copy of the file.
+ */
+public class TsFileDeviceSplitTool {
+
+  private static final Logger logger = LoggerFactory.getLogger(TsFileDeviceSplitTool.class);
+
+  private TsFileDeviceSplitTool() {}
+
+  /**
+   * Copy all chunks of the given devices into the target file and generate its resource. The
+   * chunks of a device are written into one chunk group in the order they appear in the source
+   * file, which keeps the time chunks and value chunks of aligned devices paired.
+   *
+   * @param reader reader of the source file
+   * @param devices devices to be copied, all of them must be in the source file
+   * @param targetFile the new TsFile, its .resource file is generated as well
+   * @param sourceResource resource of the source file, whose plan indexes are inherited
+   * @return the closed resource of the new file
+   */
+  public static TsFileResource copyDevices(
+      TsFileSequenceReader reader,
+      Collection<String> devices,
+      File targetFile,
+      TsFileResource sourceResource)
+      throws IOException {
+    if (!targetFile.getParentFile().exists()) {
+      targetFile.getParentFile().mkdirs();
+    }
+    TsFileResource targetResource = new TsFileResource(targetFile);
+    try (TsFileIOWriter writer = new TsFileIOWriter(targetFile)) {
+      for (String device : devices) {
+        List<ChunkMetadata> chunkMetadataList = new ArrayList<>();
+        for (List<ChunkMetadata> seriesChunks : reader.readChunkMetadataInDevice(device).values()) {
+          chunkMetadataList.addAll(seriesChunks);
+        }
+        if (chunkMetadataList.isEmpty()) {
+          continue;
+        }
+        chunkMetadataList.sort(Comparator.comparingLong(ChunkMetadata::getOffsetOfChunkHeader));
+
+        writer.startChunkGroup(device);
+        for (ChunkMetadata chunkMetadata : chunkMetadataList) {
+          writer.writeChunk(reader.readMemChunk(chunkMetadata), chunkMetadata);
+          targetResource.updateStartTime(device, chunkMetadata.getStartTime());
+          targetResource.updateEndTime(device, chunkMetadata.getEndTime());
+        }
+        writer.endChunkGroup();
+      }
+      writer.endFile();
+    }
+    targetResource.updatePlanIndexes(sourceResource);
+    targetResource.setStatus(TsFileResourceStatus.CLOSED);
+    targetResource.serialize();
+    logger.info(
+        "Copied {} devices of {} into {}", devices.size(), reader.getFileName(), targetFile);
+    return targetResource;
+  }
+}
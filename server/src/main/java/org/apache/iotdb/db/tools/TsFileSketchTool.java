@@ -35,7 +35,7 @@ import org.apache.iotdb.tsfile.fileSystem.FSFactoryProducer;
 import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
 import org.apache.iotdb.tsfile.read.common.Chunk;
 import org.apache.iotdb.tsfile.read.common.Path;
-import org.apache.iotdb.tsfile.utils.BloomFilter;
+import org.apache.iotdb.tsfile.utils.IBloomFilter;
 import org.apache.iotdb.tsfile.utils.Pair;
 
 import java.io.FileWriter;
@@ -162,7 +162,7 @@ public class TsFileSketchTool {
               + tsFileMetaData.getMetadataIndex().getChildren().size()
               + " key&TsMetadataIndex");
       // bloom filter
-      BloomFilter bloomFilter = tsFileMetaData.getBloomFilter();
+      IBloomFilter bloomFilter = tsFileMetaData.getBloomFilter();
       printlnBoth(
           pw,
           String.format("%20s", "")
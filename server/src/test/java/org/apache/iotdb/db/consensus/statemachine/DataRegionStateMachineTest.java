@@ -0,0 +1,110 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.consensus.statemachine;
+
+import org.apache.iotdb.db.exception.metadata.IllegalPathException;
+import org.apache.iotdb.db.metadata.path.PartialPath;
+import org.apache.iotdb.db.mpp.common.DataRegion;
+import org.apache.iotdb.db.mpp.common.PlanFragmentId;
+import org.apache.iotdb.db.mpp.sql.planner.plan.FragmentInstance;
+import org.apache.iotdb.db.mpp.sql.planner.plan.PlanFragment;
+import org.apache.iotdb.db.mpp.sql.planner.plan.node.PlanNodeId;
+import org.apache.iotdb.db.mpp.sql.planner.plan.node.write.InsertRowNode;
+import org.apache.iotdb.rpc.TSStatusCode;
+import org.apache.iotdb.service.rpc.thrift.TSStatus;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class DataRegionStateMachineTest {
+
+  private final ExecutorService applyPool = Executors.newFixedThreadPool(4);
+
+  @After
+  public void tearDown() {
+    applyPool.shutdownNow();
+  }
+
+  @Test
+  public void testParallelApplyWithBarrier() throws Exception {
+    CountDownLatch blockD1 = new CountDownLatch(1);
+    List<String> applied = Collections.synchronizedList(new ArrayList<>());
+    DataRegionStateMachine stateMachine =
+        new DataRegionStateMachine(new DataRegion(1, "127.0.0.1:6667"), applyPool) {
+          @Override
+          protected TSStatus write(FragmentInstance fragmentInstance) {
+            String name = fragmentInstance.getFragment().getRoot().getId().getId();
+            if (name.equals("d1")) {
+              try {
+                blockD1.await();
+              } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+              }
+            }
+            applied.add(name);
+            return new TSStatus(TSStatusCode.SUCCESS_STATUS.getStatusCode());
+          }
+        };
+
+    CompletableFuture<TSStatus> d1 = stateMachine.writeAsync(createInsert("d1", "root.sg.d1"));
+    CompletableFuture<TSStatus> d2 = stateMachine.writeAsync(createInsert("d2", "root.sg.d2"));
+    // an insert to another device does not wait for the blocked one
+    d2.get(10, TimeUnit.SECONDS);
+    assertFalse(d1.isDone());
+
+    CompletableFuture<TSStatus> barrier = stateMachine.writeAsync(createInsert("barrier", null));
+    CompletableFuture<TSStatus> d2Again =
+        stateMachine.writeAsync(createInsert("d2Again", "root.sg.d2"));
+    assertFalse(barrier.isDone());
+    assertFalse(d2Again.isDone());
+
+    blockD1.countDown();
+    assertEquals(
+        TSStatusCode.SUCCESS_STATUS.getStatusCode(), d2Again.get(10, TimeUnit.SECONDS).getCode());
+    assertEquals(4, applied.size());
+    assertEquals(applied.indexOf("d1") + 1, applied.indexOf("barrier"));
+    assertEquals(3, applied.indexOf("d2Again"));
+  }
+
+  private FragmentInstance createInsert(String name, String device) throws IllegalPathException {
+    InsertRowNode insertRowNode =
+        new InsertRowNode(
+            new PlanNodeId(name),
+            device == null ? null : new PartialPath(device),
+            false,
+            null,
+            null,
+            1L,
+            null);
+    return new FragmentInstance(
+        new PlanFragment(new PlanFragmentId("query", 0), insertRowNode), 0);
+  }
+}
@@ -24,7 +24,7 @@ import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
 import org.apache.iotdb.tsfile.fileSystem.FSFactoryProducer;
 import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
 import org.apache.iotdb.tsfile.read.common.Path;
-import org.apache.iotdb.tsfile.utils.BloomFilter;
+import org.apache.iotdb.tsfile.utils.IBloomFilter;
 import org.apache.iotdb.tsfile.write.TsFileWriter;
 import org.apache.iotdb.tsfile.write.record.Tablet;
 import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
@@ -88,10 +88,10 @@ public class BloomFilterCacheTest {
   public void testGet() {
     try {
       for (String filePath : pathList) {
-        BloomFilter bloomFilter =
+        IBloomFilter bloomFilter =
             bloomFilterCache.get(new BloomFilterCache.BloomFilterCacheKey(filePath));
         TsFileSequenceReader reader = FileReaderManager.getInstance().get(filePath, true);
-        BloomFilter bloomFilter1 = reader.readBloomFilter();
+        IBloomFilter bloomFilter1 = reader.readBloomFilter();
         Assert.assertEquals(bloomFilter1, bloomFilter);
         reader.close();
       }
@@ -106,9 +106,9 @@ public class BloomFilterCacheTest {
     try {
       String path = pathList.get(0);
       BloomFilterCache.BloomFilterCacheKey key = new BloomFilterCache.BloomFilterCacheKey(path);
-      BloomFilter bloomFilter = bloomFilterCache.get(key);
+      IBloomFilter bloomFilter = bloomFilterCache.get(key);
       TsFileSequenceReader reader = FileReaderManager.getInstance().get(path, true);
-      BloomFilter bloomFilter1 = reader.readBloomFilter();
+      IBloomFilter bloomFilter1 = reader.readBloomFilter();
       Assert.assertEquals(bloomFilter1, bloomFilter);
       bloomFilterCache.remove(key);
       bloomFilter = bloomFilterCache.getIfPresent(key);
@@ -125,16 +125,16 @@ public class BloomFilterCacheTest {
     try {
       for (String path : pathList) {
         BloomFilterCache.BloomFilterCacheKey key = new BloomFilterCache.BloomFilterCacheKey(path);
-        BloomFilter bloomFilter = bloomFilterCache.get(key);
+        IBloomFilter bloomFilter = bloomFilterCache.get(key);
         TsFileSequenceReader reader = FileReaderManager.getInstance().get(path, true);
-        BloomFilter bloomFilter1 = reader.readBloomFilter();
+        IBloomFilter bloomFilter1 = reader.readBloomFilter();
         Assert.assertEquals(bloomFilter1, bloomFilter);
         reader.close();
       }
       bloomFilterCache.clear();
       for (String path : pathList) {
         BloomFilterCache.BloomFilterCacheKey key = new BloomFilterCache.BloomFilterCacheKey(path);
-        BloomFilter bloomFilter = bloomFilterCache.getIfPresent(key);
+        IBloomFilter bloomFilter = bloomFilterCache.getIfPresent(key);
         Assert.assertNull(bloomFilter);
       }
     } catch (IOException e) {
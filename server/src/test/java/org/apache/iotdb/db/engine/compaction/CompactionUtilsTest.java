@@ -32,8 +32,14 @@ import org.apache.iotdb.db.query.reader.series.SeriesRawDataBatchReader;
 import org.apache.iotdb.db.utils.EnvironmentUtils;
 import org.apache.iotdb.tsfile.common.conf.TSFileDescriptor;
 import org.apache.iotdb.tsfile.exception.write.WriteProcessException;
+import org.apache.iotdb.tsfile.file.header.PageHeader;
+import org.apache.iotdb.tsfile.file.metadata.ChunkMetadata;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
 import org.apache.iotdb.tsfile.read.common.BatchData;
+import org.apache.iotdb.tsfile.read.common.Chunk;
+import org.apache.iotdb.tsfile.read.common.Path;
 import org.apache.iotdb.tsfile.read.reader.IBatchReader;
 import org.apache.iotdb.tsfile.utils.Pair;
 import org.apache.iotdb.tsfile.utils.TsFileGeneratorUtils;
@@ -47,6 +53,7 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
@@ -55,6 +62,7 @@ import java.util.Map;
 
 import static org.apache.iotdb.commons.conf.IoTDBConstant.PATH_SEPARATOR;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 public class CompactionUtilsTest extends AbstractCompactionTest {
   private final String oldThreadName = Thread.currentThread().getName();
@@ -1751,6 +1759,251 @@ public class CompactionUtilsTest extends AbstractCompactionTest {
     assertEquals(500, count);
   }
 
+  /**
+   * Total 5 seq files and 1 unseq file, each file has the same nonAligned timeseries. The unseq
+   * file only overlaps the first seq file, so the chunks of the other seq files are copied as they
+   * are.
+   */
+  @Test
+  public void testCrossSpaceCompactionWithChunkPassthrough()
+      throws IOException, WriteProcessException, MetadataException, StorageEngineException,
+          InterruptedException {
+    registerTimeseriesInMManger(2, 3, false);
+    createFiles(5, 2, 3, 100, 0, 0, 0, 0, false, true);
+    createFiles(1, 2, 3, 50, 0, 10000, 0, 0, false, false);
+
+    List<TsFileResource> targetResources =
+        CompactionFileGeneratorUtils.getCrossCompactionTargetTsFileResources(seqResources);
+    CompactionUtils.compact(seqResources, unseqResources, targetResources);
+    CompactionUtils.moveTargetFile(targetResources, false, COMPACTION_TEST_SG);
+
+    PartialPath path =
+        new MeasurementPath(
+            COMPACTION_TEST_SG + PATH_SEPARATOR + "d1",
+            "s1",
+            new MeasurementSchema("s1", TSDataType.INT64));
+    IBatchReader tsFilesReader =
+        new SeriesRawDataBatchReader(
+            path,
+            TSDataType.INT64,
+            EnvironmentUtils.TEST_QUERY_CONTEXT,
+            targetResources,
+            new ArrayList<>(),
+            null,
+            null,
+            true);
+    int count = 0;
+    while (tsFilesReader.hasNextBatch()) {
+      BatchData batchData = tsFilesReader.nextBatch();
+      while (batchData.hasCurrent()) {
+        assertEquals(count, batchData.currentTime());
+        if (batchData.currentTime() < 50) {
+          assertEquals(batchData.currentTime() + 10000, batchData.currentValue());
+        } else {
+          assertEquals(batchData.currentTime(), batchData.currentValue());
+        }
+        count++;
+        batchData.next();
+      }
+    }
+    tsFilesReader.close();
+    assertEquals(500, count);
+
+    // the chunks of the seq files not overlapped by the unseq file are kept as they are
+    Path seriesPath = new Path(COMPACTION_TEST_SG + PATH_SEPARATOR + "d1", "s1");
+    for (int i = 1; i < seqResources.size(); i++) {
+      try (TsFileSequenceReader seqReader =
+              new TsFileSequenceReader(seqResources.get(i).getTsFilePath());
+          TsFileSequenceReader targetReader =
+              new TsFileSequenceReader(targetResources.get(i).getTsFilePath())) {
+        List<ChunkMetadata> seqChunks = seqReader.getChunkMetadataList(seriesPath);
+        List<ChunkMetadata> targetChunks = targetReader.getChunkMetadataList(seriesPath);
+        assertEquals(seqChunks.size(), targetChunks.size());
+        for (int j = 0; j < seqChunks.size(); j++) {
+          assertEquals(seqChunks.get(j).getStatistics(), targetChunks.get(j).getStatistics());
+          assertEquals(
+              seqReader.readMemChunk(seqChunks.get(j)).getData(),
+              targetReader.readMemChunk(targetChunks.get(j)).getData());
+        }
+      }
+    }
+  }
+
+  /**
+   * Total 2 seq files and 1 unseq file, each file has the same nonAligned timeseries. Each chunk of
+   * the first seq file has 10 pages and the unseq file only overlaps the page of 90 ~ 119, so the
+   * other pages are copied as they are and the overlapped page is rewritten from decoded points in
+   * the same chunk.
+   */
+  @Test
+  public void testCrossSpaceCompactionWithPagePassthrough()
+      throws IOException, WriteProcessException, MetadataException, StorageEngineException,
+          InterruptedException {
+    createPagePassthroughFiles();
+
+    List<TsFileResource> targetResources =
+        CompactionFileGeneratorUtils.getCrossCompactionTargetTsFileResources(seqResources);
+    CompactionUtils.compact(seqResources, unseqResources, targetResources);
+    CompactionUtils.moveTargetFile(targetResources, false, COMPACTION_TEST_SG);
+
+    for (int i = 0; i < 2; i++) {
+      for (int j = 0; j < 3; j++) {
+        PartialPath path =
+            new MeasurementPath(
+                COMPACTION_TEST_SG + PATH_SEPARATOR + "d" + i,
+                "s" + j,
+                new MeasurementSchema("s" + j, TSDataType.INT64));
+        IBatchReader tsFilesReader =
+            new SeriesRawDataBatchReader(
+                path,
+                TSDataType.INT64,
+                EnvironmentUtils.TEST_QUERY_CONTEXT,
+                targetResources,
+                new ArrayList<>(),
+                null,
+                null,
+                true);
+        int count = 0;
+        while (tsFilesReader.hasNextBatch()) {
+          BatchData batchData = tsFilesReader.nextBatch();
+          while (batchData.hasCurrent()) {
+            assertEquals(count, batchData.currentTime());
+            if (100 <= batchData.currentTime() && batchData.currentTime() < 120) {
+              assertEquals(batchData.currentTime() + 10000, batchData.currentValue());
+            } else {
+              assertEquals(batchData.currentTime(), batchData.currentValue());
+            }
+            count++;
+            batchData.next();
+          }
+        }
+        tsFilesReader.close();
+        assertEquals(600, count);
+      }
+    }
+
+    // the pages not overlapped by the unseq file are kept as they are
+    Path seriesPath = new Path(COMPACTION_TEST_SG + PATH_SEPARATOR + "d0", "s0");
+    Map<Long, ByteBuffer> seqPages = getPagesByStartTime(seqResources.get(0), seriesPath);
+    Map<Long, ByteBuffer> targetPages = getPagesByStartTime(targetResources.get(0), seriesPath);
+    assertEquals(10, seqPages.size());
+    for (Map.Entry<Long, ByteBuffer> seqPage : seqPages.entrySet()) {
+      if (seqPage.getKey() != 90) {
+        assertEquals(seqPage.getValue(), targetPages.get(seqPage.getKey()));
+      }
+    }
+  }
+
+  /**
+   * Total 2 seq files and 1 unseq file, each file has the same nonAligned timeseries. The unseq
+   * file only overlaps the first seq file, and the data of d0.s0 in 350 ~ 369 is deleted in the
+   * second seq file, so the pages of 330 ~ 359 and 360 ~ 389 in that chunk are rewritten and the
+   * other pages are copied as they are.
+   */
+  @Test
+  public void testCrossSpaceCompactionWithPagePassthroughAndDeletion()
+      throws IOException, WriteProcessException, MetadataException, StorageEngineException,
+          InterruptedException {
+    createPagePassthroughFiles();
+    List<String> seriesPaths =
+        Collections.singletonList(
+            COMPACTION_TEST_SG + PATH_SEPARATOR + "d0" + PATH_SEPARATOR + "s0");
+    generateModsFile(seriesPaths, Collections.singletonList(seqResources.get(1)), 350, 369);
+
+    List<TsFileResource> targetResources =
+        CompactionFileGeneratorUtils.getCrossCompactionTargetTsFileResources(seqResources);
+    CompactionUtils.compact(seqResources, unseqResources, targetResources);
+    CompactionUtils.moveTargetFile(targetResources, false, COMPACTION_TEST_SG);
+
+    for (int i = 0; i < 2; i++) {
+      for (int j = 0; j < 3; j++) {
+        PartialPath path =
+            new MeasurementPath(
+                COMPACTION_TEST_SG + PATH_SEPARATOR + "d" + i,
+                "s" + j,
+                new MeasurementSchema("s" + j, TSDataType.INT64));
+        IBatchReader tsFilesReader =
+            new SeriesRawDataBatchReader(
+                path,
+                TSDataType.INT64,
+                EnvironmentUtils.TEST_QUERY_CONTEXT,
+                targetResources,
+                new ArrayList<>(),
+                null,
+                null,
+                true);
+        int count = 0;
+        while (tsFilesReader.hasNextBatch()) {
+          BatchData batchData = tsFilesReader.nextBatch();
+          while (batchData.hasCurrent()) {
+            if (i == 0 && j == 0) {
+              assertTrue(batchData.currentTime() < 350 || batchData.currentTime() > 369);
+            }
+            if (100 <= batchData.currentTime() && batchData.currentTime() < 120) {
+              assertEquals(batchData.currentTime() + 10000, batchData.currentValue());
+            } else {
+              assertEquals(batchData.currentTime(), batchData.currentValue());
+            }
+            count++;
+            batchData.next();
+          }
+        }
+        tsFilesReader.close();
+        assertEquals(i == 0 && j == 0 ? 580 : 600, count);
+      }
+    }
+
+    // the pages of the second seq file without deleted data are kept as they are
+    Path seriesPath = new Path(COMPACTION_TEST_SG + PATH_SEPARATOR + "d0", "s0");
+    Map<Long, ByteBuffer> seqPages = getPagesByStartTime(seqResources.get(1), seriesPath);
+    Map<Long, ByteBuffer> targetPages = getPagesByStartTime(targetResources.get(1), seriesPath);
+    assertEquals(10, seqPages.size());
+    for (Map.Entry<Long, ByteBuffer> seqPage : seqPages.entrySet()) {
+      if (seqPage.getKey() != 330 && seqPage.getKey() != 360) {
+        assertEquals(seqPage.getValue(), targetPages.get(seqPage.getKey()));
+      }
+    }
+  }
+
+  /**
+   * Create 2 seq files with d0 ~ d1 and s0 ~ s2 in time range 0 ~ 299 and 300 ~ 599, whose chunks
+   * have pages of 30 points, and 1 unseq file with the same series in time range 100 ~ 119 and
+   * value range 10100 ~ 10119.
+   */
+  private void createPagePassthroughFiles()
+      throws IOException, WriteProcessException, MetadataException {
+    TSFileDescriptor.getInstance().getConfig().setMaxNumberOfPointsInPage(30);
+    registerTimeseriesInMManger(2, 3, false);
+    // pages are only copied when their compression is the same as the registered series
+    CompressionType oldCompressor = TSFileDescriptor.getInstance().getConfig().getCompressor();
+    TSFileDescriptor.getInstance().getConfig().setCompressor(CompressionType.UNCOMPRESSED.name());
+    try {
+      createFiles(2, 2, 3, 300, 0, 0, 0, 0, false, true);
+      createFiles(1, 2, 3, 20, 100, 10100, 0, 0, false, false);
+    } finally {
+      TSFileDescriptor.getInstance().getConfig().setCompressor(oldCompressor.name());
+    }
+  }
+
+  /** @return the compressed data of each page of the first chunk of the series in the file */
+  private Map<Long, ByteBuffer> getPagesByStartTime(TsFileResource resource, Path seriesPath)
+      throws IOException {
+    Map<Long, ByteBuffer> pages = new HashMap<>();
+    try (TsFileSequenceReader reader = new TsFileSequenceReader(resource.getTsFilePath())) {
+      Chunk chunk = reader.readMemChunk(reader.getChunkMetadataList(seriesPath).get(0));
+      ByteBuffer chunkData = chunk.getData().duplicate();
+      while (chunkData.hasRemaining()) {
+        PageHeader pageHeader =
+            PageHeader.deserializeFrom(chunkData, chunk.getHeader().getDataType());
+        ByteBuffer pageData = chunkData.slice();
+        pageData.limit(pageHeader.getCompressedSize());
+        chunkData.position(chunkData.position() + pageHeader.getCompressedSize());
+        pages.put(pageHeader.getStartTime(), pageData);
+      }
+    }
+    return pages;
+  }
+
   /**
    * Total 5 seq files and 5 unseq files, each file has different nonAligned timeseries.
    *
@@ -0,0 +1,119 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.cq;
+
+import org.apache.iotdb.db.exception.metadata.IllegalPathException;
+import org.apache.iotdb.db.metadata.path.PartialPath;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class IncrementalContinuousQueryStateTest {
+
+  private static final long FOR_INTERVAL = 100;
+  private static final long GROUP_BY_INTERVAL = 10;
+
+  private PartialPath device;
+  private IncrementalContinuousQueryState state;
+
+  @Before
+  public void setUp() throws IllegalPathException {
+    device = new PartialPath("root.sg.d1");
+    state =
+        new IncrementalContinuousQueryState(
+            Collections.singletonList(new PartialPath("root.sg.*")),
+            new PartialPath("root.sg_ds.${2}.${3}"));
+  }
+
+  @Test
+  public void testFirstWindowIsFullyComputed() {
+    List<long[]> timeRanges = execute(100);
+    assertEquals(1, timeRanges.size());
+    assertArrayEquals(new long[] {0, 100}, timeRanges.get(0));
+    assertEquals(100, state.getWatermark());
+  }
+
+  @Test
+  public void testOnlyNewIntervalsWithoutChanges() {
+    execute(100);
+    // inserts after the watermark are covered by the next window anyway
+    state.markDirty(device, new String[] {"s1"}, 100, 120);
+    assertTrue(state.getDirtyRanges().isEmpty());
+
+    List<long[]> timeRanges = execute(120);
+    assertEquals(1, timeRanges.size());
+    assertArrayEquals(new long[] {100, 120}, timeRanges.get(0));
+  }
+
+  @Test
+  public void testDirtyIntervalsAreRecomputed() throws IllegalPathException {
+    execute(100);
+    state.markDirty(device, new String[] {"s1"}, 33, 35);
+    state.markDirty(device, new String[] {"s1"}, 36, 41);
+    state.markDirty(device, new String[] {"s1"}, 95, 95);
+    // not a source series
+    state.markDirty(new PartialPath("root.other.d1"), new String[] {"s1"}, 50, 50);
+    // written by the query itself
+    state.markDirty(new PartialPath("root.sg_ds.d1"), new String[] {"s1"}, 70, 70);
+    assertEquals(2, state.getDirtyRanges().size());
+
+    List<long[]> timeRanges = execute(120);
+    assertEquals(2, timeRanges.size());
+    assertArrayEquals(new long[] {30, 50}, timeRanges.get(0));
+    assertArrayEquals(new long[] {90, 120}, timeRanges.get(1));
+    assertTrue(state.getDirtyRanges().isEmpty());
+  }
+
+  @Test
+  public void testAbortedExecutionIsRetried() {
+    execute(100);
+    state.markDirty(null, null, 40, 45);
+
+    IncrementalContinuousQueryState.Execution execution =
+        state.beginExecution(20, 120, GROUP_BY_INTERVAL);
+    state.abortExecution(execution);
+
+    List<long[]> timeRanges = execute(140);
+    assertEquals(2, timeRanges.size());
+    assertArrayEquals(new long[] {40, 50}, timeRanges.get(0));
+    assertArrayEquals(new long[] {100, 140}, timeRanges.get(1));
+  }
+
+  @Test
+  public void testOutOfOrderWindowIsFullyComputed() {
+    execute(200);
+    List<long[]> timeRanges = execute(150);
+    assertEquals(1, timeRanges.size());
+    assertArrayEquals(new long[] {50, 150}, timeRanges.get(0));
+    assertEquals(200, state.getWatermark());
+  }
+
+  private List<long[]> execute(long windowEnd) {
+    return state
+        .beginExecution(windowEnd - FOR_INTERVAL, windowEnd, GROUP_BY_INTERVAL)
+        .getTimeRanges();
+  }
+}
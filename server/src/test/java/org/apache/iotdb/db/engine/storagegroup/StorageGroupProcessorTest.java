@@ -32,6 +32,7 @@ import org.apache.iotdb.db.engine.flush.FlushManager;
 import org.apache.iotdb.db.engine.flush.TsFileFlushPolicy;
 import org.apache.iotdb.db.engine.querycontext.QueryDataSource;
 import org.apache.iotdb.db.engine.querycontext.ReadOnlyMemChunk;
+import org.apache.iotdb.db.exception.LoadFileException;
 import org.apache.iotdb.db.exception.StorageGroupProcessorException;
 import org.apache.iotdb.db.exception.TriggerExecutionException;
 import org.apache.iotdb.db.exception.WriteProcessException;
@@ -51,7 +52,9 @@ import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
 import org.apache.iotdb.tsfile.read.TimeValuePair;
+import org.apache.iotdb.tsfile.read.common.Path;
 import org.apache.iotdb.tsfile.read.reader.IPointReader;
+import org.apache.iotdb.tsfile.write.TsFileWriter;
 import org.apache.iotdb.tsfile.write.record.TSRecord;
 import org.apache.iotdb.tsfile.write.record.datapoint.DataPoint;
 import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
@@ -66,7 +69,9 @@ import org.slf4j.LoggerFactory;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -923,6 +928,94 @@ public class StorageGroupProcessorTest {
     config.setCloseTsFileIntervalAfterFlushing(prevCloseTsFileInterval);
   }
 
+  @Test
+  public void testLoadNewTsFilesRollback() throws Exception {
+    File loadDir = new File(TestConstant.OUTPUT_DATA_DIR, "load");
+    File firstFile = new File(loadDir, "1-1-0-0.tsfile");
+    File secondFile = new File(loadDir, "2-2-0-0.tsfile");
+    TsFileResource firstResource = createTsFileToLoad(firstFile, 1, 10);
+    TsFileResource secondResource = createTsFileToLoad(secondFile, 11, 20);
+    // the second file cannot be loaded without its .resource file
+    Assert.assertTrue(secondResource.removeResourceFile());
+
+    try {
+      processor.loadNewTsFiles(Arrays.asList(firstResource, secondResource));
+      Assert.fail();
+    } catch (LoadFileException e) {
+      // expected
+    }
+
+    // none of the batch is loaded and all its files are back, so it can be loaded again
+    Assert.assertTrue(processor.getSequenceFileList().isEmpty());
+    Assert.assertTrue(processor.getUnSequenceFileList().isEmpty());
+    Assert.assertTrue(firstFile.exists());
+    Assert.assertTrue(new File(firstFile.getPath() + TsFileResource.RESOURCE_SUFFIX).exists());
+    Assert.assertTrue(secondFile.exists());
+    Assert.assertEquals(firstFile, firstResource.getTsFile());
+    Assert.assertEquals(secondFile, secondResource.getTsFile());
+  }
+
+  @Test
+  public void testGetUnsequenceDevices() throws Exception {
+    String[] localDevices = {deviceId, deviceId + ".d1", deviceId + ".d2", deviceId + ".d3"};
+    for (String localDevice : localDevices) {
+      TSRecord record = new TSRecord(100, localDevice);
+      record.addTuple(DataPoint.getDataPoint(TSDataType.INT32, measurementId, "100"));
+      processor.insert(new InsertRowPlan(record));
+      record = new TSRecord(110, localDevice);
+      record.addTuple(DataPoint.getDataPoint(TSDataType.INT32, measurementId, "110"));
+      processor.insert(new InsertRowPlan(record));
+    }
+    processor.syncCloseAllWorkingTsFileProcessors();
+    Assert.assertEquals(1, processor.getSequenceFileList().size());
+
+    TsFileResource newResource =
+        new TsFileResource(new File(TestConstant.OUTPUT_DATA_DIR, "load/3-3-0-0.tsfile"));
+    // older than the sequence file
+    newResource.updateStartTime(deviceId, 1);
+    newResource.updateEndTime(deviceId, 10);
+    // newer than the sequence file
+    newResource.updateStartTime(deviceId + ".d1", 200);
+    newResource.updateEndTime(deviceId + ".d1", 210);
+    newResource.updateStartTime(deviceId + ".d2", 200);
+    newResource.updateEndTime(deviceId + ".d2", 210);
+    // overlaps the sequence file
+    newResource.updateStartTime(deviceId + ".d3", 105);
+    newResource.updateEndTime(deviceId + ".d3", 106);
+    // not in the sequence file
+    newResource.updateStartTime(deviceId + ".d4", 1);
+    newResource.updateEndTime(deviceId + ".d4", 10);
+    newResource.setStatus(TsFileResourceStatus.CLOSED);
+
+    // only d3 overlaps, but d0 is older and d1, d2 are newer than the same sequence file, so they
+    // cannot be in one sequence file, and the newer ones are kept together with d4
+    Assert.assertEquals(
+        new HashSet<>(Arrays.asList(deviceId, deviceId + ".d3")),
+        processor.getUnsequenceDevices(newResource));
+  }
+
+  private TsFileResource createTsFileToLoad(File file, long startTime, long endTime)
+      throws IOException, org.apache.iotdb.tsfile.exception.write.WriteProcessException {
+    file.getParentFile().mkdirs();
+    try (TsFileWriter writer = new TsFileWriter(file)) {
+      writer.registerTimeseries(
+          new Path(deviceId),
+          new MeasurementSchema(measurementId, TSDataType.INT32, TSEncoding.PLAIN));
+      for (long time = startTime; time <= endTime; time++) {
+        TSRecord record = new TSRecord(time, deviceId);
+        record.addTuple(
+            DataPoint.getDataPoint(TSDataType.INT32, measurementId, String.valueOf(time)));
+        writer.write(record);
+      }
+    }
+    TsFileResource resource = new TsFileResource(file);
+    resource.updateStartTime(deviceId, startTime);
+    resource.updateEndTime(deviceId, endTime);
+    resource.setStatus(TsFileResourceStatus.CLOSED);
+    resource.serialize();
+    return resource;
+  }
+
   class DummySGP extends VirtualStorageGroupProcessor {
 
     DummySGP(String systemInfoDir, String storageGroupName) throws StorageGroupProcessorException {
@@ -0,0 +1,128 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.storagegroup;
+
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.tsfile.common.conf.TSFileDescriptor;
+import org.apache.iotdb.tsfile.compress.ZstdDictionaryRegistry;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.utils.Binary;
+import org.apache.iotdb.tsfile.write.TsFileWriter;
+import org.apache.iotdb.tsfile.write.record.TSRecord;
+import org.apache.iotdb.tsfile.write.record.datapoint.StringDataPoint;
+import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+
+public class ZstdDictionaryManagerTest {
+
+  private static final String STORAGE_GROUP = "root.dictionary_sg";
+
+  private final File tsFile =
+      new File(
+          "target"
+              + File.separator
+              + "data"
+              + File.separator
+              + "sequence"
+              + File.separator
+              + STORAGE_GROUP
+              + File.separator
+              + "0"
+              + File.separator
+              + "0"
+              + File.separator
+              + "1-1-0-0.tsfile");
+
+  private int prevDictionarySize;
+  private int prevMaxNumberOfPointsInPage;
+
+  @Before
+  public void setUp() throws Exception {
+    prevDictionarySize = IoTDBDescriptor.getInstance().getConfig().getZstdDictionarySize();
+    prevMaxNumberOfPointsInPage =
+        TSFileDescriptor.getInstance().getConfig().getMaxNumberOfPointsInPage();
+    IoTDBDescriptor.getInstance().getConfig().setZstdDictionarySize(1024);
+    TSFileDescriptor.getInstance().getConfig().setMaxNumberOfPointsInPage(20);
+    createTsFile();
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    IoTDBDescriptor.getInstance().getConfig().setZstdDictionarySize(prevDictionarySize);
+    TSFileDescriptor.getInstance()
+        .getConfig()
+        .setMaxNumberOfPointsInPage(prevMaxNumberOfPointsInPage);
+    ZstdDictionaryRegistry.getInstance().clear();
+    FileUtils.deleteDirectory(ZstdDictionaryManager.getDictionaryDir(STORAGE_GROUP));
+    FileUtils.deleteQuietly(tsFile);
+  }
+
+  @Test
+  public void testGetStorageGroup() {
+    Assert.assertEquals(STORAGE_GROUP, ZstdDictionaryManager.getStorageGroup(tsFile));
+  }
+
+  @Test
+  public void testTrainAndLoad() {
+    ZstdDictionaryManager.getInstance().trainIfAbsent(new TsFileResource(tsFile), STORAGE_GROUP);
+    Assert.assertNotNull(ZstdDictionaryRegistry.getInstance().getCompressor(STORAGE_GROUP));
+    File[] dictionaryFiles = ZstdDictionaryManager.getDictionaryDir(STORAGE_GROUP).listFiles();
+    Assert.assertNotNull(dictionaryFiles);
+    Assert.assertEquals(1, dictionaryFiles.length);
+
+    // the dictionary is reloaded after a restart
+    ZstdDictionaryRegistry.getInstance().clear();
+    ZstdDictionaryManager.getInstance().loadDictionaries(STORAGE_GROUP);
+    Assert.assertNotNull(ZstdDictionaryRegistry.getInstance().getCompressor(STORAGE_GROUP));
+  }
+
+  @Test
+  public void testTrainDisabled() {
+    IoTDBDescriptor.getInstance().getConfig().setZstdDictionarySize(0);
+    ZstdDictionaryManager.getInstance().trainIfAbsent(new TsFileResource(tsFile), STORAGE_GROUP);
+    Assert.assertNull(ZstdDictionaryRegistry.getInstance().getCompressor(STORAGE_GROUP));
+    Assert.assertFalse(ZstdDictionaryManager.getDictionaryDir(STORAGE_GROUP).exists());
+  }
+
+  private void createTsFile() throws Exception {
+    if (!tsFile.getParentFile().exists()) {
+      Assert.assertTrue(tsFile.getParentFile().mkdirs());
+    }
+    try (TsFileWriter writer = new TsFileWriter(tsFile)) {
+      writer.registerTimeseries(
+          new Path("root.dictionary_sg.d1"),
+          new MeasurementSchema("s1", TSDataType.TEXT, TSEncoding.PLAIN, CompressionType.ZSTD));
+      for (int i = 0; i < 2000; i++) {
+        TSRecord record = new TSRecord(i, "root.dictionary_sg.d1");
+        record.addTuple(new StringDataPoint("s1", new Binary("status=ok,value=" + i)));
+        writer.write(record);
+      }
+    }
+  }
+}
@@ -0,0 +1,140 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.trigger;
+
+import org.apache.iotdb.db.engine.trigger.executor.AsyncTriggerQueue;
+import org.apache.iotdb.db.engine.trigger.executor.TriggerEvent;
+import org.apache.iotdb.db.engine.trigger.executor.TriggerExecutor;
+import org.apache.iotdb.db.engine.trigger.service.TriggerRegistrationService;
+import org.apache.iotdb.db.metadata.idtable.trigger_example.Counter;
+import org.apache.iotdb.db.metadata.path.PartialPath;
+import org.apache.iotdb.db.qp.Planner;
+import org.apache.iotdb.db.qp.physical.sys.CreateTriggerPlan;
+import org.apache.iotdb.db.qp.physical.sys.DropTriggerPlan;
+import org.apache.iotdb.db.service.IoTDB;
+import org.apache.iotdb.db.utils.EnvironmentUtils;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class AsyncTriggerTest {
+
+  private static final String SERIES = "root.sg.d1.s1";
+  private static final int ROW_NUM = 1000;
+  private static final int TABLET_NUM = 100;
+  private static final int TABLET_SIZE = 10;
+  private static final long TIMEOUT_IN_MS = 10_000;
+
+  private final Planner planner = new Planner();
+
+  @Before
+  public void setUp() throws Exception {
+    EnvironmentUtils.envSetUp();
+    IoTDB.schemaProcessor.setStorageGroup(new PartialPath("root.sg"));
+    IoTDB.schemaProcessor.createTimeseries(
+        new PartialPath(SERIES),
+        TSDataType.INT32,
+        TSEncoding.RLE,
+        CompressionType.SNAPPY,
+        Collections.emptyMap());
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    EnvironmentUtils.cleanEnv();
+  }
+
+  @Test
+  public void testBlockingDelivery() throws Exception {
+    TriggerExecutor executor =
+        createTrigger("('async'='true', 'async_buffer_size'='4', 'async_batch_size'='16')");
+    fireAndCheck(executor);
+  }
+
+  @Test
+  public void testSpillDelivery() throws Exception {
+    TriggerExecutor executor =
+        createTrigger("('async'='true', 'async_buffer_size'='1', 'async_backpressure'='spill')");
+    fireAndCheck(executor);
+  }
+
+  @Test
+  public void testDiscardAfterDrop() throws Exception {
+    TriggerExecutor executor = createTrigger("('async'='true', 'async_backpressure'='drop')");
+    AsyncTriggerQueue queue = executor.getAsyncQueue();
+
+    TriggerRegistrationService.getInstance()
+        .deregister((DropTriggerPlan) planner.parseSQLToPhysicalPlan("drop trigger counter"));
+    executor.fireIfActivated(TriggerEvent.BEFORE_INSERT, 1, 1);
+    assertEquals(0, queue.getPendingBatchNum());
+    assertEquals(0, queue.getDeliveredEventNum());
+  }
+
+  private TriggerExecutor createTrigger(String attributes) throws Exception {
+    TriggerRegistrationService.getInstance()
+        .register(
+            (CreateTriggerPlan)
+                planner.parseSQLToPhysicalPlan(
+                    "create trigger counter before insert on "
+                        + SERIES
+                        + " as '"
+                        + Counter.class.getName()
+                        + "' with "
+                        + attributes));
+    TriggerExecutor executor =
+        IoTDB.schemaProcessor.getMeasurementMNode(new PartialPath(SERIES)).getTriggerExecutor();
+    assertTrue(executor.isAsync());
+    return executor;
+  }
+
+  private void fireAndCheck(TriggerExecutor executor) throws Exception {
+    for (int i = 0; i < ROW_NUM; ++i) {
+      executor.fireIfActivated(TriggerEvent.BEFORE_INSERT, i, i);
+    }
+    for (int i = 0; i < TABLET_NUM; ++i) {
+      long[] timestamps = new long[TABLET_SIZE];
+      int[] values = new int[TABLET_SIZE];
+      for (int j = 0; j < TABLET_SIZE; ++j) {
+        timestamps[j] = ROW_NUM + (long) i * TABLET_SIZE + j;
+        values[j] = (int) timestamps[j];
+      }
+      executor.fireIfActivated(TriggerEvent.BEFORE_INSERT, timestamps, values);
+    }
+
+    int expected = ROW_NUM + TABLET_NUM * TABLET_SIZE;
+    AsyncTriggerQueue queue = executor.getAsyncQueue();
+    long deadline = System.currentTimeMillis() + TIMEOUT_IN_MS;
+    while (queue.getDeliveredEventNum() < expected && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10);
+    }
+    assertEquals(expected, queue.getDeliveredEventNum());
+    assertEquals(0, queue.getDroppedEventNum());
+    assertEquals(0, queue.getFailedEventNum());
+    assertEquals(Counter.BASE + expected, ((Counter) executor.getTrigger()).getCounter());
+  }
+}
@@ -0,0 +1,179 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.metadata.cache;
+
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.metadata.LocalSchemaProcessor;
+import org.apache.iotdb.db.metadata.mnode.IMNode;
+import org.apache.iotdb.db.metadata.mnode.IMeasurementMNode;
+import org.apache.iotdb.db.metadata.path.PartialPath;
+import org.apache.iotdb.db.qp.physical.crud.InsertRowPlan;
+import org.apache.iotdb.db.service.IoTDB;
+import org.apache.iotdb.db.utils.EnvironmentUtils;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class DeviceSchemaCacheTest {
+
+  private LocalSchemaProcessor schemaProcessor;
+  private boolean isAutoCreateSchemaEnabled;
+
+  @Before
+  public void setUp() throws Exception {
+    isAutoCreateSchemaEnabled =
+        IoTDBDescriptor.getInstance().getConfig().isAutoCreateSchemaEnabled();
+    IoTDBDescriptor.getInstance().getConfig().setAutoCreateSchemaEnabled(false);
+    EnvironmentUtils.envSetUp();
+    schemaProcessor = IoTDB.schemaProcessor;
+    schemaProcessor.setStorageGroup(new PartialPath("root.sg"));
+    for (String measurement : new String[] {"s1", "s2"}) {
+      schemaProcessor.createTimeseries(
+          new PartialPath("root.sg.d1." + measurement),
+          TSDataType.INT64,
+          TSEncoding.RLE,
+          CompressionType.SNAPPY,
+          Collections.emptyMap());
+    }
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    EnvironmentUtils.cleanEnv();
+    IoTDBDescriptor.getInstance()
+        .getConfig()
+        .setAutoCreateSchemaEnabled(isAutoCreateSchemaEnabled);
+  }
+
+  @Test
+  public void testHitAfterResolved() throws Exception {
+    DeviceSchemaCache cache = DeviceSchemaCache.getInstance();
+    long hitCount = cache.getHitCount();
+
+    InsertRowPlan first = createPlan(TSDataType.INT64);
+    IMNode deviceMNode = schemaProcessor.getSeriesSchemasAndReadLockDevice(first);
+    assertEquals(hitCount, cache.getHitCount());
+
+    InsertRowPlan second = createPlan(TSDataType.INT64);
+    assertSame(deviceMNode, schemaProcessor.getSeriesSchemasAndReadLockDevice(second));
+    assertEquals(hitCount + 1, cache.getHitCount());
+    for (int i = 0; i < second.getMeasurements().length; i++) {
+      assertSame(first.getMeasurementMNodes()[i], second.getMeasurementMNodes()[i]);
+    }
+  }
+
+  @Test
+  public void testMissOnTypeMismatch() throws Exception {
+    DeviceSchemaCache cache = DeviceSchemaCache.getInstance();
+    schemaProcessor.getSeriesSchemasAndReadLockDevice(createPlan(TSDataType.INT64));
+
+    InsertRowPlan plan = createPlan(TSDataType.DOUBLE);
+    assertNull(cache.getSeriesSchemas(plan));
+    for (IMeasurementMNode measurementMNode : plan.getMeasurementMNodes()) {
+      assertNull(measurementMNode);
+    }
+  }
+
+  @Test
+  public void testInvalidateOnDelete() throws Exception {
+    DeviceSchemaCache cache = DeviceSchemaCache.getInstance();
+    schemaProcessor.getSeriesSchemasAndReadLockDevice(createPlan(TSDataType.INT64));
+    assertNotNull(cache.getSeriesSchemas(createPlan(TSDataType.INT64)));
+
+    schemaProcessor.deleteTimeseries(new PartialPath("root.sg.d1.s2"));
+    assertNull(cache.getSeriesSchemas(createPlan(TSDataType.INT64)));
+    assertFalse(schemaProcessor.isPathExist(new PartialPath("root.sg.d1.s2")));
+  }
+
+  @Test
+  public void testStalePutAfterDelete() throws Exception {
+    DeviceSchemaCache cache = DeviceSchemaCache.getInstance();
+    // an insert fetches the epoch, then resolves the plan in the MTree
+    long epoch = cache.getEpoch();
+    InsertRowPlan plan = createPlan(TSDataType.INT64);
+    IMNode deviceMNode = schemaProcessor.getSeriesSchemasAndReadLockDevice(plan);
+
+    // the timeseries is deleted before the insert caches its lookup
+    schemaProcessor.deleteTimeseries(new PartialPath("root.sg.d1.s2"));
+    cache.put(plan, deviceMNode, epoch);
+    assertNull(cache.getSeriesSchemas(createPlan(TSDataType.INT64)));
+  }
+
+  @Test
+  public void testConcurrentDeleteAndInsert() throws Exception {
+    DeviceSchemaCache cache = DeviceSchemaCache.getInstance();
+    PartialPath s2 = new PartialPath("root.sg.d1.s2");
+    AtomicBoolean stopped = new AtomicBoolean();
+    Thread inserter =
+        new Thread(
+            () -> {
+              while (!stopped.get()) {
+                try {
+                  schemaProcessor.getSeriesSchemasAndReadLockDevice(createPlan(TSDataType.INT64));
+                } catch (Exception e) {
+                  // s2 may be deleted at the moment
+                }
+              }
+            });
+    inserter.start();
+    try {
+      for (int i = 0; i < 100; i++) {
+        schemaProcessor.deleteTimeseries(s2);
+        schemaProcessor.createTimeseries(
+            s2, TSDataType.INT64, TSEncoding.RLE, CompressionType.SNAPPY, Collections.emptyMap());
+      }
+    } finally {
+      stopped.set(true);
+      inserter.join();
+    }
+
+    // whatever the cache serves must be the nodes currently in the MTree
+    InsertRowPlan plan = createPlan(TSDataType.INT64);
+    if (cache.getSeriesSchemas(plan) != null) {
+      assertSame(schemaProcessor.getMeasurementMNode(s2), plan.getMeasurementMNodes()[1]);
+    }
+    schemaProcessor.deleteTimeseries(s2);
+    assertNull(cache.getSeriesSchemas(createPlan(TSDataType.INT64)));
+  }
+
+  private InsertRowPlan createPlan(TSDataType dataType) throws Exception {
+    InsertRowPlan plan =
+        new InsertRowPlan(
+            new PartialPath("root.sg.d1"),
+            1L,
+            new String[] {"s1", "s2"},
+            new TSDataType[] {dataType, dataType},
+            new String[] {"1", "2"});
+    plan.setMeasurementMNodes(new IMeasurementMNode[2]);
+    return plan;
+  }
+}
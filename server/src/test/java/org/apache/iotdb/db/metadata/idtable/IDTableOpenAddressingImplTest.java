@@ -0,0 +1,125 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.metadata.idtable;
+
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.exception.metadata.MetadataException;
+import org.apache.iotdb.db.metadata.idtable.entry.DeviceEntry;
+import org.apache.iotdb.db.metadata.mnode.IMeasurementMNode;
+import org.apache.iotdb.db.metadata.path.PartialPath;
+import org.apache.iotdb.db.qp.physical.crud.InsertRowPlan;
+import org.apache.iotdb.db.qp.physical.sys.CreateTimeSeriesPlan;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+public class IDTableOpenAddressingImplTest {
+
+  private static final int DEVICE_NUM = 5000;
+
+  private boolean isEnableIDTableLogFile = false;
+
+  private IDTable idTable;
+
+  @Before
+  public void before() {
+    isEnableIDTableLogFile = IoTDBDescriptor.getInstance().getConfig().isEnableIDTableLogFile();
+    IoTDBDescriptor.getInstance().getConfig().setEnableIDTableLogFile(false);
+    idTable = new IDTableOpenAddressingImpl(new File("target" + File.separator + "idTable"));
+  }
+
+  @After
+  public void clean() throws Exception {
+    idTable.clear();
+    IoTDBDescriptor.getInstance().getConfig().setEnableIDTableLogFile(isEnableIDTableLogFile);
+  }
+
+  @Test
+  public void testPutAndGetAfterResize() throws MetadataException {
+    for (int i = 0; i < DEVICE_NUM; i++) {
+      idTable.createTimeseries(createTimeseriesPlan("root.sg.d" + i + ".s1"));
+    }
+
+    assertEquals(DEVICE_NUM, idTable.getAllDeviceEntry().size());
+    for (int i = 0; i < DEVICE_NUM; i++) {
+      DeviceEntry deviceEntry = idTable.getDeviceEntry("root.sg.d" + i);
+      assertNotNull(deviceEntry);
+      assertNotNull(deviceEntry.getSchemaEntry("s1"));
+      assertEquals(TSDataType.INT64, idTable.getSeriesSchema("root.sg.d" + i, "s1").getType());
+    }
+    assertNull(idTable.getDeviceEntry("root.sg.d" + DEVICE_NUM));
+    assertNull(idTable.getSeriesSchema("root.sg.d0", "s2"));
+  }
+
+  @Test
+  public void testGetSeriesSchemasWithoutLock() throws MetadataException {
+    idTable.createTimeseries(createTimeseriesPlan("root.sg.d1.s1"));
+    DeviceEntry deviceEntry = idTable.getDeviceEntry("root.sg.d1");
+
+    InsertRowPlan plan =
+        new InsertRowPlan(
+            new PartialPath("root.sg.d1"),
+            1L,
+            new String[] {"s1"},
+            new TSDataType[] {TSDataType.INT64},
+            new String[] {"1"});
+    plan.setMeasurementMNodes(new IMeasurementMNode[1]);
+
+    assertSame(deviceEntry.getDeviceID(), idTable.getSeriesSchemas(plan));
+    assertNotNull(plan.getMeasurementMNodes()[0]);
+    assertEquals(TSDataType.INT64, plan.getMeasurementMNodes()[0].getSchema().getType());
+  }
+
+  @Test
+  public void testAlignedCheck() throws MetadataException {
+    idTable.createTimeseries(createTimeseriesPlan("root.sg.d1.s1"));
+    try {
+      idTable.putSchemaEntry(
+          "root.sg.d1", "s2", idTable.getDeviceEntry("root.sg.d1").getSchemaEntry("s1"), true);
+      fail("should throw exception");
+    } catch (MetadataException e) {
+      // expected
+    }
+  }
+
+  private CreateTimeSeriesPlan createTimeseriesPlan(String path) throws MetadataException {
+    return new CreateTimeSeriesPlan(
+        new PartialPath(path),
+        TSDataType.INT64,
+        TSEncoding.RLE,
+        CompressionType.SNAPPY,
+        Collections.emptyMap(),
+        null,
+        null,
+        null);
+  }
+}
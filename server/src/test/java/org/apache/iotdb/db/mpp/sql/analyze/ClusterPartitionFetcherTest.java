@@ -0,0 +1,170 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.mpp.sql.analyze;
+
+import org.apache.iotdb.commons.partition.DataPartition;
+import org.apache.iotdb.commons.partition.DataPartitionQueryParam;
+import org.apache.iotdb.commons.partition.RegionReplicaSet;
+import org.apache.iotdb.commons.partition.SchemaPartition;
+import org.apache.iotdb.commons.partition.SeriesPartitionSlot;
+import org.apache.iotdb.commons.partition.TimePartitionSlot;
+import org.apache.iotdb.confignode.rpc.thrift.ConfigIService;
+import org.apache.iotdb.confignode.rpc.thrift.DataPartitionInfoResp;
+import org.apache.iotdb.confignode.rpc.thrift.DeviceGroupHashInfo;
+import org.apache.iotdb.confignode.rpc.thrift.FetchDataPartitionReq;
+import org.apache.iotdb.confignode.rpc.thrift.FetchSchemaPartitionReq;
+import org.apache.iotdb.confignode.rpc.thrift.RegionInfo;
+import org.apache.iotdb.confignode.rpc.thrift.SchemaPartitionInfoResp;
+import org.apache.iotdb.service.rpc.thrift.EndPoint;
+
+import org.apache.thrift.TException;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+public class ClusterPartitionFetcherTest {
+
+  private static final String STORAGE_GROUP = "root.sg";
+  private static final String DEVICE = "root.sg.d1";
+
+  private ConfigIService.Iface configNodeClient;
+  private ClusterPartitionFetcher partitionFetcher;
+  private PartitionCache partitionCache;
+  // the number of time slots requested from ConfigNode
+  private final AtomicInteger fetchedTimeSlotNum = new AtomicInteger();
+
+  @Before
+  public void setUp() throws TException {
+    configNodeClient = Mockito.mock(ConfigIService.Iface.class);
+    Mockito.when(configNodeClient.getDeviceGroupHashInfo())
+        .thenReturn(
+            new DeviceGroupHashInfo(100, "org.apache.iotdb.commons.hash.BKDRHashExecutor"));
+    Mockito.when(configNodeClient.fetchDataPartitionInfo(Mockito.any()))
+        .thenAnswer(
+            invocation -> {
+              FetchDataPartitionReq req = invocation.getArgument(0);
+              Map<Integer, Map<Long, List<RegionInfo>>> deviceGroupMap = new HashMap<>();
+              req.getDeviceGroupIDToStartTimeMap()
+                  .forEach(
+                      (deviceGroupId, startTimes) -> {
+                        Map<Long, List<RegionInfo>> startTimeMap = new HashMap<>();
+                        for (long startTime : startTimes) {
+                          startTimeMap.put(startTime, Collections.singletonList(regionInfo(1)));
+                          fetchedTimeSlotNum.incrementAndGet();
+                        }
+                        deviceGroupMap.put(deviceGroupId, startTimeMap);
+                      });
+              return new DataPartitionInfoResp(
+                  Collections.singletonMap(STORAGE_GROUP, deviceGroupMap));
+            });
+    Mockito.when(configNodeClient.fetchSchemaPartitionInfo(Mockito.any()))
+        .thenAnswer(
+            invocation -> {
+              FetchSchemaPartitionReq req = invocation.getArgument(0);
+              Map<Integer, RegionInfo> deviceGroupMap = new HashMap<>();
+              for (String device : req.getDevicePaths()) {
+                deviceGroupMap.put(
+                    partitionCache.getSeriesPartitionSlot(device).getDeviceGroupId(),
+                    regionInfo(2));
+              }
+              return new SchemaPartitionInfoResp(
+                  Collections.singletonMap(STORAGE_GROUP, deviceGroupMap));
+            });
+
+    partitionCache = new PartitionCache();
+    partitionFetcher = new ClusterPartitionFetcher(configNodeClient, partitionCache);
+  }
+
+  @Test
+  public void testDataPartitionCached() throws TException {
+    DataPartition dataPartition = partitionFetcher.fetchDataPartitionInfo(queryParam(0, 100));
+    assertEquals(2, getTimeSlotMap(dataPartition).size());
+    assertEquals(2, fetchedTimeSlotNum.get());
+
+    // all partitions are cached
+    dataPartition = partitionFetcher.fetchDataPartitionInfo(queryParam(0, 100));
+    assertEquals(2, getTimeSlotMap(dataPartition).size());
+    Mockito.verify(configNodeClient, Mockito.times(1)).fetchDataPartitionInfo(Mockito.any());
+
+    // only the new time slot is fetched
+    dataPartition = partitionFetcher.fetchDataPartitionInfo(queryParam(0, 100, 200));
+    assertEquals(3, getTimeSlotMap(dataPartition).size());
+    assertEquals(3, fetchedTimeSlotNum.get());
+    Mockito.verify(configNodeClient, Mockito.times(2)).fetchDataPartitionInfo(Mockito.any());
+    Mockito.verify(configNodeClient, Mockito.times(1)).getDeviceGroupHashInfo();
+  }
+
+  @Test
+  public void testSchemaPartitionCached() throws TException {
+    SchemaPartition schemaPartition = partitionFetcher.fetchSchemaPartitionInfo(DEVICE);
+    assertNotNull(schemaPartition.getSchemaPartition().get(STORAGE_GROUP));
+
+    schemaPartition = partitionFetcher.fetchSchemaPartitionInfo(DEVICE);
+    assertEquals(1, schemaPartition.getSchemaPartition().get(STORAGE_GROUP).size());
+    Mockito.verify(configNodeClient, Mockito.times(1)).fetchSchemaPartitionInfo(Mockito.any());
+  }
+
+  @Test
+  public void testInvalidate() throws TException {
+    partitionFetcher.fetchDataPartitionInfo(queryParam(0));
+    long version = partitionCache.getVersion();
+
+    // older versions are ignored
+    partitionCache.invalidateAll(version);
+    partitionFetcher.fetchDataPartitionInfo(queryParam(0));
+    Mockito.verify(configNodeClient, Mockito.times(1)).fetchDataPartitionInfo(Mockito.any());
+
+    partitionCache.invalidateAll(version + 1);
+    DataPartition dataPartition = partitionFetcher.fetchDataPartitionInfo(queryParam(0));
+    assertEquals(1, getTimeSlotMap(dataPartition).size());
+    Mockito.verify(configNodeClient, Mockito.times(2)).fetchDataPartitionInfo(Mockito.any());
+  }
+
+  private Map<TimePartitionSlot, List<RegionReplicaSet>> getTimeSlotMap(
+      DataPartition dataPartition) {
+    SeriesPartitionSlot seriesPartitionSlot = partitionCache.getSeriesPartitionSlot(DEVICE);
+    return dataPartition.getDataPartitionMap().get(STORAGE_GROUP).get(seriesPartitionSlot);
+  }
+
+  private static DataPartitionQueryParam queryParam(long... startTimes) {
+    List<TimePartitionSlot> timePartitionSlots = new ArrayList<>();
+    for (long startTime : startTimes) {
+      timePartitionSlots.add(new TimePartitionSlot(startTime));
+    }
+    DataPartitionQueryParam param = new DataPartitionQueryParam();
+    param.setDevicePath(DEVICE);
+    param.setTimePartitionSlotList(timePartitionSlots);
+    return param;
+  }
+
+  private static RegionInfo regionInfo(int regionId) {
+    return new RegionInfo(regionId, Arrays.asList(new EndPoint("127.0.0.1", 6667)));
+  }
+}
@@ -0,0 +1,134 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.tools;
+
+import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
+import org.apache.iotdb.tsfile.file.metadata.AlignedChunkMetadata;
+import org.apache.iotdb.tsfile.file.metadata.ChunkMetadata;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
+import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.write.TsFileWriter;
+import org.apache.iotdb.tsfile.write.record.TSRecord;
+import org.apache.iotdb.tsfile.write.record.datapoint.LongDataPoint;
+import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+public class TsFileDeviceSplitToolTest {
+
+  private static final String DEVICE1 = "root.sg.d1";
+  private static final String DEVICE2 = "root.sg.d2";
+  private static final String ALIGNED_DEVICE = "root.sg.d3";
+
+  private final String folder = "target" + File.separator + "deviceSplit";
+  private File sourceFile;
+
+  @Before
+  public void setUp() throws Exception {
+    new File(folder).mkdirs();
+    sourceFile = new File(folder, "1-1-0-0.tsfile");
+    List<MeasurementSchema> schemas =
+        Arrays.asList(
+            new MeasurementSchema("s1", TSDataType.INT64, TSEncoding.RLE),
+            new MeasurementSchema("s2", TSDataType.INT64, TSEncoding.RLE));
+    try (TsFileWriter writer = new TsFileWriter(sourceFile)) {
+      writer.registerTimeseries(new Path(DEVICE1), schemas);
+      writer.registerTimeseries(new Path(DEVICE2), schemas);
+      writer.registerAlignedTimeseries(new Path(ALIGNED_DEVICE), schemas);
+      for (long time = 0; time < 200; time++) {
+        for (String device : new String[] {DEVICE1, DEVICE2, ALIGNED_DEVICE}) {
+          TSRecord record = new TSRecord(time, device);
+          record.addTuple(new LongDataPoint("s1", time));
+          record.addTuple(new LongDataPoint("s2", time * 2));
+          if (device.equals(ALIGNED_DEVICE)) {
+            writer.writeAligned(record);
+          } else {
+            writer.write(record);
+          }
+        }
+        if (time == 99) {
+          // make each device have two chunk groups
+          writer.flushAllChunkGroups();
+        }
+      }
+    }
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    FileUtils.deleteDirectory(new File(folder));
+  }
+
+  @Test
+  public void testCopyDevices() throws IOException {
+    TsFileResource sourceResource = new TsFileResource(sourceFile);
+    File targetFile = new File(folder, "target" + File.separator + sourceFile.getName());
+    TsFileResource targetResource;
+    try (TsFileSequenceReader reader = new TsFileSequenceReader(sourceFile.getPath())) {
+      targetResource =
+          TsFileDeviceSplitTool.copyDevices(
+              reader, Arrays.asList(DEVICE2, ALIGNED_DEVICE), targetFile, sourceResource);
+    }
+
+    Assert.assertTrue(new File(targetFile.getPath() + TsFileResource.RESOURCE_SUFFIX).exists());
+    Assert.assertTrue(targetResource.isClosed());
+    Assert.assertFalse(targetResource.mayContainsDevice(DEVICE1));
+    for (String device : new String[] {DEVICE2, ALIGNED_DEVICE}) {
+      Assert.assertEquals(0, targetResource.getStartTime(device));
+      Assert.assertEquals(199, targetResource.getEndTime(device));
+    }
+
+    try (TsFileSequenceReader source = new TsFileSequenceReader(sourceFile.getPath());
+        TsFileSequenceReader target = new TsFileSequenceReader(targetFile.getPath())) {
+      Assert.assertEquals(Arrays.asList(DEVICE2, ALIGNED_DEVICE), target.getAllDevices());
+      for (String measurement : new String[] {"s1", "s2"}) {
+        List<ChunkMetadata> sourceChunks =
+            source.getChunkMetadataList(new Path(DEVICE2, measurement));
+        List<ChunkMetadata> targetChunks =
+            target.getChunkMetadataList(new Path(DEVICE2, measurement));
+        Assert.assertEquals(2, targetChunks.size());
+        for (int i = 0; i < sourceChunks.size(); i++) {
+          Assert.assertEquals(
+              sourceChunks.get(i).getStatistics(), targetChunks.get(i).getStatistics());
+          Assert.assertEquals(
+              source.readMemChunk(sourceChunks.get(i)).getData(),
+              target.readMemChunk(targetChunks.get(i)).getData());
+        }
+      }
+
+      List<AlignedChunkMetadata> alignedChunks = target.getAlignedChunkMetadata(ALIGNED_DEVICE);
+      Assert.assertEquals(2, alignedChunks.size());
+      for (AlignedChunkMetadata alignedChunk : alignedChunks) {
+        Assert.assertEquals(100, alignedChunk.getStatistics().getCount());
+        Assert.assertEquals(2, alignedChunk.getValueChunkMetadataList().size());
+      }
+    }
+  }
+}
@@ -26,6 +26,7 @@ import org.apache.hadoop.conf.Configuration
 import org.apache.hadoop.fs.{FileStatus, Path}
 import org.apache.hadoop.mapreduce.Job
 import org.apache.iotdb.hadoop.fileSystem.HDFSInput
+import org.apache.iotdb.hadoop.tsfile.TSFBatchReader
 import org.apache.iotdb.spark.tsfile.DefaultSource.SerializableConfiguration
 import org.apache.iotdb.spark.tsfile.qp.Executor
 import org.apache.iotdb.tsfile.common.constant.QueryConstant
@@ -83,6 +84,42 @@ private[tsfile] class DefaultSource extends FileFormat with DataSourceRegister {
     true
   }
 
+  override def supportBatch(sparkSession: SparkSession, schema: StructType): Boolean = {
+    VectorizedReader.isEnabled(sparkSession, schema)
+  }
+
+  override def buildReaderWithPartitionValues(
+                                               sparkSession: SparkSession,
+                                               dataSchema: StructType,
+                                               partitionSchema: StructType,
+                                               requiredSchema: StructType,
+                                               filters: Seq[Filter],
+                                               options: Map[String, String],
+                                               hadoopConf: Configuration):
+  (PartitionedFile) => Iterator[InternalRow] = {
+    if (!supportBatch(sparkSession, StructType(requiredSchema.fields ++ partitionSchema.fields))) {
+      return super.buildReaderWithPartitionValues(sparkSession, dataSchema, partitionSchema,
+        requiredSchema, filters, options, hadoopConf)
+    }
+
+    val broadcastedConf =
+      sparkSession.sparkContext.broadcast(new SerializableConfiguration(hadoopConf))
+    val isNarrowForm = options.getOrElse(DefaultSource.isNarrowForm, "").equals("narrow_form")
+    val capacity = sparkSession.sessionState.conf
+      .getConfString(VectorizedReader.batchSize, TSFBatchReader.DEFAULT_BATCH_SIZE.toString).toInt
+
+    (file: PartitionedFile) => {
+      val log = LoggerFactory.getLogger(classOf[DefaultSource])
+      log.info("This partition starts from " + file.start.asInstanceOf[java.lang.Long]
+        + " and ends at " + (file.start + file.length).asInstanceOf[java.lang.Long]
+        + " and is read in batches")
+
+      // the batches are passed through as rows, FileSourceScanExec casts them back
+      VectorizedReader.read(file, broadcastedConf.value.value, dataSchema, partitionSchema,
+        requiredSchema, filters, isNarrowForm, capacity).asInstanceOf[Iterator[InternalRow]]
+    }
+  }
+
   override def buildReader(
                             sparkSession: SparkSession,
                             dataSchema: StructType,
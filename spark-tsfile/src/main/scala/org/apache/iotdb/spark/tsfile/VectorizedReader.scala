@@ -0,0 +1,223 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.spark.tsfile
+
+import java.net.URI
+import java.nio.charset.StandardCharsets
+
+import org.apache.hadoop.conf.Configuration
+import org.apache.hadoop.fs.Path
+import org.apache.iotdb.hadoop.fileSystem.HDFSInput
+import org.apache.iotdb.hadoop.tsfile.{TSFBatchReader, TSFColumnBatch}
+import org.apache.iotdb.tsfile.common.constant.QueryConstant
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType
+import org.apache.iotdb.tsfile.read.TsFileSequenceReader
+import org.apache.iotdb.tsfile.read.filter.TimeFilter
+import org.apache.iotdb.tsfile.read.filter.basic.{Filter => TsFileFilter}
+import org.apache.iotdb.tsfile.read.filter.factory.FilterFactory
+import org.apache.iotdb.tsfile.utils.Binary
+import org.apache.spark.TaskContext
+import org.apache.spark.sql.SparkSession
+import org.apache.spark.sql.catalyst.InternalRow
+import org.apache.spark.sql.execution.datasources.PartitionedFile
+import org.apache.spark.sql.execution.vectorized.{ColumnVectorUtils, OnHeapColumnVector}
+import org.apache.spark.sql.sources._
+import org.apache.spark.sql.types._
+import org.apache.spark.sql.vectorized.{ColumnVector, ColumnarBatch}
+
+import scala.collection.JavaConversions._
+
+/**
+  * Reads TsFiles into Spark [[ColumnarBatch]]es with [[TSFBatchReader]] instead of converting
+  * every RowRecord of a QueryDataSet into a Row.
+  *
+  * Filters on the time column are pushed down to the chunk, page and point level. Other filters
+  * are still evaluated by Spark on the returned batches.
+  */
+object VectorizedReader {
+
+  /** Spark SQL conf to switch between the vectorized and the row based reader */
+  val enableVectorizedReader = "spark.sql.tsfile.enableVectorizedReader"
+
+  /** Spark SQL conf of the number of rows in a batch */
+  val batchSize = "spark.sql.tsfile.columnarReaderBatchSize"
+
+  private val TimeColumnName = QueryConstant.RESERVED_TIME
+
+  private val timeColumn = -1
+  private val deviceColumn = -2
+
+  def isEnabled(sparkSession: SparkSession, schema: StructType): Boolean = {
+    val conf = sparkSession.sessionState.conf
+    conf.getConfString(enableVectorizedReader, "true").toBoolean &&
+      conf.wholeStageEnabled &&
+      schema.length <= conf.wholeStageMaxNumFields &&
+      schema.forall(field => isSupported(field.dataType))
+  }
+
+  private def isSupported(dataType: DataType): Boolean = dataType match {
+    case BooleanType | IntegerType | LongType | FloatType | DoubleType | StringType => true
+    case _ => false
+  }
+
+  /**
+    * Convert the filters on the time column to a TsFile time filter.
+    *
+    * @return the conjunction of the time filters, null if there is none
+    */
+  def toTimeFilter(filters: Seq[Filter]): TsFileFilter = {
+    val timeFilters = filters.flatMap(transformTimeFilter)
+    if (timeFilters.isEmpty) null else timeFilters.reduce(FilterFactory.and(_, _))
+  }
+
+  private def transformTimeFilter(node: Filter): Seq[TsFileFilter] = node match {
+    case node: And =>
+      transformTimeFilter(node.left) ++ transformTimeFilter(node.right)
+    case EqualTo(TimeColumnName, value: java.lang.Long) =>
+      Seq(TimeFilter.eq(value))
+    case LessThan(TimeColumnName, value: java.lang.Long) =>
+      Seq(TimeFilter.lt(value))
+    case LessThanOrEqual(TimeColumnName, value: java.lang.Long) =>
+      Seq(TimeFilter.ltEq(value))
+    case GreaterThan(TimeColumnName, value: java.lang.Long) =>
+      Seq(TimeFilter.gt(value))
+    case GreaterThanOrEqual(TimeColumnName, value: java.lang.Long) =>
+      Seq(TimeFilter.gtEq(value))
+    case _ => Seq.empty
+  }
+
+  /**
+    * Read one partitioned file into batches of the required schema followed by the partition
+    * schema.
+    *
+    * @param isNarrowForm true to read one device after another, with the device name as a column;
+    *                     false to align all the series of the file by time
+    */
+  def read(
+            file: PartitionedFile,
+            conf: Configuration,
+            dataSchema: StructType,
+            partitionSchema: StructType,
+            requiredSchema: StructType,
+            filters: Seq[Filter],
+            isNarrowForm: Boolean,
+            capacity: Int): Iterator[ColumnarBatch] = {
+    val in = new HDFSInput(new Path(new URI(file.filePath)), conf)
+    val reader = new TsFileSequenceReader(in)
+    Option(TaskContext.get()).foreach(_.addTaskCompletionListener { _ => reader.close() })
+
+    // the columns other than time and device name, read all of them if none is required so that
+    // the number of rows is still correct
+    val isSeries = (field: StructField) =>
+      field.name != QueryConstant.RESERVED_TIME &&
+        !(isNarrowForm && field.name == NarrowConverter.DEVICE_NAME)
+    val seriesNames = {
+      val required = requiredSchema.filter(isSeries).map(_.name)
+      if (required.nonEmpty) required else dataSchema.filter(isSeries).map(_.name)
+    }
+    // for each required column, the index of its series in a group, or timeColumn / deviceColumn
+    val columnIndexes = requiredSchema.map(field =>
+      if (field.name == QueryConstant.RESERVED_TIME) timeColumn
+      else if (!isSeries(field)) deviceColumn
+      else seriesNames.indexOf(field.name))
+
+    val groups =
+      if (isNarrowForm) {
+        TSFBatchReader.groupByDevice(reader.getAllDevices, seqAsJavaList(seriesNames))
+      } else {
+        java.util.Collections.singletonList(
+          seqAsJavaList(seriesNames.map(name =>
+            new org.apache.iotdb.tsfile.read.common.Path(name, true))))
+      }
+    val batchReader = new TSFBatchReader(reader, groups, toTimeFilter(filters),
+      file.start, file.start + file.length, capacity)
+
+    val columnVectors = OnHeapColumnVector.allocateColumns(capacity,
+      StructType(requiredSchema.fields ++ partitionSchema.fields))
+    partitionSchema.indices.foreach(i => {
+      ColumnVectorUtils.populate(columnVectors(requiredSchema.length + i), file.partitionValues, i)
+      columnVectors(requiredSchema.length + i).setIsConstant()
+    })
+    val columnarBatch = new ColumnarBatch(columnVectors.map(_.asInstanceOf[ColumnVector]))
+
+    new Iterator[ColumnarBatch] {
+      private var batch: TSFColumnBatch = _
+      private var fetched = false
+
+      override def hasNext: Boolean = {
+        if (!fetched) {
+          batch = batchReader.nextBatch()
+          fetched = true
+        }
+        batch != null
+      }
+
+      override def next(): ColumnarBatch = {
+        if (!hasNext) {
+          throw new NoSuchElementException("No more batch in " + file.filePath)
+        }
+        fetched = false
+        requiredSchema.indices.foreach(i =>
+          fillColumn(columnVectors(i), batch, columnIndexes(i)))
+        columnarBatch.setNumRows(batch.size())
+        columnarBatch
+      }
+    }
+  }
+
+  private def fillColumn(vector: OnHeapColumnVector, batch: TSFColumnBatch, index: Int): Unit = {
+    vector.reset()
+    val size = batch.size()
+    if (index == timeColumn) {
+      vector.putLongs(0, size, batch.getTimestamps, 0)
+      return
+    }
+    if (index == deviceColumn) {
+      val deviceName = batch.getDeviceId.getBytes(StandardCharsets.UTF_8)
+      (0 until size).foreach(row => vector.putByteArray(row, deviceName))
+      return
+    }
+    val dataType = batch.getDataTypes()(index)
+    if (dataType == null) {
+      vector.putNulls(0, size)
+      return
+    }
+    dataType match {
+      case TSDataType.BOOLEAN =>
+        val values = batch.getColumn(index).asInstanceOf[Array[Boolean]]
+        (0 until size).foreach(row => vector.putBoolean(row, values(row)))
+      case TSDataType.INT32 =>
+        vector.putInts(0, size, batch.getColumn(index).asInstanceOf[Array[Int]], 0)
+      case TSDataType.INT64 =>
+        vector.putLongs(0, size, batch.getColumn(index).asInstanceOf[Array[Long]], 0)
+      case TSDataType.FLOAT =>
+        vector.putFloats(0, size, batch.getColumn(index).asInstanceOf[Array[Float]], 0)
+      case TSDataType.DOUBLE =>
+        vector.putDoubles(0, size, batch.getColumn(index).asInstanceOf[Array[Double]], 0)
+      case TSDataType.TEXT =>
+        val values = batch.getColumn(index).asInstanceOf[Array[Binary]]
+        val isNull = batch.getIsNull(index)
+        (0 until size).foreach(row =>
+          if (!isNull(row)) vector.putByteArray(row, values(row).getValues))
+      case other => throw new UnsupportedOperationException(s"Unsupported type $other")
+    }
+    val isNull = batch.getIsNull(index)
+    (0 until size).foreach(row => if (isNull(row)) vector.putNull(row))
+  }
+}
@@ -257,6 +257,25 @@ class TSFileSuit extends FunSuite with BeforeAndAfterAll {
     Assert.assertEquals(16, newDf.count())
   }
 
+  test("testVectorizedReader") {
+    for (isNarrowForm <- Seq(false, true)) {
+      val sql = "select * from tsfile_table where time >= 100 and time < 5000"
+      spark.conf.set(VectorizedReader.enableVectorizedReader, "false")
+      spark.read.tsfile(tsfile2, isNarrowForm).createOrReplaceTempView("tsfile_table")
+      val expected = spark.sql(sql).collect().map(_.toString).sorted
+
+      spark.conf.set(VectorizedReader.enableVectorizedReader, "true")
+      spark.conf.set(VectorizedReader.batchSize, "1000")
+      spark.read.tsfile(tsfile2, isNarrowForm).createOrReplaceTempView("tsfile_table")
+      val actual = spark.sql(sql).collect().map(_.toString).sorted
+      spark.conf.unset(VectorizedReader.batchSize)
+
+      Assert.assertEquals(4900, expected.length)
+      Assert.assertArrayEquals(expected.asInstanceOf[Array[AnyRef]],
+        actual.asInstanceOf[Array[AnyRef]])
+    }
+  }
+
   test("testQuerySchema") {
     val df = spark.read.format("org.apache.iotdb.spark.tsfile").load(tsfile1)
 
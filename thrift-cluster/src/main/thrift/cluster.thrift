@@ -226,7 +226,8 @@ struct PreviousFillRequest {
 
 // the spec and load of a node, for query coordinating
 struct TNodeStatus {
-
+  // the number of queries that are running on the node, used to pick the least-loaded replica
+  1: optional i32 runningQueryNum
 }
 
 struct GetAggrResultRequest {
@@ -241,6 +242,25 @@ struct GetAggrResultRequest {
   9: required bool ascending
 }
 
+/**
+* Aggregations over many series whose results are merged into level groups on the data group.
+* paths, aggregations and dataTypeOrdinals are parallel lists, and groupIndexes gives the index of
+* the group, in [0, groupNum), that each entry is merged into.
+**/
+struct GetGroupedAggrResultRequest {
+  1: required list<string> paths
+  2: required list<string> aggregations
+  3: required list<int> dataTypeOrdinals
+  4: required list<int> groupIndexes
+  5: required int groupNum
+  6: optional binary timeFilterBytes
+  7: required RaftNode header
+  8: required long queryId
+  9: required Node requestor
+  10: required map<string, set<string>> deviceMeasurements
+  11: required bool ascending
+}
+
 struct GroupByRequest {
   1: required string path
   2: required int dataTypeOrdinal
@@ -253,6 +273,24 @@ struct GroupByRequest {
   9: required bool ascending
 }
 
+/**
+* Group by time aggregations over many series whose results are merged into level groups on the
+* data group. paths, dataTypeOrdinals and aggregationTypeOrdinals are parallel lists, and
+* groupIndexes gives the index of the group that each entry is merged into.
+**/
+struct GroupedGroupByRequest {
+  1: required list<string> paths
+  2: required list<int> dataTypeOrdinals
+  3: required list<int> aggregationTypeOrdinals
+  4: required list<int> groupIndexes
+  5: optional binary timeFilterBytes
+  6: required long queryId
+  7: required RaftNode header
+  8: required Node requestor
+  9: required map<string, set<string>> deviceMeasurements
+  10: required bool ascending
+}
+
 struct LastQueryRequest {
   1: required list<string> paths
   2: required list<int> dataTypeOrdinals
@@ -431,6 +469,14 @@ service TSDataService extends RaftService {
 
   list<binary> getAggrResult(1:GetAggrResultRequest request)
 
+  /**
+  * Perform the aggregations of the request and merge the partial results of the entries in the
+  * same group locally.
+  * @return one serialized AggregateResult for each group, or an empty binary if the group has no
+  * entry in this data group
+  **/
+  list<binary> getGroupedAggrResult(1:GetGroupedAggrResultRequest request)
+
   list<string> getUnregisteredTimeseries(1: RaftNode header, 2: list<string> timeseriesList)
 
   PullSnapshotResp pullSnapshot(1:PullSnapshotRequest request)
@@ -441,6 +487,14 @@ service TSDataService extends RaftService {
   **/
   long getGroupByExecutor(1:GroupByRequest request)
 
+  /**
+  * Create a GroupByExecutor for many series, which merges the results of the entries in the same
+  * group locally. Its results fetched by getGroupByResult are ordered by the group index, one for
+  * each distinct group in the request.
+  * @return the executorId, or -1 if there is no data of the series in this data group
+  **/
+  long getGroupedGroupByExecutor(1:GroupedGroupByRequest request)
+
   /**
   * Fetch the group by result in the interval [startTime, endTime) from the given executor.
   * @return the serialized AggregationResults, each is the result of one of the previously
@@ -51,6 +51,10 @@ struct MigrateDataRegionReq{
     3: required int dataRegionID
 }
 
+struct InvalidatePartitionCacheReq {
+    1: required long version
+}
+
 service ManagementIService {
     /**
       * Config node will create a schema region on a list of data nodes.
@@ -88,5 +92,13 @@ service ManagementIService {
     **/
     rpc.TSStatus migrateDataRegion(MigrateDataRegionReq req)
 
+    /**
+      * Config node will ask data nodes to drop their cached partitions when existing partitions
+      * change, e.g. a region is migrated or a storage group is deleted
+      *
+      * @param the new partition version, older or equal versions are ignored
+    **/
+    rpc.TSStatus invalidatePartitionCache(InvalidatePartitionCacheReq req)
+
 
 }
\ No newline at end of file
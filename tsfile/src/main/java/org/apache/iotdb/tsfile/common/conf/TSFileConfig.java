@@ -50,6 +50,11 @@ public class TSFileConfig implements Serializable {
   public static final float GORILLA_ENCODING_ENDING_FLOAT = Float.NaN;
   public static final double GORILLA_ENCODING_ENDING_DOUBLE = Double.NaN;
 
+  /** CHIMP may reference any of the previous 2^7 = 128 values. */
+  public static final int CHIMP_PREVIOUS_VALUES_LOG2 = 7;
+  /** CHIMP rounds the leading zeros down to one of 8 steps, stored in 3 bits. */
+  public static final int CHIMP_LEADING_ZERO_BITS_LENGTH = 3;
+
   /** String encoder with UTF-8 encodes a character to at most 4 bytes. */
   public static final int BYTE_SIZE_PER_CHAR = 4;
 
@@ -75,6 +80,12 @@ public class TSFileConfig implements Serializable {
   private int pageSizeInByte = 64 * 1024;
   /** The maximum number of data points in a page, default value is 1024 * 1024. */
   private int maxNumberOfPointsInPage = 1024 * 1024;
+  /**
+   * The number of points of a mini-block inside a page. Each mini-block keeps its own statistics so
+   * that readers can skip the points that cannot satisfy a filter. Pages written with mini-blocks
+   * can not be read by older versions. Default value is 0, which disables mini-blocks.
+   */
+  private int pageMiniBlockSize = 0;
   /** The maximum degree of a metadataIndex node, default value is 256 */
   private int maxDegreeOfIndexNode = 256;
   /** Data type for input timestamp, TsFile supports INT64. */
@@ -84,8 +95,9 @@ public class TSFileConfig implements Serializable {
   /** Floating-point precision. */
   private int floatPrecision = 2;
   /**
-   * Encoder of time column, TsFile supports TS_2DIFF, PLAIN and RLE(run-length encoding) Default
-   * value is TS_2DIFF.
+   * Encoder of time column, TsFile supports TS_2DIFF, PLAIN, RLE(run-length encoding) and INTERVAL,
+   * which stores a page sampled at a fixed interval as the start, the interval and a bitmap of
+   * missing points. Default value is TS_2DIFF.
    */
   private String timeEncoding = "TS_2DIFF";
   /**
@@ -111,8 +123,10 @@ public class TSFileConfig implements Serializable {
   private double freqEncodingSNR = 40;
   /** Default block size for FREQ encoding is 1024. */
   private int freqEncodingBlockSize = 1024;
-  /** Data compression method, TsFile supports UNCOMPRESSED, SNAPPY or LZ4. */
+  /** Data compression method, TsFile supports UNCOMPRESSED, SNAPPY, LZ4, GZIP or ZSTD. */
   private CompressionType compressor = CompressionType.SNAPPY;
+  /** Compression level of ZSTD, from 1 (fastest) to 22 (smallest). */
+  private int zstdCompressionLevel = 3;
   /** Line count threshold for checking page memory occupied size. */
   private int pageCheckSizeThreshold = 100;
   /** Default endian value is BIG_ENDIAN. */
@@ -147,6 +161,8 @@ public class TSFileConfig implements Serializable {
   private String kerberosPrincipal = "principal";
   /** The acceptable error rate of bloom filter */
   private double bloomFilterErrorRate = 0.05;
+  /** Whether to add the devices to the bloom filter besides the series */
+  private boolean deviceLevelBloomFilter = true;
   /** The amount of data iterate each time */
   private int batchSize = 1000;
 
@@ -176,6 +192,14 @@ public class TSFileConfig implements Serializable {
     this.maxNumberOfPointsInPage = maxNumberOfPointsInPage;
   }
 
+  public int getPageMiniBlockSize() {
+    return pageMiniBlockSize;
+  }
+
+  public void setPageMiniBlockSize(int pageMiniBlockSize) {
+    this.pageMiniBlockSize = pageMiniBlockSize;
+  }
+
   public int getMaxDegreeOfIndexNode() {
     return maxDegreeOfIndexNode;
   }
@@ -288,6 +312,14 @@ public class TSFileConfig implements Serializable {
     this.compressor = CompressionType.valueOf(compressor);
   }
 
+  public int getZstdCompressionLevel() {
+    return zstdCompressionLevel;
+  }
+
+  public void setZstdCompressionLevel(int zstdCompressionLevel) {
+    this.zstdCompressionLevel = zstdCompressionLevel;
+  }
+
   public int getPageCheckSizeThreshold() {
     return pageCheckSizeThreshold;
   }
@@ -336,6 +368,14 @@ public class TSFileConfig implements Serializable {
     this.bloomFilterErrorRate = bloomFilterErrorRate;
   }
 
+  public boolean isDeviceLevelBloomFilter() {
+    return deviceLevelBloomFilter;
+  }
+
+  public void setDeviceLevelBloomFilter(boolean deviceLevelBloomFilter) {
+    this.deviceLevelBloomFilter = deviceLevelBloomFilter;
+  }
+
   public FSType getTSFileStorageFs() {
     return this.TSFileStorageFs;
   }
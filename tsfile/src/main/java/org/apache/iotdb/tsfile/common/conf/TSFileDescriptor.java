@@ -74,12 +74,14 @@ public class TSFileDescriptor {
       conf.setPageSizeInByte(groupSizeInByte);
     }
     writer.setInt(conf::setMaxNumberOfPointsInPage, "max_number_of_points_in_page");
+    writer.setInt(conf::setPageMiniBlockSize, "page_mini_block_size");
     writer.setInt(conf::setMaxDegreeOfIndexNode, "max_degree_of_index_node");
     writer.setInt(conf::setMaxStringLength, "max_string_length");
     writer.setInt(conf::setFloatPrecision, "float_precision");
     writer.setString(conf::setTimeEncoder, "time_encoder");
     writer.setString(conf::setValueEncoder, "value_encoder");
     writer.setString(conf::setCompressor, "compressor");
+    writer.setInt(conf::setZstdCompressionLevel, "zstd_compression_level");
     writer.setInt(conf::setBatchSize, "batch_size");
     writer.setInt(conf::setFreqEncodingBlockSize, "freq_block_size");
     writer.setDouble(conf::setFreqEncodingSNR, "freq_snr");
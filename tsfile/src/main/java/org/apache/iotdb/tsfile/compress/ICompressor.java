@@ -19,10 +19,13 @@
 
 package org.apache.iotdb.tsfile.compress;
 
+import org.apache.iotdb.tsfile.common.conf.TSFileDescriptor;
 import org.apache.iotdb.tsfile.exception.compress.CompressionTypeNotSupportedException;
 import org.apache.iotdb.tsfile.exception.compress.GZIPCompressOverflowException;
 import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
 
+import com.github.luben.zstd.Zstd;
+import com.github.luben.zstd.ZstdDictCompress;
 import net.jpountz.lz4.LZ4Compressor;
 import net.jpountz.lz4.LZ4Factory;
 import org.xerial.snappy.Snappy;
@@ -32,12 +35,14 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.Serializable;
 import java.nio.ByteBuffer;
+import java.util.Arrays;
 import java.util.zip.GZIPInputStream;
 import java.util.zip.GZIPOutputStream;
 
 import static org.apache.iotdb.tsfile.file.metadata.enums.CompressionType.GZIP;
 import static org.apache.iotdb.tsfile.file.metadata.enums.CompressionType.LZ4;
 import static org.apache.iotdb.tsfile.file.metadata.enums.CompressionType.SNAPPY;
+import static org.apache.iotdb.tsfile.file.metadata.enums.CompressionType.ZSTD;
 
 /** compress data according to type in schema. */
 public interface ICompressor extends Serializable {
@@ -65,6 +70,8 @@ public interface ICompressor extends Serializable {
         return new IOTDBLZ4Compressor();
       case GZIP:
         return new GZIPCompressor();
+      case ZSTD:
+        return new ZstdCompressor();
       default:
         throw new CompressionTypeNotSupportedException(name.toString());
     }
@@ -311,4 +318,99 @@ public interface ICompressor extends Serializable {
       return GZIP;
     }
   }
+
+  class ZstdCompressor implements ICompressor {
+
+    private final int level;
+
+    /** null if data is compressed without a dictionary */
+    private final transient ZstdDictCompress dictionary;
+
+    /** id of the dictionary, 0 if data is compressed without a dictionary */
+    private final long dictionaryId;
+
+    public ZstdCompressor() {
+      this(TSFileDescriptor.getInstance().getConfig().getZstdCompressionLevel());
+    }
+
+    /** @param level compression level, higher levels compress better but slower */
+    public ZstdCompressor(int level) {
+      this(level, null);
+    }
+
+    /**
+     * @param level compression level, higher levels compress better but slower
+     * @param dictionary a dictionary trained by {@link ZstdDictionaryRegistry#trainDictionary}, or
+     *     null to compress without a dictionary. Its id is recorded in every frame compressed with
+     *     it, and the TsFiles written with it must carry it, see {@link #getDictionaryId()}.
+     */
+    public ZstdCompressor(int level, byte[] dictionary) {
+      this.level = level;
+      this.dictionary = dictionary == null ? null : new ZstdDictCompress(dictionary, level);
+      this.dictionaryId = dictionary == null ? 0 : Zstd.getDictIdFromDict(dictionary);
+    }
+
+    /** @return id of the dictionary, 0 if data is compressed without a dictionary */
+    public long getDictionaryId() {
+      return dictionaryId;
+    }
+
+    @Override
+    public byte[] compress(byte[] data) throws IOException {
+      if (data == null) {
+        return new byte[0];
+      }
+      return compress(data, 0, data.length);
+    }
+
+    @Override
+    public byte[] compress(byte[] data, int offset, int length) throws IOException {
+      byte[] maxCompressed = new byte[getMaxBytesForCompression(length)];
+      int compressedSize = compress(data, offset, length, maxCompressed);
+      return compressedSize < maxCompressed.length
+          ? Arrays.copyOf(maxCompressed, compressedSize)
+          : maxCompressed;
+    }
+
+    @Override
+    public int compress(byte[] data, int offset, int length, byte[] compressed) throws IOException {
+      long size;
+      if (dictionary == null) {
+        size =
+            Zstd.compressByteArray(compressed, 0, compressed.length, data, offset, length, level);
+      } else {
+        size = Zstd.compressFastDict(compressed, 0, data, offset, length, dictionary);
+      }
+      if (Zstd.isError(size)) {
+        throw new IOException("tsfile-compression ZstdCompressor: " + Zstd.getErrorName(size));
+      }
+      return (int) size;
+    }
+
+    @Override
+    public int compress(ByteBuffer data, ByteBuffer compressed) throws IOException {
+      int length = data.remaining();
+      byte[] res;
+      if (data.hasArray()) {
+        res = compress(data.array(), data.arrayOffset() + data.position(), length);
+        data.position(data.position() + length);
+      } else {
+        byte[] dataBefore = new byte[length];
+        data.get(dataBefore, 0, length);
+        res = compress(dataBefore, 0, length);
+      }
+      compressed.put(res);
+      return res.length;
+    }
+
+    @Override
+    public int getMaxBytesForCompression(int uncompressedDataSize) {
+      return (int) Zstd.compressBound(uncompressedDataSize);
+    }
+
+    @Override
+    public CompressionType getType() {
+      return ZSTD;
+    }
+  }
 }
@@ -22,6 +22,8 @@ package org.apache.iotdb.tsfile.compress;
 import org.apache.iotdb.tsfile.exception.compress.CompressionTypeNotSupportedException;
 import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
 
+import com.github.luben.zstd.Zstd;
+import com.github.luben.zstd.ZstdDictDecompress;
 import net.jpountz.lz4.LZ4Compressor;
 import net.jpountz.lz4.LZ4Factory;
 import net.jpountz.lz4.LZ4SafeDecompressor;
@@ -54,6 +56,8 @@ public interface IUnCompressor {
         return new LZ4UnCompressor();
       case GZIP:
         return new GZIPUnCompressor();
+      case ZSTD:
+        return new ZstdUnCompressor();
       default:
         throw new CompressionTypeNotSupportedException(name.toString());
     }
@@ -97,6 +101,37 @@ public interface IUnCompressor {
    */
   int uncompress(ByteBuffer compressed, ByteBuffer uncompressed) throws IOException;
 
+  /**
+   * uncompress the next {@code length} bytes of the buffer into the caller's array and advance the
+   * position of the buffer. The compressed bytes of a heap buffer are read in place, so page reads
+   * do not need an intermediate array.
+   *
+   * @param compressed buffer positioned at the compressed bytes
+   * @param length length of the compressed bytes
+   * @param output output byte
+   * @param outOffset offset of the output byte
+   * @return the valid length of the output array
+   */
+  default int uncompress(ByteBuffer compressed, int length, byte[] output, int outOffset)
+      throws IOException {
+    int uncompressedLength;
+    if (compressed.hasArray()) {
+      uncompressedLength =
+          uncompress(
+              compressed.array(),
+              compressed.arrayOffset() + compressed.position(),
+              length,
+              output,
+              outOffset);
+    } else {
+      byte[] compressedBytes = new byte[length];
+      compressed.duplicate().get(compressedBytes);
+      uncompressedLength = uncompress(compressedBytes, 0, length, output, outOffset);
+    }
+    compressed.position(compressed.position() + length);
+    return uncompressedLength;
+  }
+
   CompressionType getCodecName();
 
   class NoUnCompressor implements IUnCompressor {
@@ -236,7 +271,7 @@ public interface IUnCompressor {
     public int uncompress(byte[] byteArray, int offset, int length, byte[] output, int outOffset)
         throws IOException {
       try {
-        return decompressor.decompress(byteArray, offset, length, output, offset);
+        return decompressor.decompress(byteArray, offset, length, output, outOffset);
       } catch (RuntimeException e) {
         logger.error(UNCOMPRESS_INPUT_ERROR, e);
         throw new IOException(e);
@@ -312,4 +347,97 @@ public interface IUnCompressor {
       return CompressionType.GZIP;
     }
   }
+
+  /**
+   * Frames compressed with a dictionary are uncompressed with the dictionary of the id in their
+   * header, which is registered in {@link ZstdDictionaryRegistry} when the metadata of its TsFile is
+   * read.
+   */
+  class ZstdUnCompressor implements IUnCompressor {
+
+    @Override
+    public int getUncompressedLength(byte[] array, int offset, int length) throws IOException {
+      long size = Zstd.decompressedSize(array, offset, length);
+      if (size <= 0 || size > Integer.MAX_VALUE) {
+        throw new IOException("tsfile-compression ZstdUnCompressor: unknown uncompressed size");
+      }
+      return (int) size;
+    }
+
+    @Override
+    public int getUncompressedLength(ByteBuffer buffer) throws IOException {
+      if (buffer.hasArray()) {
+        return getUncompressedLength(
+            buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+      }
+      byte[] bytes = new byte[buffer.remaining()];
+      buffer.duplicate().get(bytes);
+      return getUncompressedLength(bytes, 0, bytes.length);
+    }
+
+    @Override
+    public byte[] uncompress(byte[] bytes) throws IOException {
+      if (bytes == null) {
+        return new byte[0];
+      }
+      byte[] uncompressed = new byte[getUncompressedLength(bytes, 0, bytes.length)];
+      uncompress(bytes, 0, bytes.length, uncompressed, 0);
+      return uncompressed;
+    }
+
+    @Override
+    public int uncompress(byte[] byteArray, int offset, int length, byte[] output, int outOffset)
+        throws IOException {
+      long dictionaryId = ZstdDictionaryRegistry.getDictionaryId(byteArray, offset, length);
+      long size;
+      if (dictionaryId == 0) {
+        size =
+            Zstd.decompressByteArray(
+                output, outOffset, output.length - outOffset, byteArray, offset, length);
+      } else {
+        ZstdDictDecompress dictionary =
+            ZstdDictionaryRegistry.getInstance().getDecompressDictionary(dictionaryId);
+        if (dictionary == null) {
+          throw new IOException(
+              "tsfile-compression ZstdUnCompressor: dictionary "
+                  + dictionaryId
+                  + " is not loaded, read the metadata of its TsFile first");
+        }
+        size = Zstd.decompressFastDict(output, outOffset, byteArray, offset, length, dictionary);
+      }
+      if (Zstd.isError(size)) {
+        throw new IOException("tsfile-compression ZstdUnCompressor: " + Zstd.getErrorName(size));
+      }
+      return (int) size;
+    }
+
+    /** Heap buffers are uncompressed in place, direct buffers are copied through an array. */
+    @Override
+    public int uncompress(ByteBuffer compressed, ByteBuffer uncompressed) throws IOException {
+      if (compressed == null || !compressed.hasRemaining()) {
+        return 0;
+      }
+      int length = compressed.remaining();
+      int size;
+      if (uncompressed.hasArray()) {
+        size =
+            uncompress(
+                compressed,
+                length,
+                uncompressed.array(),
+                uncompressed.arrayOffset() + uncompressed.position());
+        uncompressed.position(uncompressed.position() + size);
+      } else {
+        byte[] res = new byte[getUncompressedLength(compressed)];
+        size = uncompress(compressed, length, res, 0);
+        uncompressed.put(res, 0, size);
+      }
+      return size;
+    }
+
+    @Override
+    public CompressionType getCodecName() {
+      return CompressionType.ZSTD;
+    }
+  }
 }
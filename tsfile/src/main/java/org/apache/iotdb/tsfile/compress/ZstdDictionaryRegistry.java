@@ -0,0 +1,165 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.compress;
+
+import org.apache.iotdb.tsfile.common.conf.TSFileDescriptor;
+import org.apache.iotdb.tsfile.compress.ICompressor.ZstdCompressor;
+
+import com.github.luben.zstd.Zstd;
+import com.github.luben.zstd.ZstdDictDecompress;
+import com.github.luben.zstd.ZstdDictTrainer;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of the trained ZSTD dictionaries. A frame compressed with a dictionary records the id of
+ * the dictionary in its header, so {@link IUnCompressor.ZstdUnCompressor} resolves the dictionary
+ * here. Every TsFile carries the dictionaries its pages are compressed with in the tail of its
+ * metadata, and {@link org.apache.iotdb.tsfile.read.TsFileSequenceReader#readFileMetadata()}
+ * registers them, so a TsFile can be read wherever it is copied to.
+ *
+ * <p>A dictionary id is only a 32-bit hash of the dictionary, so a different dictionary with an id
+ * that is already registered is rejected rather than silently replacing the registered one.
+ */
+public class ZstdDictionaryRegistry {
+
+  /** the maximum byte size of a ZSTD frame header, which holds the dictionary id */
+  private static final int MAX_FRAME_HEADER_SIZE = 18;
+
+  /** dictionary id -> dictionary */
+  private final Map<Long, Dictionary> dictionaries = new ConcurrentHashMap<>();
+
+  /** storage group -> the compressor that new pages of the storage group are compressed with */
+  private final Map<String, ZstdCompressor> compressors = new ConcurrentHashMap<>();
+
+  private ZstdDictionaryRegistry() {}
+
+  public static ZstdDictionaryRegistry getInstance() {
+    return ZstdDictionaryRegistryHolder.INSTANCE;
+  }
+
+  /**
+   * train a dictionary from sampled uncompressed pages.
+   *
+   * @param samples uncompressed pages, the more similar they are the better the dictionary works
+   * @param dictionarySize maximum byte size of the dictionary
+   * @return the trained dictionary
+   */
+  public static byte[] trainDictionary(List<byte[]> samples, int dictionarySize) {
+    int totalSize = 0;
+    for (byte[] sample : samples) {
+      totalSize += sample.length;
+    }
+    ZstdDictTrainer trainer = new ZstdDictTrainer(totalSize, dictionarySize);
+    for (byte[] sample : samples) {
+      trainer.addSample(sample);
+    }
+    return trainer.trainSamples();
+  }
+
+  /** @return the id of the dictionary the ZSTD frame is compressed with, 0 if there is none */
+  public static long getDictionaryId(byte[] frame, int offset, int length) {
+    return Zstd.getDictIdFromFrame(
+        Arrays.copyOfRange(frame, offset, offset + Math.min(length, MAX_FRAME_HEADER_SIZE)));
+  }
+
+  /** @return the id of the dictionary the ZSTD frame is compressed with, 0 if there is none */
+  public static long getDictionaryId(ByteBuffer frame) {
+    byte[] header = new byte[Math.min(frame.remaining(), MAX_FRAME_HEADER_SIZE)];
+    frame.duplicate().get(header);
+    return Zstd.getDictIdFromFrame(header);
+  }
+
+  /**
+   * register a dictionary so that frames compressed with it can be uncompressed.
+   *
+   * @return the id of the dictionary
+   * @throws IllegalArgumentException if it is not a trained dictionary, or a different dictionary
+   *     with the same id is registered
+   */
+  public long register(byte[] dictionary) {
+    long dictionaryId = Zstd.getDictIdFromDict(dictionary);
+    if (dictionaryId == 0) {
+      throw new IllegalArgumentException("Not a trained ZSTD dictionary");
+    }
+    Dictionary registered =
+        dictionaries.computeIfAbsent(dictionaryId, id -> new Dictionary(dictionary));
+    if (!Arrays.equals(registered.bytes, dictionary)) {
+      throw new IllegalArgumentException(
+          "A different ZSTD dictionary with id " + dictionaryId + " is already registered");
+    }
+    return dictionaryId;
+  }
+
+  /** @return the serialized dictionary of the id, or null if it is not registered */
+  public byte[] getDictionary(long dictionaryId) {
+    Dictionary dictionary = dictionaries.get(dictionaryId);
+    return dictionary == null ? null : dictionary.bytes;
+  }
+
+  /** @return the dictionary of the id, or null if it is not registered */
+  public ZstdDictDecompress getDecompressDictionary(long dictionaryId) {
+    Dictionary dictionary = dictionaries.get(dictionaryId);
+    return dictionary == null ? null : dictionary.decompressDictionary;
+  }
+
+  /** @return the compressor of the dictionary of the storage group, or null if there is none */
+  public ZstdCompressor getCompressor(String storageGroup) {
+    return compressors.get(storageGroup);
+  }
+
+  /**
+   * register a dictionary and compress the new pages of the storage group with it.
+   *
+   * @return the id of the dictionary
+   */
+  public long setCompressDictionary(String storageGroup, byte[] dictionary) {
+    long dictionaryId = register(dictionary);
+    compressors.put(
+        storageGroup,
+        new ZstdCompressor(
+            TSFileDescriptor.getInstance().getConfig().getZstdCompressionLevel(), dictionary));
+    return dictionaryId;
+  }
+
+  public void clear() {
+    compressors.clear();
+    dictionaries.clear();
+  }
+
+  private static class Dictionary {
+
+    private final byte[] bytes;
+    private final ZstdDictDecompress decompressDictionary;
+
+    private Dictionary(byte[] bytes) {
+      this.bytes = bytes;
+      this.decompressDictionary = new ZstdDictDecompress(bytes);
+    }
+  }
+
+  private static class ZstdDictionaryRegistryHolder {
+
+    private static final ZstdDictionaryRegistry INSTANCE = new ZstdDictionaryRegistry();
+  }
+}
@@ -123,6 +123,37 @@ public abstract class Decoder {
         }
       case FREQ:
         return new FreqDecoder();
+      case CHIMP:
+        switch (dataType) {
+          case FLOAT:
+            return new SinglePrecisionChimpDecoder();
+          case DOUBLE:
+            return new DoublePrecisionChimpDecoder();
+          case INT32:
+            return new IntChimpDecoder();
+          case INT64:
+          case VECTOR:
+            return new LongChimpDecoder();
+          default:
+            throw new TsFileDecodingException(String.format(ERROR_MSG, encoding, dataType));
+        }
+      case ELF:
+        switch (dataType) {
+          case FLOAT:
+            return new SinglePrecisionElfDecoder();
+          case DOUBLE:
+            return new DoublePrecisionElfDecoder();
+          default:
+            throw new TsFileDecodingException(String.format(ERROR_MSG, encoding, dataType));
+        }
+      case INTERVAL:
+        switch (dataType) {
+          case INT64:
+          case VECTOR:
+            return new IntervalDecoder();
+          default:
+            throw new TsFileDecodingException(String.format(ERROR_MSG, encoding, dataType));
+        }
       default:
         throw new TsFileDecodingException(String.format(ERROR_MSG, encoding, dataType));
     }
@@ -160,6 +191,54 @@ public abstract class Decoder {
     throw new TsFileDecodingException("Method readBigDecimal is not supported by Decoder");
   }
 
+  /**
+   * read at most {@code length} longs into the array, decoders able to decode a batch faster than
+   * value by value may override this.
+   *
+   * @return number of longs read
+   */
+  public int readLongs(ByteBuffer buffer, long[] values, int offset, int length)
+      throws IOException {
+    int count = 0;
+    while (count < length && hasNext(buffer)) {
+      values[offset + count] = readLong(buffer);
+      count++;
+    }
+    return count;
+  }
+
+  /**
+   * read at most {@code length} floats into the array, decoders able to decode a batch faster
+   * than value by value may override this.
+   *
+   * @return number of floats read
+   */
+  public int readFloats(ByteBuffer buffer, float[] values, int offset, int length)
+      throws IOException {
+    int count = 0;
+    while (count < length && hasNext(buffer)) {
+      values[offset + count] = readFloat(buffer);
+      count++;
+    }
+    return count;
+  }
+
+  /**
+   * read at most {@code length} doubles into the array, decoders able to decode a batch faster
+   * than value by value may override this.
+   *
+   * @return number of doubles read
+   */
+  public int readDoubles(ByteBuffer buffer, double[] values, int offset, int length)
+      throws IOException {
+    int count = 0;
+    while (count < length && hasNext(buffer)) {
+      values[offset + count] = readDouble(buffer);
+      count++;
+    }
+    return count;
+  }
+
   public abstract boolean hasNext(ByteBuffer buffer) throws IOException;
 
   public abstract void reset();
@@ -0,0 +1,115 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.encoding.decoder;
+
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.utils.ElfUtils;
+
+import java.nio.ByteBuffer;
+
+import static org.apache.iotdb.tsfile.common.conf.TSFileConfig.GORILLA_ENCODING_ENDING_DOUBLE;
+
+/** Decoder of {@link org.apache.iotdb.tsfile.encoding.encoder.DoublePrecisionElfEncoder}. */
+public class DoublePrecisionElfDecoder extends LongChimpDecoder {
+
+  private static final long ELF_ENCODING_ENDING =
+      Double.doubleToRawLongBits(GORILLA_ENCODING_ENDING_DOUBLE);
+
+  /** decimal places of the cached value, -1 if it is not erased */
+  private int decimalPlaces = -1;
+  /** decimal places of the last erased value */
+  private int storedDecimalPlaces = -1;
+
+  public DoublePrecisionElfDecoder() {
+    super(TSEncoding.ELF);
+  }
+
+  @Override
+  public void reset() {
+    super.reset();
+    decimalPlaces = -1;
+    storedDecimalPlaces = -1;
+  }
+
+  @Override
+  public final double readDouble(ByteBuffer in) {
+    if (!firstValueWasRead) {
+      readFirstValue(in);
+    }
+    double returnValue = restoreCachedValue();
+    cacheNext(in);
+    return returnValue;
+  }
+
+  /**
+   * Decode the values one after another in a single loop, without the per value checks and calls
+   * of {@link #readDouble(ByteBuffer)}.
+   */
+  @Override
+  public final int readDoubles(ByteBuffer buffer, double[] values, int offset, int length) {
+    if (length > 0 && !firstValueWasRead) {
+      readFirstValue(buffer);
+    }
+    int count = 0;
+    while (count < length && hasNext) {
+      values[offset + count] = restoreCachedValue();
+      count++;
+      readDecimalPlaces(buffer);
+      readNext(buffer);
+      if (decimalPlaces < 0 && storedValue == ELF_ENCODING_ENDING) {
+        hasNext = false;
+      }
+    }
+    return count;
+  }
+
+  private void readFirstValue(ByteBuffer in) {
+    flipByte(in);
+    readDecimalPlaces(in);
+    readFirst(in);
+    firstValueWasRead = true;
+  }
+
+  private double restoreCachedValue() {
+    return decimalPlaces < 0
+        ? Double.longBitsToDouble(storedValue)
+        : ElfUtils.restoreDouble(storedValue, decimalPlaces);
+  }
+
+  @Override
+  protected long cacheNext(ByteBuffer in) {
+    readDecimalPlaces(in);
+    readNext(in);
+    if (decimalPlaces < 0 && storedValue == ELF_ENCODING_ENDING) {
+      hasNext = false;
+    }
+    return storedValue;
+  }
+
+  private void readDecimalPlaces(ByteBuffer in) {
+    if (!readBit(in)) {
+      decimalPlaces = -1;
+      return;
+    }
+    if (readBit(in)) {
+      storedDecimalPlaces = (int) readLong(ElfUtils.DECIMAL_PLACES_BITS, in);
+    }
+    decimalPlaces = storedDecimalPlaces;
+  }
+}
@@ -43,7 +43,12 @@ public abstract class GorillaDecoderV2 extends Decoder {
   private int bitsLeft = 0;
 
   protected GorillaDecoderV2() {
-    super(TSEncoding.GORILLA);
+    this(TSEncoding.GORILLA);
+  }
+
+  /** for the XOR based encodings that share the bit level stream of Gorilla. */
+  protected GorillaDecoderV2(TSEncoding type) {
+    super(type);
   }
 
   @Override
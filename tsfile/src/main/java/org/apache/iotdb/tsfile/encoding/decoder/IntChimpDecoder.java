@@ -0,0 +1,115 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.encoding.decoder;
+
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+
+import java.nio.ByteBuffer;
+
+import static org.apache.iotdb.tsfile.common.conf.TSFileConfig.CHIMP_LEADING_ZERO_BITS_LENGTH;
+import static org.apache.iotdb.tsfile.common.conf.TSFileConfig.CHIMP_PREVIOUS_VALUES_LOG2;
+import static org.apache.iotdb.tsfile.common.conf.TSFileConfig.GORILLA_ENCODING_ENDING_INTEGER;
+import static org.apache.iotdb.tsfile.common.conf.TSFileConfig.MEANINGFUL_XOR_BITS_LENGTH_32BIT;
+import static org.apache.iotdb.tsfile.common.conf.TSFileConfig.VALUE_BITS_LENGTH_32BIT;
+
+/** Decoder of {@link org.apache.iotdb.tsfile.encoding.encoder.IntChimpEncoder}. */
+public class IntChimpDecoder extends GorillaDecoderV2 {
+
+  private static final int PREVIOUS_VALUES = 1 << CHIMP_PREVIOUS_VALUES_LOG2;
+
+  protected int storedValue = 0;
+
+  /** the last 128 values, the last one is at current */
+  private final int[] storedValues = new int[PREVIOUS_VALUES];
+
+  private int current = 0;
+
+  public IntChimpDecoder() {
+    super(TSEncoding.CHIMP);
+  }
+
+  protected IntChimpDecoder(TSEncoding type) {
+    super(type);
+  }
+
+  @Override
+  public void reset() {
+    super.reset();
+    storedValue = 0;
+    current = 0;
+  }
+
+  @Override
+  public final int readInt(ByteBuffer in) {
+    int returnValue = storedValue;
+    if (!firstValueWasRead) {
+      flipByte(in);
+      readFirst(in);
+      firstValueWasRead = true;
+      returnValue = storedValue;
+    }
+    cacheNext(in);
+    return returnValue;
+  }
+
+  protected void readFirst(ByteBuffer in) {
+    storedValue = (int) readLong(VALUE_BITS_LENGTH_32BIT, in);
+    storedValues[0] = storedValue;
+  }
+
+  protected int cacheNext(ByteBuffer in) {
+    readNext(in);
+    if (storedValue == GORILLA_ENCODING_ENDING_INTEGER) {
+      hasNext = false;
+    }
+    return storedValue;
+  }
+
+  protected int readNext(ByteBuffer in) {
+    int controlBits = (int) readLong(2, in);
+
+    switch (controlBits) {
+      case 3: // case '11': XORed with the last value, use new leading zeros
+        storedLeadingZeros = readLeadingZeros(in);
+        storedValue ^= (int) readLong(VALUE_BITS_LENGTH_32BIT - storedLeadingZeros, in);
+        break;
+      case 2: // case '10': XORed with the last value, use stored leading zeros
+        storedValue ^= (int) readLong(VALUE_BITS_LENGTH_32BIT - storedLeadingZeros, in);
+        break;
+      case 1: // case '01': XORed with a previous value, use new leading and trailing zeros
+        int reference = storedValues[(int) readLong(CHIMP_PREVIOUS_VALUES_LOG2, in)];
+        storedLeadingZeros = readLeadingZeros(in);
+        int significantBits = (int) readLong(MEANINGFUL_XOR_BITS_LENGTH_32BIT, in);
+        storedTrailingZeros = VALUE_BITS_LENGTH_32BIT - significantBits - storedLeadingZeros;
+        storedValue = reference ^ (int) (readLong(significantBits, in) << storedTrailingZeros);
+        break;
+      default: // case '00': same as a previous value
+        storedValue = storedValues[(int) readLong(CHIMP_PREVIOUS_VALUES_LOG2, in)];
+        break;
+    }
+
+    current = (current + 1) % PREVIOUS_VALUES;
+    storedValues[current] = storedValue;
+    return storedValue;
+  }
+
+  private int readLeadingZeros(ByteBuffer in) {
+    return LongChimpDecoder.LEADING_ZEROS_STEPS[(int) readLong(CHIMP_LEADING_ZERO_BITS_LENGTH, in)];
+  }
+}
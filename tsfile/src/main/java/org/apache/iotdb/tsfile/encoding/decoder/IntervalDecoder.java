@@ -0,0 +1,254 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.encoding.decoder;
+
+import org.apache.iotdb.tsfile.encoding.encoder.IntervalEncoder;
+import org.apache.iotdb.tsfile.exception.encoding.TsFileDecodingException;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.utils.ReadWriteForEncodingUtils;
+import org.apache.iotdb.tsfile.utils.ReadWriteIOUtils;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Decoder for values encoded by {@link IntervalEncoder}. Values of a grid block are generated from
+ * the start and the interval, so {@link #readLongs} fills the array without decoding each value
+ * and {@link #skipTo} finds the slot of a timestamp by division.
+ *
+ * @see IntervalEncoder
+ */
+public class IntervalDecoder extends Decoder {
+
+  private boolean gridMode;
+
+  // grid mode
+  private long start;
+  private long interval;
+  private int slotCount;
+  /** null if all slots hold a value */
+  private long[] bitmap;
+  /** the slot of the next value, slotCount if the block is exhausted */
+  private int nextSlot;
+
+  // fallback mode
+  private long[] values = new long[0];
+  private int count;
+  private int nextIndex;
+
+  private final DeltaBinaryDecoder.LongDeltaDecoder fallbackDecoder =
+      new DeltaBinaryDecoder.LongDeltaDecoder();
+
+  public IntervalDecoder() {
+    super(TSEncoding.INTERVAL);
+    reset();
+  }
+
+  @Override
+  public boolean hasNext(ByteBuffer buffer) {
+    if (hasNextInBlock()) {
+      return true;
+    }
+    if (buffer.hasRemaining()) {
+      readBlock(buffer);
+      return true;
+    }
+    return false;
+  }
+
+  private boolean hasNextInBlock() {
+    return gridMode ? nextSlot < slotCount : nextIndex < count;
+  }
+
+  private void readBlock(ByteBuffer buffer) {
+    byte mode = buffer.get();
+    count = ReadWriteForEncodingUtils.readUnsignedVarInt(buffer);
+    if (mode == IntervalEncoder.GRID_MODE) {
+      gridMode = true;
+      start = ReadWriteIOUtils.readLong(buffer);
+      interval = ReadWriteIOUtils.readLong(buffer);
+      slotCount = ReadWriteForEncodingUtils.readUnsignedVarInt(buffer);
+      bitmap = slotCount > count ? readBitmap(buffer) : null;
+      nextSlot = 0;
+    } else if (mode == IntervalEncoder.FALLBACK_MODE) {
+      gridMode = false;
+      if (values.length < count) {
+        values = new long[count];
+      }
+      for (int i = 0; i < count; i++) {
+        values[i] = fallbackDecoder.readLong(buffer);
+      }
+      fallbackDecoder.reset();
+      nextIndex = 0;
+    } else {
+      throw new TsFileDecodingException("Unknown mode of INTERVAL encoding: " + mode);
+    }
+  }
+
+  private long[] readBitmap(ByteBuffer buffer) {
+    long[] words = new long[(slotCount + 63) >>> 6];
+    for (int i = 0; i < (slotCount + 7) / 8; i++) {
+      words[i >>> 3] |= (buffer.get() & 0xFFL) << ((i & 7) * 8);
+    }
+    return words;
+  }
+
+  /** @return the first slot not before the given one that holds a value, or slotCount */
+  private int nextSetSlot(int slot) {
+    if (bitmap == null || slot >= slotCount) {
+      return slot;
+    }
+    int word = slot >>> 6;
+    long bits = bitmap[word] & (-1L << slot);
+    while (bits == 0) {
+      if (++word == bitmap.length) {
+        return slotCount;
+      }
+      bits = bitmap[word];
+    }
+    return (word << 6) + Long.numberOfTrailingZeros(bits);
+  }
+
+  @Override
+  public long readLong(ByteBuffer buffer) {
+    if (!hasNext(buffer)) {
+      throw new TsFileDecodingException("No more values to read in INTERVAL encoding");
+    }
+    if (!gridMode) {
+      return values[nextIndex++];
+    }
+    nextSlot = nextSetSlot(nextSlot);
+    long value = start + nextSlot * interval;
+    nextSlot = nextSetSlot(nextSlot + 1);
+    return value;
+  }
+
+  @Override
+  public int readLongs(ByteBuffer buffer, long[] values, int offset, int length) {
+    int read = 0;
+    while (read < length && hasNext(buffer)) {
+      if (!gridMode) {
+        int n = Math.min(length - read, count - nextIndex);
+        System.arraycopy(this.values, nextIndex, values, offset + read, n);
+        nextIndex += n;
+        read += n;
+      } else if (bitmap == null) {
+        int n = Math.min(length - read, slotCount - nextSlot);
+        long value = start + nextSlot * interval;
+        for (int i = offset + read, end = i + n; i < end; i++) {
+          values[i] = value;
+          value += interval;
+        }
+        nextSlot += n;
+        read += n;
+      } else {
+        while (read < length && nextSlot < slotCount) {
+          values[offset + read++] = start + nextSlot * interval;
+          nextSlot = nextSetSlot(nextSlot + 1);
+        }
+      }
+    }
+    return read;
+  }
+
+  /**
+   * skip the values less than the given time, so that the next value read is the first one not
+   * less than it. Blocks in grid mode are positioned by division, blocks in fallback mode by binary
+   * search.
+   *
+   * @return the number of values skipped, so that the caller can skip the same number of values in
+   *     the value column
+   */
+  public int skipTo(ByteBuffer buffer, long time) {
+    int skipped = 0;
+    while (hasNext(buffer)) {
+      if (gridMode) {
+        long lastTime = start + (slotCount - 1) * interval;
+        if (time <= lastTime) {
+          if (time > start + nextSlot * interval) {
+            // ceil((time - start) / interval)
+            int slot = nextSetSlot((int) ((time - start + interval - 1) / interval));
+            skipped += countSetSlots(nextSlot, slot);
+            nextSlot = slot;
+          }
+          return skipped;
+        }
+        skipped += countSetSlots(nextSlot, slotCount);
+        nextSlot = slotCount;
+      } else {
+        int index = lowerBound(time);
+        skipped += index - nextIndex;
+        nextIndex = index;
+        if (nextIndex < count) {
+          return skipped;
+        }
+      }
+    }
+    return skipped;
+  }
+
+  /** @return the number of slots in [from, to) that hold a value */
+  private int countSetSlots(int from, int to) {
+    if (from >= to) {
+      return 0;
+    }
+    if (bitmap == null) {
+      return to - from;
+    }
+    int firstWord = from >>> 6;
+    int lastWord = (to - 1) >>> 6;
+    int num = 0;
+    for (int word = firstWord; word <= lastWord; word++) {
+      long bits = bitmap[word];
+      if (word == firstWord) {
+        bits &= -1L << from;
+      }
+      if (word == lastWord) {
+        bits &= -1L >>> (63 - ((to - 1) & 63));
+      }
+      num += Long.bitCount(bits);
+    }
+    return num;
+  }
+
+  /** @return index of the first value in fallback mode not less than the time, or count */
+  private int lowerBound(long time) {
+    int low = nextIndex;
+    int high = count;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (values[mid] < time) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+
+  @Override
+  public void reset() {
+    gridMode = true;
+    slotCount = 0;
+    nextSlot = 0;
+    bitmap = null;
+    count = 0;
+    nextIndex = 0;
+    fallbackDecoder.reset();
+  }
+}
@@ -0,0 +1,67 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.encoding.decoder;
+
+import java.nio.ByteBuffer;
+
+import static org.apache.iotdb.tsfile.common.conf.TSFileConfig.GORILLA_ENCODING_ENDING_FLOAT;
+
+/** Decoder of {@link org.apache.iotdb.tsfile.encoding.encoder.SinglePrecisionChimpEncoder}. */
+public class SinglePrecisionChimpDecoder extends IntChimpDecoder {
+
+  private static final int CHIMP_ENCODING_ENDING =
+      Float.floatToRawIntBits(GORILLA_ENCODING_ENDING_FLOAT);
+
+  @Override
+  public final float readFloat(ByteBuffer in) {
+    return Float.intBitsToFloat(readInt(in));
+  }
+
+  /**
+   * Decode the values one after another in a single loop, without the per value checks and calls
+   * of {@link #readFloat(ByteBuffer)}.
+   */
+  @Override
+  public final int readFloats(ByteBuffer buffer, float[] values, int offset, int length) {
+    if (length > 0 && !firstValueWasRead) {
+      flipByte(buffer);
+      readFirst(buffer);
+      firstValueWasRead = true;
+    }
+    int count = 0;
+    while (count < length && hasNext) {
+      values[offset + count] = Float.intBitsToFloat(storedValue);
+      count++;
+      readNext(buffer);
+      if (storedValue == CHIMP_ENCODING_ENDING) {
+        hasNext = false;
+      }
+    }
+    return count;
+  }
+
+  @Override
+  protected int cacheNext(ByteBuffer in) {
+    readNext(in);
+    if (storedValue == CHIMP_ENCODING_ENDING) {
+      hasNext = false;
+    }
+    return storedValue;
+  }
+}
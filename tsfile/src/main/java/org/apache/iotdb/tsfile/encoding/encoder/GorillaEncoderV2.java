@@ -42,7 +42,12 @@ public abstract class GorillaEncoderV2 extends Encoder {
   protected int bitsLeft = Byte.SIZE;
 
   protected GorillaEncoderV2() {
-    super(TSEncoding.GORILLA);
+    this(TSEncoding.GORILLA);
+  }
+
+  /** for the XOR based encodings that share the bit level stream of Gorilla. */
+  protected GorillaEncoderV2(TSEncoding type) {
+    super(type);
   }
 
   @Override
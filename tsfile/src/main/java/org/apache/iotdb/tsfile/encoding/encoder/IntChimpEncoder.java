@@ -0,0 +1,175 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.encoding.encoder;
+
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+
+import static org.apache.iotdb.tsfile.common.conf.TSFileConfig.CHIMP_LEADING_ZERO_BITS_LENGTH;
+import static org.apache.iotdb.tsfile.common.conf.TSFileConfig.CHIMP_PREVIOUS_VALUES_LOG2;
+import static org.apache.iotdb.tsfile.common.conf.TSFileConfig.GORILLA_ENCODING_ENDING_INTEGER;
+import static org.apache.iotdb.tsfile.common.conf.TSFileConfig.MEANINGFUL_XOR_BITS_LENGTH_32BIT;
+import static org.apache.iotdb.tsfile.common.conf.TSFileConfig.VALUE_BITS_LENGTH_32BIT;
+
+/**
+ * 32 bit version of {@link LongChimpEncoder}, a previous value is referenced if the XOR with it has
+ * more than 12 trailing zeros.
+ */
+public class IntChimpEncoder extends GorillaEncoderV2 {
+
+  private static final int PREVIOUS_VALUES = 1 << CHIMP_PREVIOUS_VALUES_LOG2;
+  /** a previous value is referenced if the XOR with it has more trailing zeros than this */
+  private static final int THRESHOLD = 5 + CHIMP_PREVIOUS_VALUES_LOG2;
+  /** values sharing these lowest bits have more than THRESHOLD trailing zeros in their XOR */
+  private static final int KEY_MASK = (1 << (THRESHOLD + 1)) - 1;
+
+  private static final int ONE_ITEM_MAX_SIZE =
+      (2
+                  + CHIMP_PREVIOUS_VALUES_LOG2
+                  + CHIMP_LEADING_ZERO_BITS_LENGTH
+                  + MEANINGFUL_XOR_BITS_LENGTH_32BIT
+                  + VALUE_BITS_LENGTH_32BIT)
+              / Byte.SIZE
+          + 1;
+
+  private static final int[] LEADING_ZEROS_ROUND = new int[VALUE_BITS_LENGTH_32BIT];
+  private static final int[] LEADING_ZEROS_REPRESENTATION = new int[VALUE_BITS_LENGTH_32BIT];
+
+  static {
+    int step = 0;
+    for (int leadingZeros = 0; leadingZeros < VALUE_BITS_LENGTH_32BIT; leadingZeros++) {
+      if (step + 1 < LongChimpEncoder.LEADING_ZEROS_STEPS.length
+          && LongChimpEncoder.LEADING_ZEROS_STEPS[step + 1] <= leadingZeros) {
+        step++;
+      }
+      LEADING_ZEROS_ROUND[leadingZeros] = LongChimpEncoder.LEADING_ZEROS_STEPS[step];
+      LEADING_ZEROS_REPRESENTATION[leadingZeros] = step;
+    }
+  }
+
+  /** the last 128 values, the last one is at index % PREVIOUS_VALUES */
+  private final int[] storedValues = new int[PREVIOUS_VALUES];
+  /** lowest bits of a value -> index of the last value with them, allocated on the first value */
+  private int[] indices;
+
+  private int index = 0;
+
+  public IntChimpEncoder() {
+    super(TSEncoding.CHIMP);
+  }
+
+  protected IntChimpEncoder(TSEncoding type) {
+    super(type);
+  }
+
+  @Override
+  public int getOneItemMaxSize() {
+    return ONE_ITEM_MAX_SIZE;
+  }
+
+  @Override
+  public final void encode(int value, ByteArrayOutputStream out) {
+    if (firstValueWasWritten) {
+      compressValue(value, out);
+    } else {
+      writeFirst(value, out);
+      firstValueWasWritten = true;
+    }
+  }
+
+  @Override
+  public void flush(ByteArrayOutputStream out) {
+    // ending stream
+    encode(GORILLA_ENCODING_ENDING_INTEGER, out);
+
+    // flip the byte no matter it is empty or not
+    // the empty ending byte is necessary when decoding
+    bitsLeft = 0;
+    flipByte(out);
+
+    // the encoder may be reused, so let us reset it
+    reset();
+  }
+
+  @Override
+  protected void reset() {
+    super.reset();
+    index = 0;
+    if (indices != null) {
+      Arrays.fill(indices, 0);
+    }
+  }
+
+  private void writeFirst(int value, ByteArrayOutputStream out) {
+    if (indices == null) {
+      indices = new int[KEY_MASK + 1];
+    }
+    storedValues[0] = value;
+    indices[value & KEY_MASK] = 0;
+    writeBits(value, VALUE_BITS_LENGTH_32BIT, out);
+  }
+
+  private void compressValue(int value, ByteArrayOutputStream out) {
+    int key = value & KEY_MASK;
+    int previousIndex = index % PREVIOUS_VALUES;
+    int xor = storedValues[previousIndex] ^ value;
+    int trailingZeros = 0;
+
+    int candidateIndex = indices[key];
+    if (index - candidateIndex < PREVIOUS_VALUES) {
+      int candidateXor = storedValues[candidateIndex % PREVIOUS_VALUES] ^ value;
+      int candidateTrailingZeros = Integer.numberOfTrailingZeros(candidateXor);
+      if (candidateTrailingZeros > THRESHOLD) {
+        previousIndex = candidateIndex % PREVIOUS_VALUES;
+        xor = candidateXor;
+        trailingZeros = candidateTrailingZeros;
+      }
+    }
+
+    if (xor == 0) {
+      writeBits(previousIndex, 2 + CHIMP_PREVIOUS_VALUES_LOG2, out);
+      storedLeadingZeros = Integer.MAX_VALUE;
+    } else {
+      int leadingZeros = LEADING_ZEROS_ROUND[Integer.numberOfLeadingZeros(xor)];
+      if (trailingZeros > THRESHOLD) {
+        int significantBits = VALUE_BITS_LENGTH_32BIT - leadingZeros - trailingZeros;
+        writeBits(1, 2, out);
+        writeBits(previousIndex, CHIMP_PREVIOUS_VALUES_LOG2, out);
+        writeBits(LEADING_ZEROS_REPRESENTATION[leadingZeros], CHIMP_LEADING_ZERO_BITS_LENGTH, out);
+        writeBits(significantBits, MEANINGFUL_XOR_BITS_LENGTH_32BIT, out);
+        writeBits(xor >>> trailingZeros, significantBits, out);
+        storedLeadingZeros = Integer.MAX_VALUE;
+      } else if (leadingZeros == storedLeadingZeros) {
+        writeBits(2, 2, out);
+        writeBits(xor, VALUE_BITS_LENGTH_32BIT - leadingZeros, out);
+      } else {
+        writeBits(3, 2, out);
+        writeBits(LEADING_ZEROS_REPRESENTATION[leadingZeros], CHIMP_LEADING_ZERO_BITS_LENGTH, out);
+        writeBits(xor, VALUE_BITS_LENGTH_32BIT - leadingZeros, out);
+        storedLeadingZeros = leadingZeros;
+      }
+    }
+
+    index++;
+    storedValues[index % PREVIOUS_VALUES] = value;
+    indices[key] = index;
+  }
+}
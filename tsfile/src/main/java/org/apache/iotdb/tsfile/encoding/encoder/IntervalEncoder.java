@@ -0,0 +1,183 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.encoding.encoder;
+
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.utils.ReadWriteForEncodingUtils;
+import org.apache.iotdb.tsfile.utils.ReadWriteIOUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * IntervalEncoder is an encoder for time columns sampled at a fixed interval. While the values of
+ * a block lie on the grid {@code start + k * interval}, the block is stored as the start, the
+ * interval, the number of grid slots and, if some samples are missing, a bitmap of the slots that
+ * hold a value. Such a block takes a few bytes regardless of how many values it has, and can be
+ * decoded in bulk or positioned at a timestamp without reading the values before it.
+ *
+ * <p>Once a value is off the grid, not increasing, or the missing slots make the bitmap larger
+ * than {@link #MAX_SLOTS_PER_VALUE} bits per value, the block falls back to {@link
+ * DeltaBinaryEncoder} so that irregular data never gets worse than TS_2DIFF by more than a header.
+ *
+ * <p>Format of a block: {@code mode(byte) count(unsigned var int)}, followed by {@code
+ * start(long) interval(long) slotCount(unsigned var int) [bitmap]} in grid mode, or by the TS_2DIFF
+ * encoded values in fallback mode. The bitmap is only written if {@code slotCount > count}.
+ */
+public class IntervalEncoder extends Encoder {
+
+  public static final byte GRID_MODE = 0;
+  public static final byte FALLBACK_MODE = 1;
+
+  /** a bitmap larger than this many bits per value is not worth it */
+  public static final int MAX_SLOTS_PER_VALUE = 8;
+
+  private int count;
+  private long start;
+  private long interval;
+  private long lastValue;
+
+  /** grid slot of each value in grid mode, a bit is set if its slot holds a value */
+  private long[] bitmap = new long[2];
+
+  private int slotCount;
+
+  private boolean fallback;
+  /** buffers the fallback block, since its count is only known at flush */
+  private final ByteArrayOutputStream fallbackOut = new ByteArrayOutputStream();
+
+  private final DeltaBinaryEncoder.LongDeltaEncoder fallbackEncoder =
+      new DeltaBinaryEncoder.LongDeltaEncoder();
+
+  public IntervalEncoder() {
+    super(TSEncoding.INTERVAL);
+  }
+
+  @Override
+  public void encode(long value, ByteArrayOutputStream out) {
+    if (fallback) {
+      fallbackEncoder.encode(value, fallbackOut);
+    } else if (count == 0) {
+      start = value;
+      setSlot(0);
+    } else if (!addToGrid(value)) {
+      switchToFallback();
+      fallbackEncoder.encode(value, fallbackOut);
+    }
+    lastValue = value;
+    count++;
+  }
+
+  /** @return false if the value is not on the grid or makes the bitmap too sparse */
+  private boolean addToGrid(long value) {
+    long delta = value - lastValue;
+    if (delta <= 0) {
+      return false;
+    }
+    if (count == 1) {
+      interval = delta;
+      setSlot(1);
+      return true;
+    }
+    if (delta % interval != 0) {
+      return false;
+    }
+    long slot = slotCount - 1 + delta / interval;
+    if (slot >= (long) MAX_SLOTS_PER_VALUE * (count + 1) && slot >= Long.SIZE) {
+      return false;
+    }
+    setSlot((int) slot);
+    return true;
+  }
+
+  private void setSlot(int slot) {
+    int word = slot >>> 6;
+    if (word >= bitmap.length) {
+      bitmap = Arrays.copyOf(bitmap, Math.max(bitmap.length * 2, word + 1));
+    }
+    bitmap[word] |= 1L << slot;
+    slotCount = slot + 1;
+  }
+
+  /** re-encode the values so far from the grid. */
+  private void switchToFallback() {
+    fallback = true;
+    for (int slot = 0; slot < slotCount; slot++) {
+      if ((bitmap[slot >>> 6] & (1L << slot)) != 0) {
+        fallbackEncoder.encode(start + slot * interval, fallbackOut);
+      }
+    }
+  }
+
+  @Override
+  public void flush(ByteArrayOutputStream out) throws IOException {
+    if (count == 0) {
+      return;
+    }
+    if (fallback) {
+      fallbackEncoder.flush(fallbackOut);
+      out.write(FALLBACK_MODE);
+      ReadWriteForEncodingUtils.writeUnsignedVarInt(count, out);
+      fallbackOut.writeTo(out);
+    } else {
+      out.write(GRID_MODE);
+      ReadWriteForEncodingUtils.writeUnsignedVarInt(count, out);
+      ReadWriteIOUtils.write(start, out);
+      ReadWriteIOUtils.write(interval, out);
+      ReadWriteForEncodingUtils.writeUnsignedVarInt(slotCount, out);
+      if (slotCount > count) {
+        writeBitmap(out);
+      }
+    }
+    reset();
+  }
+
+  private void writeBitmap(ByteArrayOutputStream out) {
+    for (int i = 0; i < (slotCount + 7) / 8; i++) {
+      out.write((int) (bitmap[i >>> 3] >>> ((i & 7) * 8)));
+    }
+  }
+
+  private void reset() {
+    count = 0;
+    start = 0;
+    interval = 0;
+    lastValue = 0;
+    Arrays.fill(bitmap, 0L);
+    slotCount = 0;
+    fallback = false;
+    fallbackOut.reset();
+  }
+
+  @Override
+  public int getOneItemMaxSize() {
+    return 8;
+  }
+
+  @Override
+  public long getMaxByteSize() {
+    // mode(1) + count(5)
+    if (fallback) {
+      return 6L + fallbackOut.size() + fallbackEncoder.getMaxByteSize();
+    }
+    // start(8) + interval(8) + slotCount(5) + bitmap
+    return 27L + (slotCount + 7) / 8;
+  }
+}
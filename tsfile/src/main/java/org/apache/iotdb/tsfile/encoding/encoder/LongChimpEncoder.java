@@ -0,0 +1,189 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.encoding.encoder;
+
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+
+import static org.apache.iotdb.tsfile.common.conf.TSFileConfig.CHIMP_LEADING_ZERO_BITS_LENGTH;
+import static org.apache.iotdb.tsfile.common.conf.TSFileConfig.CHIMP_PREVIOUS_VALUES_LOG2;
+import static org.apache.iotdb.tsfile.common.conf.TSFileConfig.GORILLA_ENCODING_ENDING_LONG;
+import static org.apache.iotdb.tsfile.common.conf.TSFileConfig.MEANINGFUL_XOR_BITS_LENGTH_64BIT;
+import static org.apache.iotdb.tsfile.common.conf.TSFileConfig.VALUE_BITS_LENGTH_64BIT;
+
+/**
+ * Chimp128 encoder, see Liakos et al., "Chimp: Efficient Lossless Floating Point Compression for
+ * Time Series Databases", VLDB 2022.
+ *
+ * <p>Different from Gorilla, a value is XORed with the one of the previous 128 values that shares
+ * its lowest bits if that leaves more than 13 trailing zeros, and the number of
+ * leading zeros is rounded down to one of 8 steps so that it takes 3 bits. The control bits are
+ *
+ * <ul>
+ *   <li>'00': same as the referenced previous value, followed by its index
+ *   <li>'01': XORed with the referenced previous value, followed by its index, the leading zeros,
+ *       the number of center bits and the center bits
+ *   <li>'10': XORed with the last value, with the same leading zeros as the last '10' or '11'
+ *   <li>'11': XORed with the last value, followed by the new leading zeros
+ * </ul>
+ */
+public class LongChimpEncoder extends GorillaEncoderV2 {
+
+  private static final int PREVIOUS_VALUES = 1 << CHIMP_PREVIOUS_VALUES_LOG2;
+  /** a previous value is referenced if the XOR with it has more trailing zeros than this */
+  private static final int THRESHOLD = 6 + CHIMP_PREVIOUS_VALUES_LOG2;
+  /** values sharing these lowest bits have more than THRESHOLD trailing zeros in their XOR */
+  private static final int KEY_MASK = (1 << (THRESHOLD + 1)) - 1;
+
+  private static final int ONE_ITEM_MAX_SIZE =
+      (2
+                  + CHIMP_PREVIOUS_VALUES_LOG2
+                  + CHIMP_LEADING_ZERO_BITS_LENGTH
+                  + MEANINGFUL_XOR_BITS_LENGTH_64BIT
+                  + VALUE_BITS_LENGTH_64BIT)
+              / Byte.SIZE
+          + 1;
+
+  /** the steps the leading zeros are rounded down to, indexed by their 3 bit representation */
+  static final int[] LEADING_ZEROS_STEPS = {0, 8, 12, 16, 18, 20, 22, 24};
+
+  private static final int[] LEADING_ZEROS_ROUND = new int[VALUE_BITS_LENGTH_64BIT];
+  private static final int[] LEADING_ZEROS_REPRESENTATION = new int[VALUE_BITS_LENGTH_64BIT];
+
+  static {
+    int step = 0;
+    for (int leadingZeros = 0; leadingZeros < VALUE_BITS_LENGTH_64BIT; leadingZeros++) {
+      if (step + 1 < LEADING_ZEROS_STEPS.length && LEADING_ZEROS_STEPS[step + 1] <= leadingZeros) {
+        step++;
+      }
+      LEADING_ZEROS_ROUND[leadingZeros] = LEADING_ZEROS_STEPS[step];
+      LEADING_ZEROS_REPRESENTATION[leadingZeros] = step;
+    }
+  }
+
+  /** the last 128 values, the last one is at index % PREVIOUS_VALUES */
+  private final long[] storedValues = new long[PREVIOUS_VALUES];
+  /** lowest bits of a value -> index of the last value with them, allocated on the first value */
+  private int[] indices;
+
+  private int index = 0;
+
+  public LongChimpEncoder() {
+    super(TSEncoding.CHIMP);
+  }
+
+  protected LongChimpEncoder(TSEncoding type) {
+    super(type);
+  }
+
+  @Override
+  public int getOneItemMaxSize() {
+    return ONE_ITEM_MAX_SIZE;
+  }
+
+  @Override
+  public final void encode(long value, ByteArrayOutputStream out) {
+    if (firstValueWasWritten) {
+      compressValue(value, out);
+    } else {
+      writeFirst(value, out);
+      firstValueWasWritten = true;
+    }
+  }
+
+  @Override
+  public void flush(ByteArrayOutputStream out) {
+    // ending stream
+    encode(GORILLA_ENCODING_ENDING_LONG, out);
+
+    // flip the byte no matter it is empty or not
+    // the empty ending byte is necessary when decoding
+    bitsLeft = 0;
+    flipByte(out);
+
+    // the encoder may be reused, so let us reset it
+    reset();
+  }
+
+  @Override
+  protected void reset() {
+    super.reset();
+    index = 0;
+    if (indices != null) {
+      Arrays.fill(indices, 0);
+    }
+  }
+
+  private void writeFirst(long value, ByteArrayOutputStream out) {
+    if (indices == null) {
+      indices = new int[KEY_MASK + 1];
+    }
+    storedValues[0] = value;
+    indices[(int) value & KEY_MASK] = 0;
+    writeBits(value, VALUE_BITS_LENGTH_64BIT, out);
+  }
+
+  private void compressValue(long value, ByteArrayOutputStream out) {
+    int key = (int) value & KEY_MASK;
+    int previousIndex = index % PREVIOUS_VALUES;
+    long xor = storedValues[previousIndex] ^ value;
+    int trailingZeros = 0;
+
+    int candidateIndex = indices[key];
+    if (index - candidateIndex < PREVIOUS_VALUES) {
+      long candidateXor = storedValues[candidateIndex % PREVIOUS_VALUES] ^ value;
+      int candidateTrailingZeros = Long.numberOfTrailingZeros(candidateXor);
+      if (candidateTrailingZeros > THRESHOLD) {
+        previousIndex = candidateIndex % PREVIOUS_VALUES;
+        xor = candidateXor;
+        trailingZeros = candidateTrailingZeros;
+      }
+    }
+
+    if (xor == 0) {
+      writeBits(previousIndex, 2 + CHIMP_PREVIOUS_VALUES_LOG2, out);
+      storedLeadingZeros = Integer.MAX_VALUE;
+    } else {
+      int leadingZeros = LEADING_ZEROS_ROUND[Long.numberOfLeadingZeros(xor)];
+      if (trailingZeros > THRESHOLD) {
+        int significantBits = VALUE_BITS_LENGTH_64BIT - leadingZeros - trailingZeros;
+        writeBits(1, 2, out);
+        writeBits(previousIndex, CHIMP_PREVIOUS_VALUES_LOG2, out);
+        writeBits(LEADING_ZEROS_REPRESENTATION[leadingZeros], CHIMP_LEADING_ZERO_BITS_LENGTH, out);
+        writeBits(significantBits, MEANINGFUL_XOR_BITS_LENGTH_64BIT, out);
+        writeBits(xor >>> trailingZeros, significantBits, out);
+        storedLeadingZeros = Integer.MAX_VALUE;
+      } else if (leadingZeros == storedLeadingZeros) {
+        writeBits(2, 2, out);
+        writeBits(xor, VALUE_BITS_LENGTH_64BIT - leadingZeros, out);
+      } else {
+        writeBits(3, 2, out);
+        writeBits(LEADING_ZEROS_REPRESENTATION[leadingZeros], CHIMP_LEADING_ZERO_BITS_LENGTH, out);
+        writeBits(xor, VALUE_BITS_LENGTH_64BIT - leadingZeros, out);
+        storedLeadingZeros = leadingZeros;
+      }
+    }
+
+    index++;
+    storedValues[index % PREVIOUS_VALUES] = value;
+    indices[key] = index;
+  }
+}
@@ -0,0 +1,90 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.encoding.encoder;
+
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.utils.ElfUtils;
+
+import java.io.ByteArrayOutputStream;
+
+import static org.apache.iotdb.tsfile.common.conf.TSFileConfig.GORILLA_ENCODING_ENDING_FLOAT;
+
+/**
+ * ELF encoder of float values. Each value is erased by {@link ElfUtils} and then encoded by CHIMP,
+ * preceded by the control bits
+ *
+ * <ul>
+ *   <li>'0': the value is not erased
+ *   <li>'10': the value is erased, with the same decimal places as the last erased value
+ *   <li>'11': the value is erased, followed by its decimal places
+ * </ul>
+ */
+public class SinglePrecisionElfEncoder extends IntChimpEncoder {
+
+  private int storedDecimalPlaces = -1;
+
+  public SinglePrecisionElfEncoder() {
+    super(TSEncoding.ELF);
+  }
+
+  @Override
+  public int getOneItemMaxSize() {
+    return super.getOneItemMaxSize() + 1;
+  }
+
+  @Override
+  public final void encode(float value, ByteArrayOutputStream out) {
+    int bits = Float.floatToRawIntBits(value);
+    int decimalPlaces = ElfUtils.getDecimalPlaces(value);
+    int erasedBits = decimalPlaces < 0 ? bits : ElfUtils.eraseFloat(bits, decimalPlaces);
+    if (erasedBits == bits) {
+      skipBit(out);
+    } else {
+      writeBit(out);
+      if (decimalPlaces == storedDecimalPlaces) {
+        skipBit(out);
+      } else {
+        writeBit(out);
+        writeBits(decimalPlaces, ElfUtils.DECIMAL_PLACES_BITS, out);
+        storedDecimalPlaces = decimalPlaces;
+      }
+    }
+    encode(erasedBits, out);
+  }
+
+  @Override
+  public void flush(ByteArrayOutputStream out) {
+    // ending stream, which is never erased
+    encode(GORILLA_ENCODING_ENDING_FLOAT, out);
+
+    // flip the byte no matter it is empty or not
+    // the empty ending byte is necessary when decoding
+    bitsLeft = 0;
+    flipByte(out);
+
+    // the encoder may be reused, so let us reset it
+    reset();
+  }
+
+  @Override
+  protected void reset() {
+    super.reset();
+    storedDecimalPlaces = -1;
+  }
+}
@@ -73,6 +73,12 @@ public abstract class TSEncodingBuilder {
         return new Freq();
       case ZIGZAG:
         return new Zigzag();
+      case CHIMP:
+        return new Chimp();
+      case ELF:
+        return new Elf();
+      case INTERVAL:
+        return new Interval();
       default:
         throw new UnsupportedOperationException(type.toString());
     }
@@ -399,4 +405,67 @@ public abstract class TSEncodingBuilder {
       // do nothing
     }
   }
+
+  /** for FLOAT, DOUBLE, INT, LONG. */
+  public static class Chimp extends TSEncodingBuilder {
+
+    @Override
+    public Encoder getEncoder(TSDataType type) {
+      switch (type) {
+        case FLOAT:
+          return new SinglePrecisionChimpEncoder();
+        case DOUBLE:
+          return new DoublePrecisionChimpEncoder();
+        case INT32:
+          return new IntChimpEncoder();
+        case INT64:
+          return new LongChimpEncoder();
+        default:
+          throw new UnSupportedDataTypeException("CHIMP doesn't support data type: " + type);
+      }
+    }
+
+    @Override
+    public void initFromProps(Map<String, String> props) {
+      // allowed do nothing
+    }
+  }
+
+  /** for FLOAT, DOUBLE. */
+  public static class Elf extends TSEncodingBuilder {
+
+    @Override
+    public Encoder getEncoder(TSDataType type) {
+      switch (type) {
+        case FLOAT:
+          return new SinglePrecisionElfEncoder();
+        case DOUBLE:
+          return new DoublePrecisionElfEncoder();
+        default:
+          throw new UnSupportedDataTypeException("ELF doesn't support data type: " + type);
+      }
+    }
+
+    @Override
+    public void initFromProps(Map<String, String> props) {
+      // allowed do nothing
+    }
+  }
+
+  /** for INT64, meant for time columns. */
+  public static class Interval extends TSEncodingBuilder {
+
+    @Override
+    public Encoder getEncoder(TSDataType type) {
+      if (type == TSDataType.INT64) {
+        return new IntervalEncoder();
+      }
+      throw new UnSupportedDataTypeException("INTERVAL doesn't support data type: " + type);
+    }
+
+    @Override
+    public void initFromProps(Map<String, String> props) {
+      // allowed do nothing
+    }
+  }
 }
@@ -46,7 +46,6 @@ public class MetadataIndexConstructor {
    * @param deviceTimeseriesMetadataMap device => TimeseriesMetadata list
    * @param out tsfile output
    */
-  @SuppressWarnings("squid:S3776") // Suppress high Cognitive Complexity warning
   public static MetadataIndexNode constructMetadataIndex(
       Map<String, List<TimeseriesMetadata>> deviceTimeseriesMetadataMap, TsFileOutput out)
       throws IOException {
@@ -58,28 +57,50 @@ public class MetadataIndexConstructor {
       if (entry.getValue().isEmpty()) {
         continue;
       }
-      Queue<MetadataIndexNode> measurementMetadataIndexQueue = new ArrayDeque<>();
-      TimeseriesMetadata timeseriesMetadata;
-      MetadataIndexNode currentIndexNode =
-          new MetadataIndexNode(MetadataIndexNodeType.LEAF_MEASUREMENT);
-      for (int i = 0; i < entry.getValue().size(); i++) {
-        timeseriesMetadata = entry.getValue().get(i);
-        if (i % config.getMaxDegreeOfIndexNode() == 0) {
-          if (currentIndexNode.isFull()) {
-            addCurrentIndexNodeToQueue(currentIndexNode, measurementMetadataIndexQueue, out);
-            currentIndexNode = new MetadataIndexNode(MetadataIndexNodeType.LEAF_MEASUREMENT);
-          }
-          currentIndexNode.addEntry(
-              new MetadataIndexEntry(timeseriesMetadata.getMeasurementId(), out.getPosition()));
+      deviceMetadataIndexMap.put(entry.getKey(), constructMeasurementIndex(entry.getValue(), out));
+    }
+    return constructDeviceIndex(deviceMetadataIndexMap, out);
+  }
+
+  /**
+   * Serialize the TimeseriesMetadata of one device and construct the measurement index of it
+   *
+   * @param timeseriesMetadataList non-empty TimeseriesMetadata list of the device
+   * @param out tsfile output
+   * @return the root of the measurement index of the device, which is not serialized yet
+   */
+  public static MetadataIndexNode constructMeasurementIndex(
+      List<TimeseriesMetadata> timeseriesMetadataList, TsFileOutput out) throws IOException {
+    Queue<MetadataIndexNode> measurementMetadataIndexQueue = new ArrayDeque<>();
+    TimeseriesMetadata timeseriesMetadata;
+    MetadataIndexNode currentIndexNode =
+        new MetadataIndexNode(MetadataIndexNodeType.LEAF_MEASUREMENT);
+    for (int i = 0; i < timeseriesMetadataList.size(); i++) {
+      timeseriesMetadata = timeseriesMetadataList.get(i);
+      if (i % config.getMaxDegreeOfIndexNode() == 0) {
+        if (currentIndexNode.isFull()) {
+          addCurrentIndexNodeToQueue(currentIndexNode, measurementMetadataIndexQueue, out);
+          currentIndexNode = new MetadataIndexNode(MetadataIndexNodeType.LEAF_MEASUREMENT);
         }
-        timeseriesMetadata.serializeTo(out.wrapAsStream());
+        currentIndexNode.addEntry(
+            new MetadataIndexEntry(timeseriesMetadata.getMeasurementId(), out.getPosition()));
       }
-      addCurrentIndexNodeToQueue(currentIndexNode, measurementMetadataIndexQueue, out);
-      deviceMetadataIndexMap.put(
-          entry.getKey(),
-          generateRootNode(
-              measurementMetadataIndexQueue, out, MetadataIndexNodeType.INTERNAL_MEASUREMENT));
+      timeseriesMetadata.serializeTo(out.wrapAsStream());
     }
+    addCurrentIndexNodeToQueue(currentIndexNode, measurementMetadataIndexQueue, out);
+    return generateRootNode(
+        measurementMetadataIndexQueue, out, MetadataIndexNodeType.INTERNAL_MEASUREMENT);
+  }
+
+  /**
+   * Serialize the measurement index roots of all devices and construct the device index
+   *
+   * @param deviceMetadataIndexMap device => root of its measurement index, sorted by device
+   * @param out tsfile output
+   * @return the root of the metadata index tree
+   */
+  public static MetadataIndexNode constructDeviceIndex(
+      Map<String, MetadataIndexNode> deviceMetadataIndexMap, TsFileOutput out) throws IOException {
 
     // if not exceed the max child nodes num, ignore the device index and directly point to the
     // measurement
@@ -19,22 +19,33 @@
 
 package org.apache.iotdb.tsfile.file.metadata;
 
+import org.apache.iotdb.tsfile.common.conf.TSFileConfig;
 import org.apache.iotdb.tsfile.common.conf.TSFileDescriptor;
 import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.utils.BlockedBloomFilter;
 import org.apache.iotdb.tsfile.utils.BloomFilter;
+import org.apache.iotdb.tsfile.utils.IBloomFilter;
 import org.apache.iotdb.tsfile.utils.ReadWriteForEncodingUtils;
 import org.apache.iotdb.tsfile.utils.ReadWriteIOUtils;
 
 import java.io.IOException;
 import java.io.OutputStream;
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 /** TSFileMetaData collects all metadata info and saves in its data structure. */
 public class TsFileMetadata {
 
+  /** marks the section of ZSTD dictionaries after the blocked bloom filter */
+  public static final byte COMPRESSION_DICTIONARY_MARKER = 1;
+
   // bloom filter
-  private BloomFilter bloomFilter;
+  private IBloomFilter bloomFilter;
 
   // List of <name, offset, childMetadataIndexType>
   private MetadataIndexNode metadataIndex;
@@ -42,6 +53,9 @@ public class TsFileMetadata {
   // offset of MetaMarker.SEPARATOR
   private long metaOffset;
 
+  // ZSTD dictionaries the pages of the file are compressed with
+  private List<byte[]> compressionDictionaries = Collections.emptyList();
+
   /**
    * deserialize data from the buffer.
    *
@@ -63,17 +77,34 @@ public class TsFileMetadata {
       byte[] bytes = ReadWriteIOUtils.readByteBufferWithSelfDescriptionLength(buffer);
       int filterSize = ReadWriteForEncodingUtils.readUnsignedVarInt(buffer);
       int hashFunctionSize = ReadWriteForEncodingUtils.readUnsignedVarInt(buffer);
-      fileMetaData.bloomFilter = BloomFilter.buildBloomFilter(bytes, filterSize, hashFunctionSize);
+      // the blocked bloom filter section follows the legacy one in newer files
+      if (buffer.hasRemaining() && buffer.get() == BlockedBloomFilter.VERSION) {
+        fileMetaData.bloomFilter =
+            BlockedBloomFilter.deserialize(
+                ReadWriteIOUtils.readByteBufferWithSelfDescriptionLength(buffer));
+        // the dictionaries follow the blocked bloom filter if any page uses one
+        if (buffer.hasRemaining() && buffer.get() == COMPRESSION_DICTIONARY_MARKER) {
+          int dictionaryNum = ReadWriteForEncodingUtils.readUnsignedVarInt(buffer);
+          fileMetaData.compressionDictionaries = new ArrayList<>(dictionaryNum);
+          for (int i = 0; i < dictionaryNum; i++) {
+            fileMetaData.compressionDictionaries.add(
+                ReadWriteIOUtils.readByteBufferWithSelfDescriptionLength(buffer));
+          }
+        }
+      } else {
+        fileMetaData.bloomFilter =
+            BloomFilter.buildBloomFilter(bytes, filterSize, hashFunctionSize);
+      }
     }
 
     return fileMetaData;
   }
 
-  public BloomFilter getBloomFilter() {
+  public IBloomFilter getBloomFilter() {
     return bloomFilter;
   }
 
-  public void setBloomFilter(BloomFilter bloomFilter) {
+  public void setBloomFilter(IBloomFilter bloomFilter) {
     this.bloomFilter = bloomFilter;
   }
 
@@ -100,22 +131,51 @@ public class TsFileMetadata {
   }
 
   /**
-   * use the given outputStream to serialize bloom filter.
+   * use the given outputStream to serialize bloom filter. The legacy section is left empty, which
+   * readers without the blocked bloom filter take as a filter containing everything, and the
+   * blocked bloom filter follows it with its version.
    *
    * @param outputStream -output stream to determine byte length
    * @return -byte length
    */
   public int serializeBloomFilter(OutputStream outputStream, Set<Path> paths) throws IOException {
     int byteLen = 0;
-    BloomFilter filter = buildBloomFilter(paths);
-
-    byte[] bytes = filter.serialize();
+    // legacy section: no bits, size 1 and no hash function
+    byteLen += ReadWriteForEncodingUtils.writeUnsignedVarInt(0, outputStream);
+    byteLen += ReadWriteForEncodingUtils.writeUnsignedVarInt(1, outputStream);
+    byteLen += ReadWriteForEncodingUtils.writeUnsignedVarInt(0, outputStream);
+
+    byte[] bytes = buildBloomFilter(paths).serialize();
+    outputStream.write(BlockedBloomFilter.VERSION);
+    byteLen += Byte.BYTES;
     byteLen += ReadWriteForEncodingUtils.writeUnsignedVarInt(bytes.length, outputStream);
     outputStream.write(bytes);
     byteLen += bytes.length;
-    byteLen += ReadWriteForEncodingUtils.writeUnsignedVarInt(filter.getSize(), outputStream);
-    byteLen +=
-        ReadWriteForEncodingUtils.writeUnsignedVarInt(filter.getHashFunctionSize(), outputStream);
+    return byteLen;
+  }
+
+  /**
+   * use the given outputStream to serialize the ZSTD dictionaries that the pages of the file are
+   * compressed with. Nothing is written if there is none, so that files without dictionaries keep
+   * the same layout.
+   *
+   * @param outputStream -output stream to determine byte length
+   * @return -byte length
+   */
+  public int serializeCompressionDictionaries(
+      OutputStream outputStream, Collection<byte[]> dictionaries) throws IOException {
+    if (dictionaries.isEmpty()) {
+      return 0;
+    }
+    int byteLen = 0;
+    outputStream.write(COMPRESSION_DICTIONARY_MARKER);
+    byteLen += Byte.BYTES;
+    byteLen += ReadWriteForEncodingUtils.writeUnsignedVarInt(dictionaries.size(), outputStream);
+    for (byte[] dictionary : dictionaries) {
+      byteLen += ReadWriteForEncodingUtils.writeUnsignedVarInt(dictionary.length, outputStream);
+      outputStream.write(dictionary);
+      byteLen += dictionary.length;
+    }
     return byteLen;
   }
 
@@ -124,16 +184,33 @@ public class TsFileMetadata {
    *
    * @return bloom filter
    */
-  private BloomFilter buildBloomFilter(Set<Path> paths) {
-    BloomFilter filter =
-        BloomFilter.getEmptyBloomFilter(
-            TSFileDescriptor.getInstance().getConfig().getBloomFilterErrorRate(), paths.size());
+  private BlockedBloomFilter buildBloomFilter(Set<Path> paths) {
+    TSFileConfig config = TSFileDescriptor.getInstance().getConfig();
+    Set<String> devices = new HashSet<>();
+    if (config.isDeviceLevelBloomFilter()) {
+      for (Path path : paths) {
+        devices.add(path.getDevice());
+      }
+    }
+    BlockedBloomFilter filter =
+        BlockedBloomFilter.getEmptyBloomFilter(
+            config.getBloomFilterErrorRate(),
+            paths.size() + devices.size(),
+            config.isDeviceLevelBloomFilter());
     for (Path path : paths) {
       filter.add(path.toString());
     }
+    for (String device : devices) {
+      filter.addDevice(device);
+    }
     return filter;
   }
 
+  /** @return the serialized ZSTD dictionaries the pages of the file are compressed with */
+  public List<byte[]> getCompressionDictionaries() {
+    return compressionDictionaries;
+  }
+
   public long getMetaOffset() {
     return metaOffset;
   }
@@ -29,7 +29,10 @@ public enum TSEncoding {
   REGULAR((byte) 7),
   GORILLA((byte) 8),
   ZIGZAG((byte) 9),
-  FREQ((byte) 10);
+  FREQ((byte) 10),
+  CHIMP((byte) 11),
+  ELF((byte) 12),
+  INTERVAL((byte) 13);
 
   private final byte type;
 
@@ -71,6 +74,12 @@ public enum TSEncoding {
         return TSEncoding.ZIGZAG;
       case 10:
         return TSEncoding.FREQ;
+      case 11:
+        return TSEncoding.CHIMP;
+      case 12:
+        return TSEncoding.ELF;
+      case 13:
+        return TSEncoding.INTERVAL;
       default:
         throw new IllegalArgumentException("Invalid input: " + encoding);
     }
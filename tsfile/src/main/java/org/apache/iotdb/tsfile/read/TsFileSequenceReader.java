@@ -22,6 +22,7 @@ import org.apache.iotdb.tsfile.common.conf.TSFileConfig;
 import org.apache.iotdb.tsfile.common.conf.TSFileDescriptor;
 import org.apache.iotdb.tsfile.common.constant.TsFileConstant;
 import org.apache.iotdb.tsfile.compress.IUnCompressor;
+import org.apache.iotdb.tsfile.compress.ZstdDictionaryRegistry;
 import org.apache.iotdb.tsfile.encoding.decoder.Decoder;
 import org.apache.iotdb.tsfile.exception.TsFileRuntimeException;
 import org.apache.iotdb.tsfile.exception.TsFileStatisticsMistakesException;
@@ -54,7 +55,7 @@ import org.apache.iotdb.tsfile.read.reader.TsFileInput;
 import org.apache.iotdb.tsfile.read.reader.page.PageReader;
 import org.apache.iotdb.tsfile.read.reader.page.TimePageReader;
 import org.apache.iotdb.tsfile.read.reader.page.ValuePageReader;
-import org.apache.iotdb.tsfile.utils.BloomFilter;
+import org.apache.iotdb.tsfile.utils.IBloomFilter;
 import org.apache.iotdb.tsfile.utils.Pair;
 import org.apache.iotdb.tsfile.utils.ReadWriteIOUtils;
 import org.apache.iotdb.tsfile.utils.TsPrimitiveType;
@@ -270,8 +271,10 @@ public class TsFileSequenceReader implements AutoCloseable {
   public TsFileMetadata readFileMetadata() throws IOException {
     try {
       if (tsFileMetaData == null) {
-        tsFileMetaData =
+        TsFileMetadata fileMetadata =
             TsFileMetadata.deserializeFrom(readData(fileMetadataPos, fileMetadataSize));
+        registerCompressionDictionaries(fileMetadata);
+        tsFileMetaData = fileMetadata;
       }
     } catch (BufferOverflowException e) {
       logger.error("Something error happened while reading file metadata of file {}", file);
@@ -280,12 +283,24 @@ public class TsFileSequenceReader implements AutoCloseable {
     return tsFileMetaData;
   }
 
+  /** make the pages compressed with the ZSTD dictionaries of the file readable */
+  private void registerCompressionDictionaries(TsFileMetadata fileMetadata) throws IOException {
+    for (byte[] dictionary : fileMetadata.getCompressionDictionaries()) {
+      try {
+        ZstdDictionaryRegistry.getInstance().register(dictionary);
+      } catch (IllegalArgumentException e) {
+        throw new IOException(
+            String.format("Cannot load the ZSTD dictionaries of file %s", file), e);
+      }
+    }
+  }
+
   /**
    * this function does not modify the position of the file reader.
    *
    * @throws IOException io error
    */
-  public BloomFilter readBloomFilter() throws IOException {
+  public IBloomFilter readBloomFilter() throws IOException {
     readFileMetadata();
     return tsFileMetaData.getBloomFilter();
   }
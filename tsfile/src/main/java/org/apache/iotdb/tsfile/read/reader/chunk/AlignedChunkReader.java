@@ -263,7 +263,6 @@ public class AlignedChunkReader implements IChunkReader {
     pageInfo.pageHeader = pageHeader;
     pageInfo.dataType = chunkHeader.getDataType();
     int compressedPageBodyLength = pageHeader.getCompressedSize();
-    byte[] compressedPageBody = new byte[compressedPageBodyLength];
     // doesn't has a complete page body
     if (compressedPageBodyLength > chunkBuffer.remaining()) {
       throw new IOException(
@@ -273,13 +272,12 @@ public class AlignedChunkReader implements IChunkReader {
               + chunkBuffer.remaining());
     }
 
-    chunkBuffer.get(compressedPageBody);
     pageInfo.decoder =
         Decoder.getDecoderByType(chunkHeader.getEncodingType(), chunkHeader.getDataType());
     byte[] uncompressedPageData = new byte[pageHeader.getUncompressedSize()];
     try {
-      unCompressor.uncompress(
-          compressedPageBody, 0, compressedPageBodyLength, uncompressedPageData, 0);
+      // uncompress straight from the chunk buffer into the page array
+      unCompressor.uncompress(chunkBuffer, compressedPageBodyLength, uncompressedPageData, 0);
     } catch (Exception e) {
       throw new IOException(
           "Uncompress error! uncompress size: "
@@ -162,7 +162,6 @@ public class ChunkReader implements IChunkReader {
 
   private PageReader constructPageReaderForNextPage(PageHeader pageHeader) throws IOException {
     int compressedPageBodyLength = pageHeader.getCompressedSize();
-    byte[] compressedPageBody = new byte[compressedPageBodyLength];
 
     // doesn't has a complete page body
     if (compressedPageBodyLength > chunkDataBuffer.remaining()) {
@@ -173,13 +172,12 @@ public class ChunkReader implements IChunkReader {
               + chunkDataBuffer.remaining());
     }
 
-    chunkDataBuffer.get(compressedPageBody);
     Decoder valueDecoder =
         Decoder.getDecoderByType(chunkHeader.getEncodingType(), chunkHeader.getDataType());
     byte[] uncompressedPageData = new byte[pageHeader.getUncompressedSize()];
     try {
-      unCompressor.uncompress(
-          compressedPageBody, 0, compressedPageBodyLength, uncompressedPageData, 0);
+      // uncompress straight from the chunk buffer into the page array
+      unCompressor.uncompress(chunkDataBuffer, compressedPageBodyLength, uncompressedPageData, 0);
     } catch (Exception e) {
       throw new IOException(
           "Uncompress error! uncompress size: "
@@ -230,7 +228,6 @@ public class ChunkReader implements IChunkReader {
   // For reading TsFile V2
   private PageReader constructPageReaderForNextPageV2(PageHeader pageHeader) throws IOException {
     int compressedPageBodyLength = pageHeader.getCompressedSize();
-    byte[] compressedPageBody = new byte[compressedPageBodyLength];
 
     // doesn't has a complete page body
     if (compressedPageBodyLength > chunkDataBuffer.remaining()) {
@@ -241,12 +238,10 @@ public class ChunkReader implements IChunkReader {
               + chunkDataBuffer.remaining());
     }
 
-    chunkDataBuffer.get(compressedPageBody);
     Decoder valueDecoder =
         Decoder.getDecoderByType(chunkHeader.getEncodingType(), chunkHeader.getDataType());
     byte[] uncompressedPageData = new byte[pageHeader.getUncompressedSize()];
-    unCompressor.uncompress(
-        compressedPageBody, 0, compressedPageBodyLength, uncompressedPageData, 0);
+    unCompressor.uncompress(chunkDataBuffer, compressedPageBodyLength, uncompressedPageData, 0);
     ByteBuffer pageData = ByteBuffer.wrap(uncompressedPageData);
     PageReader reader =
         new PageReaderV2(
@@ -19,6 +19,7 @@
 package org.apache.iotdb.tsfile.read.reader.page;
 
 import org.apache.iotdb.tsfile.encoding.decoder.Decoder;
+import org.apache.iotdb.tsfile.encoding.decoder.IntervalDecoder;
 import org.apache.iotdb.tsfile.exception.write.UnSupportedDataTypeException;
 import org.apache.iotdb.tsfile.file.header.PageHeader;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
@@ -30,8 +31,15 @@ import org.apache.iotdb.tsfile.read.common.block.TsBlock;
 import org.apache.iotdb.tsfile.read.common.block.TsBlockBuilder;
 import org.apache.iotdb.tsfile.read.common.block.column.ColumnBuilder;
 import org.apache.iotdb.tsfile.read.common.block.column.TimeColumnBuilder;
+import org.apache.iotdb.tsfile.read.filter.basic.BinaryFilter;
 import org.apache.iotdb.tsfile.read.filter.basic.Filter;
+import org.apache.iotdb.tsfile.read.filter.basic.UnaryFilter;
+import org.apache.iotdb.tsfile.read.filter.factory.FilterType;
 import org.apache.iotdb.tsfile.read.filter.operator.AndFilter;
+import org.apache.iotdb.tsfile.read.filter.operator.Eq;
+import org.apache.iotdb.tsfile.read.filter.operator.Gt;
+import org.apache.iotdb.tsfile.read.filter.operator.GtEq;
+import org.apache.iotdb.tsfile.read.filter.operator.OrFilter;
 import org.apache.iotdb.tsfile.read.reader.IPageReader;
 import org.apache.iotdb.tsfile.utils.Binary;
 import org.apache.iotdb.tsfile.utils.ReadWriteForEncodingUtils;
@@ -43,6 +51,9 @@ import java.util.List;
 
 public class PageReader implements IPageReader {
 
+  /** number of points decoded at a time from FLOAT and DOUBLE pages */
+  private static final int DECODE_BATCH_SIZE = 1024;
+
   private PageHeader pageHeader;
 
   protected TSDataType dataType;
@@ -61,6 +72,15 @@ public class PageReader implements IPageReader {
 
   protected Filter filter;
 
+  /**
+   * end offsets of the mini-blocks in the time and value column and their statistics, null if the
+   * page is not split into mini-blocks
+   */
+  private int[] miniBlockTimeEnds;
+
+  private int[] miniBlockValueEnds;
+  private Statistics[] miniBlockStatistics;
+
   /** A list of deleted intervals. */
   private List<TimeRange> deleteIntervalList;
 
@@ -93,152 +113,356 @@ public class PageReader implements IPageReader {
   /**
    * split pageContent into two stream: time and value
    *
-   * @param pageData uncompressed bytes size of time column, time column, value column
+   * @param pageData uncompressed bytes size of time column, time column, value column, optionally
+   *     preceded by 0 and the mini-block index
    */
   private void splitDataToTimeStampAndValue(ByteBuffer pageData) {
     int timeBufferLength = ReadWriteForEncodingUtils.readUnsignedVarInt(pageData);
+    if (timeBufferLength == 0) {
+      readMiniBlockIndex(pageData);
+      timeBufferLength = ReadWriteForEncodingUtils.readUnsignedVarInt(pageData);
+    }
 
     timeBuffer = pageData.slice();
     timeBuffer.limit(timeBufferLength);
 
     valueBuffer = pageData.slice();
     valueBuffer.position(timeBufferLength);
+    if (miniBlockStatistics != null) {
+      // let the offsets of the mini-blocks start from the beginning of the value column
+      valueBuffer = valueBuffer.slice();
+    }
+  }
+
+  private void readMiniBlockIndex(ByteBuffer pageData) {
+    int miniBlockNum = ReadWriteForEncodingUtils.readUnsignedVarInt(pageData);
+    miniBlockTimeEnds = new int[miniBlockNum];
+    miniBlockValueEnds = new int[miniBlockNum];
+    miniBlockStatistics = new Statistics[miniBlockNum];
+    for (int i = 0; i < miniBlockNum; i++) {
+      miniBlockTimeEnds[i] = ReadWriteForEncodingUtils.readUnsignedVarInt(pageData);
+      miniBlockValueEnds[i] = ReadWriteForEncodingUtils.readUnsignedVarInt(pageData);
+      miniBlockStatistics[i] = Statistics.deserialize(pageData, dataType);
+    }
+  }
+
+  /**
+   * Point the time and value buffer to the given mini-block of the columns and reset the decoders,
+   * as the encoders are flushed at the end of every mini-block.
+   *
+   * @return false if no point of the mini-block can satisfy the filter, so it is not decoded
+   */
+  private boolean prepareMiniBlock(int index, ByteBuffer timeColumn, ByteBuffer valueColumn) {
+    if (filter != null && !filter.satisfy(miniBlockStatistics[index])) {
+      return false;
+    }
+    timeBuffer = sliceMiniBlock(timeColumn, miniBlockTimeEnds, index);
+    valueBuffer = sliceMiniBlock(valueColumn, miniBlockValueEnds, index);
+    timeDecoder.reset();
+    valueDecoder.reset();
+    return true;
+  }
+
+  private static ByteBuffer sliceMiniBlock(ByteBuffer column, int[] ends, int index) {
+    ByteBuffer miniBlock = column.duplicate();
+    miniBlock.limit(ends[index]);
+    miniBlock.position(index == 0 ? 0 : ends[index - 1]);
+    return miniBlock;
+  }
+
+  public boolean hasMiniBlocks() {
+    return miniBlockStatistics != null;
   }
 
   /** @return the returned BatchData may be empty, but never be null */
-  @SuppressWarnings("squid:S3776") // Suppress high Cognitive Complexity warning
   @Override
   public BatchData getAllSatisfiedPageData(boolean ascending) throws IOException {
     BatchData pageData = BatchDataFactory.createBatchData(dataType, ascending, false);
     if (filter == null || filter.satisfy(getStatistics())) {
-      while (timeDecoder.hasNext(timeBuffer)) {
-        long timestamp = timeDecoder.readLong(timeBuffer);
-        switch (dataType) {
-          case BOOLEAN:
-            boolean aBoolean = valueDecoder.readBoolean(valueBuffer);
-            if (!isDeleted(timestamp) && (filter == null || filter.satisfy(timestamp, aBoolean))) {
-              pageData.putBoolean(timestamp, aBoolean);
-            }
-            break;
-          case INT32:
-            int anInt = valueDecoder.readInt(valueBuffer);
-            if (!isDeleted(timestamp) && (filter == null || filter.satisfy(timestamp, anInt))) {
-              pageData.putInt(timestamp, anInt);
-            }
-            break;
-          case INT64:
-            long aLong = valueDecoder.readLong(valueBuffer);
-            if (!isDeleted(timestamp) && (filter == null || filter.satisfy(timestamp, aLong))) {
-              pageData.putLong(timestamp, aLong);
-            }
-            break;
-          case FLOAT:
-            float aFloat = valueDecoder.readFloat(valueBuffer);
-            if (!isDeleted(timestamp) && (filter == null || filter.satisfy(timestamp, aFloat))) {
-              pageData.putFloat(timestamp, aFloat);
-            }
-            break;
-          case DOUBLE:
-            double aDouble = valueDecoder.readDouble(valueBuffer);
-            if (!isDeleted(timestamp) && (filter == null || filter.satisfy(timestamp, aDouble))) {
-              pageData.putDouble(timestamp, aDouble);
-            }
-            break;
-          case TEXT:
-            Binary aBinary = valueDecoder.readBinary(valueBuffer);
-            if (!isDeleted(timestamp) && (filter == null || filter.satisfy(timestamp, aBinary))) {
-              pageData.putBinary(timestamp, aBinary);
-            }
-            break;
-          default:
-            throw new UnSupportedDataTypeException(String.valueOf(dataType));
+      if (miniBlockStatistics == null) {
+        decodePageData(pageData);
+      } else {
+        ByteBuffer timeColumn = timeBuffer;
+        ByteBuffer valueColumn = valueBuffer;
+        for (int i = 0; i < miniBlockStatistics.length; i++) {
+          if (prepareMiniBlock(i, timeColumn, valueColumn)) {
+            decodePageData(pageData);
+          }
         }
       }
     }
     return pageData.flip();
   }
 
-  @Override
-  public TsBlock getAllSatisfiedData(boolean ascending) throws IOException {
-    // TODO we still need to consider data type, ascending and descending here
-    TsBlockBuilder builder = new TsBlockBuilder(Collections.singletonList(dataType));
-    TimeColumnBuilder timeBuilder = builder.getTimeColumnBuilder();
-    ColumnBuilder valueBuilder = builder.getColumnBuilder(0);
-    if (filter == null || filter.satisfy(getStatistics())) {
+  @SuppressWarnings("squid:S3776") // Suppress high Cognitive Complexity warning
+  private void decodePageData(BatchData pageData) throws IOException {
+    skipToTimeLowerBound();
+    if (dataType == TSDataType.FLOAT) {
+      decodeFloatPageData(pageData);
+      return;
+    } else if (dataType == TSDataType.DOUBLE) {
+      decodeDoublePageData(pageData);
+      return;
+    }
+    while (timeDecoder.hasNext(timeBuffer)) {
+      long timestamp = timeDecoder.readLong(timeBuffer);
       switch (dataType) {
         case BOOLEAN:
-          while (timeDecoder.hasNext(timeBuffer)) {
-            long timestamp = timeDecoder.readLong(timeBuffer);
-            boolean aBoolean = valueDecoder.readBoolean(valueBuffer);
-            if (!isDeleted(timestamp) && (filter == null || filter.satisfy(timestamp, aBoolean))) {
-              timeBuilder.writeLong(timestamp);
-              valueBuilder.writeBoolean(aBoolean);
-              builder.declarePosition();
-            }
+          boolean aBoolean = valueDecoder.readBoolean(valueBuffer);
+          if (!isDeleted(timestamp) && (filter == null || filter.satisfy(timestamp, aBoolean))) {
+            pageData.putBoolean(timestamp, aBoolean);
           }
           break;
         case INT32:
-          while (timeDecoder.hasNext(timeBuffer)) {
-            long timestamp = timeDecoder.readLong(timeBuffer);
-            int anInt = valueDecoder.readInt(valueBuffer);
-            if (!isDeleted(timestamp) && (filter == null || filter.satisfy(timestamp, anInt))) {
-              timeBuilder.writeLong(timestamp);
-              valueBuilder.writeInt(anInt);
-              builder.declarePosition();
-            }
+          int anInt = valueDecoder.readInt(valueBuffer);
+          if (!isDeleted(timestamp) && (filter == null || filter.satisfy(timestamp, anInt))) {
+            pageData.putInt(timestamp, anInt);
           }
           break;
         case INT64:
-          while (timeDecoder.hasNext(timeBuffer)) {
-            long timestamp = timeDecoder.readLong(timeBuffer);
-            long aLong = valueDecoder.readLong(valueBuffer);
-            if (!isDeleted(timestamp) && (filter == null || filter.satisfy(timestamp, aLong))) {
-              timeBuilder.writeLong(timestamp);
-              valueBuilder.writeLong(aLong);
-              builder.declarePosition();
-            }
-          }
-          break;
-        case FLOAT:
-          while (timeDecoder.hasNext(timeBuffer)) {
-            long timestamp = timeDecoder.readLong(timeBuffer);
-            float aFloat = valueDecoder.readFloat(valueBuffer);
-            if (!isDeleted(timestamp) && (filter == null || filter.satisfy(timestamp, aFloat))) {
-              timeBuilder.writeLong(timestamp);
-              valueBuilder.writeFloat(aFloat);
-              builder.declarePosition();
-            }
-          }
-          break;
-        case DOUBLE:
-          while (timeDecoder.hasNext(timeBuffer)) {
-            long timestamp = timeDecoder.readLong(timeBuffer);
-            double aDouble = valueDecoder.readDouble(valueBuffer);
-            if (!isDeleted(timestamp) && (filter == null || filter.satisfy(timestamp, aDouble))) {
-              timeBuilder.writeLong(timestamp);
-              valueBuilder.writeDouble(aDouble);
-              builder.declarePosition();
-            }
+          long aLong = valueDecoder.readLong(valueBuffer);
+          if (!isDeleted(timestamp) && (filter == null || filter.satisfy(timestamp, aLong))) {
+            pageData.putLong(timestamp, aLong);
           }
           break;
         case TEXT:
-          while (timeDecoder.hasNext(timeBuffer)) {
-            long timestamp = timeDecoder.readLong(timeBuffer);
-            Binary aBinary = valueDecoder.readBinary(valueBuffer);
-            if (!isDeleted(timestamp) && (filter == null || filter.satisfy(timestamp, aBinary))) {
-              timeBuilder.writeLong(timestamp);
-              valueBuilder.writeBinary(aBinary);
-              builder.declarePosition();
-            }
+          Binary aBinary = valueDecoder.readBinary(valueBuffer);
+          if (!isDeleted(timestamp) && (filter == null || filter.satisfy(timestamp, aBinary))) {
+            pageData.putBinary(timestamp, aBinary);
           }
           break;
         default:
           throw new UnSupportedDataTypeException(String.valueOf(dataType));
       }
     }
+  }
+
+  /** Decode the FLOAT values in batches to use the batch decoding of the value decoder. */
+  private void decodeFloatPageData(BatchData pageData) throws IOException {
+    long[] timeBatch = new long[DECODE_BATCH_SIZE];
+    float[] valueBatch = new float[DECODE_BATCH_SIZE];
+    while (timeDecoder.hasNext(timeBuffer)) {
+      int count = timeDecoder.readLongs(timeBuffer, timeBatch, 0, DECODE_BATCH_SIZE);
+      valueDecoder.readFloats(valueBuffer, valueBatch, 0, count);
+      for (int i = 0; i < count; i++) {
+        long timestamp = timeBatch[i];
+        float aFloat = valueBatch[i];
+        if (!isDeleted(timestamp) && (filter == null || filter.satisfy(timestamp, aFloat))) {
+          pageData.putFloat(timestamp, aFloat);
+        }
+      }
+    }
+  }
+
+  /** Decode the DOUBLE values in batches to use the batch decoding of the value decoder. */
+  private void decodeDoublePageData(BatchData pageData) throws IOException {
+    long[] timeBatch = new long[DECODE_BATCH_SIZE];
+    double[] valueBatch = new double[DECODE_BATCH_SIZE];
+    while (timeDecoder.hasNext(timeBuffer)) {
+      int count = timeDecoder.readLongs(timeBuffer, timeBatch, 0, DECODE_BATCH_SIZE);
+      valueDecoder.readDoubles(valueBuffer, valueBatch, 0, count);
+      for (int i = 0; i < count; i++) {
+        long timestamp = timeBatch[i];
+        double aDouble = valueBatch[i];
+        if (!isDeleted(timestamp) && (filter == null || filter.satisfy(timestamp, aDouble))) {
+          pageData.putDouble(timestamp, aDouble);
+        }
+      }
+    }
+  }
+
+  @Override
+  public TsBlock getAllSatisfiedData(boolean ascending) throws IOException {
+    // TODO we still need to consider data type, ascending and descending here
+    TsBlockBuilder builder = new TsBlockBuilder(Collections.singletonList(dataType));
+    if (filter == null || filter.satisfy(getStatistics())) {
+      if (miniBlockStatistics == null) {
+        decodeData(builder);
+      } else {
+        ByteBuffer timeColumn = timeBuffer;
+        ByteBuffer valueColumn = valueBuffer;
+        for (int i = 0; i < miniBlockStatistics.length; i++) {
+          if (prepareMiniBlock(i, timeColumn, valueColumn)) {
+            decodeData(builder);
+          }
+        }
+      }
+    }
     return builder.build();
   }
 
+  @SuppressWarnings("squid:S3776") // Suppress high Cognitive Complexity warning
+  private void decodeData(TsBlockBuilder builder) throws IOException {
+    TimeColumnBuilder timeBuilder = builder.getTimeColumnBuilder();
+    ColumnBuilder valueBuilder = builder.getColumnBuilder(0);
+    skipToTimeLowerBound();
+    switch (dataType) {
+      case BOOLEAN:
+        while (timeDecoder.hasNext(timeBuffer)) {
+          long timestamp = timeDecoder.readLong(timeBuffer);
+          boolean aBoolean = valueDecoder.readBoolean(valueBuffer);
+          if (!isDeleted(timestamp) && (filter == null || filter.satisfy(timestamp, aBoolean))) {
+            timeBuilder.writeLong(timestamp);
+            valueBuilder.writeBoolean(aBoolean);
+            builder.declarePosition();
+          }
+        }
+        break;
+      case INT32:
+        while (timeDecoder.hasNext(timeBuffer)) {
+          long timestamp = timeDecoder.readLong(timeBuffer);
+          int anInt = valueDecoder.readInt(valueBuffer);
+          if (!isDeleted(timestamp) && (filter == null || filter.satisfy(timestamp, anInt))) {
+            timeBuilder.writeLong(timestamp);
+            valueBuilder.writeInt(anInt);
+            builder.declarePosition();
+          }
+        }
+        break;
+      case INT64:
+        while (timeDecoder.hasNext(timeBuffer)) {
+          long timestamp = timeDecoder.readLong(timeBuffer);
+          long aLong = valueDecoder.readLong(valueBuffer);
+          if (!isDeleted(timestamp) && (filter == null || filter.satisfy(timestamp, aLong))) {
+            timeBuilder.writeLong(timestamp);
+            valueBuilder.writeLong(aLong);
+            builder.declarePosition();
+          }
+        }
+        break;
+      case FLOAT:
+        decodeFloatData(timeBuilder, valueBuilder, builder);
+        break;
+      case DOUBLE:
+        decodeDoubleData(timeBuilder, valueBuilder, builder);
+        break;
+      case TEXT:
+        while (timeDecoder.hasNext(timeBuffer)) {
+          long timestamp = timeDecoder.readLong(timeBuffer);
+          Binary aBinary = valueDecoder.readBinary(valueBuffer);
+          if (!isDeleted(timestamp) && (filter == null || filter.satisfy(timestamp, aBinary))) {
+            timeBuilder.writeLong(timestamp);
+            valueBuilder.writeBinary(aBinary);
+            builder.declarePosition();
+          }
+        }
+        break;
+      default:
+        throw new UnSupportedDataTypeException(String.valueOf(dataType));
+    }
+  }
+
+  /** @see #decodeFloatPageData(BatchData) */
+  private void decodeFloatData(
+      TimeColumnBuilder timeBuilder, ColumnBuilder valueBuilder, TsBlockBuilder builder)
+      throws IOException {
+    long[] timeBatch = new long[DECODE_BATCH_SIZE];
+    float[] valueBatch = new float[DECODE_BATCH_SIZE];
+    while (timeDecoder.hasNext(timeBuffer)) {
+      int count = timeDecoder.readLongs(timeBuffer, timeBatch, 0, DECODE_BATCH_SIZE);
+      valueDecoder.readFloats(valueBuffer, valueBatch, 0, count);
+      for (int i = 0; i < count; i++) {
+        long timestamp = timeBatch[i];
+        float aFloat = valueBatch[i];
+        if (!isDeleted(timestamp) && (filter == null || filter.satisfy(timestamp, aFloat))) {
+          timeBuilder.writeLong(timestamp);
+          valueBuilder.writeFloat(aFloat);
+          builder.declarePosition();
+        }
+      }
+    }
+  }
+
+  /** @see #decodeDoublePageData(BatchData) */
+  private void decodeDoubleData(
+      TimeColumnBuilder timeBuilder, ColumnBuilder valueBuilder, TsBlockBuilder builder)
+      throws IOException {
+    long[] timeBatch = new long[DECODE_BATCH_SIZE];
+    double[] valueBatch = new double[DECODE_BATCH_SIZE];
+    while (timeDecoder.hasNext(timeBuffer)) {
+      int count = timeDecoder.readLongs(timeBuffer, timeBatch, 0, DECODE_BATCH_SIZE);
+      valueDecoder.readDoubles(valueBuffer, valueBatch, 0, count);
+      for (int i = 0; i < count; i++) {
+        long timestamp = timeBatch[i];
+        double aDouble = valueBatch[i];
+        if (!isDeleted(timestamp) && (filter == null || filter.satisfy(timestamp, aDouble))) {
+          timeBuilder.writeLong(timestamp);
+          valueBuilder.writeDouble(aDouble);
+          builder.declarePosition();
+        }
+      }
+    }
+  }
+
+  /**
+   * Skip the points before the lower bound of the time filter if the time column is INTERVAL
+   * encoded, whose decoder finds the position of a timestamp without decoding the ones before it.
+   * The values of the skipped points still have to be decoded to keep the two columns aligned.
+   */
+  private void skipToTimeLowerBound() throws IOException {
+    if (filter == null || !(timeDecoder instanceof IntervalDecoder)) {
+      return;
+    }
+    long lowerBound = getTimeLowerBound(filter);
+    if (lowerBound == Long.MIN_VALUE) {
+      return;
+    }
+    int skipped = ((IntervalDecoder) timeDecoder).skipTo(timeBuffer, lowerBound);
+    for (int i = 0; i < skipped; i++) {
+      skipValue();
+    }
+  }
+
+  private void skipValue() throws IOException {
+    switch (dataType) {
+      case BOOLEAN:
+        valueDecoder.readBoolean(valueBuffer);
+        break;
+      case INT32:
+        valueDecoder.readInt(valueBuffer);
+        break;
+      case INT64:
+        valueDecoder.readLong(valueBuffer);
+        break;
+      case FLOAT:
+        valueDecoder.readFloat(valueBuffer);
+        break;
+      case DOUBLE:
+        valueDecoder.readDouble(valueBuffer);
+        break;
+      case TEXT:
+        valueDecoder.readBinary(valueBuffer);
+        break;
+      default:
+        throw new UnSupportedDataTypeException(String.valueOf(dataType));
+    }
+  }
+
+  /**
+   * @return a time that no point satisfying the filter is before, Long.MIN_VALUE if the filter
+   *     has no lower bound on time
+   */
+  @SuppressWarnings("rawtypes")
+  private static long getTimeLowerBound(Filter filter) {
+    if (filter instanceof AndFilter) {
+      BinaryFilter andFilter = (BinaryFilter) filter;
+      return Math.max(
+          getTimeLowerBound(andFilter.getLeft()), getTimeLowerBound(andFilter.getRight()));
+    } else if (filter instanceof OrFilter) {
+      BinaryFilter orFilter = (BinaryFilter) filter;
+      return Math.min(
+          getTimeLowerBound(orFilter.getLeft()), getTimeLowerBound(orFilter.getRight()));
+    } else if ((filter instanceof Gt || filter instanceof GtEq || filter instanceof Eq)
+        && ((UnaryFilter) filter).getFilterType() == FilterType.TIME_FILTER) {
+      long time = (Long) ((UnaryFilter) filter).getValue();
+      if (filter instanceof Gt) {
+        return time == Long.MAX_VALUE ? Long.MIN_VALUE : time + 1;
+      }
+      return time;
+    }
+    return Long.MIN_VALUE;
+  }
+
   @Override
   public Statistics getStatistics() {
     return pageHeader.getStatistics();
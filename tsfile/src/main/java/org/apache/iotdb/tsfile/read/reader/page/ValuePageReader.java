@@ -31,6 +31,7 @@ import org.apache.iotdb.tsfile.utils.Binary;
 import org.apache.iotdb.tsfile.utils.ReadWriteIOUtils;
 import org.apache.iotdb.tsfile.utils.TsPrimitiveType;
 
+import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.util.List;
 
@@ -82,8 +83,12 @@ public class ValuePageReader {
    * return a BatchData with the corresponding timeBatch, the BatchData's dataType is same as this
    * sub sensor
    */
-  public BatchData nextBatch(long[] timeBatch, boolean ascending, Filter filter) {
+  public BatchData nextBatch(long[] timeBatch, boolean ascending, Filter filter)
+      throws IOException {
     BatchData pageData = BatchDataFactory.createBatchData(dataType, ascending, false);
+    float[] floats = dataType == TSDataType.FLOAT ? readAllFloats() : null;
+    double[] doubles = dataType == TSDataType.DOUBLE ? readAllDoubles() : null;
+    int valueIndex = 0;
     for (int i = 0; i < timeBatch.length; i++) {
       if (((bitmap[i / 8] & 0xFF) & (MASK >>> (i % 8))) == 0) {
         continue;
@@ -109,13 +114,13 @@ public class ValuePageReader {
           }
           break;
         case FLOAT:
-          float aFloat = valueDecoder.readFloat(valueBuffer);
+          float aFloat = floats[valueIndex++];
           if (!isDeleted(timestamp) && (filter == null || filter.satisfy(timestamp, aFloat))) {
             pageData.putFloat(timestamp, aFloat);
           }
           break;
         case DOUBLE:
-          double aDouble = valueDecoder.readDouble(valueBuffer);
+          double aDouble = doubles[valueIndex++];
           if (!isDeleted(timestamp) && (filter == null || filter.satisfy(timestamp, aDouble))) {
             pageData.putDouble(timestamp, aDouble);
           }
@@ -186,11 +191,14 @@ public class ValuePageReader {
    * return the value array of the corresponding time, if this sub sensor don't have a value in a
    * time, just fill it with null
    */
-  public TsPrimitiveType[] nextValueBatch(long[] timeBatch) {
+  public TsPrimitiveType[] nextValueBatch(long[] timeBatch) throws IOException {
     TsPrimitiveType[] valueBatch = new TsPrimitiveType[size];
     if (valueBuffer == null) {
       return valueBatch;
     }
+    float[] floats = dataType == TSDataType.FLOAT ? readAllFloats() : null;
+    double[] doubles = dataType == TSDataType.DOUBLE ? readAllDoubles() : null;
+    int valueIndex = 0;
     for (int i = 0; i < size; i++) {
       if (((bitmap[i / 8] & 0xFF) & (MASK >>> (i % 8))) == 0) {
         continue;
@@ -215,13 +223,13 @@ public class ValuePageReader {
           }
           break;
         case FLOAT:
-          float aFloat = valueDecoder.readFloat(valueBuffer);
+          float aFloat = floats[valueIndex++];
           if (!isDeleted(timeBatch[i])) {
             valueBatch[i] = new TsPrimitiveType.TsFloat(aFloat);
           }
           break;
         case DOUBLE:
-          double aDouble = valueDecoder.readDouble(valueBuffer);
+          double aDouble = doubles[valueIndex++];
           if (!isDeleted(timeBatch[i])) {
             valueBatch[i] = new TsPrimitiveType.TsDouble(aDouble);
           }
@@ -239,6 +247,23 @@ public class ValuePageReader {
     return valueBatch;
   }
 
+  /**
+   * Decode all values of a FLOAT page at once to use the batch decoding of the value decoder. The
+   * page has at most one value per row.
+   */
+  private float[] readAllFloats() throws IOException {
+    float[] values = new float[size];
+    valueDecoder.readFloats(valueBuffer, values, 0, size);
+    return values;
+  }
+
+  /** @see #readAllFloats() */
+  private double[] readAllDoubles() throws IOException {
+    double[] values = new double[size];
+    valueDecoder.readDoubles(valueBuffer, values, 0, size);
+    return values;
+  }
+
   public Statistics getStatistics() {
     return pageHeader.getStatistics();
   }
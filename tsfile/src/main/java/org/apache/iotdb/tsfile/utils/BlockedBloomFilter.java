@@ -0,0 +1,179 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.utils;
+
+import org.apache.iotdb.tsfile.common.conf.TSFileConfig;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ * A split block bloom filter. The bits are divided into blocks of one cache line (8 longs), and a
+ * value sets one bit in each long of a single block. The block and the bits all come from one 64
+ * bits hash, so a lookup hashes the value once and reads one cache line, while {@link BloomFilter}
+ * hashes the value once for each bit and reads the bits all over its bit set.
+ *
+ * <p>Devices may be added besides the series, so that a device missing from the file is rejected
+ * by an independent lookup before its series are looked up.
+ */
+public class BlockedBloomFilter implements IBloomFilter {
+
+  /** version of the filter section in the TsFile tail */
+  public static final byte VERSION = 1;
+
+  private static final int WORDS_PER_BLOCK = 8;
+  private static final int BITS_PER_BLOCK = WORDS_PER_BLOCK * Long.SIZE;
+  // odd constants spreading a 32 bits key to a bit of each word of the block
+  private static final int[] SALTS = {
+    0x47b6137b, 0x44974d91, 0x8824ad5b, 0xa2b7289d, 0x705495c7, 0x2df1424b, 0x9efc4947, 0x5c6bfb31
+  };
+  private static final int SERIES_SEED = 0;
+  private static final int DEVICE_SEED = 0x5bd1e995;
+
+  private static final byte FLAG_WITH_DEVICES = 1;
+
+  private final long[] words;
+  private final int blockNum;
+  private final boolean withDevices;
+
+  private BlockedBloomFilter(long[] words, boolean withDevices) {
+    this.words = words;
+    this.blockNum = words.length / WORDS_PER_BLOCK;
+    this.withDevices = withDevices;
+  }
+
+  /**
+   * get empty bloom filter
+   *
+   * @param errorPercent the tolerant percent of error of the bloom filter
+   * @param numOfString the number of series and devices want to store in the bloom filter
+   * @param withDevices whether devices are stored as well as series
+   * @return empty bloom filter
+   */
+  public static BlockedBloomFilter getEmptyBloomFilter(
+      double errorPercent, int numOfString, boolean withDevices) {
+    errorPercent = Math.max(errorPercent, TSFileConfig.MIN_BLOOM_FILTER_ERROR_RATE);
+    errorPercent = Math.min(errorPercent, TSFileConfig.MAX_BLOOM_FILTER_ERROR_RATE);
+
+    // optimal number of bits of a split block bloom filter setting one bit in each of 8 words
+    double bits = -WORDS_PER_BLOCK * numOfString / Math.log(1 - Math.pow(errorPercent, 1.0 / 8));
+    int blockNum = Math.max(1, (int) Math.ceil(bits / BITS_PER_BLOCK));
+    return new BlockedBloomFilter(new long[blockNum * WORDS_PER_BLOCK], withDevices);
+  }
+
+  /**
+   * build bloom filter by bytes
+   *
+   * @param bytes bytes got by {@link #serialize()}
+   * @return bloom filter
+   */
+  public static BlockedBloomFilter deserialize(byte[] bytes) {
+    ByteBuffer buffer = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+    boolean withDevices = (buffer.get() & FLAG_WITH_DEVICES) != 0;
+    long[] words = new long[buffer.remaining() / Long.BYTES];
+    buffer.asLongBuffer().get(words);
+    return new BlockedBloomFilter(words, withDevices);
+  }
+
+  public void add(String path) {
+    add(Murmur128Hash.hash64(path, SERIES_SEED));
+  }
+
+  public void addDevice(String device) {
+    if (withDevices) {
+      add(Murmur128Hash.hash64(device, DEVICE_SEED));
+    }
+  }
+
+  private void add(long hash) {
+    int offset = blockOffset(hash);
+    int key = (int) hash;
+    for (int i = 0; i < WORDS_PER_BLOCK; i++) {
+      words[offset + i] |= 1L << ((key * SALTS[i]) >>> 26);
+    }
+  }
+
+  @Override
+  public boolean contains(String path) {
+    return path != null && contains(Murmur128Hash.hash64(path, SERIES_SEED));
+  }
+
+  @Override
+  public boolean containsDevice(String device) {
+    return !withDevices || (device != null && contains(Murmur128Hash.hash64(device, DEVICE_SEED)));
+  }
+
+  private boolean contains(long hash) {
+    int offset = blockOffset(hash);
+    int key = (int) hash;
+    for (int i = 0; i < WORDS_PER_BLOCK; i++) {
+      if ((words[offset + i] & (1L << ((key * SALTS[i]) >>> 26))) == 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /** map the high 32 bits of the hash to a block, the low 32 bits pick the bits in it */
+  private int blockOffset(long hash) {
+    return (int) (((hash >>> 32) * blockNum) >>> 32) * WORDS_PER_BLOCK;
+  }
+
+  public boolean isWithDevices() {
+    return withDevices;
+  }
+
+  @Override
+  public int getSize() {
+    return blockNum * BITS_PER_BLOCK;
+  }
+
+  @Override
+  public int getHashFunctionSize() {
+    return WORDS_PER_BLOCK;
+  }
+
+  /** @return flags(1 byte) followed by the words in little endian */
+  @Override
+  public byte[] serialize() {
+    ByteBuffer buffer =
+        ByteBuffer.allocate(1 + words.length * Long.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+    buffer.put(withDevices ? FLAG_WITH_DEVICES : 0);
+    buffer.asLongBuffer().put(words);
+    return buffer.array();
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    BlockedBloomFilter that = (BlockedBloomFilter) o;
+    return withDevices == that.withDevices && Arrays.equals(words, that.words);
+  }
+
+  @Override
+  public int hashCode() {
+    return 31 * Arrays.hashCode(words) + Boolean.hashCode(withDevices);
+  }
+}
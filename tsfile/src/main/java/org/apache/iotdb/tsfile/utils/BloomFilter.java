@@ -24,7 +24,7 @@ import java.util.Arrays;
 import java.util.BitSet;
 import java.util.Objects;
 
-public class BloomFilter {
+public class BloomFilter implements IBloomFilter {
 
   private static final int MINIMAL_SIZE = 256;
   private static final int MAXIMAL_HASH_FUNCTION_SIZE = 8;
@@ -85,10 +85,12 @@ public class BloomFilter {
     return new BloomFilter(bytes, size, Math.min(MAXIMAL_HASH_FUNCTION_SIZE, hashFunctionSize));
   }
 
+  @Override
   public int getHashFunctionSize() {
     return hashFunctionSize;
   }
 
+  @Override
   public int getSize() {
     return size;
   }
@@ -103,6 +105,7 @@ public class BloomFilter {
     }
   }
 
+  @Override
   public boolean contains(String value) {
     if (value == null) {
       return false;
@@ -125,6 +128,7 @@ public class BloomFilter {
     return res;
   }
 
+  @Override
   public byte[] serialize() {
     return bits.toByteArray();
   }
@@ -0,0 +1,156 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.utils;
+
+/**
+ * Utils to erase and restore floating point values for the ELF encoding, see Li et al., "Elf:
+ * Erasing-based Lossless Floating-Point Compression", VLDB 2023.
+ *
+ * <p>A value with few decimal places, like most sensor readings, carries a long tail of mantissa
+ * bits that only hold the binary rounding error. Setting them to zeros gives the XOR of
+ * consecutive values many more trailing zeros, and the value is restored exactly by rounding the
+ * erased value up at its decimal places. Erasing is only done if the restored value is verified to
+ * be identical, so the encoding stays lossless.
+ */
+public class ElfUtils {
+
+  /** the decimal places of an erased value are stored in 4 bits */
+  public static final int DECIMAL_PLACES_BITS = 4;
+
+  private static final int MAX_DECIMAL_PLACES = (1 << DECIMAL_PLACES_BITS) - 1;
+  /** erasing fewer bits does not pay for storing the decimal places */
+  private static final int MIN_ERASED_BITS = 5;
+
+  private static final int DOUBLE_MANTISSA_BITS = 52;
+  private static final int DOUBLE_EXPONENT_BIAS = 1023;
+  private static final int FLOAT_MANTISSA_BITS = 23;
+  private static final int FLOAT_EXPONENT_BIAS = 127;
+  /** integers up to this are exact in a double */
+  private static final double MAX_EXACT_INTEGER = 1L << 53;
+
+  private static final double[] POWERS_OF_TEN = new double[MAX_DECIMAL_PLACES + 1];
+  /** bits after the binary point that tell values apart at the decimal places */
+  private static final int[] BINARY_PLACES = new int[MAX_DECIMAL_PLACES + 1];
+
+  static {
+    double log2Of10 = Math.log(10) / Math.log(2);
+    double power = 1;
+    for (int i = 0; i <= MAX_DECIMAL_PLACES; i++) {
+      POWERS_OF_TEN[i] = power;
+      BINARY_PLACES[i] = (int) Math.ceil(i * log2Of10);
+      power *= 10;
+    }
+  }
+
+  private ElfUtils() {}
+
+  /**
+   * get the decimal places of the shortest decimal that the value is the nearest double of.
+   *
+   * @return the decimal places, or -1 if there are too many of them
+   */
+  public static int getDecimalPlaces(double value) {
+    if (Double.isNaN(value) || Double.isInfinite(value)) {
+      return -1;
+    }
+    for (int i = 0; i <= MAX_DECIMAL_PLACES; i++) {
+      double scaled = value * POWERS_OF_TEN[i];
+      if (Math.abs(scaled) >= MAX_EXACT_INTEGER) {
+        return -1;
+      }
+      if (Math.round(scaled) / POWERS_OF_TEN[i] == value) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * get the decimal places of the shortest decimal that the value is the nearest float of.
+   *
+   * @return the decimal places, or -1 if there are too many of them
+   */
+  public static int getDecimalPlaces(float value) {
+    if (Float.isNaN(value) || Float.isInfinite(value)) {
+      return -1;
+    }
+    for (int i = 0; i <= MAX_DECIMAL_PLACES; i++) {
+      double scaled = value * POWERS_OF_TEN[i];
+      if (Math.abs(scaled) >= MAX_EXACT_INTEGER) {
+        return -1;
+      }
+      if ((float) (Math.round(scaled) / POWERS_OF_TEN[i]) == value) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * erase the mantissa bits of a double that are not needed to restore it at its decimal places.
+   *
+   * @param bits raw bits of the value
+   * @param decimalPlaces decimal places got by {@link #getDecimalPlaces(double)}
+   * @return the erased bits, or the bits themselves if erasing does not pay off
+   */
+  public static long eraseDouble(long bits, int decimalPlaces) {
+    int exponent = (int) ((bits >>> DOUBLE_MANTISSA_BITS) & 0x7ff) - DOUBLE_EXPONENT_BIAS;
+    int keptBits = Math.max(0, exponent + BINARY_PLACES[decimalPlaces]);
+    if (keptBits > DOUBLE_MANTISSA_BITS - MIN_ERASED_BITS) {
+      return bits;
+    }
+    long erasedBits = bits & (-1L << (DOUBLE_MANTISSA_BITS - keptBits));
+    return Double.doubleToRawLongBits(restoreDouble(erasedBits, decimalPlaces)) == bits
+        ? erasedBits
+        : bits;
+  }
+
+  /** restore a double erased by {@link #eraseDouble(long, int)}. */
+  public static double restoreDouble(long erasedBits, int decimalPlaces) {
+    double erased = Double.longBitsToDouble(erasedBits);
+    double power = POWERS_OF_TEN[decimalPlaces];
+    return Math.copySign(Math.ceil(Math.abs(erased) * power) / power, erased);
+  }
+
+  /**
+   * erase the mantissa bits of a float that are not needed to restore it at its decimal places.
+   *
+   * @param bits raw bits of the value
+   * @param decimalPlaces decimal places got by {@link #getDecimalPlaces(float)}
+   * @return the erased bits, or the bits themselves if erasing does not pay off
+   */
+  public static int eraseFloat(int bits, int decimalPlaces) {
+    int exponent = ((bits >>> FLOAT_MANTISSA_BITS) & 0xff) - FLOAT_EXPONENT_BIAS;
+    int keptBits = Math.max(0, exponent + BINARY_PLACES[decimalPlaces]);
+    if (keptBits > FLOAT_MANTISSA_BITS - MIN_ERASED_BITS) {
+      return bits;
+    }
+    int erasedBits = bits & (-1 << (FLOAT_MANTISSA_BITS - keptBits));
+    return Float.floatToRawIntBits(restoreFloat(erasedBits, decimalPlaces)) == bits
+        ? erasedBits
+        : bits;
+  }
+
+  /** restore a float erased by {@link #eraseFloat(int, int)}. */
+  public static float restoreFloat(int erasedBits, int decimalPlaces) {
+    float erased = Float.intBitsToFloat(erasedBits);
+    double power = POWERS_OF_TEN[decimalPlaces];
+    return (float) Math.copySign(Math.ceil(Math.abs((double) erased) * power) / power, erased);
+  }
+}
@@ -0,0 +1,47 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.utils;
+
+/** Membership filter of the paths in a TsFile, to skip a file without reading its metadata. */
+public interface IBloomFilter {
+
+  /**
+   * @param path full path of a series
+   * @return false if the series is definitely not in the file
+   */
+  boolean contains(String path);
+
+  /**
+   * filters that only know the series return true.
+   *
+   * @param device device id
+   * @return false if the device is definitely not in the file
+   */
+  default boolean containsDevice(String device) {
+    return true;
+  }
+
+  /** @return number of bits of the filter */
+  int getSize();
+
+  /** @return number of bits set for each value */
+  int getHashFunctionSize();
+
+  byte[] serialize();
+}
@@ -18,6 +18,8 @@
  */
 package org.apache.iotdb.tsfile.utils;
 
+import org.apache.iotdb.tsfile.common.conf.TSFileConfig;
+
 public class Murmur128Hash {
 
   private Murmur128Hash() {
@@ -35,6 +37,19 @@ public class Murmur128Hash {
     return (int) innerHash(value.getBytes(), 0, value.getBytes().length, seed);
   }
 
+  /**
+   * get 64 bits hashcode of value by seed. The value is encoded in UTF-8, so that the hashcode
+   * persisted in files does not depend on the platform charset.
+   *
+   * @param value value
+   * @param seed seed
+   * @return hashcode of value
+   */
+  public static long hash64(String value, int seed) {
+    byte[] bytes = value.getBytes(TSFileConfig.STRING_CHARSET);
+    return innerHash(bytes, 0, bytes.length, seed);
+  }
+
   /**
    * get hashcode of two values by seed
    *
@@ -24,6 +24,7 @@ import org.apache.iotdb.tsfile.exception.write.NoMeasurementException;
 import org.apache.iotdb.tsfile.exception.write.WriteProcessException;
 import org.apache.iotdb.tsfile.read.common.Path;
 import org.apache.iotdb.tsfile.utils.MeasurementGroup;
+import org.apache.iotdb.tsfile.utils.Pair;
 import org.apache.iotdb.tsfile.write.chunk.AlignedChunkGroupWriterImpl;
 import org.apache.iotdb.tsfile.write.chunk.IChunkGroupWriter;
 import org.apache.iotdb.tsfile.write.chunk.NonAlignedChunkGroupWriterImpl;
@@ -89,6 +90,17 @@ public class TsFileWriter implements AutoCloseable {
 
   private long chunkGroupSizeThreshold;
 
+  /**
+   * if positive, the writer works in streaming mode: once the data buffered for all devices exceeds
+   * this budget, the largest chunk groups are flushed until half of the budget is left, instead of
+   * flushing all chunk groups at once.
+   */
+  private long memoryBudget = 0;
+
+  // record count and buffered memory size after the last check in streaming mode
+  private long recordCountOfLastCheck = 0;
+  private long memSizeOfLastCheck = 0;
+
   /**
    * init this TsFileWriter.
    *
@@ -543,6 +555,10 @@ public class TsFileWriter implements AutoCloseable {
    */
   private boolean checkMemorySizeAndMayFlushChunks() throws IOException {
     if (recordCount >= recordCountForNextMemCheck) {
+      if (memoryBudget > 0) {
+        checkMemoryBudgetAndMayFlushChunkGroups();
+        return false;
+      }
       long memSize = calculateMemSizeForAllGroup();
       assert memSize > 0;
       if (memSize > chunkGroupSizeThreshold) {
@@ -557,6 +573,40 @@ public class TsFileWriter implements AutoCloseable {
     return false;
   }
 
+  /**
+   * check the memory size occupied by all chunk groups in streaming mode, if it exceeds the memory
+   * budget, flush the largest chunk groups until half of the budget is left.
+   */
+  private void checkMemoryBudgetAndMayFlushChunkGroups() throws IOException {
+    long memSize = 0;
+    List<Pair<String, Long>> groupMemSizes = new ArrayList<>(groupWriters.size());
+    for (Map.Entry<String, IChunkGroupWriter> entry : groupWriters.entrySet()) {
+      long groupMemSize = entry.getValue().updateMaxGroupMemSize();
+      groupMemSizes.add(new Pair<>(entry.getKey(), groupMemSize));
+      memSize += groupMemSize;
+    }
+    long recordNum = recordCount - recordCountOfLastCheck;
+    long memIncrement = memSize - memSizeOfLastCheck;
+    if (memSize > memoryBudget) {
+      LOG.debug("start to flush the largest chunk groups, memory space occupy:{}", memSize);
+      groupMemSizes.sort((left, right) -> Long.compare(right.right, left.right));
+      for (Pair<String, Long> groupMemSize : groupMemSizes) {
+        if (memSize <= memoryBudget / 2) {
+          break;
+        }
+        flushChunkGroup(groupMemSize.left, groupWriters.remove(groupMemSize.left));
+        memSize -= groupMemSize.right;
+      }
+    }
+    // estimate how many records can be written before the budget may be exceeded
+    recordCountOfLastCheck = recordCount;
+    memSizeOfLastCheck = memSize;
+    recordCountForNextMemCheck =
+        memIncrement > 0
+            ? recordCount + Math.max(1, (memoryBudget - memSize) * recordNum / memIncrement)
+            : recordCount + Math.max(1, recordNum);
+  }
+
   /**
    * flush the data in all series writers of all chunk group writers and their page writers to
    * outputStream.
@@ -568,51 +618,55 @@ public class TsFileWriter implements AutoCloseable {
   public boolean flushAllChunkGroups() throws IOException {
     if (recordCount > 0) {
       for (Map.Entry<String, IChunkGroupWriter> entry : groupWriters.entrySet()) {
-        String deviceId = entry.getKey();
-        IChunkGroupWriter groupWriter = entry.getValue();
-        fileWriter.startChunkGroup(deviceId);
-        long pos = fileWriter.getPos();
-        long dataSize = groupWriter.flushToFileWriter(fileWriter);
-        if (fileWriter.getPos() - pos != dataSize) {
-          throw new IOException(
-              String.format(
-                  "Flushed data size is inconsistent with computation! Estimated: %d, Actual: %d",
-                  dataSize, fileWriter.getPos() - pos));
-        }
-        fileWriter.endChunkGroup();
-        if (groupWriter instanceof AlignedChunkGroupWriterImpl) {
-          // add flushed measurements
-          List<String> measurementList =
-              flushedMeasurementsInDeviceMap.computeIfAbsent(deviceId, p -> new ArrayList<>());
-          ((AlignedChunkGroupWriterImpl) groupWriter)
-              .getMeasurements()
-              .forEach(
-                  measurementId -> {
-                    if (!measurementList.contains(measurementId)) {
-                      measurementList.add(measurementId);
-                    }
-                  });
-          // add lastTime
-          if (!isUnseq) { // Sequence TsFile
-            this.alignedDeviceLastTimeMap.put(
-                deviceId, ((AlignedChunkGroupWriterImpl) groupWriter).getLastTime());
-          }
-        } else {
-          // add lastTime
-          if (!isUnseq) { // Sequence TsFile
-            this.nonAlignedTimeseriesLastTimeMap.put(
-                deviceId, ((NonAlignedChunkGroupWriterImpl) groupWriter).getLastTimeMap());
-          }
-        }
+        flushChunkGroup(entry.getKey(), entry.getValue());
       }
       reset();
     }
     return false;
   }
 
+  private void flushChunkGroup(String deviceId, IChunkGroupWriter groupWriter) throws IOException {
+    fileWriter.startChunkGroup(deviceId);
+    long pos = fileWriter.getPos();
+    long dataSize = groupWriter.flushToFileWriter(fileWriter);
+    if (fileWriter.getPos() - pos != dataSize) {
+      throw new IOException(
+          String.format(
+              "Flushed data size is inconsistent with computation! Estimated: %d, Actual: %d",
+              dataSize, fileWriter.getPos() - pos));
+    }
+    fileWriter.endChunkGroup();
+    if (groupWriter instanceof AlignedChunkGroupWriterImpl) {
+      // add flushed measurements
+      List<String> measurementList =
+          flushedMeasurementsInDeviceMap.computeIfAbsent(deviceId, p -> new ArrayList<>());
+      ((AlignedChunkGroupWriterImpl) groupWriter)
+          .getMeasurements()
+          .forEach(
+              measurementId -> {
+                if (!measurementList.contains(measurementId)) {
+                  measurementList.add(measurementId);
+                }
+              });
+      // add lastTime
+      if (!isUnseq) { // Sequence TsFile
+        this.alignedDeviceLastTimeMap.put(
+            deviceId, ((AlignedChunkGroupWriterImpl) groupWriter).getLastTime());
+      }
+    } else {
+      // add lastTime
+      if (!isUnseq) { // Sequence TsFile
+        this.nonAlignedTimeseriesLastTimeMap.put(
+            deviceId, ((NonAlignedChunkGroupWriterImpl) groupWriter).getLastTimeMap());
+      }
+    }
+  }
+
   private void reset() {
     groupWriters.clear();
     recordCount = 0;
+    recordCountOfLastCheck = 0;
+    memSizeOfLastCheck = 0;
   }
 
   /**
@@ -640,4 +694,23 @@ public class TsFileWriter implements AutoCloseable {
   public void setIsUnseq(boolean unseq) {
     this.isUnseq = unseq;
   }
+
+  /**
+   * Switch this writer to streaming mode, which bounds the memory used by the buffered data of all
+   * devices. When the budget is exceeded, the chunk groups of the devices buffering the most data
+   * are flushed first, so a device may have several chunk groups in the file. Use it together with
+   * {@link #setChunkMetadataSpillThreshold(int)} to also bound the memory used by the metadata of
+   * wide schemas.
+   *
+   * @param memoryBudgetInByte the memory budget, streaming mode is disabled if it is not positive
+   */
+  public void setMemoryBudget(long memoryBudgetInByte) {
+    this.memoryBudget = memoryBudgetInByte;
+    this.recordCountForNextMemCheck = Math.min(recordCountForNextMemCheck, recordCount + 1);
+  }
+
+  /** @see TsFileIOWriter#setChunkMetadataSpillThreshold(int) */
+  public void setChunkMetadataSpillThreshold(int chunkMetadataSpillThreshold) {
+    fileWriter.setChunkMetadataSpillThreshold(chunkMetadataSpillThreshold);
+  }
 }
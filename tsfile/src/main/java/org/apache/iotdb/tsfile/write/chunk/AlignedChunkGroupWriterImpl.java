@@ -146,11 +146,25 @@ public class AlignedChunkGroupWriterImpl implements IChunkGroupWriter {
   public int write(Tablet tablet) throws WriteProcessException, IOException {
     int pointCount = 0;
     List<MeasurementSchema> measurementSchemas = tablet.getSchemas();
+    // resolve the writers of the columns once for the whole tablet instead of once for every row
+    ValueChunkWriter[] valueChunkWriters = new ValueChunkWriter[measurementSchemas.size()];
+    for (int columnIndex = 0; columnIndex < measurementSchemas.size(); columnIndex++) {
+      String measurementId = measurementSchemas.get(columnIndex).getMeasurementId();
+      valueChunkWriters[columnIndex] = valueChunkWriterMap.get(measurementId);
+      writenMeasurementSet.add(measurementId);
+    }
+    List<ValueChunkWriter> emptyValueChunkWriters = new ArrayList<>();
+    for (Map.Entry<String, ValueChunkWriter> entry : valueChunkWriterMap.entrySet()) {
+      if (!writenMeasurementSet.contains(entry.getKey())) {
+        emptyValueChunkWriters.add(entry.getValue());
+      }
+    }
+    writenMeasurementSet.clear();
+
     for (int row = 0; row < tablet.rowSize; row++) {
       long time = tablet.timestamps[row];
       checkIsHistoryData("", time);
       for (int columnIndex = 0; columnIndex < measurementSchemas.size(); columnIndex++) {
-        writenMeasurementSet.add(measurementSchemas.get(columnIndex).getMeasurementId());
         boolean isNull = false;
         // check isNull by bitMap in tablet
         if (tablet.bitMaps != null
@@ -158,8 +172,7 @@ public class AlignedChunkGroupWriterImpl implements IChunkGroupWriter {
             && tablet.bitMaps[columnIndex].isMarked(row)) {
           isNull = true;
         }
-        ValueChunkWriter valueChunkWriter =
-            valueChunkWriterMap.get(measurementSchemas.get(columnIndex).getMeasurementId());
+        ValueChunkWriter valueChunkWriter = valueChunkWriters[columnIndex];
         switch (measurementSchemas.get(columnIndex).getType()) {
           case BOOLEAN:
             valueChunkWriter.write(time, ((boolean[]) tablet.values[columnIndex])[row], isNull);
@@ -186,7 +199,9 @@ public class AlignedChunkGroupWriterImpl implements IChunkGroupWriter {
                     measurementSchemas.get(columnIndex).getType()));
         }
       }
-      writeEmptyDataInOneRow(time);
+      for (ValueChunkWriter valueChunkWriter : emptyValueChunkWriters) {
+        valueChunkWriter.write(time, 0, true);
+      }
       timeChunkWriter.write(time);
       lastTime = time;
       if (checkPageSizeAndMayOpenANewPage()) {
@@ -220,6 +220,14 @@ public class AlignedChunkWriterImpl implements IChunkWriter {
     }
   }
 
+  @Override
+  public void useCompressionDictionary(String storageGroup) {
+    timeChunkWriter.useCompressionDictionary(storageGroup);
+    for (ValueChunkWriter valueChunkWriter : valueChunkWriterList) {
+      valueChunkWriter.useCompressionDictionary(storageGroup);
+    }
+  }
+
   /** Used for compaction to control the target chunk size. */
   public boolean checkIsChunkSizeOverThreshold(long threshold) {
     if (timeChunkWriter.estimateMaxSeriesMemSize() > threshold) {
@@ -20,10 +20,13 @@ package org.apache.iotdb.tsfile.write.chunk;
 
 import org.apache.iotdb.tsfile.common.conf.TSFileDescriptor;
 import org.apache.iotdb.tsfile.compress.ICompressor;
+import org.apache.iotdb.tsfile.compress.ICompressor.ZstdCompressor;
+import org.apache.iotdb.tsfile.compress.ZstdDictionaryRegistry;
 import org.apache.iotdb.tsfile.encoding.encoder.SDTEncoder;
 import org.apache.iotdb.tsfile.exception.write.PageException;
 import org.apache.iotdb.tsfile.file.header.ChunkHeader;
 import org.apache.iotdb.tsfile.file.header.PageHeader;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
 import org.apache.iotdb.tsfile.utils.Binary;
@@ -41,6 +44,8 @@ import java.io.Serializable;
 import java.nio.ByteBuffer;
 import java.nio.channels.Channels;
 import java.nio.channels.WritableByteChannel;
+import java.util.HashSet;
+import java.util.Set;
 
 public class ChunkWriterImpl implements IChunkWriter {
 
@@ -92,6 +97,9 @@ public class ChunkWriterImpl implements IChunkWriter {
 
   private Statistics<?> firstPageStatistics;
 
+  /** ids of the ZSTD dictionaries the pages are compressed with, see {@link TsFileIOWriter} */
+  private final Set<Long> compressionDictionaryIds = new HashSet<>();
+
   /** @param schema schema of this measurement */
   public ChunkWriterImpl(IMeasurementSchema schema) {
     this.measurementSchema = schema;
@@ -309,6 +317,11 @@ public class ChunkWriterImpl implements IChunkWriter {
   @Override
   public void writeToFileWriter(TsFileIOWriter tsfileWriter) throws IOException {
     sealCurrentPage();
+    if (numOfPages > 0) {
+      for (long dictionaryId : compressionDictionaryIds) {
+        tsfileWriter.addCompressionDictionary(dictionaryId);
+      }
+    }
     writeAllPagesOfChunkToTsFile(tsfileWriter, statistics);
 
     // reinit this chunk writer
@@ -348,6 +361,18 @@ public class ChunkWriterImpl implements IChunkWriter {
     pageWriter = null;
   }
 
+  @Override
+  public void useCompressionDictionary(String storageGroup) {
+    if (compressor.getType() == CompressionType.ZSTD) {
+      ZstdCompressor dictionaryCompressor =
+          ZstdDictionaryRegistry.getInstance().getCompressor(storageGroup);
+      if (dictionaryCompressor != null) {
+        pageWriter.setCompressor(dictionaryCompressor);
+        compressionDictionaryIds.add(dictionaryCompressor.getDictionaryId());
+      }
+    }
+  }
+
   public TSDataType getDataType() {
     return measurementSchema.getType();
   }
@@ -365,7 +390,8 @@ public class ChunkWriterImpl implements IChunkWriter {
       // serialize pageHeader  see writePageToPageBuffer method
       if (numOfPages == 0) { // record the firstPageStatistics
         this.firstPageStatistics = header.getStatistics();
-        this.sizeWithoutStatistic +=
+        // assign rather than add, the writer may have flushed chunks before
+        this.sizeWithoutStatistic =
             ReadWriteForEncodingUtils.writeUnsignedVarInt(header.getUncompressedSize(), pageBuffer);
         this.sizeWithoutStatistic +=
             ReadWriteForEncodingUtils.writeUnsignedVarInt(header.getCompressedSize(), pageBuffer);
@@ -396,6 +422,13 @@ public class ChunkWriterImpl implements IChunkWriter {
       throw new PageException("IO Exception in writeDataPageHeader,ignore this page", e);
     }
     numOfPages++;
+    if (compressor.getType() == CompressionType.ZSTD && header.getCompressedSize() > 0) {
+      // the page is copied as it is, so its file must carry the dictionary it is compressed with
+      long dictionaryId = ZstdDictionaryRegistry.getDictionaryId(data);
+      if (dictionaryId != 0) {
+        compressionDictionaryIds.add(dictionaryId);
+      }
+    }
     // write page content to temp PBAOS
     try (WritableByteChannel channel = Channels.newChannel(pageBuffer)) {
       channel.write(data);
@@ -45,4 +45,11 @@ public interface IChunkWriter {
 
   /** set the current pageWriter to null, friendly for gc */
   void clearPageWriter();
+
+  /**
+   * compress the pages with the ZSTD dictionary of the storage group registered in {@link
+   * org.apache.iotdb.tsfile.compress.ZstdDictionaryRegistry}, if the chunk is compressed by ZSTD
+   * and the storage group has a dictionary. It must be called before any point is written.
+   */
+  void useCompressionDictionary(String storageGroup);
 }
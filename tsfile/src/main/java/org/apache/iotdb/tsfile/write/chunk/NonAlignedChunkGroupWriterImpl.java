@@ -21,8 +21,8 @@ package org.apache.iotdb.tsfile.write.chunk;
 import org.apache.iotdb.tsfile.common.constant.TsFileConstant;
 import org.apache.iotdb.tsfile.exception.write.UnSupportedDataTypeException;
 import org.apache.iotdb.tsfile.exception.write.WriteProcessException;
-import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.utils.Binary;
+import org.apache.iotdb.tsfile.utils.BitMap;
 import org.apache.iotdb.tsfile.write.record.Tablet;
 import org.apache.iotdb.tsfile.write.record.datapoint.DataPoint;
 import org.apache.iotdb.tsfile.write.schema.IMeasurementSchema;
@@ -89,52 +89,104 @@ public class NonAlignedChunkGroupWriterImpl implements IChunkGroupWriter {
 
   @Override
   public int write(Tablet tablet) throws WriteProcessException {
-    int maxPointCount = 0, pointCount;
+    int maxPointCount = 0;
     List<MeasurementSchema> timeseries = tablet.getSchemas();
     for (int column = 0; column < timeseries.size(); column++) {
-      String measurementId = timeseries.get(column).getMeasurementId();
-      TSDataType tsDataType = timeseries.get(column).getType();
-      pointCount = 0;
-      for (int row = 0; row < tablet.rowSize; row++) {
-        // check isNull in tablet
-        if (tablet.bitMaps != null
-            && tablet.bitMaps[column] != null
-            && tablet.bitMaps[column].isMarked(row)) {
-          continue;
-        }
-        long time = tablet.timestamps[row];
-        checkIsHistoryData(measurementId, time);
-        pointCount++;
-        switch (tsDataType) {
-          case INT32:
-            chunkWriters.get(measurementId).write(time, ((int[]) tablet.values[column])[row]);
-            break;
-          case INT64:
-            chunkWriters.get(measurementId).write(time, ((long[]) tablet.values[column])[row]);
-            break;
-          case FLOAT:
-            chunkWriters.get(measurementId).write(time, ((float[]) tablet.values[column])[row]);
-            break;
-          case DOUBLE:
-            chunkWriters.get(measurementId).write(time, ((double[]) tablet.values[column])[row]);
-            break;
-          case BOOLEAN:
-            chunkWriters.get(measurementId).write(time, ((boolean[]) tablet.values[column])[row]);
-            break;
-          case TEXT:
-            chunkWriters.get(measurementId).write(time, ((Binary[]) tablet.values[column])[row]);
-            break;
-          default:
-            throw new UnSupportedDataTypeException(
-                String.format("Data type %s is not supported.", tsDataType));
-        }
-        lastTimeMap.put(measurementId, time);
-      }
-      maxPointCount = Math.max(pointCount, maxPointCount);
+      maxPointCount = Math.max(writeColumn(tablet, column, timeseries.get(column)), maxPointCount);
     }
     return maxPointCount;
   }
 
+  /**
+   * Write one column of the tablet. The chunk writer, the null bitmap and the data type are
+   * resolved once for the whole column, and the last time of the series is only updated at the
+   * end.
+   *
+   * @return the number of written points
+   */
+  @SuppressWarnings("squid:S3776") // Suppress high Cognitive Complexity warning
+  private int writeColumn(Tablet tablet, int column, MeasurementSchema measurementSchema)
+      throws WriteProcessException {
+    String measurementId = measurementSchema.getMeasurementId();
+    ChunkWriterImpl chunkWriter = chunkWriters.get(measurementId);
+    BitMap bitMap = tablet.bitMaps == null ? null : tablet.bitMaps[column];
+    long[] timestamps = tablet.timestamps;
+    long lastTime = lastTimeMap.getOrDefault(measurementId, -1L);
+    int pointCount = 0;
+    try {
+      switch (measurementSchema.getType()) {
+        case INT32:
+          int[] intValues = (int[]) tablet.values[column];
+          for (int row = 0; row < tablet.rowSize; row++) {
+            if (bitMap == null || !bitMap.isMarked(row)) {
+              lastTime = checkIsHistoryData(measurementId, timestamps[row], lastTime);
+              chunkWriter.write(lastTime, intValues[row]);
+              pointCount++;
+            }
+          }
+          break;
+        case INT64:
+          long[] longValues = (long[]) tablet.values[column];
+          for (int row = 0; row < tablet.rowSize; row++) {
+            if (bitMap == null || !bitMap.isMarked(row)) {
+              lastTime = checkIsHistoryData(measurementId, timestamps[row], lastTime);
+              chunkWriter.write(lastTime, longValues[row]);
+              pointCount++;
+            }
+          }
+          break;
+        case FLOAT:
+          float[] floatValues = (float[]) tablet.values[column];
+          for (int row = 0; row < tablet.rowSize; row++) {
+            if (bitMap == null || !bitMap.isMarked(row)) {
+              lastTime = checkIsHistoryData(measurementId, timestamps[row], lastTime);
+              chunkWriter.write(lastTime, floatValues[row]);
+              pointCount++;
+            }
+          }
+          break;
+        case DOUBLE:
+          double[] doubleValues = (double[]) tablet.values[column];
+          for (int row = 0; row < tablet.rowSize; row++) {
+            if (bitMap == null || !bitMap.isMarked(row)) {
+              lastTime = checkIsHistoryData(measurementId, timestamps[row], lastTime);
+              chunkWriter.write(lastTime, doubleValues[row]);
+              pointCount++;
+            }
+          }
+          break;
+        case BOOLEAN:
+          boolean[] booleanValues = (boolean[]) tablet.values[column];
+          for (int row = 0; row < tablet.rowSize; row++) {
+            if (bitMap == null || !bitMap.isMarked(row)) {
+              lastTime = checkIsHistoryData(measurementId, timestamps[row], lastTime);
+              chunkWriter.write(lastTime, booleanValues[row]);
+              pointCount++;
+            }
+          }
+          break;
+        case TEXT:
+          Binary[] binaryValues = (Binary[]) tablet.values[column];
+          for (int row = 0; row < tablet.rowSize; row++) {
+            if (bitMap == null || !bitMap.isMarked(row)) {
+              lastTime = checkIsHistoryData(measurementId, timestamps[row], lastTime);
+              chunkWriter.write(lastTime, binaryValues[row]);
+              pointCount++;
+            }
+          }
+          break;
+        default:
+          throw new UnSupportedDataTypeException(
+              String.format("Data type %s is not supported.", measurementSchema.getType()));
+      }
+    } finally {
+      if (pointCount > 0) {
+        lastTimeMap.put(measurementId, lastTime);
+      }
+    }
+    return pointCount;
+  }
+
   @Override
   public long flushToFileWriter(TsFileIOWriter fileWriter) throws IOException {
     LOG.debug("start flush device id:{}", deviceId);
@@ -174,15 +226,22 @@ public class NonAlignedChunkGroupWriterImpl implements IChunkGroupWriter {
   }
 
   private void checkIsHistoryData(String measurementId, long time) throws WriteProcessException {
-    if (time <= lastTimeMap.getOrDefault(measurementId, -1L)) {
+    checkIsHistoryData(measurementId, time, lastTimeMap.getOrDefault(measurementId, -1L));
+  }
+
+  /** @return the given time, which becomes the last time of the series */
+  private long checkIsHistoryData(String measurementId, long time, long lastTime)
+      throws WriteProcessException {
+    if (time <= lastTime) {
       throw new WriteProcessException(
           "Not allowed to write out-of-order data in timeseries "
               + deviceId
               + TsFileConstant.PATH_SEPARATOR
               + measurementId
               + ", time should later than "
-              + lastTimeMap.get(measurementId));
+              + lastTime);
     }
+    return time;
   }
 
   public Map<String, Long> getLastTimeMap() {
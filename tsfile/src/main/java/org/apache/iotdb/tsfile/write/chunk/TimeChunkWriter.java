@@ -21,6 +21,8 @@ package org.apache.iotdb.tsfile.write.chunk;
 import org.apache.iotdb.tsfile.common.conf.TSFileDescriptor;
 import org.apache.iotdb.tsfile.common.constant.TsFileConstant;
 import org.apache.iotdb.tsfile.compress.ICompressor;
+import org.apache.iotdb.tsfile.compress.ICompressor.ZstdCompressor;
+import org.apache.iotdb.tsfile.compress.ZstdDictionaryRegistry;
 import org.apache.iotdb.tsfile.encoding.encoder.Encoder;
 import org.apache.iotdb.tsfile.file.header.ChunkHeader;
 import org.apache.iotdb.tsfile.file.header.PageHeader;
@@ -75,6 +77,9 @@ public class TimeChunkWriter {
 
   private Statistics<?> firstPageStatistics;
 
+  /** id of the ZSTD dictionary the pages are compressed with, 0 if there is none */
+  private long compressionDictionaryId;
+
   public TimeChunkWriter(
       String measurementId,
       CompressionType compressionType,
@@ -166,6 +171,9 @@ public class TimeChunkWriter {
 
   public void writeToFileWriter(TsFileIOWriter tsfileWriter) throws IOException {
     sealCurrentPage();
+    if (numOfPages > 0) {
+      tsfileWriter.addCompressionDictionary(compressionDictionaryId);
+    }
     writeAllPagesOfChunkToTsFile(tsfileWriter);
 
     // reinit this chunk writer
@@ -201,6 +209,18 @@ public class TimeChunkWriter {
     pageWriter = null;
   }
 
+  /** @see IChunkWriter#useCompressionDictionary(String) */
+  public void useCompressionDictionary(String storageGroup) {
+    if (compressionType == CompressionType.ZSTD) {
+      ZstdCompressor dictionaryCompressor =
+          ZstdDictionaryRegistry.getInstance().getCompressor(storageGroup);
+      if (dictionaryCompressor != null) {
+        pageWriter.setCompressor(dictionaryCompressor);
+        compressionDictionaryId = dictionaryCompressor.getDictionaryId();
+      }
+    }
+  }
+
   public int getNumOfPages() {
     return numOfPages;
   }
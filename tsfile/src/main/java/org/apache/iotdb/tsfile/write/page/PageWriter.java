@@ -18,8 +18,10 @@
  */
 package org.apache.iotdb.tsfile.write.page;
 
+import org.apache.iotdb.tsfile.common.conf.TSFileDescriptor;
 import org.apache.iotdb.tsfile.compress.ICompressor;
 import org.apache.iotdb.tsfile.encoding.encoder.Encoder;
+import org.apache.iotdb.tsfile.exception.encoding.TsFileEncodingException;
 import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
@@ -60,13 +62,23 @@ public class PageWriter {
    */
   private Statistics<? extends Serializable> statistics;
 
+  /** number of points of a mini-block, 0 if mini-blocks are disabled */
+  private final int miniBlockSize =
+      TSFileDescriptor.getInstance().getConfig().getPageMiniBlockSize();
+  /** statistic of current mini-block, null if mini-blocks are disabled */
+  private Statistics<? extends Serializable> miniBlockStatistics;
+  /** end offsets in the time and value column and statistics of each finished mini-block */
+  private PublicBAOS miniBlockIndex;
+
+  private int miniBlockNum;
+
   public PageWriter() {
     this(null, null);
   }
 
   public PageWriter(IMeasurementSchema measurementSchema) {
     this(measurementSchema.getTimeEncoder(), measurementSchema.getValueEncoder());
-    this.statistics = Statistics.getStatsByType(measurementSchema.getType());
+    initStatistics(measurementSchema.getType());
     this.compressor = ICompressor.getCompressor(measurementSchema.getCompressor());
   }
 
@@ -82,6 +94,10 @@ public class PageWriter {
     timeEncoder.encode(time, timeOut);
     valueEncoder.encode(value, valueOut);
     statistics.update(time, value);
+    if (miniBlockStatistics != null) {
+      miniBlockStatistics.update(time, value);
+      endMiniBlockIfFull();
+    }
   }
 
   /** write a time value pair into encoder */
@@ -89,6 +105,10 @@ public class PageWriter {
     timeEncoder.encode(time, timeOut);
     valueEncoder.encode(value, valueOut);
     statistics.update(time, value);
+    if (miniBlockStatistics != null) {
+      miniBlockStatistics.update(time, value);
+      endMiniBlockIfFull();
+    }
   }
 
   /** write a time value pair into encoder */
@@ -96,6 +116,10 @@ public class PageWriter {
     timeEncoder.encode(time, timeOut);
     valueEncoder.encode(value, valueOut);
     statistics.update(time, value);
+    if (miniBlockStatistics != null) {
+      miniBlockStatistics.update(time, value);
+      endMiniBlockIfFull();
+    }
   }
 
   /** write a time value pair into encoder */
@@ -103,6 +127,10 @@ public class PageWriter {
     timeEncoder.encode(time, timeOut);
     valueEncoder.encode(value, valueOut);
     statistics.update(time, value);
+    if (miniBlockStatistics != null) {
+      miniBlockStatistics.update(time, value);
+      endMiniBlockIfFull();
+    }
   }
 
   /** write a time value pair into encoder */
@@ -110,6 +138,10 @@ public class PageWriter {
     timeEncoder.encode(time, timeOut);
     valueEncoder.encode(value, valueOut);
     statistics.update(time, value);
+    if (miniBlockStatistics != null) {
+      miniBlockStatistics.update(time, value);
+      endMiniBlockIfFull();
+    }
   }
 
   /** write a time value pair into encoder */
@@ -117,6 +149,10 @@ public class PageWriter {
     timeEncoder.encode(time, timeOut);
     valueEncoder.encode(value, valueOut);
     statistics.update(time, value);
+    if (miniBlockStatistics != null) {
+      miniBlockStatistics.update(time, value);
+      endMiniBlockIfFull();
+    }
   }
 
   /** write a time value pair into encoder */
@@ -124,10 +160,20 @@ public class PageWriter {
     timeEncoder.encode(time, timeOut);
     valueEncoder.encode(value, valueOut);
     statistics.update(time, value);
+    if (miniBlockStatistics != null) {
+      miniBlockStatistics.update(time, value);
+      endMiniBlockIfFull();
+    }
   }
 
   /** write time series into encoder */
   public void write(long[] timestamps, boolean[] values, int batchSize) {
+    if (miniBlockStatistics != null) {
+      for (int i = 0; i < batchSize; i++) {
+        write(timestamps[i], values[i]);
+      }
+      return;
+    }
     for (int i = 0; i < batchSize; i++) {
       timeEncoder.encode(timestamps[i], timeOut);
       valueEncoder.encode(values[i], valueOut);
@@ -137,6 +183,12 @@ public class PageWriter {
 
   /** write time series into encoder */
   public void write(long[] timestamps, int[] values, int batchSize) {
+    if (miniBlockStatistics != null) {
+      for (int i = 0; i < batchSize; i++) {
+        write(timestamps[i], values[i]);
+      }
+      return;
+    }
     for (int i = 0; i < batchSize; i++) {
       timeEncoder.encode(timestamps[i], timeOut);
       valueEncoder.encode(values[i], valueOut);
@@ -146,6 +198,12 @@ public class PageWriter {
 
   /** write time series into encoder */
   public void write(long[] timestamps, long[] values, int batchSize) {
+    if (miniBlockStatistics != null) {
+      for (int i = 0; i < batchSize; i++) {
+        write(timestamps[i], values[i]);
+      }
+      return;
+    }
     for (int i = 0; i < batchSize; i++) {
       timeEncoder.encode(timestamps[i], timeOut);
       valueEncoder.encode(values[i], valueOut);
@@ -155,6 +213,12 @@ public class PageWriter {
 
   /** write time series into encoder */
   public void write(long[] timestamps, float[] values, int batchSize) {
+    if (miniBlockStatistics != null) {
+      for (int i = 0; i < batchSize; i++) {
+        write(timestamps[i], values[i]);
+      }
+      return;
+    }
     for (int i = 0; i < batchSize; i++) {
       timeEncoder.encode(timestamps[i], timeOut);
       valueEncoder.encode(values[i], valueOut);
@@ -164,6 +228,12 @@ public class PageWriter {
 
   /** write time series into encoder */
   public void write(long[] timestamps, double[] values, int batchSize) {
+    if (miniBlockStatistics != null) {
+      for (int i = 0; i < batchSize; i++) {
+        write(timestamps[i], values[i]);
+      }
+      return;
+    }
     for (int i = 0; i < batchSize; i++) {
       timeEncoder.encode(timestamps[i], timeOut);
       valueEncoder.encode(values[i], valueOut);
@@ -173,6 +243,12 @@ public class PageWriter {
 
   /** write time series into encoder */
   public void write(long[] timestamps, Binary[] values, int batchSize) {
+    if (miniBlockStatistics != null) {
+      for (int i = 0; i < batchSize; i++) {
+        write(timestamps[i], values[i]);
+      }
+      return;
+    }
     for (int i = 0; i < batchSize; i++) {
       timeEncoder.encode(timestamps[i], timeOut);
       valueEncoder.encode(values[i], valueOut);
@@ -180,20 +256,57 @@ public class PageWriter {
     statistics.update(timestamps, values, batchSize);
   }
 
-  /** flush all data remained in encoders. */
-  private void prepareEndWriteOnePage() throws IOException {
+  /**
+   * Flush the encoders when the current mini-block is full, so that each mini-block can be decoded
+   * on its own, and record its end offsets and statistics in the mini-block index.
+   */
+  private void endMiniBlockIfFull() {
+    if (miniBlockStatistics.getCount() < miniBlockSize) {
+      return;
+    }
+    try {
+      endMiniBlock();
+    } catch (IOException e) {
+      throw new TsFileEncodingException(e);
+    }
+  }
+
+  private void endMiniBlock() throws IOException {
     timeEncoder.flush(timeOut);
     valueEncoder.flush(valueOut);
+    ReadWriteForEncodingUtils.writeUnsignedVarInt(timeOut.size(), miniBlockIndex);
+    ReadWriteForEncodingUtils.writeUnsignedVarInt(valueOut.size(), miniBlockIndex);
+    miniBlockStatistics.serialize(miniBlockIndex);
+    miniBlockStatistics = Statistics.getStatsByType(miniBlockStatistics.getType());
+    miniBlockNum++;
+  }
+
+  /** flush all data remained in encoders. */
+  private void prepareEndWriteOnePage() throws IOException {
+    if (miniBlockStatistics == null) {
+      timeEncoder.flush(timeOut);
+      valueEncoder.flush(valueOut);
+    } else if (miniBlockStatistics.getCount() > 0) {
+      endMiniBlock();
+    }
   }
 
   /**
    * getUncompressedBytes return data what it has been written in form of <code>
-   * size of time list, time list, value list</code>
+   * size of time list, time list, value list</code>.
+   *
+   * <p>If the page consists of more than one mini-block, it is written in form of <code>
+   * 0, number of mini-blocks, mini-block index, size of time list, time list, value list</code>,
+   * where the index holds the end offsets in the time and value list and the statistics of each
+   * mini-block. A time list is never empty, so the leading 0 tells readers about the index.
    *
    * @return a new readable ByteBuffer whose position is 0.
    */
   public ByteBuffer getUncompressedBytes() throws IOException {
     prepareEndWriteOnePage();
+    if (miniBlockNum > 1) {
+      return getUncompressedBytesWithMiniBlocks();
+    }
     ByteBuffer buffer = ByteBuffer.allocate(timeOut.size() + valueOut.size() + 4);
     ReadWriteForEncodingUtils.writeUnsignedVarInt(timeOut.size(), buffer);
     buffer.put(timeOut.getBuf(), 0, timeOut.size());
@@ -202,6 +315,25 @@ public class PageWriter {
     return buffer;
   }
 
+  private ByteBuffer getUncompressedBytesWithMiniBlocks() {
+    int size =
+        1
+            + ReadWriteForEncodingUtils.uVarIntSize(miniBlockNum)
+            + miniBlockIndex.size()
+            + ReadWriteForEncodingUtils.uVarIntSize(timeOut.size())
+            + timeOut.size()
+            + valueOut.size();
+    ByteBuffer buffer = ByteBuffer.allocate(size);
+    ReadWriteForEncodingUtils.writeUnsignedVarInt(0, buffer);
+    ReadWriteForEncodingUtils.writeUnsignedVarInt(miniBlockNum, buffer);
+    buffer.put(miniBlockIndex.getBuf(), 0, miniBlockIndex.size());
+    ReadWriteForEncodingUtils.writeUnsignedVarInt(timeOut.size(), buffer);
+    buffer.put(timeOut.getBuf(), 0, timeOut.size());
+    buffer.put(valueOut.getBuf(), 0, valueOut.size());
+    buffer.flip();
+    return buffer;
+  }
+
   /** write the page header and data into the PageWriter's output stream. */
   public int writePageHeaderAndDataIntoBuff(PublicBAOS pageBuffer, boolean first)
       throws IOException {
@@ -263,6 +395,7 @@ public class PageWriter {
   public long estimateMaxMemSize() {
     return timeOut.size()
         + valueOut.size()
+        + (miniBlockIndex == null ? 0 : miniBlockIndex.size())
         + timeEncoder.getMaxByteSize()
         + valueEncoder.getMaxByteSize();
   }
@@ -271,7 +404,7 @@ public class PageWriter {
   public void reset(IMeasurementSchema measurementSchema) {
     timeOut.reset();
     valueOut.reset();
-    statistics = Statistics.getStatsByType(measurementSchema.getType());
+    initStatistics(measurementSchema.getType());
   }
 
   public void setTimeEncoder(Encoder encoder) {
@@ -282,8 +415,20 @@ public class PageWriter {
     this.valueEncoder = encoder;
   }
 
+  public void setCompressor(ICompressor compressor) {
+    this.compressor = compressor;
+  }
+
   public void initStatistics(TSDataType dataType) {
     statistics = Statistics.getStatsByType(dataType);
+    if (miniBlockSize > 0) {
+      miniBlockStatistics = Statistics.getStatsByType(dataType);
+      if (miniBlockIndex == null) {
+        miniBlockIndex = new PublicBAOS();
+      }
+      miniBlockIndex.reset();
+      miniBlockNum = 0;
+    }
   }
 
   public long getPointNumber() {
@@ -41,7 +41,7 @@ public class TimePageWriter {
 
   private static final Logger logger = LoggerFactory.getLogger(TimePageWriter.class);
 
-  private final ICompressor compressor;
+  private ICompressor compressor;
 
   // time
   private Encoder timeEncoder;
@@ -167,6 +167,10 @@ public class TimePageWriter {
     this.timeEncoder = encoder;
   }
 
+  public void setCompressor(ICompressor compressor) {
+    this.compressor = compressor;
+  }
+
   public void initStatistics() {
     statistics = new TimeStatistics();
   }
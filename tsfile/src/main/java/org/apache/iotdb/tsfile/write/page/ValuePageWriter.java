@@ -43,7 +43,7 @@ import java.nio.channels.WritableByteChannel;
 public class ValuePageWriter {
   private static final Logger logger = LoggerFactory.getLogger(ValuePageWriter.class);
 
-  private final ICompressor compressor;
+  private ICompressor compressor;
 
   // value
   private Encoder valueEncoder;
@@ -301,6 +301,10 @@ public class ValuePageWriter {
     this.valueEncoder = encoder;
   }
 
+  public void setCompressor(ICompressor compressor) {
+    this.compressor = compressor;
+  }
+
   public void initStatistics(TSDataType dataType) {
     statistics = Statistics.getStatsByType(dataType);
   }
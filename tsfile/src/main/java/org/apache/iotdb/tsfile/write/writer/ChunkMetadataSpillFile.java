@@ -0,0 +1,221 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.write.writer;
+
+import org.apache.iotdb.tsfile.file.metadata.ChunkGroupMetadata;
+import org.apache.iotdb.tsfile.file.metadata.ChunkMetadata;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
+import org.apache.iotdb.tsfile.fileSystem.FSFactoryProducer;
+import org.apache.iotdb.tsfile.utils.Pair;
+import org.apache.iotdb.tsfile.utils.PublicBAOS;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * A temporary file holding the chunk metadata that a {@link TsFileIOWriter} has spilled out of
+ * memory. Each spill appends a run sorted by device and measurement, and {@link #iterator()}
+ * merges all runs so that the chunk metadata of one series come out together in written order.
+ */
+class ChunkMetadataSpillFile implements Closeable {
+
+  static final String SPILL_FILE_SUFFIX = ".meta";
+
+  private static final Comparator<Pair<String, ChunkMetadata>> SERIES_COMPARATOR =
+      Comparator.<Pair<String, ChunkMetadata>, String>comparing(p -> p.left)
+          .thenComparing(p -> p.right.getMeasurementUid());
+
+  private final File file;
+  private final FileOutputStream fileOutput;
+  private final DataOutputStream output;
+  // start offset and entry number of each run
+  private final List<long[]> runs = new ArrayList<>();
+  private final PublicBAOS statisticsBuffer = new PublicBAOS();
+
+  ChunkMetadataSpillFile(File file) throws IOException {
+    this.file = file;
+    this.fileOutput = new FileOutputStream(file);
+    this.output = new DataOutputStream(new BufferedOutputStream(fileOutput));
+  }
+
+  /** Append the chunk metadata of the given chunk groups as a new sorted run. */
+  void writeRun(List<ChunkGroupMetadata> chunkGroupMetadataList) throws IOException {
+    List<Pair<String, ChunkMetadata>> entries = new ArrayList<>();
+    for (ChunkGroupMetadata chunkGroupMetadata : chunkGroupMetadataList) {
+      for (ChunkMetadata chunkMetadata : chunkGroupMetadata.getChunkMetadataList()) {
+        entries.add(new Pair<>(chunkGroupMetadata.getDevice(), chunkMetadata));
+      }
+    }
+    if (entries.isEmpty()) {
+      return;
+    }
+    // the sort is stable, so chunks of one series keep their written order
+    entries.sort(SERIES_COMPARATOR);
+
+    output.flush();
+    long start = fileOutput.getChannel().position();
+    for (Pair<String, ChunkMetadata> entry : entries) {
+      ChunkMetadata chunkMetadata = entry.right;
+      output.writeUTF(entry.left);
+      output.writeUTF(chunkMetadata.getMeasurementUid());
+      output.writeByte(chunkMetadata.getDataType().serialize());
+      output.writeByte(chunkMetadata.getMask());
+      output.writeLong(chunkMetadata.getOffsetOfChunkHeader());
+      statisticsBuffer.reset();
+      chunkMetadata.getStatistics().serialize(statisticsBuffer);
+      output.writeInt(statisticsBuffer.size());
+      output.write(statisticsBuffer.getBuf(), 0, statisticsBuffer.size());
+    }
+    runs.add(new long[] {start, entries.size()});
+  }
+
+  boolean isEmpty() {
+    return runs.isEmpty();
+  }
+
+  /**
+   * @return an iterator over all spilled chunk metadata ordered by device and measurement, with the
+   *     chunk metadata of one series in written order
+   */
+  SpilledChunkMetadataIterator iterator() throws IOException {
+    output.flush();
+    return new SpilledChunkMetadataIterator();
+  }
+
+  @Override
+  public void close() throws IOException {
+    output.close();
+    Files.deleteIfExists(file.toPath());
+  }
+
+  /** Delete the spill file of the given TsFile if it exists. */
+  static void deleteIfExists(File tsFile) throws IOException {
+    Files.deleteIfExists(getSpillFile(tsFile).toPath());
+  }
+
+  static File getSpillFile(File tsFile) {
+    return FSFactoryProducer.getFSFactory().getFile(tsFile.getPath() + SPILL_FILE_SUFFIX);
+  }
+
+  /** A k-way merge over the runs of the spill file. */
+  class SpilledChunkMetadataIterator implements Closeable {
+
+    private final PriorityQueue<RunReader> readers =
+        new PriorityQueue<>(
+            Comparator.<RunReader, Pair<String, ChunkMetadata>>comparing(
+                    r -> r.current, SERIES_COMPARATOR)
+                .thenComparingInt(r -> r.runIndex));
+
+    private SpilledChunkMetadataIterator() throws IOException {
+      for (int i = 0; i < runs.size(); i++) {
+        RunReader reader = new RunReader(i, runs.get(i)[0], runs.get(i)[1]);
+        if (reader.advance()) {
+          readers.add(reader);
+        } else {
+          reader.close();
+        }
+      }
+    }
+
+    boolean hasNext() {
+      return !readers.isEmpty();
+    }
+
+    /** @return the device and the chunk metadata of the next spilled chunk */
+    Pair<String, ChunkMetadata> next() throws IOException {
+      RunReader reader = readers.poll();
+      Pair<String, ChunkMetadata> result = reader.current;
+      if (reader.advance()) {
+        readers.add(reader);
+      } else {
+        reader.close();
+      }
+      return result;
+    }
+
+    @Override
+    public void close() throws IOException {
+      for (RunReader reader : readers) {
+        reader.close();
+      }
+      readers.clear();
+    }
+  }
+
+  private class RunReader implements Closeable {
+
+    private final int runIndex;
+    private final DataInputStream input;
+    private long remaining;
+    private Pair<String, ChunkMetadata> current;
+
+    private RunReader(int runIndex, long start, long entryNum) throws IOException {
+      this.runIndex = runIndex;
+      this.remaining = entryNum;
+      FileInputStream fileInput = new FileInputStream(file);
+      long skipped = 0;
+      while (skipped < start) {
+        skipped += fileInput.skip(start - skipped);
+      }
+      this.input = new DataInputStream(new BufferedInputStream(fileInput));
+    }
+
+    private boolean advance() throws IOException {
+      if (remaining == 0) {
+        current = null;
+        return false;
+      }
+      remaining--;
+      String device = input.readUTF();
+      String measurementUid = input.readUTF();
+      TSDataType dataType = TSDataType.deserialize(input.readByte());
+      byte mask = input.readByte();
+      long offset = input.readLong();
+      byte[] statisticsBytes = new byte[input.readInt()];
+      input.readFully(statisticsBytes);
+      Statistics<? extends Serializable> statistics =
+          Statistics.deserialize(ByteBuffer.wrap(statisticsBytes), dataType);
+      ChunkMetadata chunkMetadata =
+          new ChunkMetadata(measurementUid, dataType, offset, statistics);
+      chunkMetadata.setMask(mask);
+      current = new Pair<>(device, chunkMetadata);
+      return true;
+    }
+
+    @Override
+    public void close() throws IOException {
+      input.close();
+    }
+  }
+}
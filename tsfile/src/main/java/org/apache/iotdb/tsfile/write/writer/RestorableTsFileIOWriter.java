@@ -80,6 +80,8 @@ public class RestorableTsFileIOWriter extends TsFileIOWriter {
     }
     this.file = file;
     this.out = FSFactoryProducer.getFileOutputFactory().getTsFileOutput(file.getPath(), true);
+    // a spill file can only be left by a crashed writer
+    ChunkMetadataSpillFile.deleteIfExists(file);
 
     // file doesn't exist
     if (file.length() == 0) {
@@ -119,6 +121,8 @@ public class RestorableTsFileIOWriter extends TsFileIOWriter {
     }
     this.file = file;
     this.out = FSFactoryProducer.getFileOutputFactory().getTsFileOutput(file.getPath(), true);
+    // a spill file can only be left by a crashed writer
+    ChunkMetadataSpillFile.deleteIfExists(file);
 
     // file doesn't exist
     if (file.length() == 0) {
@@ -270,6 +274,15 @@ public class RestorableTsFileIOWriter extends TsFileIOWriter {
     return append;
   }
 
+  /**
+   * The chunk metadata of the unsealed file stay referenced by metadatasForQuery, so spilling them
+   * would not free any memory.
+   */
+  @Override
+  public void setChunkMetadataSpillThreshold(int chunkMetadataSpillThreshold) {
+    // spilling is never enabled
+  }
+
   public void addSchema(Path path, IMeasurementSchema schema) {
     knownSchemas.put(path, schema);
   }
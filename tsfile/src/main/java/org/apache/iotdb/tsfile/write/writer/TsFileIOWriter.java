@@ -20,9 +20,12 @@ package org.apache.iotdb.tsfile.write.writer;
 
 import org.apache.iotdb.tsfile.common.conf.TSFileConfig;
 import org.apache.iotdb.tsfile.common.conf.TSFileDescriptor;
+import org.apache.iotdb.tsfile.common.constant.TsFileConstant;
+import org.apache.iotdb.tsfile.compress.ZstdDictionaryRegistry;
 import org.apache.iotdb.tsfile.file.MetaMarker;
 import org.apache.iotdb.tsfile.file.header.ChunkGroupHeader;
 import org.apache.iotdb.tsfile.file.header.ChunkHeader;
+import org.apache.iotdb.tsfile.file.header.PageHeader;
 import org.apache.iotdb.tsfile.file.metadata.ChunkGroupMetadata;
 import org.apache.iotdb.tsfile.file.metadata.ChunkMetadata;
 import org.apache.iotdb.tsfile.file.metadata.IChunkMetadata;
@@ -38,6 +41,7 @@ import org.apache.iotdb.tsfile.fileSystem.FSFactoryProducer;
 import org.apache.iotdb.tsfile.read.common.Chunk;
 import org.apache.iotdb.tsfile.read.common.Path;
 import org.apache.iotdb.tsfile.utils.BytesUtils;
+import org.apache.iotdb.tsfile.utils.Pair;
 import org.apache.iotdb.tsfile.utils.PublicBAOS;
 import org.apache.iotdb.tsfile.utils.ReadWriteIOUtils;
 
@@ -47,13 +51,17 @@ import org.slf4j.LoggerFactory;
 import java.io.File;
 import java.io.IOException;
 import java.io.Serializable;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.TreeMap;
+import java.util.TreeSet;
 
 /**
  * TsFileIOWriter is used to construct metadata and write data stored in memory to output stream.
@@ -79,12 +87,22 @@ public class TsFileIOWriter implements AutoCloseable {
   private ChunkMetadata currentChunkMetadata;
   // current flushed ChunkGroup
   protected List<ChunkMetadata> chunkMetadataList = new ArrayList<>();
-  // all flushed ChunkGroups
+  // all flushed ChunkGroups, except those spilled to chunkMetadataSpillFile
   protected List<ChunkGroupMetadata> chunkGroupMetadataList = new ArrayList<>();
 
+  // if positive, the chunk metadata in chunkGroupMetadataList will be spilled to a temporary file
+  // once their number reaches this threshold, so that the memory for metadata is bounded
+  private int chunkMetadataSpillThreshold = 0;
+  private int chunkMetadataNumInMemory = 0;
+  private ChunkMetadataSpillFile chunkMetadataSpillFile;
+
   private long markedPosition;
   private String currentChunkGroupDeviceId;
 
+  // ids of the ZSTD dictionaries that pages of this file are compressed with, the dictionaries are
+  // serialized in the tail so that the file can be read without any other file
+  private final Set<Long> compressionDictionaryIds = new TreeSet<>();
+
   // for upgrade tool and split tool
   Map<String, List<TimeseriesMetadata>> deviceTimeseriesMetadataMap;
 
@@ -161,9 +179,44 @@ public class TsFileIOWriter implements AutoCloseable {
     }
     chunkGroupMetadataList.add(
         new ChunkGroupMetadata(currentChunkGroupDeviceId, chunkMetadataList));
+    chunkMetadataNumInMemory += chunkMetadataList.size();
     currentChunkGroupDeviceId = null;
     chunkMetadataList = null;
     out.flush();
+    if (chunkMetadataSpillThreshold > 0
+        && chunkMetadataNumInMemory >= chunkMetadataSpillThreshold) {
+      spillChunkMetadata();
+    }
+  }
+
+  /**
+   * Write the chunk metadata in memory to the temporary spill file as a sorted run and release
+   * them.
+   */
+  private void spillChunkMetadata() throws IOException {
+    if (chunkMetadataSpillFile == null) {
+      chunkMetadataSpillFile =
+          new ChunkMetadataSpillFile(ChunkMetadataSpillFile.getSpillFile(file));
+    }
+    int spilledNum = chunkGroupMetadataList.size();
+    chunkMetadataSpillFile.writeRun(chunkGroupMetadataList);
+    chunkGroupMetadataList.clear();
+    chunkMetadataNumInMemory = 0;
+    if (logger.isDebugEnabled()) {
+      logger.debug("spilled {} chunk groups of {} to disk", spilledNum, file.getName());
+    }
+  }
+
+  /**
+   * Bound the memory used by chunk metadata: once the number of chunk metadata held in memory
+   * reaches the threshold, they are spilled to a temporary file next to the TsFile and merged back
+   * in a streaming way by {@link #endFile()}. Spilled chunk metadata are no longer returned by
+   * {@link #getDeviceChunkMetadataMap()} or {@link #getDeviceTimeseriesMetadataMap()}.
+   *
+   * @param chunkMetadataSpillThreshold the threshold, spilling is disabled if it is not positive
+   */
+  public void setChunkMetadataSpillThreshold(int chunkMetadataSpillThreshold) {
+    this.chunkMetadataSpillThreshold = file == null ? 0 : chunkMetadataSpillThreshold;
   }
 
   /**
@@ -223,7 +276,13 @@ public class TsFileIOWriter implements AutoCloseable {
             chunkHeader.getDataType(),
             out.getPosition(),
             chunkMetadata.getStatistics());
+    // keep the time or value column mask so that aligned chunks can be copied as well
+    currentChunkMetadata.setMask(
+        (byte)
+            (chunkHeader.getChunkType()
+                & (TsFileConstant.TIME_COLUMN_MASK | TsFileConstant.VALUE_COLUMN_MASK)));
     chunkHeader.serializeTo(out.wrapAsStream());
+    collectCompressionDictionaries(chunk);
     out.write(chunk.getData());
     endCurrentChunk();
     if (logger.isDebugEnabled()) {
@@ -234,6 +293,42 @@ public class TsFileIOWriter implements AutoCloseable {
     }
   }
 
+  /** record the ZSTD dictionaries of the pages of a chunk copied from another file */
+  private void collectCompressionDictionaries(Chunk chunk) {
+    ChunkHeader chunkHeader = chunk.getHeader();
+    if (chunkHeader.getCompressionType() != CompressionType.ZSTD) {
+      return;
+    }
+    boolean hasStatistic =
+        ((byte) (chunkHeader.getChunkType() & 0x3F)) == MetaMarker.CHUNK_HEADER;
+    ByteBuffer data = chunk.getData().duplicate();
+    while (data.hasRemaining()) {
+      PageHeader pageHeader =
+          hasStatistic
+              ? PageHeader.deserializeFrom(data, chunkHeader.getDataType())
+              : PageHeader.deserializeFrom(data, (Statistics<? extends Serializable>) null);
+      if (pageHeader.getCompressedSize() == 0) {
+        continue;
+      }
+      ByteBuffer pageData = data.slice();
+      pageData.limit(pageHeader.getCompressedSize());
+      addCompressionDictionary(ZstdDictionaryRegistry.getDictionaryId(pageData));
+      data.position(data.position() + pageHeader.getCompressedSize());
+    }
+  }
+
+  /**
+   * record that pages of this file are compressed with the ZSTD dictionary, which must be
+   * registered in {@link ZstdDictionaryRegistry} until {@link #endFile()}.
+   *
+   * @param dictionaryId id of the dictionary, 0 means no dictionary and is ignored
+   */
+  public void addCompressionDictionary(long dictionaryId) {
+    if (dictionaryId != 0) {
+      compressionDictionaryIds.add(dictionaryId);
+    }
+  }
+
   /** end chunk and write some log. */
   public void endCurrentChunk() {
     chunkMetadataList.add(currentChunkMetadata);
@@ -252,18 +347,26 @@ public class TsFileIOWriter implements AutoCloseable {
     // serialize the SEPARATOR of MetaData
     ReadWriteIOUtils.write(MetaMarker.SEPARATOR, out.wrapAsStream());
 
-    // group ChunkMetadata by series
-    Map<Path, List<IChunkMetadata>> chunkMetadataListMap = new TreeMap<>();
-
-    for (ChunkGroupMetadata chunkGroupMetadata : chunkGroupMetadataList) {
-      List<ChunkMetadata> chunkMetadatas = chunkGroupMetadata.getChunkMetadataList();
-      for (IChunkMetadata chunkMetadata : chunkMetadatas) {
-        Path series = new Path(chunkGroupMetadata.getDevice(), chunkMetadata.getMeasurementUid());
-        chunkMetadataListMap.computeIfAbsent(series, k -> new ArrayList<>()).add(chunkMetadata);
+    MetadataIndexNode metadataIndex;
+    Set<Path> seriesPaths;
+    if (chunkMetadataSpillFile == null) {
+      // group ChunkMetadata by series
+      Map<Path, List<IChunkMetadata>> chunkMetadataListMap = new TreeMap<>();
+
+      for (ChunkGroupMetadata chunkGroupMetadata : chunkGroupMetadataList) {
+        List<ChunkMetadata> chunkMetadatas = chunkGroupMetadata.getChunkMetadataList();
+        for (IChunkMetadata chunkMetadata : chunkMetadatas) {
+          Path series = new Path(chunkGroupMetadata.getDevice(), chunkMetadata.getMeasurementUid());
+          chunkMetadataListMap.computeIfAbsent(series, k -> new ArrayList<>()).add(chunkMetadata);
+        }
       }
-    }
 
-    MetadataIndexNode metadataIndex = flushMetadataIndex(chunkMetadataListMap);
+      metadataIndex = flushMetadataIndex(chunkMetadataListMap);
+      seriesPaths = chunkMetadataListMap.keySet();
+    } else {
+      seriesPaths = new HashSet<>();
+      metadataIndex = flushSpilledMetadataIndex(seriesPaths);
+    }
     TsFileMetadata tsFileMetaData = new TsFileMetadata();
     tsFileMetaData.setMetadataIndex(metadataIndex);
     tsFileMetaData.setMetaOffset(metaOffset);
@@ -280,11 +383,16 @@ public class TsFileIOWriter implements AutoCloseable {
     }
 
     // write bloom filter
-    size += tsFileMetaData.serializeBloomFilter(out.wrapAsStream(), chunkMetadataListMap.keySet());
+    size += tsFileMetaData.serializeBloomFilter(out.wrapAsStream(), seriesPaths);
     if (logger.isDebugEnabled()) {
       logger.debug("finish flushing the bloom filter file pos:{}", out.getPosition());
     }
 
+    // write the ZSTD dictionaries
+    size +=
+        tsFileMetaData.serializeCompressionDictionaries(
+            out.wrapAsStream(), getCompressionDictionaries());
+
     // write TsFileMetaData size
     ReadWriteIOUtils.write(size, out.wrapAsStream()); // write the size of the file metadata.
 
@@ -293,6 +401,7 @@ public class TsFileIOWriter implements AutoCloseable {
 
     // close file
     out.close();
+    closeChunkMetadataSpillFile();
     if (resourceLogger.isDebugEnabled() && file != null) {
       resourceLogger.debug("{} writer is closed.", file.getName());
     }
@@ -313,21 +422,87 @@ public class TsFileIOWriter implements AutoCloseable {
     // create device -> TimeseriesMetaDataList Map
     for (Map.Entry<Path, List<IChunkMetadata>> entry : chunkMetadataListMap.entrySet()) {
       // for ordinary path
-      flushOneChunkMetadata(entry.getKey(), entry.getValue());
+      deviceTimeseriesMetadataMap
+          .computeIfAbsent(entry.getKey().getDevice(), k -> new ArrayList<>())
+          .add(flushOneChunkMetadata(entry.getKey().getMeasurement(), entry.getValue()));
     }
 
     // construct TsFileMetadata and return
     return MetadataIndexConstructor.constructMetadataIndex(deviceTimeseriesMetadataMap, out);
   }
 
+  /**
+   * Flush TsFileMetadata from the spilled runs and the chunk metadata still in memory. The series
+   * are merged device by device, so only the TimeseriesMetadata of one device and the chunk
+   * metadata of one series are held in memory at a time.
+   *
+   * @param seriesPaths collects the path of every written series
+   * @return MetadataIndexEntry list in TsFileMetadata
+   */
+  private MetadataIndexNode flushSpilledMetadataIndex(Set<Path> seriesPaths) throws IOException {
+    chunkMetadataSpillFile.writeRun(chunkGroupMetadataList);
+
+    Map<String, MetadataIndexNode> deviceMetadataIndexMap = new TreeMap<>();
+    String currentDevice = null;
+    String currentMeasurement = null;
+    List<IChunkMetadata> seriesChunkMetadataList = new ArrayList<>();
+    List<TimeseriesMetadata> deviceTimeseriesMetadataList = new ArrayList<>();
+    try (ChunkMetadataSpillFile.SpilledChunkMetadataIterator iterator =
+        chunkMetadataSpillFile.iterator()) {
+      while (iterator.hasNext()) {
+        Pair<String, ChunkMetadata> next = iterator.next();
+        String device = next.left;
+        String measurement = next.right.getMeasurementUid();
+        if (!device.equals(currentDevice) || !measurement.equals(currentMeasurement)) {
+          if (!seriesChunkMetadataList.isEmpty()) {
+            deviceTimeseriesMetadataList.add(
+                flushOneChunkMetadata(currentMeasurement, seriesChunkMetadataList));
+            seriesPaths.add(new Path(currentDevice, currentMeasurement));
+            seriesChunkMetadataList = new ArrayList<>();
+          }
+          if (!device.equals(currentDevice) && !deviceTimeseriesMetadataList.isEmpty()) {
+            deviceMetadataIndexMap.put(
+                currentDevice,
+                MetadataIndexConstructor.constructMeasurementIndex(
+                    deviceTimeseriesMetadataList, out));
+            deviceTimeseriesMetadataList = new ArrayList<>();
+          }
+          currentDevice = device;
+          currentMeasurement = measurement;
+        }
+        seriesChunkMetadataList.add(next.right);
+      }
+    }
+    if (!seriesChunkMetadataList.isEmpty()) {
+      deviceTimeseriesMetadataList.add(
+          flushOneChunkMetadata(currentMeasurement, seriesChunkMetadataList));
+      seriesPaths.add(new Path(currentDevice, currentMeasurement));
+      deviceMetadataIndexMap.put(
+          currentDevice,
+          MetadataIndexConstructor.constructMeasurementIndex(deviceTimeseriesMetadataList, out));
+    }
+    return MetadataIndexConstructor.constructDeviceIndex(deviceMetadataIndexMap, out);
+  }
+
+  private void closeChunkMetadataSpillFile() throws IOException {
+    if (chunkMetadataSpillFile != null) {
+      chunkMetadataSpillFile.close();
+      chunkMetadataSpillFile = null;
+    } else if (file != null) {
+      // a stale spill file may be left by a crashed writer of the same file
+      ChunkMetadataSpillFile.deleteIfExists(file);
+    }
+  }
+
   /**
    * Flush one chunkMetadata
    *
-   * @param path Path of chunk
-   * @param chunkMetadataList List of chunkMetadata about path(previous param)
+   * @param measurementId measurement of the series
+   * @param chunkMetadataList List of chunkMetadata about the series
+   * @return the TimeseriesMetadata of the series
    */
-  private void flushOneChunkMetadata(Path path, List<IChunkMetadata> chunkMetadataList)
-      throws IOException {
+  private TimeseriesMetadata flushOneChunkMetadata(
+      String measurementId, List<IChunkMetadata> chunkMetadataList) throws IOException {
     // create TimeseriesMetaData
     PublicBAOS publicBAOS = new PublicBAOS();
     TSDataType dataType = chunkMetadataList.get(chunkMetadataList.size() - 1).getDataType();
@@ -349,13 +524,25 @@ public class TsFileIOWriter implements AutoCloseable {
             (byte)
                 ((serializeStatistic ? (byte) 1 : (byte) 0) | chunkMetadataList.get(0).getMask()),
             chunkMetadataListLength,
-            path.getMeasurement(),
+            measurementId,
             dataType,
             seriesStatistics,
             publicBAOS);
-    deviceTimeseriesMetadataMap
-        .computeIfAbsent(path.getDevice(), k -> new ArrayList<>())
-        .add(timeseriesMetadata);
+    return timeseriesMetadata;
+  }
+
+  private List<byte[]> getCompressionDictionaries() throws IOException {
+    List<byte[]> dictionaries = new ArrayList<>(compressionDictionaryIds.size());
+    for (long dictionaryId : compressionDictionaryIds) {
+      byte[] dictionary = ZstdDictionaryRegistry.getInstance().getDictionary(dictionaryId);
+      if (dictionary == null) {
+        throw new IOException(
+            String.format(
+                "ZSTD dictionary %d of file %s is not registered", dictionaryId, file));
+      }
+      dictionaries.add(dictionary);
+    }
+    return dictionaries;
   }
 
   /**
@@ -399,6 +586,7 @@ public class TsFileIOWriter implements AutoCloseable {
   public void close() throws IOException {
     canWrite = false;
     out.close();
+    closeChunkMetadataSpillFile();
   }
 
   void writeSeparatorMaskForTest() throws IOException {
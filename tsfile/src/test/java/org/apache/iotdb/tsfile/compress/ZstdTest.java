@@ -0,0 +1,230 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.compress;
+
+import org.apache.iotdb.tsfile.compress.ICompressor.ZstdCompressor;
+import org.apache.iotdb.tsfile.compress.IUnCompressor.ZstdUnCompressor;
+import org.apache.iotdb.tsfile.file.metadata.ChunkMetadata;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
+import org.apache.iotdb.tsfile.read.common.BatchData;
+import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.read.reader.chunk.ChunkReader;
+import org.apache.iotdb.tsfile.utils.Binary;
+import org.apache.iotdb.tsfile.write.chunk.ChunkWriterImpl;
+import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
+import org.apache.iotdb.tsfile.write.writer.TsFileIOWriter;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+public class ZstdTest {
+
+  private final File tsFile = new File("target" + File.separator + "zstdDictionary.tsfile");
+  private final File copiedTsFile =
+      new File("target" + File.separator + "zstdDictionaryCopied.tsfile");
+
+  private String randomString(int length) {
+    StringBuilder builder = new StringBuilder(length);
+    for (int i = 0; i < length; i++) {
+      builder.append((char) (ThreadLocalRandom.current().nextInt(33, 128)));
+    }
+    return builder.toString();
+  }
+
+  @After
+  public void tearDown() {
+    ZstdDictionaryRegistry.getInstance().clear();
+    tsFile.delete();
+    copiedTsFile.delete();
+  }
+
+  @Test
+  public void testBytes1() throws IOException {
+    String input = randomString(2000000);
+    byte[] uncom = input.getBytes(StandardCharsets.UTF_8);
+    ICompressor compressor = new ZstdCompressor();
+    byte[] compressed = compressor.compress(uncom);
+
+    IUnCompressor unCompressor = new ZstdUnCompressor();
+    Assert.assertEquals(
+        uncom.length, unCompressor.getUncompressedLength(compressed, 0, compressed.length));
+    byte[] uncompressed = new byte[uncom.length];
+    unCompressor.uncompress(compressed, 0, compressed.length, uncompressed, 0);
+    Assert.assertArrayEquals(uncom, uncompressed);
+    Assert.assertArrayEquals(uncom, unCompressor.uncompress(compressed));
+  }
+
+  @Test
+  public void testBytes2() throws IOException {
+    ICompressor compressor = new ZstdCompressor(19);
+    IUnCompressor unCompressor = new ZstdUnCompressor();
+
+    byte[] uncom = randomString(500000).getBytes(StandardCharsets.UTF_8);
+    byte[] compressed = compressor.compress(uncom, 0, uncom.length);
+    // length should be same
+    Assert.assertEquals(compressor.compress(uncom).length, compressed.length);
+    Assert.assertArrayEquals(uncom, unCompressor.uncompress(compressed));
+  }
+
+  @Test
+  public void testUncompressFromBuffer() throws IOException {
+    ICompressor compressor = new ZstdCompressor();
+    IUnCompressor unCompressor = new ZstdUnCompressor();
+
+    byte[] uncom = randomString(10000).getBytes(StandardCharsets.UTF_8);
+    byte[] compressed = compressor.compress(uncom);
+    // the compressed bytes are in the middle of a larger buffer, like a page in a chunk
+    ByteBuffer chunk = ByteBuffer.allocate(compressed.length + 20);
+    chunk.position(10);
+    chunk.put(compressed);
+    chunk.position(10);
+
+    byte[] uncompressed = new byte[uncom.length];
+    Assert.assertEquals(
+        uncom.length, unCompressor.uncompress(chunk, compressed.length, uncompressed, 0));
+    Assert.assertArrayEquals(uncom, uncompressed);
+    Assert.assertEquals(10 + compressed.length, chunk.position());
+
+    ByteBuffer target = ByteBuffer.allocate(uncom.length);
+    Assert.assertEquals(uncom.length, unCompressor.uncompress(ByteBuffer.wrap(compressed), target));
+    Assert.assertArrayEquals(uncom, target.array());
+  }
+
+  @Test
+  public void testDictionary() throws IOException {
+    byte[] dictionary = ZstdDictionaryRegistry.trainDictionary(generateSamples(), 4096);
+    ZstdCompressor compressor = new ZstdCompressor(3, dictionary);
+    byte[] uncom = "root.sg.d3.s5,1234,value1234".getBytes(StandardCharsets.UTF_8);
+    byte[] compressed = compressor.compress(uncom);
+    Assert.assertTrue(compressed.length < new ZstdCompressor().compress(uncom).length);
+    Assert.assertEquals(
+        compressor.getDictionaryId(),
+        ZstdDictionaryRegistry.getDictionaryId(compressed, 0, compressed.length));
+
+    // the dictionary is resolved from the id in the frame once it is registered
+    IUnCompressor unCompressor = new ZstdUnCompressor();
+    try {
+      unCompressor.uncompress(compressed);
+      Assert.fail();
+    } catch (IOException e) {
+      Assert.assertTrue(e.getMessage().contains(Long.toString(compressor.getDictionaryId())));
+    }
+    ZstdDictionaryRegistry.getInstance().register(dictionary);
+    Assert.assertArrayEquals(uncom, unCompressor.uncompress(compressed));
+  }
+
+  @Test
+  public void testConflictingDictionary() {
+    byte[] dictionary = ZstdDictionaryRegistry.trainDictionary(generateSamples(), 4096);
+    long dictionaryId = ZstdDictionaryRegistry.getInstance().register(dictionary);
+    // registering the same dictionary again is fine
+    Assert.assertEquals(dictionaryId, ZstdDictionaryRegistry.getInstance().register(dictionary));
+
+    // the id is in the header, so changing the content keeps the id
+    byte[] conflicting = Arrays.copyOf(dictionary, dictionary.length);
+    conflicting[conflicting.length - 1]++;
+    try {
+      ZstdDictionaryRegistry.getInstance().register(conflicting);
+      Assert.fail();
+    } catch (IllegalArgumentException e) {
+      Assert.assertTrue(e.getMessage().contains(Long.toString(dictionaryId)));
+    }
+    Assert.assertArrayEquals(
+        dictionary, ZstdDictionaryRegistry.getInstance().getDictionary(dictionaryId));
+  }
+
+  @Test
+  public void testTsFileCarriesDictionary() throws IOException {
+    byte[] dictionary = ZstdDictionaryRegistry.trainDictionary(generateSamples(), 4096);
+    ZstdDictionaryRegistry.getInstance().setCompressDictionary("root.sg", dictionary);
+
+    MeasurementSchema schema =
+        new MeasurementSchema("s1", TSDataType.TEXT, TSEncoding.PLAIN, CompressionType.ZSTD);
+    ChunkWriterImpl chunkWriter = new ChunkWriterImpl(schema);
+    chunkWriter.useCompressionDictionary("root.sg");
+    for (int i = 0; i < 100; i++) {
+      chunkWriter.write(i, new Binary("value" + i));
+    }
+    try (TsFileIOWriter writer = new TsFileIOWriter(tsFile)) {
+      writer.startChunkGroup("root.sg.d1");
+      chunkWriter.writeToFileWriter(writer);
+      writer.endChunkGroup();
+      writer.endFile();
+    }
+
+    // nothing but the file is needed to read it
+    ZstdDictionaryRegistry.getInstance().clear();
+    try (TsFileSequenceReader reader = new TsFileSequenceReader(tsFile.getPath());
+        TsFileIOWriter writer = new TsFileIOWriter(copiedTsFile)) {
+      ChunkMetadata chunkMetadata =
+          reader.getChunkMetadataList(new Path("root.sg.d1", "s1")).get(0);
+      Assert.assertEquals(1, reader.readFileMetadata().getCompressionDictionaries().size());
+      checkChunk(new ChunkReader(reader.readMemChunk(chunkMetadata), null));
+
+      // a copied chunk brings its dictionary to the new file
+      writer.startChunkGroup("root.sg.d1");
+      writer.writeChunk(reader.readMemChunk(chunkMetadata), chunkMetadata);
+      writer.endChunkGroup();
+      writer.endFile();
+    }
+
+    ZstdDictionaryRegistry.getInstance().clear();
+    try (TsFileSequenceReader reader = new TsFileSequenceReader(copiedTsFile.getPath())) {
+      ChunkMetadata chunkMetadata =
+          reader.getChunkMetadataList(new Path("root.sg.d1", "s1")).get(0);
+      checkChunk(new ChunkReader(reader.readMemChunk(chunkMetadata), null));
+    }
+  }
+
+  private void checkChunk(ChunkReader chunkReader) throws IOException {
+    int count = 0;
+    while (chunkReader.hasNextSatisfiedPage()) {
+      BatchData batchData = chunkReader.nextPageData();
+      while (batchData.hasCurrent()) {
+        Assert.assertEquals(count, batchData.currentTime());
+        Assert.assertEquals("value" + count, batchData.getBinary().getStringValue());
+        count++;
+        batchData.next();
+      }
+    }
+    Assert.assertEquals(100, count);
+  }
+
+  private List<byte[]> generateSamples() {
+    List<byte[]> samples = new ArrayList<>();
+    for (int i = 0; i < 1000; i++) {
+      String sample = "root.sg.d" + i % 10 + ".s" + i % 7 + "," + i + ",value" + i;
+      samples.add(sample.getBytes(StandardCharsets.UTF_8));
+    }
+    return samples;
+  }
+}
@@ -0,0 +1,108 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.encoding;
+
+import org.apache.iotdb.tsfile.encoding.decoder.Decoder;
+import org.apache.iotdb.tsfile.encoding.encoder.Encoder;
+import org.apache.iotdb.tsfile.encoding.encoder.TSEncodingBuilder;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+/**
+ * Floating-point encoding benchmark. This class compares the compression ratio and the decoding
+ * speed of GORILLA, CHIMP and ELF on synthetic series shaped like common sensor data.
+ */
+public class FloatingPointEncodingBenchmark {
+
+  private static final int POINT_NUM = 1_000_000;
+  private static final int PAGE_SIZE = 10_000;
+  private static final int DECODE_ROUNDS = 10;
+
+  private static final TSEncoding[] ENCODINGS = {
+    TSEncoding.GORILLA, TSEncoding.CHIMP, TSEncoding.ELF
+  };
+
+  public static void main(String[] args) throws IOException {
+    Random random = new Random(0);
+    double[] temperature = new double[POINT_NUM];
+    double[] longitude = new double[POINT_NUM];
+    double[] power = new double[POINT_NUM];
+    double[] vibration = new double[POINT_NUM];
+    double t = 20;
+    double l = 116.3;
+    for (int i = 0; i < POINT_NUM; i++) {
+      t += random.nextGaussian() / 10;
+      l += random.nextGaussian() / 1000;
+      temperature[i] = Math.round(t * 10) / 10.0;
+      longitude[i] = Math.round(l * 1e6) / 1e6;
+      power[i] = Math.round((1000 + 200 * Math.sin(i / 600.0) + random.nextDouble()) * 100) / 100.0;
+      vibration[i] = random.nextGaussian();
+    }
+
+    System.out.println("dataset\tencoding\tbits/point\tdecode ns/point");
+    run("temperature(1 decimal)", temperature);
+    run("longitude(6 decimals)", longitude);
+    run("power(2 decimals)", power);
+    run("vibration(full precision)", vibration);
+  }
+
+  private static void run(String dataset, double[] values) throws IOException {
+    for (TSEncoding encoding : ENCODINGS) {
+      Encoder encoder =
+          TSEncodingBuilder.getEncodingBuilder(encoding).getEncoder(TSDataType.DOUBLE);
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      // flush every page like the page writer does
+      for (int i = 0; i < values.length; i++) {
+        encoder.encode(values[i], out);
+        if ((i + 1) % PAGE_SIZE == 0 || i == values.length - 1) {
+          encoder.flush(out);
+        }
+      }
+      byte[] encoded = out.toByteArray();
+
+      Decoder decoder = Decoder.getDecoderByType(encoding, TSDataType.DOUBLE);
+      double[] decoded = new double[PAGE_SIZE];
+      long checksum = 0;
+      long startTime = System.nanoTime();
+      for (int round = 0; round < DECODE_ROUNDS; round++) {
+        ByteBuffer buffer = ByteBuffer.wrap(encoded);
+        while (buffer.hasRemaining()) {
+          int count = decoder.readDoubles(buffer, decoded, 0, PAGE_SIZE);
+          checksum += Double.doubleToRawLongBits(decoded[count - 1]);
+          decoder.reset();
+        }
+      }
+      long elapsed = System.nanoTime() - startTime;
+
+      System.out.println(
+          String.format(
+              "%s\t%s\t%.2f\t%.2f\t(checksum %d)",
+              dataset,
+              encoding,
+              encoded.length * 8.0 / values.length,
+              (double) elapsed / DECODE_ROUNDS / values.length,
+              checksum));
+    }
+  }
+}
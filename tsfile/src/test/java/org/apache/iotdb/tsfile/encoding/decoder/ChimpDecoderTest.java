@@ -0,0 +1,169 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.encoding.decoder;
+
+import org.apache.iotdb.tsfile.encoding.encoder.DoublePrecisionChimpEncoder;
+import org.apache.iotdb.tsfile.encoding.encoder.Encoder;
+import org.apache.iotdb.tsfile.encoding.encoder.IntChimpEncoder;
+import org.apache.iotdb.tsfile.encoding.encoder.LongChimpEncoder;
+import org.apache.iotdb.tsfile.encoding.encoder.SinglePrecisionChimpEncoder;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class ChimpDecoderTest {
+
+  private static final int POINT_NUM = 5000;
+
+  private final Random random = new Random(0);
+
+  @Test
+  public void testDouble() throws IOException {
+    double[] values = new double[POINT_NUM];
+    double value = 20;
+    for (int i = 0; i < POINT_NUM; i++) {
+      // values repeat within the last 128 values, so the previous values are referenced
+      value = i % 10 == 0 ? values[random.nextInt(i + 1)] : value + random.nextGaussian();
+      values[i] = value;
+    }
+    values[POINT_NUM - 1] = Double.MAX_VALUE;
+
+    Encoder encoder = new DoublePrecisionChimpEncoder();
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    for (int i = 0; i < 2; i++) {
+      for (double v : values) {
+        encoder.encode(v, baos);
+      }
+      encoder.flush(baos);
+    }
+
+    ByteBuffer buffer = ByteBuffer.wrap(baos.toByteArray());
+    Decoder decoder = new DoublePrecisionChimpDecoder();
+    for (int i = 0; i < 2; i++) {
+      for (double v : values) {
+        assertEquals(v, decoder.readDouble(buffer), 0);
+      }
+      assertFalse(decoder.hasNext(buffer));
+      decoder.reset();
+    }
+  }
+
+  @Test
+  public void testDoubleBatch() throws IOException {
+    double[] values = new double[POINT_NUM];
+    for (int i = 0; i < POINT_NUM; i++) {
+      values[i] = i % 3 == 0 ? values[random.nextInt(i + 1)] : random.nextDouble();
+    }
+
+    Encoder encoder = new DoublePrecisionChimpEncoder();
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    for (double v : values) {
+      encoder.encode(v, baos);
+    }
+    encoder.flush(baos);
+
+    ByteBuffer buffer = ByteBuffer.wrap(baos.toByteArray());
+    Decoder decoder = new DoublePrecisionChimpDecoder();
+    double[] decoded = new double[POINT_NUM];
+    // mix a single read with batches that do not divide the number of values
+    decoded[0] = decoder.readDouble(buffer);
+    int count = 1;
+    while (count < POINT_NUM) {
+      count += decoder.readDoubles(buffer, decoded, count, Math.min(333, POINT_NUM - count));
+    }
+    assertFalse(decoder.hasNext(buffer));
+    for (int i = 0; i < POINT_NUM; i++) {
+      assertEquals(values[i], decoded[i], 0);
+    }
+  }
+
+  @Test
+  public void testFloat() throws IOException {
+    float[] values = new float[POINT_NUM];
+    for (int i = 0; i < POINT_NUM; i++) {
+      values[i] = i % 3 == 0 ? -i / 10f : random.nextFloat();
+    }
+
+    Encoder encoder = new SinglePrecisionChimpEncoder();
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    for (float v : values) {
+      encoder.encode(v, baos);
+    }
+    encoder.flush(baos);
+
+    ByteBuffer buffer = ByteBuffer.wrap(baos.toByteArray());
+    float[] decoded = new float[POINT_NUM + 1];
+    assertEquals(
+        POINT_NUM, new SinglePrecisionChimpDecoder().readFloats(buffer, decoded, 1, POINT_NUM + 1));
+    for (int i = 0; i < POINT_NUM; i++) {
+      assertEquals(values[i], decoded[i + 1], 0);
+    }
+  }
+
+  @Test
+  public void testLong() throws IOException {
+    long[] values = new long[POINT_NUM];
+    for (int i = 0; i < POINT_NUM; i++) {
+      values[i] = i % 2 == 0 ? random.nextLong() : i * 1000L;
+    }
+
+    Encoder encoder = new LongChimpEncoder();
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    for (long v : values) {
+      encoder.encode(v, baos);
+    }
+    encoder.flush(baos);
+
+    ByteBuffer buffer = ByteBuffer.wrap(baos.toByteArray());
+    Decoder decoder = new LongChimpDecoder();
+    for (long v : values) {
+      assertEquals(v, decoder.readLong(buffer));
+    }
+    assertFalse(decoder.hasNext(buffer));
+  }
+
+  @Test
+  public void testInt() throws IOException {
+    int[] values = new int[POINT_NUM];
+    for (int i = 0; i < POINT_NUM; i++) {
+      values[i] = i % 2 == 0 ? random.nextInt() : i;
+    }
+
+    Encoder encoder = new IntChimpEncoder();
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    for (int v : values) {
+      encoder.encode(v, baos);
+    }
+    encoder.flush(baos);
+
+    ByteBuffer buffer = ByteBuffer.wrap(baos.toByteArray());
+    Decoder decoder = new IntChimpDecoder();
+    for (int v : values) {
+      assertEquals(v, decoder.readInt(buffer));
+    }
+    assertFalse(decoder.hasNext(buffer));
+  }
+}
@@ -0,0 +1,159 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.encoding.decoder;
+
+import org.apache.iotdb.tsfile.encoding.encoder.DoublePrecisionChimpEncoder;
+import org.apache.iotdb.tsfile.encoding.encoder.DoublePrecisionElfEncoder;
+import org.apache.iotdb.tsfile.encoding.encoder.Encoder;
+import org.apache.iotdb.tsfile.encoding.encoder.SinglePrecisionElfEncoder;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ElfDecoderTest {
+
+  private static final int POINT_NUM = 5000;
+
+  private final Random random = new Random(0);
+
+  @Test
+  public void testDouble() throws IOException {
+    double[] values = new double[POINT_NUM];
+    double temperature = 20;
+    for (int i = 0; i < POINT_NUM; i++) {
+      temperature += random.nextGaussian() / 10;
+      switch (i % 4) {
+        case 0:
+          // one decimal place, which is erased
+          values[i] = Math.round(temperature * 10) / 10.0;
+          break;
+        case 1:
+          // full precision, which is not erased
+          values[i] = temperature;
+          break;
+        case 2:
+          values[i] = -Math.round(temperature * 1000) / 1000.0;
+          break;
+        default:
+          values[i] =
+              new double[] {0, -0.0, Double.MIN_VALUE, Double.MAX_VALUE, 1e20, 1e-20}[i % 6];
+      }
+    }
+
+    ByteArrayOutputStream baos = encode(new DoublePrecisionElfEncoder(), values);
+    ByteBuffer buffer = ByteBuffer.wrap(baos.toByteArray());
+    Decoder decoder = new DoublePrecisionElfDecoder();
+    for (int i = 0; i < 2; i++) {
+      for (double v : values) {
+        assertEquals(
+            Double.doubleToRawLongBits(v), Double.doubleToRawLongBits(readDouble(decoder, buffer)));
+      }
+      assertFalse(decoder.hasNext(buffer));
+      decoder.reset();
+    }
+  }
+
+  @Test
+  public void testDoubleBatch() throws IOException {
+    double[] values = new double[POINT_NUM];
+    for (int i = 0; i < POINT_NUM; i++) {
+      values[i] = i % 2 == 0 ? Math.round(random.nextDouble() * 1e4) / 100.0 : random.nextDouble();
+    }
+
+    ByteBuffer buffer =
+        ByteBuffer.wrap(encode(new DoublePrecisionElfEncoder(), values).toByteArray());
+    Decoder decoder = new DoublePrecisionElfDecoder();
+    double[] decoded = new double[POINT_NUM];
+    for (int i = 0; i < 2; i++) {
+      // mix a single read with batches that do not divide the number of values
+      decoded[0] = decoder.readDouble(buffer);
+      int count = 1;
+      while (count < POINT_NUM) {
+        count += decoder.readDoubles(buffer, decoded, count, Math.min(333, POINT_NUM - count));
+      }
+      assertFalse(decoder.hasNext(buffer));
+      for (int j = 0; j < POINT_NUM; j++) {
+        assertEquals(
+            Double.doubleToRawLongBits(values[j]), Double.doubleToRawLongBits(decoded[j]));
+      }
+      decoder.reset();
+    }
+  }
+
+  @Test
+  public void testDoubleRatio() throws IOException {
+    // longitudes with 6 decimal places, whose mantissas are too long for plain xor to compress
+    double[] values = new double[POINT_NUM];
+    double longitude = 116.3;
+    for (int i = 0; i < POINT_NUM; i++) {
+      longitude += random.nextGaussian() / 1000;
+      values[i] = Math.round(longitude * 1e6) / 1e6;
+    }
+    int elfSize = encode(new DoublePrecisionElfEncoder(), values).size();
+    int chimpSize = encode(new DoublePrecisionChimpEncoder(), values).size();
+    assertTrue(elfSize < chimpSize);
+  }
+
+  @Test
+  public void testFloat() throws IOException {
+    float[] values = new float[POINT_NUM];
+    for (int i = 0; i < POINT_NUM; i++) {
+      values[i] = i % 2 == 0 ? Math.round(random.nextFloat() * 1000) / 100f : random.nextFloat();
+    }
+    values[0] = Float.MIN_VALUE;
+
+    Encoder encoder = new SinglePrecisionElfEncoder();
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    for (float v : values) {
+      encoder.encode(v, baos);
+    }
+    encoder.flush(baos);
+
+    ByteBuffer buffer = ByteBuffer.wrap(baos.toByteArray());
+    Decoder decoder = new SinglePrecisionElfDecoder();
+    for (float v : values) {
+      assertEquals(Float.floatToRawIntBits(v), Float.floatToRawIntBits(decoder.readFloat(buffer)));
+    }
+    assertFalse(decoder.hasNext(buffer));
+  }
+
+  private ByteArrayOutputStream encode(Encoder encoder, double[] values) throws IOException {
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    for (int i = 0; i < 2; i++) {
+      for (double v : values) {
+        encoder.encode(v, baos);
+      }
+      encoder.flush(baos);
+    }
+    return baos;
+  }
+
+  private double readDouble(Decoder decoder, ByteBuffer buffer) throws IOException {
+    assertTrue(decoder.hasNext(buffer));
+    return decoder.readDouble(buffer);
+  }
+}
@@ -0,0 +1,195 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.encoding.decoder;
+
+import org.apache.iotdb.tsfile.encoding.encoder.IntervalEncoder;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class IntervalDecoderTest {
+
+  private static final int ROW_NUM = 10000;
+
+  private final Random random = new Random(0);
+
+  @Test
+  public void testRegular() throws IOException {
+    long[] data = new long[ROW_NUM];
+    for (int i = 0; i < ROW_NUM; i++) {
+      data[i] = 1_600_000_000_000L + i * 1000L;
+    }
+    byte[] encoded = encode(data);
+    // mode + count + start + interval + slotCount, no bitmap
+    assertTrue(encoded.length < 30);
+    shouldReadAndWrite(data, encoded);
+  }
+
+  @Test
+  public void testMissingPoints() throws IOException {
+    long[] data = new long[ROW_NUM];
+    long time = 0;
+    for (int i = 0; i < ROW_NUM; i++) {
+      time += random.nextInt(20) == 0 ? 30 : 10;
+      data[i] = time;
+    }
+    byte[] encoded = encode(data);
+    assertEquals(IntervalEncoder.GRID_MODE, encoded[0]);
+    shouldReadAndWrite(data, encoded);
+  }
+
+  @Test
+  public void testOffGrid() throws IOException {
+    long[] data = new long[ROW_NUM];
+    for (int i = 0; i < ROW_NUM; i++) {
+      data[i] = i * 1000L + (i == ROW_NUM / 2 ? 1 : 0);
+    }
+    byte[] encoded = encode(data);
+    assertEquals(IntervalEncoder.FALLBACK_MODE, encoded[0]);
+    shouldReadAndWrite(data, encoded);
+  }
+
+  @Test
+  public void testSparse() throws IOException {
+    long[] data = new long[ROW_NUM];
+    for (int i = 0; i < ROW_NUM; i++) {
+      data[i] = i * 10L + (i < ROW_NUM / 2 ? 0 : Integer.MAX_VALUE * 10L);
+    }
+    byte[] encoded = encode(data);
+    assertEquals(IntervalEncoder.FALLBACK_MODE, encoded[0]);
+    shouldReadAndWrite(data, encoded);
+  }
+
+  @Test
+  public void testSmallBlocks() throws IOException {
+    shouldReadAndWrite(new long[] {5}, encode(new long[] {5}));
+    shouldReadAndWrite(new long[] {5, 7}, encode(new long[] {5, 7}));
+    shouldReadAndWrite(new long[] {5, 5, 3}, encode(new long[] {5, 5, 3}));
+    shouldReadAndWrite(new long[] {-5, 0, 5}, encode(new long[] {-5, 0, 5}));
+  }
+
+  @Test
+  public void testMultipleBlocks() throws IOException {
+    IntervalEncoder encoder = new IntervalEncoder();
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    long[] data = new long[ROW_NUM];
+    for (int i = 0; i < ROW_NUM; i++) {
+      // every other block is jittered
+      data[i] = i * 100L + ((i / 1000) % 2 == 1 ? random.nextInt(10) : 0);
+      encoder.encode(data[i], out);
+      if (i % 1000 == 999) {
+        encoder.flush(out);
+      }
+    }
+    shouldReadAndWrite(data, out.toByteArray());
+  }
+
+  @Test
+  public void testSkipTo() throws IOException {
+    IntervalEncoder encoder = new IntervalEncoder();
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    // a grid block with missing points, then an irregular block
+    long[] data = {0, 10, 20, 50, 60, 1000, 1003, 1010, 1100};
+    for (int i = 0; i < data.length; i++) {
+      encoder.encode(data[i], out);
+      if (i == 4) {
+        encoder.flush(out);
+      }
+    }
+    encoder.flush(out);
+    ByteBuffer buffer = ByteBuffer.wrap(out.toByteArray());
+
+    IntervalDecoder decoder = new IntervalDecoder();
+    assertEquals(0, decoder.skipTo(buffer, -1));
+    assertEquals(0, decoder.readLong(buffer));
+    assertEquals(2, decoder.skipTo(buffer, 21));
+    assertEquals(50, decoder.readLong(buffer));
+    assertEquals(0, decoder.skipTo(buffer, 60));
+    assertEquals(60, decoder.readLong(buffer));
+    assertEquals(0, decoder.skipTo(buffer, 61));
+    assertEquals(1000, decoder.readLong(buffer));
+    assertEquals(1, decoder.skipTo(buffer, 1004));
+    assertEquals(1010, decoder.readLong(buffer));
+    assertEquals(1, decoder.skipTo(buffer, 1101));
+    assertFalse(decoder.hasNext(buffer));
+  }
+
+  @Test
+  public void testSkipToMissingPoints() throws IOException {
+    long[] data = new long[ROW_NUM];
+    long time = 0;
+    for (int i = 0; i < ROW_NUM; i++) {
+      time += random.nextInt(5) == 0 ? 20 : 10;
+      data[i] = time;
+    }
+    ByteBuffer buffer = ByteBuffer.wrap(encode(data));
+    IntervalDecoder decoder = new IntervalDecoder();
+    int index = 0;
+    for (long target = 5; target < time; target += 997) {
+      int skipped = decoder.skipTo(buffer, target);
+      int expected = index;
+      while (data[expected] < target) {
+        expected++;
+      }
+      assertEquals(expected - index, skipped);
+      assertEquals(data[expected], decoder.readLong(buffer));
+      index = expected + 1;
+    }
+  }
+
+  private byte[] encode(long[] data) throws IOException {
+    IntervalEncoder encoder = new IntervalEncoder();
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    for (long value : data) {
+      encoder.encode(value, out);
+    }
+    encoder.flush(out);
+    return out.toByteArray();
+  }
+
+  private void shouldReadAndWrite(long[] data, byte[] encoded) {
+    IntervalDecoder decoder = new IntervalDecoder();
+    ByteBuffer buffer = ByteBuffer.wrap(encoded);
+    for (long value : data) {
+      assertTrue(decoder.hasNext(buffer));
+      assertEquals(value, decoder.readLong(buffer));
+    }
+    assertFalse(decoder.hasNext(buffer));
+
+    decoder.reset();
+    buffer = ByteBuffer.wrap(encoded);
+    long[] decoded = new long[data.length];
+    // read in batches smaller than a block
+    int read = 0;
+    while (read < data.length) {
+      read += decoder.readLongs(buffer, decoded, read, Math.min(333, data.length - read));
+    }
+    assertArrayEquals(data, decoded);
+    assertEquals(0, decoder.readLongs(buffer, decoded, 0, 1));
+  }
+}
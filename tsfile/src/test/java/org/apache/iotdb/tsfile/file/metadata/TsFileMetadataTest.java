@@ -21,18 +21,26 @@ package org.apache.iotdb.tsfile.file.metadata;
 import org.apache.iotdb.tsfile.constant.TestConstant;
 import org.apache.iotdb.tsfile.file.metadata.utils.TestHelper;
 import org.apache.iotdb.tsfile.file.metadata.utils.Utils;
+import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.utils.BlockedBloomFilter;
+import org.apache.iotdb.tsfile.utils.BloomFilter;
+import org.apache.iotdb.tsfile.utils.IBloomFilter;
+import org.apache.iotdb.tsfile.utils.ReadWriteForEncodingUtils;
 
 import org.junit.After;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
+import java.util.HashSet;
+import java.util.Set;
 
 public class TsFileMetadataTest {
 
@@ -57,6 +65,44 @@ public class TsFileMetadataTest {
     Assert.assertTrue(Utils.isFileMetaDataEqual(tsfMetaData, readMetaData));
   }
 
+  @Test
+  public void testBloomFilter() throws IOException {
+    TsFileMetadata tsfMetaData = TestHelper.createSimpleFileMetaData();
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    tsfMetaData.serializeTo(out);
+    Set<Path> paths = new HashSet<>();
+    paths.add(new Path("root.sg.d1", "s1"));
+    paths.add(new Path("root.sg.d2", "s1"));
+    tsfMetaData.serializeBloomFilter(out, paths);
+
+    IBloomFilter filter =
+        TsFileMetadata.deserializeFrom(ByteBuffer.wrap(out.toByteArray())).getBloomFilter();
+    Assert.assertTrue(filter instanceof BlockedBloomFilter);
+    Assert.assertTrue(filter.contains("root.sg.d1.s1"));
+    Assert.assertTrue(filter.contains("root.sg.d2.s1"));
+    Assert.assertTrue(filter.containsDevice("root.sg.d1"));
+    Assert.assertTrue(filter.containsDevice("root.sg.d2"));
+  }
+
+  @Test
+  public void testLegacyBloomFilter() throws IOException {
+    TsFileMetadata tsfMetaData = TestHelper.createSimpleFileMetaData();
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    tsfMetaData.serializeTo(out);
+    BloomFilter legacy = BloomFilter.getEmptyBloomFilter(0.05, 1);
+    legacy.add("root.sg.d1.s1");
+    byte[] bytes = legacy.serialize();
+    ReadWriteForEncodingUtils.writeUnsignedVarInt(bytes.length, out);
+    out.write(bytes);
+    ReadWriteForEncodingUtils.writeUnsignedVarInt(legacy.getSize(), out);
+    ReadWriteForEncodingUtils.writeUnsignedVarInt(legacy.getHashFunctionSize(), out);
+
+    IBloomFilter filter =
+        TsFileMetadata.deserializeFrom(ByteBuffer.wrap(out.toByteArray())).getBloomFilter();
+    Assert.assertEquals(legacy, filter);
+    Assert.assertTrue(filter.containsDevice("root.sg.d2"));
+  }
+
   private TsFileMetadata deSerialized() {
     FileInputStream fileInputStream = null;
     TsFileMetadata metaData = null;
@@ -18,23 +18,34 @@
  */
 package org.apache.iotdb.tsfile.read.reader;
 
+import org.apache.iotdb.tsfile.common.conf.TSFileConfig;
+import org.apache.iotdb.tsfile.common.conf.TSFileDescriptor;
 import org.apache.iotdb.tsfile.encoding.decoder.Decoder;
 import org.apache.iotdb.tsfile.encoding.decoder.DeltaBinaryDecoder;
 import org.apache.iotdb.tsfile.encoding.decoder.DoublePrecisionDecoderV1;
+import org.apache.iotdb.tsfile.encoding.decoder.DoublePrecisionDecoderV2;
 import org.apache.iotdb.tsfile.encoding.decoder.IntRleDecoder;
+import org.apache.iotdb.tsfile.encoding.decoder.IntervalDecoder;
 import org.apache.iotdb.tsfile.encoding.decoder.LongRleDecoder;
 import org.apache.iotdb.tsfile.encoding.decoder.PlainDecoder;
 import org.apache.iotdb.tsfile.encoding.decoder.SinglePrecisionDecoderV1;
 import org.apache.iotdb.tsfile.encoding.encoder.DeltaBinaryEncoder;
 import org.apache.iotdb.tsfile.encoding.encoder.DoublePrecisionEncoderV1;
+import org.apache.iotdb.tsfile.encoding.encoder.DoublePrecisionEncoderV2;
 import org.apache.iotdb.tsfile.encoding.encoder.Encoder;
 import org.apache.iotdb.tsfile.encoding.encoder.IntRleEncoder;
+import org.apache.iotdb.tsfile.encoding.encoder.IntervalEncoder;
 import org.apache.iotdb.tsfile.encoding.encoder.LongRleEncoder;
 import org.apache.iotdb.tsfile.encoding.encoder.PlainEncoder;
 import org.apache.iotdb.tsfile.encoding.encoder.SinglePrecisionEncoderV1;
+import org.apache.iotdb.tsfile.file.header.PageHeader;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.read.common.BatchData;
 import org.apache.iotdb.tsfile.read.common.TimeRange;
+import org.apache.iotdb.tsfile.read.common.block.TsBlock;
+import org.apache.iotdb.tsfile.read.filter.TimeFilter;
+import org.apache.iotdb.tsfile.read.filter.ValueFilter;
+import org.apache.iotdb.tsfile.read.filter.factory.FilterFactory;
 import org.apache.iotdb.tsfile.read.reader.page.PageReader;
 import org.apache.iotdb.tsfile.utils.Binary;
 import org.apache.iotdb.tsfile.write.page.PageWriter;
@@ -51,6 +62,122 @@ public class PageReaderTest {
 
   private static final int POINTS_COUNT_IN_ONE_PAGE = 1000000;
 
+  @Test
+  public void testMiniBlocks() throws IOException {
+    TSFileConfig config = TSFileDescriptor.getInstance().getConfig();
+    int miniBlockSize = config.getPageMiniBlockSize();
+    config.setPageMiniBlockSize(128);
+    try {
+      PageWriter pageWriter = new PageWriter();
+      pageWriter.setTimeEncoder(new DeltaBinaryEncoder.LongDeltaEncoder());
+      pageWriter.setValueEncoder(new DoublePrecisionEncoderV2());
+      pageWriter.initStatistics(TSDataType.DOUBLE);
+      for (int i = 0; i < 1000; i++) {
+        pageWriter.write(i, generateMiniBlockValue(i));
+      }
+      PageHeader pageHeader = new PageHeader(0, 0, pageWriter.getStatistics());
+      ByteBuffer page = pageWriter.getUncompressedBytes();
+
+      // only the mini-blocks around the peak of the sine wave can satisfy the filter
+      PageReader pageReader =
+          new PageReader(
+              pageHeader,
+              page.duplicate(),
+              TSDataType.DOUBLE,
+              new DoublePrecisionDecoderV2(),
+              new DeltaBinaryDecoder.LongDeltaDecoder(),
+              ValueFilter.gt(90.0));
+      Assert.assertTrue(pageReader.hasMiniBlocks());
+      BatchData data = pageReader.getAllSatisfiedPageData();
+      for (int i = 0; i < 1000; i++) {
+        if (generateMiniBlockValue(i) > 90.0) {
+          Assert.assertTrue(data.hasCurrent());
+          Assert.assertEquals(i, data.currentTime());
+          Assert.assertEquals(generateMiniBlockValue(i), data.getDouble(), 0);
+          data.next();
+        }
+      }
+      Assert.assertFalse(data.hasCurrent());
+
+      pageReader =
+          new PageReader(
+              pageHeader,
+              page.duplicate(),
+              TSDataType.DOUBLE,
+              new DoublePrecisionDecoderV2(),
+              new DeltaBinaryDecoder.LongDeltaDecoder(),
+              TimeFilter.gtEq(500L));
+      TsBlock tsBlock = pageReader.getAllSatisfiedData(true);
+      Assert.assertEquals(500, tsBlock.getPositionCount());
+      for (int i = 0; i < 500; i++) {
+        Assert.assertEquals(i + 500, tsBlock.getTimeByIndex(i));
+        Assert.assertEquals(generateMiniBlockValue(i + 500), tsBlock.getColumn(0).getDouble(i), 0);
+      }
+    } finally {
+      config.setPageMiniBlockSize(miniBlockSize);
+    }
+  }
+
+  private double generateMiniBlockValue(int i) {
+    return Math.sin(i / 100.0) * 100;
+  }
+
+  @Test
+  public void testIntervalTimeSkip() throws IOException {
+    PageWriter pageWriter = new PageWriter();
+    pageWriter.setTimeEncoder(new IntervalEncoder());
+    pageWriter.setValueEncoder(new IntRleEncoder());
+    pageWriter.initStatistics(TSDataType.INT32);
+    List<Long> times = new ArrayList<>();
+    for (int i = 0; i < 1000; i++) {
+      // every seventh point is missing
+      if (i % 7 != 3) {
+        pageWriter.write(i * 10L, i);
+        times.add(i * 10L);
+      }
+    }
+    PageHeader pageHeader = new PageHeader(0, 0, pageWriter.getStatistics());
+    ByteBuffer page = pageWriter.getUncompressedBytes();
+
+    PageReader pageReader =
+        new PageReader(
+            pageHeader,
+            page.duplicate(),
+            TSDataType.INT32,
+            new IntRleDecoder(),
+            new IntervalDecoder(),
+            FilterFactory.and(TimeFilter.gt(5000L), ValueFilter.ltEq(800)));
+    BatchData data = pageReader.getAllSatisfiedPageData();
+    for (long time : times) {
+      if (time > 5000 && time <= 8000) {
+        Assert.assertTrue(data.hasCurrent());
+        Assert.assertEquals(time, data.currentTime());
+        Assert.assertEquals(time / 10, data.getInt());
+        data.next();
+      }
+    }
+    Assert.assertFalse(data.hasCurrent());
+
+    pageReader =
+        new PageReader(
+            pageHeader,
+            page.duplicate(),
+            TSDataType.INT32,
+            new IntRleDecoder(),
+            new IntervalDecoder(),
+            FilterFactory.or(TimeFilter.gtEq(9000L), TimeFilter.eq(6030L)));
+    TsBlock tsBlock = pageReader.getAllSatisfiedData(true);
+    int index = 0;
+    for (long time : times) {
+      if (time >= 9000 || time == 6030) {
+        Assert.assertEquals(time, tsBlock.getTimeByIndex(index));
+        Assert.assertEquals(time / 10, tsBlock.getColumn(0).getInt(index));
+        index++;
+      }
+    }
+    Assert.assertEquals(index, tsBlock.getPositionCount());
+  }
+
   @Test
   public void testLong() {
 
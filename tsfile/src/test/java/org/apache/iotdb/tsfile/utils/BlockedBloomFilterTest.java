@@ -0,0 +1,90 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.utils;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class BlockedBloomFilterTest {
+
+  private static final int DEVICE_NUM = 100;
+  private static final int SENSOR_NUM = 100;
+
+  @Test
+  public void testContains() {
+    BlockedBloomFilter filter = createFilter(true);
+    for (int i = 0; i < DEVICE_NUM; i++) {
+      assertTrue(filter.containsDevice("root.sg.d" + i));
+      for (int j = 0; j < SENSOR_NUM; j++) {
+        assertTrue(filter.contains("root.sg.d" + i + ".s" + j));
+      }
+    }
+    assertFalse(filter.contains(null));
+  }
+
+  @Test
+  public void testErrorRate() {
+    BlockedBloomFilter filter = createFilter(true);
+    int falsePositive = 0;
+    int falseDevice = 0;
+    for (int i = DEVICE_NUM; i < DEVICE_NUM * 2; i++) {
+      falseDevice += filter.containsDevice("root.sg.d" + i) ? 1 : 0;
+      for (int j = 0; j < SENSOR_NUM; j++) {
+        falsePositive += filter.contains("root.sg.d" + i + ".s" + j) ? 1 : 0;
+      }
+    }
+    // the configured error rate is 0.05, leave some room for the randomness
+    assertTrue(falsePositive < DEVICE_NUM * SENSOR_NUM * 0.08);
+    assertTrue(falseDevice < DEVICE_NUM * 0.15);
+  }
+
+  @Test
+  public void testWithoutDevices() {
+    BlockedBloomFilter filter = createFilter(false);
+    assertTrue(filter.containsDevice("root.sg.d" + DEVICE_NUM));
+    assertTrue(filter.contains("root.sg.d0.s0"));
+  }
+
+  @Test
+  public void testSerialize() {
+    BlockedBloomFilter filter = createFilter(true);
+    BlockedBloomFilter filter1 = BlockedBloomFilter.deserialize(filter.serialize());
+    assertEquals(filter, filter1);
+    assertTrue(filter1.isWithDevices());
+    assertEquals(filter.getSize(), filter1.getSize());
+    assertTrue(filter1.contains("root.sg.d0.s0"));
+    assertTrue(filter1.containsDevice("root.sg.d0"));
+  }
+
+  private BlockedBloomFilter createFilter(boolean withDevices) {
+    BlockedBloomFilter filter =
+        BlockedBloomFilter.getEmptyBloomFilter(
+            0.05, DEVICE_NUM * SENSOR_NUM + DEVICE_NUM, withDevices);
+    for (int i = 0; i < DEVICE_NUM; i++) {
+      filter.addDevice("root.sg.d" + i);
+      for (int j = 0; j < SENSOR_NUM; j++) {
+        filter.add("root.sg.d" + i + ".s" + j);
+      }
+    }
+    return filter;
+  }
+}
@@ -24,8 +24,10 @@ import org.apache.iotdb.tsfile.constant.TestConstant;
 import org.apache.iotdb.tsfile.file.MetaMarker;
 import org.apache.iotdb.tsfile.file.header.ChunkGroupHeader;
 import org.apache.iotdb.tsfile.file.header.ChunkHeader;
+import org.apache.iotdb.tsfile.file.metadata.ChunkMetadata;
 import org.apache.iotdb.tsfile.file.metadata.TimeseriesMetadata;
 import org.apache.iotdb.tsfile.file.metadata.TsFileMetadata;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
 import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
@@ -45,6 +47,7 @@ import org.junit.Test;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
@@ -163,6 +166,69 @@ public class TsFileIOWriterTest {
     Assert.assertEquals(2, metaData.getMetadataIndex().getChildren().size());
   }
 
+  @Test
+  public void spillChunkMetadataTest() throws IOException {
+    File inMemoryFile = new File(TestConstant.BASE_OUTPUT_PATH.concat("TsFileIOWriterMem.tsfile"));
+    File spilledFile = new File(TestConstant.BASE_OUTPUT_PATH.concat("TsFileIOWriterSpill.tsfile"));
+    try {
+      writeInterleavedChunkGroups(new TsFileIOWriter(inMemoryFile), 0);
+      writeInterleavedChunkGroups(new TsFileIOWriter(spilledFile), 7);
+      Assert.assertFalse(new File(spilledFile.getPath() + ".meta").exists());
+      // spilling must not change the layout of the metadata
+      Assert.assertArrayEquals(
+          Files.readAllBytes(inMemoryFile.toPath()), Files.readAllBytes(spilledFile.toPath()));
+
+      try (TsFileSequenceReader reader = new TsFileSequenceReader(spilledFile.getPath())) {
+        Map<String, List<TimeseriesMetadata>> deviceTimeseriesMetadataMap =
+            reader.getAllTimeseriesMetadata();
+        Assert.assertEquals(20, deviceTimeseriesMetadataMap.size());
+        for (Map.Entry<String, List<TimeseriesMetadata>> entry :
+            deviceTimeseriesMetadataMap.entrySet()) {
+          Assert.assertEquals(3, entry.getValue().size());
+          for (TimeseriesMetadata timeseriesMetadata : entry.getValue()) {
+            List<ChunkMetadata> chunkMetadataList =
+                reader.getChunkMetadataList(
+                    new Path(entry.getKey(), timeseriesMetadata.getMeasurementId()));
+            Assert.assertEquals(5, chunkMetadataList.size());
+            for (int i = 0; i < chunkMetadataList.size(); i++) {
+              Assert.assertEquals(i, chunkMetadataList.get(i).getStartTime());
+            }
+          }
+        }
+      }
+    } finally {
+      Files.deleteIfExists(inMemoryFile.toPath());
+      Files.deleteIfExists(spilledFile.toPath());
+    }
+  }
+
+  private void writeInterleavedChunkGroups(TsFileIOWriter writer, int spillThreshold)
+      throws IOException {
+    writer.setChunkMetadataSpillThreshold(spillThreshold);
+    // every device is written in several rounds, so a series spans several spilled runs
+    for (int round = 0; round < 5; round++) {
+      for (int device = 0; device < 20; device++) {
+        writer.startChunkGroup("root.sg.d" + device);
+        for (int measurement = 2; measurement >= 0; measurement--) {
+          Statistics statistics = Statistics.getStatsByType(TSDataType.INT64);
+          statistics.update(round, (long) device);
+          writer.startFlushChunk(
+              "s" + measurement,
+              CompressionType.UNCOMPRESSED,
+              TSDataType.INT64,
+              TSEncoding.PLAIN,
+              statistics,
+              0,
+              0,
+              0);
+          writer.endCurrentChunk();
+        }
+        writer.endChunkGroup();
+      }
+    }
+    writer.endFile();
+  }
+
   private void writeChunkGroup(TsFileIOWriter writer, MeasurementSchema measurementSchema)
       throws IOException {
     for (int i = 0; i < CHUNK_GROUP_NUM; i++) {
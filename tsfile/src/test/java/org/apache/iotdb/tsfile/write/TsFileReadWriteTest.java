@@ -202,6 +202,16 @@ public class TsFileReadWriteTest {
     TSFileDescriptor.getInstance().getConfig().setTimeEncoder("TS_2DIFF");
   }
 
+  @Test
+  public void readMeasurementWithIntervalTimeEncodingTest()
+      throws IOException, WriteProcessException {
+    TSFileDescriptor.getInstance().getConfig().setTimeEncoder("INTERVAL");
+    writeDataByTSRecord(
+        TSDataType.INT64, (i) -> new LongDataPoint("sensor_1", i), TSEncoding.TS_2DIFF);
+    readData((i, field, delta) -> assertEquals(i, field.getLongV()));
+    TSFileDescriptor.getInstance().getConfig().setTimeEncoder("TS_2DIFF");
+  }
+
   private void writeDataByTSRecord(
       TSDataType dataType, DataPointProxy proxy, TSEncoding encodingType)
       throws IOException, WriteProcessException {
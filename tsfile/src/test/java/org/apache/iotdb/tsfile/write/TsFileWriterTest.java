@@ -285,6 +285,75 @@ public class TsFileWriterTest {
     readOneRow(0);
   }
 
+  @Test
+  public void writeTabletInStreamingMode() throws IOException, WriteProcessException {
+    int deviceNum = 50;
+    int rowNum = 1000;
+    int rowNumInTablet = 100;
+    writer.setMemoryBudget(16 * 1024);
+    for (int i = 0; i < deviceNum; i++) {
+      writer.registerTimeseries(
+          new Path("ds" + i), new MeasurementSchema("s1", TSDataType.INT64, TSEncoding.PLAIN));
+    }
+    Tablet tablet =
+        new Tablet(
+            "ds0",
+            Arrays.asList(new MeasurementSchema("s1", TSDataType.INT64, TSEncoding.PLAIN)),
+            rowNumInTablet);
+    for (int start = 0; start < rowNum; start += rowNumInTablet) {
+      for (int i = 0; i < deviceNum; i++) {
+        tablet.deviceId = "ds" + i;
+        for (int row = 0; row < rowNumInTablet; row++) {
+          tablet.timestamps[row] = start + row;
+          ((long[]) tablet.values[0])[row] = (start + row) * 10L + i;
+        }
+        tablet.rowSize = rowNumInTablet;
+        writer.write(tablet);
+      }
+    }
+    // the largest chunk groups have been flushed before closing the file
+    assertTrue(writer.getIOWriter().getPos() > 16 * 1024);
+    closeFile();
+
+    try (TsFileReader tsFileReader = new TsFileReader(new TsFileSequenceReader(fileName))) {
+      for (int i = 0; i < deviceNum; i++) {
+        QueryDataSet dataSet =
+            tsFileReader.query(
+                QueryExpression.create().addSelectedPath(new Path("ds" + i, "s1")));
+        int count = 0;
+        while (dataSet.hasNext()) {
+          RowRecord result = dataSet.next();
+          assertEquals(count, result.getTimestamp());
+          assertEquals(count * 10L + i, result.getFields().get(0).getLongV());
+          count++;
+        }
+        assertEquals(rowNum, count);
+      }
+    }
+  }
+
+  @Test
+  public void writeOutOfOrderTablet() throws IOException, WriteProcessException {
+    Tablet tablet =
+        new Tablet(
+            "d1",
+            Arrays.asList(
+                new MeasurementSchema(
+                    "s1", TSDataType.FLOAT, TSEncoding.RLE, CompressionType.SNAPPY)));
+    tablet.timestamps[0] = 10000;
+    tablet.timestamps[1] = 9999;
+    tablet.rowSize = 2;
+    try {
+      writer.write(tablet);
+      fail("should throw exception");
+    } catch (WriteProcessException e) {
+      assertEquals(
+          "Not allowed to write out-of-order data in timeseries d1.s1, "
+              + "time should later than 10000",
+          e.getMessage());
+    }
+  }
+
   @Test
   public void getIOWriter() {
     // The interface is just for test
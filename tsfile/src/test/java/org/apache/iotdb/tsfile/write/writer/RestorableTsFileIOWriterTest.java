@@ -101,6 +101,26 @@ public class RestorableTsFileIOWriterTest {
     rWriter.close();
   }
 
+  @Test
+  public void testStaleSpillFile() throws Exception {
+    TsFileWriter writer = new TsFileWriter(file);
+    writer.getIOWriter().close();
+    File spillFile = ChunkMetadataSpillFile.getSpillFile(file);
+    Assert.assertTrue(spillFile.createNewFile());
+
+    RestorableTsFileIOWriter rWriter = new RestorableTsFileIOWriter(file);
+    assertFalse(spillFile.exists());
+    // spilling is never enabled for an unsealed file
+    rWriter.setChunkMetadataSpillThreshold(1);
+    writer = new TsFileWriter(rWriter);
+    writer.registerTimeseries(
+        new Path("d1"), new MeasurementSchema("s1", TSDataType.FLOAT, TSEncoding.RLE));
+    writer.write(new TSRecord(1, "d1").addTuple(new FloatDataPoint("s1", 5)));
+    writer.flushAllChunkGroups();
+    assertFalse(spillFile.exists());
+    writer.close();
+  }
+
   @Test
   public void testOnlyFirstMask() throws Exception {
     TsFileWriter writer = new TsFileWriter(file);